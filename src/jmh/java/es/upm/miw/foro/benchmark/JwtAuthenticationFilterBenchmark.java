@@ -0,0 +1,96 @@
+package es.upm.miw.foro.benchmark;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import es.upm.miw.foro.config.JwtAuthenticationFilter;
+import es.upm.miw.foro.persistence.model.Role;
+import es.upm.miw.foro.persistence.repository.UserRepository;
+import es.upm.miw.foro.service.impl.JwtServiceImpl;
+import es.upm.miw.foro.service.principal.PrincipalCache;
+import es.upm.miw.foro.service.principal.UserPrincipal;
+import es.upm.miw.foro.service.principal.VerifiedTokenCache;
+import es.upm.miw.foro.util.MessageUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Authentication of a request carrying a valid bearer token. {@code perRequestDecoding} is the baseline: it
+ * replays what the filter used to do, building a new verifier and verifying the token three times per request
+ * (once to authenticate, once for the email and once for the role), with no verifier reuse or token cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "benchmark-secret";
+    private static final String ISSUER = "benchmark";
+    private static final int EXPIRE = 3600;
+
+    private JwtServiceImpl jwtService;
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private FilterChain chain;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtServiceImpl(SECRET, ISSUER, EXPIRE,
+                new VerifiedTokenCache(10_000, new SimpleMeterRegistry()));
+        UserPrincipal user = new UserPrincipal(1L, "benchmark@upm.es", "benchmark", "Bench", "Mark", Role.MEMBER);
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findById(user.id())).thenReturn(Optional.of(user.toUser()));
+        filter = new JwtAuthenticationFilter(jwtService, new PrincipalCache(userRepository, Duration.ofSeconds(30)));
+        authorization = "Bearer " + jwtService.createToken(user.id(), user.firstName(), user.lastName(),
+                user.userName(), user.email(), user.role().name());
+        request = new MockHttpServletRequest("POST", "/questions");
+        request.setServletPath("/questions");
+        request.addHeader(MessageUtil.AUTHORIZATION, authorization);
+        response = new MockHttpServletResponse();
+        chain = (servletRequest, servletResponse) -> { };
+    }
+
+    @Benchmark
+    public Object filter() throws ServletException, IOException {
+        filter.doFilter(request, response, chain);
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    @Benchmark
+    public void perRequestDecoding(Blackhole blackhole) {
+        String token = jwtService.extractToken(authorization);
+        blackhole.consume(JWT.require(Algorithm.HMAC256(SECRET)).withIssuer(ISSUER).build().verify(token));
+        String email = JWT.require(Algorithm.HMAC256(SECRET)).withIssuer(ISSUER).build().verify(token)
+                .getClaim(MessageUtil.EMAIL_CLAIM).asString();
+        String role = JWT.require(Algorithm.HMAC256(SECRET)).withIssuer(ISSUER).build().verify(token)
+                .getClaim(MessageUtil.ROLE_CLAIM).asString();
+        UserDetails userDetails = User.builder()
+                .username(email)
+                .password("")
+                .roles(role)
+                .build();
+        blackhole.consume(userDetails);
+    }
+}
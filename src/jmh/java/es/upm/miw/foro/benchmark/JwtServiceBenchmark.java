@@ -0,0 +1,54 @@
+package es.upm.miw.foro.benchmark;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import es.upm.miw.foro.persistence.model.Role;
+import es.upm.miw.foro.service.impl.JwtServiceImpl;
+import es.upm.miw.foro.service.principal.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token signing and verification. {@code verify} sees a token for the first time, as with a cache of size zero;
+ * {@code verifyCached} repeats a token, which is what a client does between logins.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final int EXPIRE = 3600;
+
+    private JwtServiceImpl jwtService;
+    private JwtServiceImpl uncachedJwtService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtServiceImpl("benchmark-secret", "benchmark", EXPIRE,
+                new VerifiedTokenCache(10_000, new SimpleMeterRegistry()));
+        uncachedJwtService = new JwtServiceImpl("benchmark-secret", "benchmark", EXPIRE,
+                new VerifiedTokenCache(0, new SimpleMeterRegistry()));
+        token = createToken();
+    }
+
+    @Benchmark
+    public String createToken() {
+        return jwtService.createToken(1L, "Bench", "Mark", "benchmark", "benchmark@upm.es", Role.MEMBER.name());
+    }
+
+    @Benchmark
+    public Optional<DecodedJWT> verify() {
+        return uncachedJwtService.verify(token);
+    }
+
+    @Benchmark
+    public Optional<DecodedJWT> verifyCached() {
+        return jwtService.verify(token);
+    }
+}
@@ -0,0 +1,91 @@
+package es.upm.miw.foro.benchmark;
+
+import es.upm.miw.foro.api.converter.AnswerMapper;
+import es.upm.miw.foro.api.converter.NotificationMapper;
+import es.upm.miw.foro.api.converter.QuestionMapper;
+import es.upm.miw.foro.api.dto.AnswerDto;
+import es.upm.miw.foro.api.dto.NotificationDto;
+import es.upm.miw.foro.api.dto.QuestionDto;
+import es.upm.miw.foro.persistence.model.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO conversion of a question with {@code size} answers, and of answer and notification lists of the
+ * same size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private static final LocalDateTime CREATION_DATE = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    @Param({"10", "1000"})
+    private int size;
+
+    private Question question;
+    private List<Notification> notifications;
+
+    @Setup
+    public void setUp() {
+        User author = new User();
+        author.setId(1L);
+        author.setUserName("author");
+
+        question = new Question();
+        question.setId(1L);
+        question.setAuthor(author);
+        question.setTitle("How are answers mapped?");
+        question.setDescription("A question with many answers");
+        question.setCreationDate(CREATION_DATE);
+        Set<Tag> tags = new HashSet<>();
+        for (long id = 1; id <= 5; id++) {
+            tags.add(new Tag(id, "tag-" + id, new ArrayList<>()));
+        }
+        question.setTags(tags);
+
+        notifications = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            Answer answer = new Answer();
+            answer.setId(id);
+            answer.setAuthor(author);
+            answer.setContent("Answer number " + id);
+            answer.setCreationDate(CREATION_DATE);
+            question.addAnswer(answer);
+
+            Notification notification = new Notification();
+            notification.setId(id);
+            notification.setUser(author);
+            notification.setQuestion(question);
+            notification.setAnswer(answer);
+            notification.setType(NotificationType.QUESTION_REPLIED);
+            notification.setCreationDate(CREATION_DATE);
+            notifications.add(notification);
+        }
+    }
+
+    @Benchmark
+    public QuestionDto questionToDto() {
+        return QuestionMapper.toQuestionDto(question);
+    }
+
+    @Benchmark
+    public List<AnswerDto> answersToDtoList() {
+        return AnswerMapper.toDtoList(question.getAnswers());
+    }
+
+    @Benchmark
+    public List<NotificationDto> notificationsToDtoList() {
+        return NotificationMapper.toDtoList(notifications);
+    }
+}
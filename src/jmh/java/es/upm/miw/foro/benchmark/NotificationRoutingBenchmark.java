@@ -0,0 +1,116 @@
+package es.upm.miw.foro.benchmark;
+
+import es.upm.miw.foro.service.principal.WebSocketPrincipal;
+import es.upm.miw.foro.util.ApiPath;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.broker.DefaultSubscriptionRegistry;
+import org.springframework.messaging.simp.user.DefaultUserDestinationResolver;
+import org.springframework.messaging.simp.user.UserDestinationResult;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.messaging.DefaultSimpUserRegistry;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.security.Principal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finding the subscriptions that receive a notification with {@code sessions} connected users, one session
+ * each. {@code broadcastTopic} is the former routing: every user subscribed to their own topic and the broker
+ * matched each send against all subscriptions once its destination fell out of the default-sized cache.
+ * {@code userDestination} resolves the user destination through the user registry and looks up the session's
+ * queue in a destination cache sized for every session, as {@code miw.websocket.destination-cache-limit} does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotificationRoutingBenchmark {
+
+    private static final String SUBSCRIPTION_ID = "sub-0";
+
+    @Param({"50000"})
+    private int sessions;
+
+    private DefaultSubscriptionRegistry topicSubscriptions;
+    private DefaultSubscriptionRegistry queueSubscriptions;
+    private DefaultUserDestinationResolver userDestinationResolver;
+    private Message<?>[] topicMessages;
+    private Message<?>[] userMessages;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        topicSubscriptions = new DefaultSubscriptionRegistry();
+        queueSubscriptions = new DefaultSubscriptionRegistry();
+        queueSubscriptions.setCacheLimit(sessions);
+        DefaultSimpUserRegistry userRegistry = new DefaultSimpUserRegistry();
+        userDestinationResolver = new DefaultUserDestinationResolver(userRegistry);
+        topicMessages = new Message<?>[sessions];
+        userMessages = new Message<?>[sessions];
+        for (int index = 0; index < sessions; index++) {
+            long userId = index + 1L;
+            String sessionId = "session-" + userId;
+            Principal user = new WebSocketPrincipal(userId, "user" + userId + "@upm.es");
+            topicSubscriptions.registerSubscription(
+                    message(SimpMessageType.SUBSCRIBE, sessionId, ApiPath.TOPIC_NOTIFICATIONS + userId, null));
+            userRegistry.onApplicationEvent(new SessionConnectedEvent(this,
+                    message(SimpMessageType.CONNECT_ACK, sessionId, null, user), user));
+            userRegistry.onApplicationEvent(new SessionSubscribeEvent(this,
+                    message(SimpMessageType.SUBSCRIBE, sessionId, ApiPath.USER_QUEUE_NOTIFICATIONS, user), user));
+            queueSubscriptions.registerSubscription(message(SimpMessageType.SUBSCRIBE, sessionId,
+                    ApiPath.QUEUE_NOTIFICATIONS + "-user" + sessionId, user));
+            topicMessages[index] = message(SimpMessageType.MESSAGE, null, ApiPath.TOPIC_NOTIFICATIONS + userId, null);
+            userMessages[index] = message(SimpMessageType.MESSAGE, null,
+                    "/user/" + userId + ApiPath.QUEUE_NOTIFICATIONS, null);
+        }
+        for (Message<?> message : userMessages) {
+            userDestination(message, null);
+        }
+    }
+
+    @Benchmark
+    public Object broadcastTopic() {
+        return topicSubscriptions.findSubscriptions(topicMessages[nextIndex()]);
+    }
+
+    @Benchmark
+    public void userDestination(Blackhole blackhole) {
+        userDestination(userMessages[nextIndex()], blackhole);
+    }
+
+    private void userDestination(Message<?> message, Blackhole blackhole) {
+        UserDestinationResult result = userDestinationResolver.resolveDestination(message);
+        if (result == null) {
+            throw new IllegalStateException("User destination not resolved");
+        }
+        for (String target : result.getTargetDestinations()) {
+            Object subscriptions = queueSubscriptions.findSubscriptions(
+                    message(SimpMessageType.MESSAGE, null, target, null));
+            if (blackhole != null) {
+                blackhole.consume(subscriptions);
+            }
+        }
+    }
+
+    private int nextIndex() {
+        next = next + 1 == sessions ? 0 : next + 1;
+        return next;
+    }
+
+    private static Message<byte[]> message(SimpMessageType type, String sessionId, String destination,
+                                           Principal user) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(type);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(SUBSCRIPTION_ID);
+        accessor.setDestination(destination);
+        accessor.setUser(user);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
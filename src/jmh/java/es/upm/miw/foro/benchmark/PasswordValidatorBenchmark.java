@@ -0,0 +1,34 @@
+package es.upm.miw.foro.benchmark;
+
+import es.upm.miw.foro.api.dto.validation.PasswordValidator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password policy check on a valid password, a short one and a long one failing only at its last character,
+ * which is the worst case for the lookahead pattern.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PasswordValidatorBenchmark {
+
+    @Param({"Valid$Pass1", "short", "LongPasswordWithoutSymbol1234567890abcdefghijklmnopqrstuvwxyz#"})
+    private String password;
+
+    private PasswordValidator passwordValidator;
+
+    @Setup
+    public void setUp() {
+        passwordValidator = new PasswordValidator();
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        return passwordValidator.isValid(password, null);
+    }
+}
@@ -0,0 +1,62 @@
+package es.upm.miw.foro.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import es.upm.miw.foro.api.dto.QuestionDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.PagedModel;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON rendering of a page of question summaries as the list endpoints return it: through the {@link PagedModel}
+ * of the VIA_DTO page serialization, with the application's non-null inclusion.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuestionPageSerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private PagedModel<QuestionDto> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .build();
+        List<QuestionDto> questions = new ArrayList<>(pageSize);
+        for (long id = 1; id <= pageSize; id++) {
+            questions.add(QuestionDto.builder()
+                    .id(id)
+                    .title("Question number " + id)
+                    .author("author" + id)
+                    .creationDate(LocalDateTime.of(2025, 1, 1, 12, 0))
+                    .tags(Set.of("java", "spring", "jpa"))
+                    .answerCount((int) id % 7)
+                    .views((int) id * 3)
+                    .uniqueViews(id * 2)
+                    .build());
+        }
+        page = new PagedModel<>(new PageImpl<>(questions, PageRequest.of(0, pageSize), 10_000));
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
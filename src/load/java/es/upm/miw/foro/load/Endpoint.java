@@ -0,0 +1,45 @@
+package es.upm.miw.foro.load;
+
+/**
+ * Endpoints driven by the load test, with the controller serving them and their share of the mix.
+ */
+public enum Endpoint {
+
+    LIST_QUESTIONS("QuestionController", "GET", "/questions", 25),
+    SEARCH_QUESTIONS("QuestionController", "GET", "/questions/search", 8),
+    VIEW_QUESTION("QuestionController", "GET", "/questions/{id}", 20),
+    REGISTER_VIEW("QuestionController", "PATCH", "/questions/{id}/views", 10),
+    QUESTION_ANSWERS("AnswerController", "GET", "/answers?questionId", 6),
+    CREATE_ANSWER("AnswerController", "POST", "/answers?questionId", 5),
+    LIST_TAGS("TagController", "GET", "/tags", 4),
+    SEARCH_TAGS("TagController", "GET", "/tags/search", 6),
+    NOTIFICATIONS("NotificationController", "GET", "/notifications", 8),
+    UNREAD_COUNT("NotificationController", "GET", "/notifications/unread-count", 6),
+    MARK_NOTIFICATION_READ("NotificationController", "PATCH", "/notifications/{id}/read", 3),
+    LOGIN("UserController", "POST", "/users/login", 2),
+    GET_USER("UserController", "GET", "/users/{id}", 3);
+
+    private final String controller;
+    private final String method;
+    private final String path;
+    private final int weight;
+
+    Endpoint(String controller, String method, String path, int weight) {
+        this.controller = controller;
+        this.method = method;
+        this.path = path;
+        this.weight = weight;
+    }
+
+    public String controller() {
+        return controller;
+    }
+
+    public String label() {
+        return method + " " + path;
+    }
+
+    public int weight() {
+        return weight;
+    }
+}
@@ -0,0 +1,162 @@
+package es.upm.miw.foro.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import es.upm.miw.foro.persistence.model.User;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * One simulated user: logs in, then keeps picking an endpoint by its weight in the mix and calling it, one
+ * request at a time, recording the latency of each.
+ */
+public class ForumClient {
+
+    private static final int TOTAL_WEIGHT = Arrays.stream(Endpoint.values()).mapToInt(Endpoint::weight).sum();
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final User user;
+    private final SyntheticForum.Seeded forum;
+    private final Random random;
+    private final Deque<Long> unreadNotifications = new ArrayDeque<>();
+    private String token;
+
+    public ForumClient(HttpClient httpClient, ObjectMapper objectMapper, String baseUrl, User user,
+                       SyntheticForum.Seeded forum, long seed) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.user = user;
+        this.forum = forum;
+        this.random = new Random(seed);
+    }
+
+    public void run(long deadlineNanos, LatencyRecorder recorder) throws IOException, InterruptedException {
+        if (token == null) {
+            login();
+        }
+        while (System.nanoTime() < deadlineNanos) {
+            Endpoint endpoint = nextEndpoint();
+            long start = System.nanoTime();
+            boolean success = call(endpoint);
+            recorder.record(endpoint, System.nanoTime() - start, success);
+        }
+    }
+
+    private Endpoint nextEndpoint() {
+        int value = random.nextInt(TOTAL_WEIGHT);
+        for (Endpoint endpoint : Endpoint.values()) {
+            value -= endpoint.weight();
+            if (value < 0) {
+                return endpoint;
+            }
+        }
+        throw new IllegalStateException("Weights out of range");
+    }
+
+    private boolean call(Endpoint endpoint) throws IOException, InterruptedException {
+        long questionId = pick(forum.questionIds());
+        return switch (endpoint) {
+            case LIST_QUESTIONS -> ok(send(get("/questions?page=" + random.nextInt(20) + "&size=10", false)));
+            case SEARCH_QUESTIONS -> ok(send(get("/questions/search?query=" + encode(pick(forum.words()))
+                    + "&page=0&size=10", false)));
+            case VIEW_QUESTION -> ok(send(get("/questions/" + questionId, false)));
+            case REGISTER_VIEW -> ok(send(request("/questions/" + questionId + "/views")
+                    .method("PATCH", HttpRequest.BodyPublishers.noBody()).build()));
+            case QUESTION_ANSWERS -> ok(send(get("/answers?questionId=" + questionId, false)));
+            case CREATE_ANSWER -> ok(send(request("/answers?questionId=" + questionId)
+                    .header("Content-Type", "application/json")
+                    .POST(json(Map.of("content", "Load test answer about " + pick(forum.words())))).build()));
+            case LIST_TAGS -> ok(send(get("/tags", false)));
+            case SEARCH_TAGS -> ok(send(get("/tags/search?query=" + encode(tagPrefix()), false)));
+            case NOTIFICATIONS -> notifications();
+            case UNREAD_COUNT -> ok(send(get("/notifications/unread-count", true)));
+            case MARK_NOTIFICATION_READ -> markNotificationRead();
+            case LOGIN -> login();
+            case GET_USER -> ok(send(get("/users/" + user.getId(), true)));
+        };
+    }
+
+    private boolean notifications() throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = send(get("/notifications", true));
+        if (!ok(response)) {
+            return false;
+        }
+        unreadNotifications.clear();
+        for (JsonNode notification : objectMapper.readTree(response.body())) {
+            if (!notification.path("read").asBoolean()) {
+                unreadNotifications.add(notification.path("id").asLong());
+            }
+        }
+        return true;
+    }
+
+    private boolean markNotificationRead() throws IOException, InterruptedException {
+        Long id = unreadNotifications.poll();
+        if (id == null) {
+            return notifications();
+        }
+        return ok(send(request("/notifications/" + id + "/read")
+                .method("PATCH", HttpRequest.BodyPublishers.noBody()).build()));
+    }
+
+    private boolean login() throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = send(HttpRequest.newBuilder(URI.create(baseUrl + "/users/login"))
+                .header("Content-Type", "application/json")
+                .POST(json(Map.of("email", user.getEmail(), "password", SyntheticForum.PASSWORD)))
+                .build());
+        if (!ok(response)) {
+            return false;
+        }
+        token = objectMapper.readTree(response.body()).path("token").asText();
+        return true;
+    }
+
+    private String tagPrefix() {
+        String tag = pick(forum.tagNames());
+        return tag.substring(0, Math.min(tag.length(), 6 + random.nextInt(3)));
+    }
+
+    private HttpRequest get(String path, boolean authenticated) {
+        HttpRequest.Builder builder = authenticated ? request(path) : HttpRequest.newBuilder(URI.create(baseUrl + path));
+        return builder.GET().build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).header("Authorization", "Bearer " + token);
+    }
+
+    private HttpRequest.BodyPublisher json(Object body) throws IOException {
+        return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+    }
+
+    private HttpResponse<byte[]> send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static boolean ok(HttpResponse<?> response) {
+        return response.statusCode() / 100 == 2;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private <T> T pick(List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+}
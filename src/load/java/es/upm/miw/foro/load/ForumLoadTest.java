@@ -0,0 +1,143 @@
+package es.upm.miw.foro.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import es.upm.miw.foro.Application;
+import es.upm.miw.foro.service.tag.TagAutocomplete;
+import es.upm.miw.foro.service.tag.TagStatistics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Boots the application on a random port against an in-memory H2 database, seeds a synthetic forum and drives
+ * a weighted mix of the public API with {@code load.clients} concurrent users: a warmup phase first, then a
+ * measured phase reported per endpoint. Any {@code spring.*} or {@code miw.*} system property overrides the
+ * defaults below, for instance to point the run at a PostgreSQL database.
+ * <p>
+ * Questions are searched with the in-memory index, as the PostgreSQL full-text engine of production cannot run on
+ * H2; {@code -Dmiw.search.engine=like} measures the LIKE fallback instead, a table scan that alone keeps a CPU busy.
+ * <p>
+ * Clients run in the same process as the server. Beyond the point where the total throughput stops growing, more
+ * clients only make requests queue, so start from one client and add clients while the throughput still grows.
+ * Each mode of {@code load.threads} boots its own application, so platform and virtual threads can be compared on
+ * the same forum, for instance with fewer connections than clients:
+ * {@code -Dload.threads=platform,virtual -Dspring.datasource.hikari.maximum-pool-size=2 -Dload.clients=4}.
+ */
+@Slf4j
+public class ForumLoadTest {
+
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("server.port", "0");
+        DEFAULTS.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        DEFAULTS.put("spring.datasource.url", "jdbc:h2:mem:load-{threads};DB_CLOSE_DELAY=-1");
+        DEFAULTS.put("spring.datasource.username", "sa");
+        DEFAULTS.put("spring.datasource.password", "");
+        DEFAULTS.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        DEFAULTS.put("spring.sql.init.mode", "never");
+        DEFAULTS.put("spring.mail.host", "localhost");
+        DEFAULTS.put("spring.mail.username", "load-test");
+        DEFAULTS.put("spring.mail.password", "load-test");
+        DEFAULTS.put("miw.jwt.secret", "load-test-secret");
+        DEFAULTS.put("miw.search.engine", "memory");
+        DEFAULTS.put("logging.level.root", "WARN");
+        DEFAULTS.put("logging.level.es.upm.miw", "WARN");
+        DEFAULTS.put("spring.output.ansi.enabled", "NEVER");
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        List<LoadReport> reports = new ArrayList<>();
+        for (String threads : settings.threads()) {
+            reports.add(run(settings, threads));
+        }
+        if (reports.size() > 1) {
+            System.out.print(LoadReport.comparison(reports));
+        }
+    }
+
+    private static LoadReport run(LoadTestSettings settings, String threads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .run(arguments(threads))) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            SyntheticForum.Seeded forum = new SyntheticForum(context, settings).seed();
+            context.getBean(TagStatistics.class).refresh();
+            context.getBean(TagAutocomplete.class).refresh();
+
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+            int maximumPoolSize = context.getBean(DataSource.class).unwrap(HikariDataSource.class)
+                    .getMaximumPoolSize();
+            LoadReport report = drive(settings, threads, maximumPoolSize, forum, "http://localhost:" + port,
+                    objectMapper);
+            System.out.printf("%s threads, %d connections%n", threads, maximumPoolSize);
+            System.out.print(report.table());
+            report.write(settings.report(threads), objectMapper);
+            log.warn("Load test report written to {}", settings.report(threads).toAbsolutePath());
+            return report;
+        }
+    }
+
+    private static LoadReport drive(LoadTestSettings settings, String threads, int maximumPoolSize,
+                                    SyntheticForum.Seeded forum, String baseUrl, ObjectMapper objectMapper)
+            throws Exception {
+        try (HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+             ExecutorService executor = Executors.newFixedThreadPool(settings.clients())) {
+            List<ForumClient> clients = new ArrayList<>();
+            for (int i = 0; i < settings.clients(); i++) {
+                clients.add(new ForumClient(httpClient, objectMapper, baseUrl, forum.users().get(i % forum.users().size()),
+                        forum, settings.seed() + i));
+            }
+            phase(executor, clients, settings.warmup());
+            long start = System.nanoTime();
+            List<LatencyRecorder> recorders = phase(executor, clients, settings.duration());
+            Duration measured = Duration.ofNanos(System.nanoTime() - start);
+
+            LatencyRecorder total = new LatencyRecorder();
+            recorders.forEach(recorder -> recorder.mergeInto(total));
+            return LoadReport.of(settings, threads, maximumPoolSize, measured, total);
+        }
+    }
+
+    private static List<LatencyRecorder> phase(ExecutorService executor, List<ForumClient> clients, Duration duration)
+            throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<LatencyRecorder>> futures = new ArrayList<>();
+        for (ForumClient client : clients) {
+            futures.add(executor.submit(() -> {
+                LatencyRecorder recorder = new LatencyRecorder();
+                client.run(deadline, recorder);
+                return recorder;
+            }));
+        }
+        List<LatencyRecorder> recorders = new ArrayList<>();
+        for (Future<LatencyRecorder> future : futures) {
+            recorders.add(future.get());
+        }
+        return recorders;
+    }
+
+    private static String[] arguments(String threads) {
+        List<String> arguments = new ArrayList<>();
+        DEFAULTS.forEach((key, value) -> {
+            if (System.getProperty(key) == null) {
+                arguments.add("--" + key + "=" + value.replace("{threads}", threads));
+            }
+        });
+        arguments.add("--spring.threads.virtual.enabled=" + "virtual".equals(threads));
+        return arguments.toArray(String[]::new);
+    }
+}
@@ -0,0 +1,70 @@
+package es.upm.miw.foro.load;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Latencies of one client, kept apart so that clients never contend while recording and merged once the run
+ * is over.
+ */
+public class LatencyRecorder {
+
+    private final Map<Endpoint, Samples> samples = new EnumMap<>(Endpoint.class);
+
+    public void record(Endpoint endpoint, long nanos, boolean success) {
+        Samples endpointSamples = samples.computeIfAbsent(endpoint, key -> new Samples());
+        endpointSamples.add(nanos);
+        if (!success) {
+            endpointSamples.errors++;
+        }
+    }
+
+    public void mergeInto(LatencyRecorder total) {
+        samples.forEach((endpoint, endpointSamples) -> {
+            Samples merged = total.samples.computeIfAbsent(endpoint, key -> new Samples());
+            for (int i = 0; i < endpointSamples.size; i++) {
+                merged.add(endpointSamples.nanos[i]);
+            }
+            merged.errors += endpointSamples.errors;
+        });
+    }
+
+    public Map<Endpoint, Samples> samples() {
+        return samples;
+    }
+
+    public static final class Samples {
+
+        private long[] nanos = new long[1024];
+        private int size;
+        private long errors;
+
+        private void add(long value) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = value;
+        }
+
+        public int count() {
+            return size;
+        }
+
+        public long errors() {
+            return errors;
+        }
+
+        /**
+         * Nearest-rank percentile in milliseconds.
+         */
+        public double percentileMillis(double percentile) {
+            if (size == 0) {
+                return 0;
+            }
+            Arrays.sort(nanos, 0, size);
+            int rank = (int) Math.ceil(percentile / 100 * size);
+            return nanos[Math.max(rank, 1) - 1] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package es.upm.miw.foro.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Latency percentiles and throughput per endpoint of a measured run, printed as a table and written as JSON, along
+ * with the thread mode and connection pool size of the server that was measured.
+ */
+public record LoadReport(LoadTestSettings settings, String threads, int maximumPoolSize, double durationSeconds,
+                         List<EndpointStats> endpoints) {
+
+    public record EndpointStats(String controller, String endpoint, int requests, long errors, double throughput,
+                                double p50, double p95, double p99, double max) {
+    }
+
+    public static LoadReport of(LoadTestSettings settings, String threads, int maximumPoolSize, Duration measured,
+                                LatencyRecorder total) {
+        double seconds = measured.toNanos() / 1e9;
+        List<EndpointStats> endpoints = total.samples().entrySet().stream()
+                .map(entry -> {
+                    LatencyRecorder.Samples samples = entry.getValue();
+                    return new EndpointStats(entry.getKey().controller(), entry.getKey().label(), samples.count(),
+                            samples.errors(), samples.count() / seconds, samples.percentileMillis(50),
+                            samples.percentileMillis(95), samples.percentileMillis(99),
+                            samples.percentileMillis(100));
+                })
+                .sorted(Comparator.comparing(EndpointStats::controller).thenComparing(EndpointStats::endpoint))
+                .toList();
+        return new LoadReport(settings, threads, maximumPoolSize, seconds, endpoints);
+    }
+
+    public String table() {
+        StringBuilder table = new StringBuilder(String.format("%-24s %-32s %9s %7s %9s %9s %9s %9s %9s%n",
+                "Controller", "Endpoint", "Requests", "Errors", "Req/s", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        int requests = 0;
+        for (EndpointStats stats : endpoints) {
+            requests += stats.requests();
+            table.append(String.format("%-24s %-32s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", stats.controller(),
+                    stats.endpoint(), stats.requests(), stats.errors(), stats.throughput(), stats.p50(),
+                    stats.p95(), stats.p99(), stats.max()));
+        }
+        table.append(String.format("%-57s %9d %7s %9.1f%n", "Total", requests, "", requests / durationSeconds));
+        return table.toString();
+    }
+
+    /**
+     * One line per thread mode with the total throughput, the errors and the endpoint with the worst p99, which is
+     * where to look first when the run is saturated.
+     */
+    public static String comparison(List<LoadReport> reports) {
+        StringBuilder table = new StringBuilder(String.format("%-10s %6s %9s %7s %9s %13s  %s%n",
+                "Threads", "Pool", "Requests", "Errors", "Req/s", "Worst p99 ms", "Worst endpoint"));
+        for (LoadReport report : reports) {
+            int requests = report.endpoints().stream().mapToInt(EndpointStats::requests).sum();
+            long errors = report.endpoints().stream().mapToLong(EndpointStats::errors).sum();
+            EndpointStats worst = report.endpoints().stream().max(Comparator.comparingDouble(EndpointStats::p99))
+                    .orElse(null);
+            table.append(String.format("%-10s %6d %9d %7d %9.1f %13.2f  %s%n", report.threads(),
+                    report.maximumPoolSize(), requests, errors, requests / report.durationSeconds(),
+                    worst == null ? 0 : worst.p99(), worst == null ? "" : worst.endpoint()));
+        }
+        return table.toString();
+    }
+
+    public void write(Path file, ObjectMapper objectMapper) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), this);
+    }
+}
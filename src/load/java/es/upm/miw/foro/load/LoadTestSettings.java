@@ -0,0 +1,54 @@
+package es.upm.miw.foro.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Size of the synthetic forum and shape of the run, read from {@code load.*} system properties. {@code load.threads}
+ * lists the thread modes to run one after the other, {@code platform} and/or {@code virtual}.
+ */
+public record LoadTestSettings(int users, int questions, int answersPerQuestion, int tags, int tagsPerQuestion,
+                               int notificationsPerUser, int clients, Duration warmup, Duration duration,
+                               long seed, Path report, List<String> threads) {
+
+    public LoadTestSettings {
+        if (threads.isEmpty() || !List.of("platform", "virtual").containsAll(threads)) {
+            throw new IllegalArgumentException("load.threads must list platform and/or virtual: " + threads);
+        }
+    }
+
+    public static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Integer.getInteger("load.users", 200),
+                Integer.getInteger("load.questions", 2000),
+                Integer.getInteger("load.answers-per-question", 5),
+                Integer.getInteger("load.tags", 100),
+                Integer.getInteger("load.tags-per-question", 3),
+                Integer.getInteger("load.notifications-per-user", 20),
+                Integer.getInteger("load.clients", 4),
+                Duration.parse(System.getProperty("load.warmup", "PT15S")),
+                Duration.parse(System.getProperty("load.duration", "PT60S")),
+                Long.getLong("load.seed", 42L),
+                Path.of(System.getProperty("load.report", "target/load-test.json")),
+                Arrays.stream(System.getProperty("load.threads", "platform").split(","))
+                        .map(String::strip)
+                        .filter(mode -> !mode.isEmpty())
+                        .toList());
+    }
+
+    /**
+     * The report file of one thread mode; the mode is appended to the name when several modes are compared.
+     */
+    public Path report(String mode) {
+        if (threads.size() < 2) {
+            return report;
+        }
+        String name = report.getFileName().toString();
+        int extension = name.lastIndexOf('.');
+        String file = extension < 0 ? name + "-" + mode : name.substring(0, extension) + "-" + mode
+                + name.substring(extension);
+        return report.resolveSibling(file);
+    }
+}
@@ -0,0 +1,141 @@
+package es.upm.miw.foro.load;
+
+import es.upm.miw.foro.persistence.model.*;
+import es.upm.miw.foro.persistence.repository.*;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Seeds a forum of the configured size through the repositories, in chunks of one transaction each so that
+ * the batched inserts of the tuned profile apply. Every user shares one password, encoded once.
+ */
+@Slf4j
+public class SyntheticForum {
+
+    public static final String PASSWORD = "Load$Test1";
+    private static final int CHUNK = 500;
+
+    public record Seeded(List<User> users, List<Long> questionIds, List<String> tagNames, List<String> words) {
+    }
+
+    private static final List<String> WORDS = List.of("java", "spring", "hibernate", "query", "index", "cache",
+            "thread", "stream", "lambda", "record", "jpa", "security", "token", "socket", "latency", "memory",
+            "garbage", "collector", "pool", "transaction", "lock", "batch", "page", "cursor", "mapper", "json");
+
+    private final TransactionTemplate transactionTemplate;
+    private final UserRepository userRepository;
+    private final TagRepository tagRepository;
+    private final QuestionRepository questionRepository;
+    private final AnswerRepository answerRepository;
+    private final NotificationRepository notificationRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final LoadTestSettings settings;
+    private final Random random;
+
+    public SyntheticForum(ApplicationContext context, LoadTestSettings settings) {
+        this.transactionTemplate = context.getBean(TransactionTemplate.class);
+        this.userRepository = context.getBean(UserRepository.class);
+        this.tagRepository = context.getBean(TagRepository.class);
+        this.questionRepository = context.getBean(QuestionRepository.class);
+        this.answerRepository = context.getBean(AnswerRepository.class);
+        this.notificationRepository = context.getBean(NotificationRepository.class);
+        this.passwordEncoder = context.getBean(PasswordEncoder.class);
+        this.settings = settings;
+        this.random = new Random(settings.seed());
+    }
+
+    public Seeded seed() {
+        String password = passwordEncoder.encode(PASSWORD);
+        List<User> users = saveInChunks(settings.users(), index -> user(index, password), userRepository::saveAll);
+        List<Tag> tags = saveInChunks(settings.tags(),
+                index -> new Tag(null, "load-" + WORDS.get(index % WORDS.size()) + "-" + index, new ArrayList<>()),
+                tagRepository::saveAll);
+        List<Question> questions = saveInChunks(settings.questions(), index -> question(index, users, tags),
+                questionRepository::saveAll);
+        List<Answer> answers = saveInChunks(settings.questions() * settings.answersPerQuestion(),
+                index -> answer(index, users, questions), answerRepository::saveAll);
+        saveInChunks(settings.users() * settings.notificationsPerUser(),
+                index -> notification(index, users, answers), notificationRepository::saveAll);
+        log.warn("Seeded {} users, {} tags, {} questions, {} answers and {} notifications", users.size(), tags.size(),
+                questions.size(), answers.size(), settings.users() * settings.notificationsPerUser());
+        return new Seeded(users, questions.stream().map(Question::getId).toList(),
+                tags.stream().map(Tag::getName).toList(), WORDS);
+    }
+
+    private User user(int index, String password) {
+        User user = new User();
+        user.setFirstName("Load");
+        user.setLastName("User " + index);
+        user.setUserName("load_user_" + index);
+        user.setEmail("load.user." + index + "@forum.test");
+        user.setPassword(password);
+        user.setRole(Role.MEMBER);
+        return user;
+    }
+
+    private Question question(int index, List<User> users, List<Tag> tags) {
+        Question question = new Question();
+        question.setAuthor(pick(users));
+        question.setTitle("How to tune " + sentence(3) + " #" + index);
+        question.setDescription(sentence(20));
+        Set<Tag> questionTags = new HashSet<>();
+        while (questionTags.size() < Math.min(settings.tagsPerQuestion(), tags.size())) {
+            questionTags.add(pick(tags));
+        }
+        question.setTags(questionTags);
+        return question;
+    }
+
+    private Answer answer(int index, List<User> users, List<Question> questions) {
+        Answer answer = new Answer();
+        answer.setQuestion(questions.get(index % questions.size()));
+        answer.setAuthor(pick(users));
+        answer.setContent(sentence(20));
+        return answer;
+    }
+
+    private Notification notification(int index, List<User> users, List<Answer> answers) {
+        Answer answer = answers.isEmpty() ? null : pick(answers);
+        Notification notification = new Notification();
+        notification.setUser(users.get(index % users.size()));
+        notification.setQuestion(answer != null ? answer.getQuestion() : null);
+        notification.setAnswer(answer);
+        notification.setType(NotificationType.QUESTION_REPLIED);
+        notification.setRead(random.nextInt(4) == 0);
+        return notification;
+    }
+
+    private <T> List<T> saveInChunks(int count, IntFunction<T> factory, Function<List<T>, List<T>> save) {
+        List<T> saved = new ArrayList<>(count);
+        for (int start = 0; start < count; start += CHUNK) {
+            List<T> chunk = new ArrayList<>(CHUNK);
+            for (int index = start; index < Math.min(start + CHUNK, count); index++) {
+                chunk.add(factory.apply(index));
+            }
+            saved.addAll(transactionTemplate.execute(status -> save.apply(chunk)));
+        }
+        return saved;
+    }
+
+    private String sentence(int words) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            sentence.append(i == 0 ? "" : " ").append(pick(WORDS));
+        }
+        return sentence.toString();
+    }
+
+    private <T> T pick(List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+}
@@ -1,8 +1,10 @@
 package es.upm.miw.foro.api.controller;
 
 import es.upm.miw.foro.api.dto.AnswerDto;
+import es.upm.miw.foro.api.dto.CursorPageDto;
 import es.upm.miw.foro.exception.ServiceException;
 import es.upm.miw.foro.service.AnswerService;
+import es.upm.miw.foro.service.scroll.ScrollRequest;
 import es.upm.miw.foro.util.ApiPath;
 import es.upm.miw.foro.util.MessageUtil;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -108,6 +110,31 @@ public class AnswerController {
         }
     }
 
+    @GetMapping("/myAnswers/scroll")
+    @SecurityRequirement(name = "bearerAuth")
+    @PreAuthorize("hasAnyRole('MEMBER', 'ADMIN')")
+    public ResponseEntity<CursorPageDto<AnswerDto>> scrollMyAnswers(
+            Authentication authentication,
+            @RequestParam(required = false) String question,
+            @RequestParam(required = false) String content,
+            @RequestParam(required = false) LocalDateTime creationDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "creationDate") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDirection,
+            @RequestParam(defaultValue = "false") boolean withCount) {
+        try {
+            ScrollRequest scrollRequest = ScrollRequest.of(cursor, size, sortBy, sortDirection, withCount);
+            return ResponseEntity.ok(answerService.scrollMyAnswers(authentication.getName(), question, content,
+                    creationDate, scrollRequest));
+        } catch (ServiceException e) {
+            return ResponseEntity.status(e.getStatus() != null ? e.getStatus() : HttpStatus.BAD_REQUEST).body(null);
+        } catch (Exception e) {
+            log.error("Error scrolling answers for current user", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+        }
+    }
+
     @PutMapping("/{id}")
     @SecurityRequirement(name = "bearerAuth")
     @PreAuthorize("hasAnyRole('MEMBER', 'ADMIN')")
@@ -1,13 +1,23 @@
 package es.upm.miw.foro.api.controller;
 
+import es.upm.miw.foro.api.dto.CursorPageDto;
 import es.upm.miw.foro.api.dto.NotificationDto;
-import es.upm.miw.foro.persistence.model.User;
+import es.upm.miw.foro.api.dto.UnreadCountDto;
+import es.upm.miw.foro.exception.ServiceException;
 import es.upm.miw.foro.service.NotificationService;
 import es.upm.miw.foro.service.UserService;
+import es.upm.miw.foro.service.delivery.StreamCursor;
+import es.upm.miw.foro.service.scroll.ScrollRequest;
 import es.upm.miw.foro.util.ApiPath;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
+import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -15,17 +25,71 @@ import java.util.List;
 @RequiredArgsConstructor
 public class NotificationController {
 
+    private static final Duration STREAM_KEEP_ALIVE = Duration.ofSeconds(15);
+
     private final NotificationService notificationService;
     private final UserService userService;
 
     @GetMapping
-    public List<NotificationDto> getNotifications() {
-        User user = userService.getAuthenticatedUser();
-        return notificationService.getUserNotifications(user.getId());
+    public List<NotificationDto> getNotifications(@RequestParam(defaultValue = "50") int size) {
+        return notificationService.getUserNotifications(userService.getAuthenticatedUserId(), size);
+    }
+
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPageDto<NotificationDto>> scrollNotifications(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean unread,
+            @RequestParam(defaultValue = "false") boolean withCount) {
+        try {
+            ScrollRequest scrollRequest = ScrollRequest.of(cursor, size, "creationDate", "desc", withCount);
+            return ResponseEntity.ok(notificationService.scrollUserNotifications(userService.getAuthenticatedUserId(),
+                    unread, scrollRequest));
+        } catch (ServiceException e) {
+            return ResponseEntity.status(e.getStatus() != null ? e.getStatus() : HttpStatus.BAD_REQUEST).body(null);
+        }
+    }
+
+    /**
+     * Server-sent events for clients that cannot keep a websocket: each event carries a {@link StreamCursor}, which
+     * the client sends back as {@code Last-Event-ID} to resume after a reconnection. Comments keep idle streams
+     * open through proxies.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<NotificationDto>> streamNotifications(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        Flux<ServerSentEvent<NotificationDto>> notifications = notificationService
+                .streamNotifications(userService.getAuthenticatedUserId(), lastEventId)
+                .map(notification -> ServerSentEvent.builder(notification)
+                        .id(StreamCursor.of(notification).toString())
+                        .event("notification")
+                        .build());
+        Flux<ServerSentEvent<NotificationDto>> keepAlive = Flux.interval(STREAM_KEEP_ALIVE)
+                .map(tick -> ServerSentEvent.<NotificationDto>builder().comment("keep-alive").build());
+        return notifications.publish(events -> Flux.merge(events, keepAlive.takeUntilOther(events.then())));
+    }
+
+    @GetMapping("/unread-count")
+    public UnreadCountDto getUnreadCount() {
+        return new UnreadCountDto(notificationService.getUnreadCount(userService.getAuthenticatedUserId()));
     }
 
     @PatchMapping("/{id}/read")
     public void markAsRead(@PathVariable Long id) {
-        notificationService.markAsRead(id);
+        notificationService.markAsRead(userService.getAuthenticatedUserId(), List.of(id));
+    }
+
+    @PatchMapping("/read")
+    public UnreadCountDto markAsRead(@RequestBody List<Long> ids) {
+        Long userId = userService.getAuthenticatedUserId();
+        notificationService.markAsRead(userId, ids);
+        return new UnreadCountDto(notificationService.getUnreadCount(userId));
+    }
+
+    @PatchMapping("/read-all")
+    public UnreadCountDto markAllAsRead() {
+        Long userId = userService.getAuthenticatedUserId();
+        notificationService.markAllAsRead(userId);
+        return new UnreadCountDto(notificationService.getUnreadCount(userId));
     }
 }
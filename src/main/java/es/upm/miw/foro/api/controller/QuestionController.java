@@ -1,8 +1,10 @@
 package es.upm.miw.foro.api.controller;
 
+import es.upm.miw.foro.api.dto.CursorPageDto;
 import es.upm.miw.foro.api.dto.QuestionDto;
 import es.upm.miw.foro.exception.ServiceException;
 import es.upm.miw.foro.service.QuestionService;
+import es.upm.miw.foro.service.scroll.ScrollRequest;
 import es.upm.miw.foro.util.ApiPath;
 import es.upm.miw.foro.util.MessageUtil;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -108,6 +110,26 @@ public class QuestionController {
        }
     }
 
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPageDto<QuestionDto>> scrollQuestions(
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) Boolean unanswered,
+            @RequestParam(required = false) String tag,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "creationDate") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDirection,
+            @RequestParam(defaultValue = "false") boolean withCount) {
+        try {
+            ScrollRequest scrollRequest = ScrollRequest.of(cursor, size, sortBy, sortDirection, withCount);
+            return ResponseEntity.ok(questionService.scrollQuestions(title, unanswered, tag, scrollRequest));
+        } catch (ServiceException e) {
+            return ResponseEntity.status(e.getStatus() != null ? e.getStatus() : HttpStatus.BAD_REQUEST).body(null);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+        }
+    }
+
     @PutMapping("/{id}")
     @SecurityRequirement(name = "bearerAuth")
     @PreAuthorize("hasAnyRole('MEMBER', 'ADMIN')")
@@ -168,6 +190,30 @@ public class QuestionController {
         }
     }
 
+    @GetMapping("/myQuestions/scroll")
+    @SecurityRequirement(name = "bearerAuth")
+    @PreAuthorize("hasAnyRole('MEMBER', 'ADMIN')")
+    public ResponseEntity<CursorPageDto<QuestionDto>> scrollMyQuestions(
+            Authentication authentication,
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) LocalDateTime fromDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "creationDate") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDirection,
+            @RequestParam(defaultValue = "false") boolean withCount) {
+        try {
+            ScrollRequest scrollRequest = ScrollRequest.of(cursor, size, sortBy, sortDirection, withCount);
+            return ResponseEntity.ok(questionService.scrollMyQuestions(authentication.getName(), title, fromDate,
+                    scrollRequest));
+        } catch (ServiceException e) {
+            return ResponseEntity.status(e.getStatus() != null ? e.getStatus() : HttpStatus.BAD_REQUEST).body(null);
+        } catch (Exception e) {
+            log.error("Error scrolling questions for current user", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+        }
+    }
+
     @PatchMapping("/{id}/views")
     public ResponseEntity<Void> registerView(@PathVariable Long id, HttpServletRequest request) {
         questionService.registerView(id, request);
@@ -1,10 +1,12 @@
 package es.upm.miw.foro.api.controller;
 
+import es.upm.miw.foro.api.dto.CursorPageDto;
 import es.upm.miw.foro.api.dto.LoginDto;
 import es.upm.miw.foro.api.dto.TokenDto;
 import es.upm.miw.foro.api.dto.UserDto;
 import es.upm.miw.foro.exception.ServiceException;
 import es.upm.miw.foro.service.UserService;
+import es.upm.miw.foro.service.scroll.ScrollRequest;
 import es.upm.miw.foro.util.ApiPath;
 import es.upm.miw.foro.util.MessageUtil;
 import io.swagger.v3.oas.annotations.Operation;
@@ -117,6 +119,28 @@ public class UserController {
         }
     }
 
+    @GetMapping("/scroll")
+    @SecurityRequirement(name = "bearerAuth")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "scrollUsers", description = "Returns a window of Users based on filters and a continuation token")
+    public ResponseEntity<CursorPageDto<UserDto>> scrollUsers(@RequestParam(required = false) String firstName,
+                                                              @RequestParam(required = false) String lastName,
+                                                              @RequestParam(required = false) String email,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(defaultValue = "10") int size,
+                                                              @RequestParam(defaultValue = "id") String sortBy,
+                                                              @RequestParam(defaultValue = "asc") String sortDirection,
+                                                              @RequestParam(defaultValue = "false") boolean withCount) {
+        try {
+            ScrollRequest scrollRequest = ScrollRequest.of(cursor, size, sortBy, sortDirection, withCount);
+            return ResponseEntity.ok(userService.scrollAllUsers(firstName, lastName, email, scrollRequest));
+        } catch (ServiceException e) {
+            return ResponseEntity.status(e.getStatus() != null ? e.getStatus() : HttpStatus.UNAUTHORIZED).body(null);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+        }
+    }
+
     @PutMapping("/{id}")
     @SecurityRequirement(name = "bearerAuth")
     @Operation(summary = "updateUser", description = "Update User into DB")
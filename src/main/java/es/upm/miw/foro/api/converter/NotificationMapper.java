@@ -2,6 +2,8 @@ package es.upm.miw.foro.api.converter;
 
 import es.upm.miw.foro.api.dto.NotificationDto;
 import es.upm.miw.foro.persistence.model.Notification;
+import es.upm.miw.foro.persistence.model.NotificationType;
+import es.upm.miw.foro.persistence.repository.projection.NotificationSummary;
 import lombok.Generated;
 
 import java.util.List;
@@ -22,6 +24,24 @@ public class NotificationMapper {
         return notificationDto;
     }
 
+    public static NotificationDto fromSummary(NotificationSummary summary) {
+        if (summary == null) {
+            return null;
+        }
+        return NotificationDto.builder()
+                .id(summary.id())
+                .userId(summary.userId())
+                .message(generateMessage(summary.type(), summary.eventCount()))
+                .questionId(summary.questionId())
+                .answerId(summary.answerId())
+                .type(summary.type())
+                .read(summary.read())
+                .eventCount(summary.eventCount())
+                .creationDate(summary.creationDate())
+                .writtenDate(summary.writtenDate())
+                .build();
+    }
+
     public static Notification toEntity(NotificationDto notificationDto) {
         if (notificationDto == null) {
             return null;
@@ -46,12 +66,14 @@ public class NotificationMapper {
     private static void populateDto(Notification notification, NotificationDto notificationDto) {
         notificationDto.setId(notification.getId());
         notificationDto.setUserId(notification.getUser() != null ? notification.getUser().getId() : null);
-        notificationDto.setMessage(generateMessage(notification));
+        notificationDto.setMessage(generateMessage(notification.getType(), notification.getEventCount()));
         notificationDto.setQuestionId(notification.getQuestion() != null ? notification.getQuestion().getId() : null);
         notificationDto.setAnswerId(notification.getAnswer() != null ? notification.getAnswer().getId() : null);
         notificationDto.setType(notification.getType());
         notificationDto.setRead(notification.isRead());
+        notificationDto.setEventCount(notification.getEventCount());
         notificationDto.setCreationDate(notification.getCreationDate());
+        notificationDto.setWrittenDate(notification.getWrittenDate());
     }
 
     private static void populateEntity(Notification entity, NotificationDto notificationDto) {
@@ -61,8 +83,14 @@ public class NotificationMapper {
         entity.setCreationDate(notificationDto.getCreationDate());
     }
 
-    private static String generateMessage(Notification notification) {
-        return switch (notification.getType()) {
+    private static String generateMessage(NotificationType type, int eventCount) {
+        if (eventCount > 1) {
+            return switch (type) {
+                case QUESTION_REPLIED -> eventCount + " new answers";
+                case ANSWER_RATED -> eventCount + " answer ratings";
+            };
+        }
+        return switch (type) {
             case QUESTION_REPLIED -> "You have an answer";
             case ANSWER_RATED -> "Answer rated";
         };
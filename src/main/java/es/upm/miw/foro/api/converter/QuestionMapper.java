@@ -5,6 +5,7 @@ import es.upm.miw.foro.persistence.model.Answer;
 import es.upm.miw.foro.persistence.model.Question;
 import es.upm.miw.foro.persistence.model.Tag;
 import es.upm.miw.foro.persistence.model.User;
+import es.upm.miw.foro.persistence.repository.projection.QuestionSummary;
 import lombok.Generated;
 import lombok.extern.slf4j.Slf4j;
 
@@ -12,6 +13,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -33,6 +35,25 @@ public class QuestionMapper {
         return questionDto;
     }
 
+    public static QuestionDto toQuestionDto(QuestionSummary summary, Set<String> tags) {
+        if (summary == null) {
+            return null;
+        }
+
+        QuestionDto questionDto = new QuestionDto();
+        questionDto.setId(summary.id());
+        questionDto.setTitle(summary.title());
+        questionDto.setAuthor(summary.authorUserName() != null ? summary.authorUserName() : "unknown_user");
+        questionDto.setCreationDate(summary.creationDate());
+        questionDto.setViews(summary.views() != null ? summary.views() : 0);
+        questionDto.setUniqueViews(summary.uniqueViews() != null ? summary.uniqueViews() : 0L);
+        questionDto.setAnswerCount(summary.answerCount() != null ? summary.answerCount().intValue() : 0);
+        questionDto.setAnswers(null);
+        questionDto.setTags(tags != null ? tags : Collections.emptySet());
+
+        return questionDto;
+    }
+
     public static Question toEntity(QuestionDto questionDto, User questionAuthor) {
         if (questionDto == null) {
             return null;
@@ -70,6 +91,7 @@ public class QuestionMapper {
         dto.setDescription(question.getDescription());
         dto.setCreationDate(question.getCreationDate());
         dto.setViews(question.getViews() != null ? question.getViews() : 0);
+        dto.setUniqueViews(question.getUniqueViews() != null ? question.getUniqueViews() : 0L);
 
         try {
             String authorName = Optional.ofNullable(question.getAuthor())
@@ -86,6 +108,7 @@ public class QuestionMapper {
                         ? AnswerMapper.toDtoList(question.getAnswers())
                         : null
         );
+        dto.setAnswerCount(question.getAnswers() != null ? question.getAnswers().size() : 0);
 
         if (question.getTags() != null) {
             dto.setTags(question.getTags().stream()
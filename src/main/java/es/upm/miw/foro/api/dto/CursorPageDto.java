@@ -0,0 +1,32 @@
+package es.upm.miw.foro.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CursorPageDto<T> {
+
+    @Schema(description = "Elements of this window")
+    @Builder.Default
+    private List<T> content = new ArrayList<>();
+
+    @Schema(description = "Opaque token to request the next window, absent on the last one")
+    private String nextCursor;
+
+    @Schema(description = "Whether there are more elements after this window")
+    private boolean hasNext;
+
+    @Schema(description = "Total number of elements, only when requested with withCount=true", example = "120")
+    private Long totalElements;
+}
@@ -40,6 +40,13 @@ public class NotificationDto {
     @Schema(description = "Indicates if the notification has been read", example = "false")
     private boolean read;
 
+    @Schema(description = "Number of events grouped in the notification", example = "1")
+    private int eventCount;
+
     @Schema(description = "Date and time when the notification was created", example = "2023-10-01T10:05:00")
     private LocalDateTime creationDate;
+
+    @Schema(description = "Date and time when the notification was stored, which orders the notification stream",
+            example = "2023-10-01T10:05:03")
+    private LocalDateTime writtenDate;
 }
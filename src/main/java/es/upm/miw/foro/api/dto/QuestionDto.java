@@ -49,6 +49,12 @@ public class QuestionDto {
     @Schema(description = "Set of tag names for the question")
     private Set<String> tags = new HashSet<>();
 
+    @Schema(description = "Number of answers to the question", example = "0")
+    private Integer answerCount;
+
     @Schema(description = "Views for the question", example = "0")
     private Integer views;
+
+    @Schema(description = "Approximate number of distinct users or sessions that viewed the question", example = "0")
+    private Long uniqueViews;
 }
@@ -0,0 +1,13 @@
+package es.upm.miw.foro.api.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class UnreadCountDto {
+
+    private long count;
+}
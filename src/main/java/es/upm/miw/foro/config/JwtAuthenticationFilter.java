@@ -2,7 +2,10 @@ package es.upm.miw.foro.config;
 
 import com.auth0.jwt.exceptions.JWTDecodeException;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import es.upm.miw.foro.persistence.model.Role;
 import es.upm.miw.foro.service.impl.JwtServiceImpl;
+import es.upm.miw.foro.service.principal.PrincipalCache;
+import es.upm.miw.foro.service.principal.UserPrincipal;
 import es.upm.miw.foro.util.ApiPath;
 import es.upm.miw.foro.util.MessageUtil;
 import jakarta.servlet.FilterChain;
@@ -12,19 +15,26 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtServiceImpl jwtServiceImpl;
+    private final PrincipalCache principalCache;
 
     private static final Set<String> PUBLIC_GET_PATHS = Set.of(
             ApiPath.QUESTIONS,
@@ -34,68 +44,79 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             ApiPath.ANSWERS
     );
 
-    public JwtAuthenticationFilter(JwtServiceImpl jwtServiceImpl) {
+    private static final Pattern QUESTION_PATH = Pattern.compile(ApiPath.QUESTIONS + "/\\d+");
+
+    private static final Map<Role, List<GrantedAuthority>> AUTHORITIES = Arrays.stream(Role.values())
+            .collect(Collectors.toUnmodifiableMap(Function.identity(),
+                    role -> List.of(new SimpleGrantedAuthority("ROLE_" + role.name()))));
+
+    public JwtAuthenticationFilter(JwtServiceImpl jwtServiceImpl, PrincipalCache principalCache) {
         this.jwtServiceImpl = jwtServiceImpl;
+        this.principalCache = principalCache;
     }
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain chain)
             throws IOException, ServletException {
         String path = request.getServletPath();
-        String method = request.getMethod();
-        log.info("Request path: {}", path);
-
-        if ("GET".equalsIgnoreCase(method) && (PUBLIC_GET_PATHS.contains(path) || path.matches(ApiPath.QUESTIONS + "/\\d+"))) {
+        if ("GET".equalsIgnoreCase(request.getMethod())
+                && (PUBLIC_GET_PATHS.contains(path) || QUESTION_PATH.matcher(path).matches())) {
             chain.doFilter(request, response);
             return;
         }
 
         String authHeader = request.getHeader(MessageUtil.AUTHORIZATION);
-        log.info("JWT Header: {}", authHeader);
-
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             chain.doFilter(request, response);
             return;
         }
         String token = jwtServiceImpl.extractToken(authHeader);
-        log.info("Extracted Token: {}", token);
         try {
             Optional<DecodedJWT> decodedJWT = jwtServiceImpl.verify(token);
-            log.info("DecodedJWT: {}", decodedJWT.isPresent());
             if (decodedJWT.isEmpty()) {
+                log.debug("Rejected JWT on {}", path);
                 chain.doFilter(request, response);
                 return;
             }
-            String userEmail = jwtServiceImpl.user(token);
-            log.info("User: {}", userEmail);
-            if (userEmail == null || userEmail.isEmpty()) {
-                log.error("Failed to extract user email from token");
+            Optional<UserPrincipal> principal = authenticatedPrincipal(decodedJWT.get());
+            if (principal.isEmpty()) {
+                log.error("Failed to extract an existing user from token");
                 chain.doFilter(request, response);
                 return;
             }
             if (SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = loadUserByUsername(token, userEmail);
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken
+                        .authenticated(principal.get(), null, AUTHORITIES.get(principal.get().role())));
             }
         } catch (JWTDecodeException e) {
             log.error("Failed to decode token: {}", e.getMessage());
-            chain.doFilter(request, response);
-            return;
         }
         chain.doFilter(request, response);
     }
 
-    private UserDetails loadUserByUsername(String token, String userEmail) {
-        String role = jwtServiceImpl.role(token);
-        log.info("Role for user {}: {}", userEmail, role);
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(userEmail)
-                .password("")
-                .roles(role)
-                .build();
+    /**
+     * Principal of the verified token, checked against the user's current state in the principal cache. Tokens
+     * issued before user names were claimed still authenticate by email and role; their principal is left to be
+     * loaded when a service needs it.
+     */
+    private Optional<UserPrincipal> authenticatedPrincipal(DecodedJWT decodedJWT) {
+        Optional<UserPrincipal> principal = jwtServiceImpl.principal(decodedJWT);
+        if (principal.isPresent()) {
+            return principalCache.verify(principal.get());
+        }
+        String email = decodedJWT.getClaim(MessageUtil.EMAIL_CLAIM).asString();
+        Role role = roleOf(decodedJWT.getClaim(MessageUtil.ROLE_CLAIM).asString());
+        if (email == null || email.isEmpty() || role == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new UserPrincipal(null, email, null, null, null, role));
+    }
+
+    private static Role roleOf(String role) {
+        try {
+            return role != null ? Role.valueOf(role) : null;
+        } catch (IllegalArgumentException exception) {
+            return null;
+        }
     }
 }
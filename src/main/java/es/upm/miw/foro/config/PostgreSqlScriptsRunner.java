@@ -0,0 +1,61 @@
+package es.upm.miw.foro.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Runs the PostgreSQL-only scripts listed in {@code miw.db.postgresql.scripts} once the JPA schema exists.
+ * Other databases (H2 in tests) skip them and keep using the portable code paths.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class PostgreSqlScriptsRunner implements ApplicationRunner {
+
+    private static final String POSTGRESQL = "PostgreSQL";
+
+    private final DataSource dataSource;
+    private final ResourceLoader resourceLoader;
+    private final String[] scripts;
+
+    public PostgreSqlScriptsRunner(DataSource dataSource, ResourceLoader resourceLoader,
+                                   @Value("${miw.db.postgresql.scripts:}") String[] scripts) {
+        this.dataSource = dataSource;
+        this.resourceLoader = resourceLoader;
+        this.scripts = scripts;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws SQLException {
+        if (scripts.length == 0 || !isPostgreSql()) {
+            log.debug("Skipping PostgreSQL scripts");
+            return;
+        }
+        Resource[] resources = Arrays.stream(scripts)
+                .map(String::trim)
+                .filter(script -> !script.isEmpty())
+                .map(resourceLoader::getResource)
+                .toArray(Resource[]::new);
+        new ResourceDatabasePopulator(resources).execute(dataSource);
+        log.info("Executed {} PostgreSQL scripts", resources.length);
+    }
+
+    private boolean isPostgreSql() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return POSTGRESQL.equals(connection.getMetaData().getDatabaseProductName());
+        }
+    }
+}
@@ -3,7 +3,9 @@ package es.upm.miw.foro.config;
 import es.upm.miw.foro.persistence.model.User;
 import es.upm.miw.foro.persistence.repository.UserRepository;
 import es.upm.miw.foro.service.impl.JwtServiceImpl;
+import es.upm.miw.foro.service.principal.PrincipalCache;
 import es.upm.miw.foro.util.ApiPath;
+import jakarta.servlet.DispatcherType;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
@@ -59,12 +61,14 @@ public class SecurityConfiguration {
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtServiceImpl jwtServiceImpl) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtServiceImpl jwtServiceImpl,
+                                                   PrincipalCache principalCache) throws Exception {
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .sessionManagement(manager -> manager.sessionCreationPolicy(STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(
                                 ApiPath.SWAGGER_UI,
                                 ApiPath.SWAGGER_API_DOCS,
@@ -76,6 +80,7 @@ public class SecurityConfiguration {
                                 ApiPath.QUESTIONS,
                                 ApiPath.QUESTION_ID,
                                 ApiPath.QUESTION_SEARCH,
+                                ApiPath.QUESTION_SCROLL,
                                 ApiPath.QUESTION_MY,
                                 ApiPath.QUESTION_VIEWS,
 
@@ -94,7 +99,7 @@ public class SecurityConfiguration {
                         .anyRequest().authenticated()
                 )
                 .authenticationProvider(authenticationProvider()).addFilterBefore(
-                        jwtAuthorizationFilter(jwtServiceImpl), UsernamePasswordAuthenticationFilter.class);
+                        jwtAuthorizationFilter(jwtServiceImpl, principalCache), UsernamePasswordAuthenticationFilter.class);
 
 
         return http.build();
@@ -127,8 +132,8 @@ public class SecurityConfiguration {
     }
 
     @Bean
-    public JwtAuthenticationFilter jwtAuthorizationFilter(JwtServiceImpl jwtServiceImpl) {
-        return new JwtAuthenticationFilter(jwtServiceImpl);
+    public JwtAuthenticationFilter jwtAuthorizationFilter(JwtServiceImpl jwtServiceImpl, PrincipalCache principalCache) {
+        return new JwtAuthenticationFilter(jwtServiceImpl, principalCache);
     }
 
     @Bean
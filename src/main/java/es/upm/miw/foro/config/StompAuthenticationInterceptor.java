@@ -0,0 +1,100 @@
+package es.upm.miw.foro.config;
+
+import com.auth0.jwt.exceptions.JWTDecodeException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import es.upm.miw.foro.service.impl.JwtServiceImpl;
+import es.upm.miw.foro.service.principal.PrincipalCache;
+import es.upm.miw.foro.service.principal.UserPrincipal;
+import es.upm.miw.foro.service.principal.WebSocketPrincipal;
+import es.upm.miw.foro.util.ApiPath;
+import es.upm.miw.foro.util.MessageUtil;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Authenticates websocket sessions on the STOMP CONNECT frame with the same bearer tokens as the REST API, and
+ * keeps anonymous sessions away from user destinations. The per-user broadcast topics are no longer served, and
+ * the resolved notification queues of other sessions cannot be subscribed to directly.
+ */
+@Slf4j
+@Component
+public class StompAuthenticationInterceptor implements ChannelInterceptor {
+
+    private static final String BEARER = "Bearer ";
+
+    private final JwtServiceImpl jwtServiceImpl;
+    private final PrincipalCache principalCache;
+
+    public StompAuthenticationInterceptor(JwtServiceImpl jwtServiceImpl, PrincipalCache principalCache) {
+        this.jwtServiceImpl = jwtServiceImpl;
+        this.principalCache = principalCache;
+    }
+
+    @Override
+    public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+        if (StompCommand.CONNECT.equals(accessor.getCommand())) {
+            accessor.setUser(authenticate(accessor.getFirstNativeHeader(MessageUtil.AUTHORIZATION)));
+        } else if (StompCommand.SUBSCRIBE.equals(accessor.getCommand())) {
+            checkSubscription(accessor);
+        }
+        return message;
+    }
+
+    private WebSocketPrincipal authenticate(String authHeader) {
+        if (authHeader == null || !authHeader.startsWith(BEARER)) {
+            throw new BadCredentialsException("Missing bearer token");
+        }
+        try {
+            DecodedJWT decodedJWT = jwtServiceImpl.verify(jwtServiceImpl.extractToken(authHeader))
+                    .orElseThrow(() -> new BadCredentialsException("Invalid token"));
+            Optional<UserPrincipal> claimed = jwtServiceImpl.principal(decodedJWT);
+            UserPrincipal principal = (claimed.isPresent() ? principalCache.verify(claimed.get())
+                    : legacyPrincipal(decodedJWT))
+                    .orElseThrow(() -> new BadCredentialsException("Token user not found"));
+            return new WebSocketPrincipal(principal.id(), principal.email());
+        } catch (JWTDecodeException exception) {
+            throw new BadCredentialsException("Malformed token", exception);
+        }
+    }
+
+    /**
+     * Tokens issued before ids were claimed carry only the email, so their user is loaded by it.
+     */
+    private Optional<UserPrincipal> legacyPrincipal(DecodedJWT decodedJWT) {
+        String email = decodedJWT.getClaim(MessageUtil.EMAIL_CLAIM).asString();
+        if (email == null || email.isEmpty()) {
+            return Optional.empty();
+        }
+        return principalCache.byEmail(email);
+    }
+
+    private static void checkSubscription(StompHeaderAccessor accessor) {
+        String destination = accessor.getDestination();
+        if (destination == null) {
+            return;
+        }
+        if (destination.startsWith(ApiPath.TOPIC_NOTIFICATIONS)
+                || destination.startsWith(ApiPath.QUEUE_NOTIFICATIONS)) {
+            log.debug("Rejected subscription of session {} to {}", accessor.getSessionId(), destination);
+            throw new AccessDeniedException("Notifications are delivered on " + ApiPath.USER_QUEUE_NOTIFICATIONS);
+        }
+        if (destination.startsWith("/user/") && !(accessor.getUser() instanceof WebSocketPrincipal)) {
+            throw new AccessDeniedException("Unauthenticated session");
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package es.upm.miw.foro.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Execution mode of the blocking work. With {@code spring.threads.virtual.enabled} Spring Boot serves Tomcat
+ * requests on virtual threads and the websocket channels in {@link WebSocketConfiguration} move with them.
+ * Streamed MVC responses, which Boot writes from the {@code applicationTaskExecutor}, run on virtual threads in
+ * both modes: every open SSE stream parks a writer, so a fixed pool would cap the open streams. Mail is sent from
+ * a small platform-thread pool in both modes: the SMTP transport holds a monitor for the whole exchange, which
+ * would pin the carrier of a virtual thread.
+ */
+@Configuration
+public class ThreadingConfiguration {
+
+    private final int mailThreads;
+
+    public ThreadingConfiguration(@Value("${miw.mail.threads:2}") int mailThreads) {
+        this.mailThreads = mailThreads;
+    }
+
+    @Bean
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return virtualThreadExecutor("task-", SimpleAsyncTaskExecutor.UNBOUNDED_CONCURRENCY);
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor mailExecutor() {
+        return platformThreadExecutor("mail-", mailThreads);
+    }
+
+    static SimpleAsyncTaskExecutor virtualThreadExecutor(String threadNamePrefix, int concurrencyLimit) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(concurrencyLimit);
+        return executor;
+    }
+
+    private static ThreadPoolTaskExecutor platformThreadExecutor(String threadNamePrefix, int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+}
@@ -0,0 +1,80 @@
+package es.upm.miw.foro.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads that block while pinned to their carrier, for instance inside a {@code synchronized}
+ * block or a native frame, for longer than {@code miw.threads.pinned-threshold}. It streams the JFR
+ * {@code jdk.VirtualThreadPinned} events in process: each one is timed under {@code miw.threads.pinned}, tagged
+ * with the first application frame, and the first stack seen for that frame is logged.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String APPLICATION_PACKAGE = "es.upm.miw.foro.";
+    private static final String OTHER_FRAME = "other";
+    private static final int LOGGED_FRAMES = 20;
+
+    private final MeterRegistry meterRegistry;
+    private final Set<String> logged = ConcurrentHashMap.newKeySet();
+    private final RecordingStream recording;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${miw.threads.pinned-threshold:PT0.02S}") Duration threshold) {
+        this.meterRegistry = meterRegistry;
+        this.recording = new RecordingStream();
+        this.recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        this.recording.onEvent(PINNED_EVENT, this::pinned);
+        this.recording.startAsync();
+    }
+
+    @PreDestroy
+    public void stop() {
+        recording.close();
+    }
+
+    void pinned(RecordedEvent event) {
+        List<RecordedFrame> frames = frames(event.getStackTrace());
+        String frame = frames.stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .map(VirtualThreadPinningMonitor::name)
+                .filter(name -> name.startsWith(APPLICATION_PACKAGE))
+                .findFirst()
+                .orElse(OTHER_FRAME);
+        Timer.builder("miw.threads.pinned").tag("frame", frame)
+                .description("Virtual threads blocked while pinned to their carrier").register(meterRegistry)
+                .record(event.getDuration());
+        if (logged.add(frame)) {
+            log.warn("Virtual thread pinned for {} ms at {}:\n\t{}", event.getDuration().toMillis(), frame,
+                    frames.stream().limit(LOGGED_FRAMES).map(VirtualThreadPinningMonitor::name)
+                            .collect(Collectors.joining("\n\t")));
+        }
+    }
+
+    private static List<RecordedFrame> frames(RecordedStackTrace stackTrace) {
+        return stackTrace != null ? stackTrace.getFrames() : List.of();
+    }
+
+    private static String name(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+}
@@ -1,26 +1,113 @@
 package es.upm.miw.foro.config;
 
+import es.upm.miw.foro.service.delivery.WebSocketSessionRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
-import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
-import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
-import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.config.annotation.*;
 
+import java.time.Duration;
+
+/**
+ * Notifications go to user destinations: {@code /user/queue/notifications} resolves to the sessions of the
+ * authenticated user through the user registry, and each session has its own queue destination. The broker's
+ * destination cache is sized for one entry per session so those destinations keep resolving from the cache.
+ * <p>
+ * STOMP and SockJS heartbeats run on their own scheduler, away from the application's scheduled jobs. In the
+ * virtual-thread mode the inbound and outbound channels dispatch on bounded virtual threads instead of Spring's
+ * default pools; either way each session's frames stay in order.
+ * Every session has a send time and buffer limit; {@link WebSocketSessionRegistry} tracks the sessions and
+ * evicts the ones that stop reading.
+ */
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfiguration implements WebSocketMessageBrokerConfigurer {
 
+    private final StompAuthenticationInterceptor stompAuthenticationInterceptor;
+    private final WebSocketSessionRegistry webSocketSessionRegistry;
+    private final int destinationCacheLimit;
+    private final long heartbeatMillis;
+    private final int sendTimeLimitMillis;
+    private final int sendBufferSizeLimit;
+    private final int channelConcurrency;
+    private final boolean virtualThreads;
+    private final ThreadPoolTaskScheduler heartbeatScheduler;
+
+    public WebSocketConfiguration(StompAuthenticationInterceptor stompAuthenticationInterceptor,
+                                  WebSocketSessionRegistry webSocketSessionRegistry,
+                                  @Value("${miw.websocket.destination-cache-limit:65536}") int destinationCacheLimit,
+                                  @Value("${miw.websocket.heartbeat:PT10S}") Duration heartbeat,
+                                  @Value("${miw.websocket.send-time-limit:PT10S}") Duration sendTimeLimit,
+                                  @Value("${miw.websocket.send-buffer-size-limit:524288}") int sendBufferSizeLimit,
+                                  @Value("${miw.websocket.channel-concurrency:1024}") int channelConcurrency,
+                                  @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.stompAuthenticationInterceptor = stompAuthenticationInterceptor;
+        this.webSocketSessionRegistry = webSocketSessionRegistry;
+        this.destinationCacheLimit = destinationCacheLimit;
+        this.heartbeatMillis = heartbeat.toMillis();
+        this.sendTimeLimitMillis = Math.toIntExact(sendTimeLimit.toMillis());
+        this.sendBufferSizeLimit = sendBufferSizeLimit;
+        this.channelConcurrency = channelConcurrency;
+        this.virtualThreads = virtualThreads;
+        this.heartbeatScheduler = new ThreadPoolTaskScheduler();
+        this.heartbeatScheduler.setPoolSize(1);
+        this.heartbeatScheduler.setThreadNamePrefix("websocket-heartbeat-");
+        this.heartbeatScheduler.setRemoveOnCancelPolicy(true);
+        this.heartbeatScheduler.initialize();
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic");
+        config.enableSimpleBroker("/topic", "/queue")
+                .setHeartbeatValue(new long[]{heartbeatMillis, heartbeatMillis})
+                .setTaskScheduler(heartbeatScheduler);
         config.setApplicationDestinationPrefixes("/app");
         config.setUserDestinationPrefix("/user");
+        config.setCacheLimit(destinationCacheLimit);
+        config.setPreservePublishOrder(true);
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        if (virtualThreads) {
+            registration.executor(ThreadingConfiguration.virtualThreadExecutor("websocket-inbound-",
+                    channelConcurrency));
+        }
+        registration.interceptors(stompAuthenticationInterceptor);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        if (virtualThreads) {
+            registration.executor(ThreadingConfiguration.virtualThreadExecutor("websocket-outbound-",
+                    channelConcurrency));
+        }
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(sendTimeLimitMillis)
+                .setSendBufferSizeLimit(sendBufferSizeLimit)
+                .addDecoratorFactory(webSocketSessionRegistry);
     }
 
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/ws-notifications")
                 .setAllowedOriginPatterns("*")
-                .withSockJS();
+                .withSockJS()
+                .setTaskScheduler(heartbeatScheduler)
+                .setHeartbeatTime(heartbeatMillis);
+        if (registry instanceof WebMvcStompEndpointRegistry webMvcRegistry) {
+            webMvcRegistry.setPreserveReceiveOrder(true);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        heartbeatScheduler.destroy();
     }
 }
@@ -18,7 +18,7 @@ public class Answer {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "answer_seq")
-    @SequenceGenerator(name = "answer_seq", sequenceName = "answer_seq", allocationSize = 1)
+    @SequenceGenerator(name = "answer_seq", sequenceName = "answer_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
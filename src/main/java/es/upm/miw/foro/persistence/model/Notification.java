@@ -17,7 +17,7 @@ public class Notification {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_seq")
-    @SequenceGenerator(name = "notification_seq", sequenceName = "notification_seq", allocationSize = 1)
+    @SequenceGenerator(name = "notification_seq", sequenceName = "notification_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -43,12 +43,21 @@ public class Notification {
     @Column(name = "is_read", nullable = false)
     private boolean read = false;
 
+    @Column(name = "event_count", nullable = false)
+    private int eventCount = 1;
+
     @Column(name = "creation_date", nullable = false)
     private LocalDateTime creationDate;
 
+    @Column(name = "written_date", nullable = false)
+    private LocalDateTime writtenDate;
+
     @PrePersist
     public void onCreate() {
-        this.creationDate = LocalDateTime.now();
+        if (this.creationDate == null) {
+            this.creationDate = LocalDateTime.now();
+        }
+        this.writtenDate = LocalDateTime.now();
     }
 
     public void markAsRead() {
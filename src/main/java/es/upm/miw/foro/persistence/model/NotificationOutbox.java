@@ -0,0 +1,48 @@
+package es.upm.miw.foro.persistence.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * An event waiting to become notifications. {@code userId} is always notified; when {@code followers} is set,
+ * everyone following the question is notified as well. The {@code actorId}, who caused the event, never is.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "notification_outbox")
+public class NotificationOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_outbox_seq")
+    @SequenceGenerator(name = "notification_outbox_seq", sequenceName = "notification_outbox_seq", allocationSize = 50)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "question_id")
+    private Long questionId;
+
+    @Column(name = "answer_id")
+    private Long answerId;
+
+    @Column(name = "actor_id")
+    private Long actorId;
+
+    @Column(name = "followers", nullable = false)
+    private boolean followers;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false)
+    private NotificationType type;
+
+    @Column(name = "creation_date", nullable = false)
+    private LocalDateTime creationDate;
+}
@@ -21,7 +21,7 @@ public class Question {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "question_seq")
-    @SequenceGenerator(name = "question_seq", sequenceName = "question_seq", allocationSize = 1)
+    @SequenceGenerator(name = "question_seq", sequenceName = "question_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -55,15 +55,8 @@ public class Question {
     @Column(name = "views", nullable = false)
     private Integer views = 0;
 
-    @ElementCollection
-    @CollectionTable(name = "question_viewed_by", joinColumns = @JoinColumn(name = "question_id"))
-    @Column(name = "session_id")
-    private Set<String> viewedBySessions = new HashSet<>();
-
-    @ElementCollection
-    @CollectionTable(name = "question_viewed_by_users", joinColumns = @JoinColumn(name = "question_id"))
-    @Column(name = "user_id")
-    private Set<Long> viewedByUsers = new HashSet<>();
+    @Column(name = "unique_views")
+    private Long uniqueViews = 0L;
 
     @PrePersist
     public void onCreate() {
@@ -79,20 +72,4 @@ public class Question {
         answers.remove(answer);
         answer.setQuestion(null);
     }
-
-    public boolean incrementViewsIfNew(String sessionId, Long userId) {
-        boolean isNewView = false;
-
-        if (userId != null) {
-            isNewView = viewedByUsers.add(userId);
-        } else if (sessionId != null) {
-            isNewView = viewedBySessions.add(sessionId);
-        }
-
-        if (isNewView) {
-            this.views++;
-        }
-
-        return isNewView;
-    }
 }
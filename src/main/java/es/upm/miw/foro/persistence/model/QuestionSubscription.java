@@ -0,0 +1,29 @@
+package es.upm.miw.foro.persistence.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A user following a question thread: everyone who answered it, for good, or viewed it while logged in, until the
+ * expiry date.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "question_subscriptions")
+public class QuestionSubscription {
+
+    @EmbeddedId
+    private QuestionSubscriptionId id;
+
+    @Column(name = "creation_date", nullable = false)
+    private LocalDateTime creationDate;
+
+    @Column(name = "expiry_date")
+    private LocalDateTime expiryDate;
+}
@@ -0,0 +1,22 @@
+package es.upm.miw.foro.persistence.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Embeddable
+public class QuestionSubscriptionId implements Serializable {
+
+    @Column(name = "question_id", nullable = false)
+    private Long questionId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+}
@@ -0,0 +1,29 @@
+package es.upm.miw.foro.persistence.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "question_view_sketches")
+public class QuestionViewSketch {
+
+    @Id
+    @Column(name = "question_id", nullable = false)
+    private Long questionId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "question_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Question question;
+
+    @Column(name = "sketch", nullable = false, length = 4098)
+    private byte[] sketch;
+}
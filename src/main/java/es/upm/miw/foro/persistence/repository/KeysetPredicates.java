@@ -0,0 +1,60 @@
+package es.upm.miw.foro.persistence.repository;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import lombok.Generated;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Keyset pagination shared by the projection repositories: the predicate seeking past the last row of a window
+ * and the position of a row, for a sort restricted to the properties a projection exposes.
+ */
+final class KeysetPredicates {
+
+    @Generated
+    private KeysetPredicates() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    static void checkSort(Sort sort, Map<String, ?> keys) {
+        sort.forEach(order -> {
+            if (!keys.containsKey(order.getProperty())) {
+                throw new IllegalArgumentException("Unsupported sort property for scrolling: " + order.getProperty());
+            }
+        });
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static Predicate seek(Sort sort, KeysetScrollPosition position, Path<?> root, CriteriaBuilder criteriaBuilder) {
+        List<Predicate> alternatives = new ArrayList<>();
+        List<Predicate> equalPrefix = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            Expression<Comparable> property = root.get(order.getProperty());
+            Comparable value = (Comparable) position.getKeys().get(order.getProperty());
+            Predicate after = order.isAscending()
+                    ? criteriaBuilder.greaterThan(property, value)
+                    : criteriaBuilder.lessThan(property, value);
+            List<Predicate> alternative = new ArrayList<>(equalPrefix);
+            alternative.add(after);
+            alternatives.add(criteriaBuilder.and(alternative.toArray(Predicate[]::new)));
+            equalPrefix.add(criteriaBuilder.equal(property, value));
+        }
+        return criteriaBuilder.or(alternatives.toArray(Predicate[]::new));
+    }
+
+    static <T> ScrollPosition positionOf(Sort sort, T row, Map<String, Function<T, Object>> keys) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        sort.forEach(order -> values.put(order.getProperty(), keys.get(order.getProperty()).apply(row)));
+        return ScrollPosition.forward(values);
+    }
+}
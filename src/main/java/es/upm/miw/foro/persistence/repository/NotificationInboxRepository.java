@@ -0,0 +1,12 @@
+package es.upm.miw.foro.persistence.repository;
+
+import es.upm.miw.foro.persistence.repository.projection.NotificationSummary;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+public interface NotificationInboxRepository {
+
+    Window<NotificationSummary> scrollInbox(Long userId, boolean unreadOnly, Sort sort, KeysetScrollPosition position,
+                                            int limit);
+}
@@ -0,0 +1,63 @@
+package es.upm.miw.foro.persistence.repository;
+
+import es.upm.miw.foro.persistence.model.Notification;
+import es.upm.miw.foro.persistence.repository.projection.NotificationSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Inbox windows read from the {@code notifications} columns alone: the user, question and answer are selected
+ * by their foreign keys, so neither the entities nor their tables are touched.
+ */
+public class NotificationInboxRepositoryImpl implements NotificationInboxRepository {
+
+    private static final Map<String, Function<NotificationSummary, Object>> KEYS = Map.of(
+            "id", NotificationSummary::id,
+            "creationDate", NotificationSummary::creationDate,
+            "writtenDate", NotificationSummary::writtenDate);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Window<NotificationSummary> scrollInbox(Long userId, boolean unreadOnly, Sort sort,
+                                                   KeysetScrollPosition position, int limit) {
+        KeysetPredicates.checkSort(sort, KEYS);
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<NotificationSummary> query = criteriaBuilder.createQuery(NotificationSummary.class);
+        Root<Notification> root = query.from(Notification.class);
+        query.select(criteriaBuilder.construct(NotificationSummary.class,
+                root.get("id"), root.get("user").get("id"), root.get("question").get("id"),
+                root.get("answer").get("id"), root.get("type"), root.get("read"), root.get("eventCount"),
+                root.get("creationDate"), root.get("writtenDate")));
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(criteriaBuilder.equal(root.get("user").get("id"), userId));
+        if (unreadOnly) {
+            predicates.add(criteriaBuilder.isFalse(root.get("read")));
+        }
+        if (!position.isInitial()) {
+            predicates.add(KeysetPredicates.seek(sort, position, root, criteriaBuilder));
+        }
+        query.where(predicates.toArray(Predicate[]::new));
+        query.orderBy(QueryUtils.toOrders(sort, root, criteriaBuilder));
+
+        List<NotificationSummary> rows = entityManager.createQuery(query).setMaxResults(limit + 1).getResultList();
+        boolean hasNext = rows.size() > limit;
+        List<NotificationSummary> content = hasNext ? rows.subList(0, limit) : rows;
+        return Window.from(content, index -> KeysetPredicates.positionOf(sort, content.get(index), KEYS), hasNext);
+    }
+}
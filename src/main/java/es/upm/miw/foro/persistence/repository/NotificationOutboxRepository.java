@@ -0,0 +1,30 @@
+package es.upm.miw.foro.persistence.repository;
+
+import es.upm.miw.foro.persistence.model.NotificationOutbox;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    /**
+     * Rows locked by another dispatcher are skipped, so each outbox row becomes one notification.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT o FROM NotificationOutbox o WHERE o.id IN :ids ORDER BY o.id")
+    List<NotificationOutbox> findAllForUpdateByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT o.id FROM NotificationOutbox o ORDER BY o.id")
+    List<Long> findPendingIds(Limit limit);
+}
@@ -8,17 +8,28 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface NotificationRepository extends JpaRepository<Notification, Long> {
+public interface NotificationRepository extends JpaRepository<Notification, Long>, NotificationInboxRepository {
 
-    List<Notification> findByUserIdOrderByCreationDateDesc(Long userId);
+    @Transactional
+    @Modifying
+    @Query("UPDATE Notification n SET n.read = true WHERE n.user.id = :userId AND n.id IN :notificationIds AND n.read = false")
+    int markAsRead(@Param("userId") Long userId, @Param("notificationIds") Collection<Long> notificationIds);
 
     @Transactional
     @Modifying
-    @Query("UPDATE Notification n SET n.read = true WHERE n.user.id = :userId AND n.id IN :notificationIds")
-    int markAsRead(@Param("userId") Long userId, @Param("notificationIds") List<Long> notificationIds);
+    @Query("UPDATE Notification n SET n.read = true WHERE n.user.id = :userId AND n.read = false")
+    int markAllAsRead(@Param("userId") Long userId);
+
+    long countByUserId(Long userId);
+
+    long countByUserIdAndReadFalse(Long userId);
+
+    @Query("SELECT DISTINCT n.user.id FROM Notification n WHERE n.answer.id IN :answerIds AND n.read = false")
+    List<Long> findUnreadUserIdsByAnswerIds(@Param("answerIds") Collection<Long> answerIds);
 
     void deleteByAnswerId(Long answerId);
 
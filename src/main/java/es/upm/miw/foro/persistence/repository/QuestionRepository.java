@@ -1,6 +1,8 @@
 package es.upm.miw.foro.persistence.repository;
 
 import es.upm.miw.foro.persistence.model.Question;
+import es.upm.miw.foro.persistence.repository.projection.QuestionTagName;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
@@ -8,10 +10,13 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface QuestionRepository extends JpaRepository<Question, Long>, JpaSpecificationExecutor<Question> {
+public interface QuestionRepository extends JpaRepository<Question, Long>, JpaSpecificationExecutor<Question>,
+        QuestionSummaryRepository {
 
     boolean existsByAuthorId(Long userId);
 
@@ -25,6 +30,41 @@ public interface QuestionRepository extends JpaRepository<Question, Long>, JpaSp
     """)
     Page<Question> searchByTitleOrDescriptionOrAnswerContentContainingIgnoreCase(@Param("query") String query, Pageable pageable);
 
+    @Query(value = """
+    SELECT q.id FROM questions q
+    WHERE q.search_vector @@ to_tsquery('simple', :tsQuery)
+    ORDER BY ts_rank_cd(q.search_vector, to_tsquery('simple', :tsQuery)) DESC, q.id DESC
+    """,
+            countQuery = "SELECT count(*) FROM questions q WHERE q.search_vector @@ to_tsquery('simple', :tsQuery)",
+            nativeQuery = true)
+    Page<Long> searchIdsByFullText(@Param("tsQuery") String tsQuery, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+    UPDATE questions q SET search_vector =
+        setweight(to_tsvector('simple', coalesce(q.title, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(q.description, '')), 'B') ||
+        setweight(to_tsvector('simple', coalesce(
+            (SELECT string_agg(a.content, ' ') FROM answers a WHERE a.question_id = q.id), '')), 'C')
+    WHERE q.id = :id
+    """, nativeQuery = true)
+    void refreshSearchVector(@Param("id") Long id);
+
+    @EntityGraph(attributePaths = {"author", "answers.author", "tags"})
+    @Query("SELECT DISTINCT q FROM Question q WHERE q.id IN :ids")
+    List<Question> findAllWithDetailsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT q.id AS questionId, t.name AS name FROM Question q JOIN q.tags t WHERE q.id IN :ids")
+    List<QuestionTagName> findTagNamesByQuestionIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT q.id FROM Question q WHERE q.id > :afterId ORDER BY q.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @EntityGraph(attributePaths = {"answers"})
+    @Query("SELECT DISTINCT q FROM Question q WHERE q.id IN :ids")
+    List<Question> findAllWithAnswersByIdIn(@Param("ids") Collection<Long> ids);
+
     @EntityGraph(attributePaths = {"author"})
     @Query("SELECT q FROM Question q WHERE q.id = :id")
     Optional<Question> findByIdWithAuthor(@Param("id") Long id);
@@ -38,6 +78,14 @@ public interface QuestionRepository extends JpaRepository<Question, Long>, JpaSp
     @Query("UPDATE Question q SET q.views = q.views + 1 WHERE q.id = :id")
     void incrementViews(@Param("id") Long id);
 
+    @Modifying
+    @Query("UPDATE Question q SET q.views = q.views + :delta WHERE q.id IN :ids")
+    int incrementViews(@Param("ids") Collection<Long> ids, @Param("delta") int delta);
+
+    @Modifying
+    @Query("UPDATE Question q SET q.uniqueViews = :uniqueViews WHERE q.id = :id")
+    void updateUniqueViews(@Param("id") Long id, @Param("uniqueViews") Long uniqueViews);
+
     @Query("SELECT q FROM Question q LEFT JOIN FETCH q.tags LEFT JOIN FETCH q.answers WHERE q.id = :id")
     Optional<Question> findByIdWithDetails(@Param("id") Long id);
 
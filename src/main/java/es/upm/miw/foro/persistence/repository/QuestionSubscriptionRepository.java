@@ -0,0 +1,30 @@
+package es.upm.miw.foro.persistence.repository;
+
+import es.upm.miw.foro.persistence.model.QuestionSubscription;
+import es.upm.miw.foro.persistence.model.QuestionSubscriptionId;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface QuestionSubscriptionRepository extends JpaRepository<QuestionSubscription, QuestionSubscriptionId>,
+        QuestionSubscriptionUpsertRepository {
+
+    @Query("""
+            SELECT s.id.userId FROM QuestionSubscription s
+            WHERE s.id.questionId = :questionId AND s.id.userId > :afterUserId
+            AND (s.expiryDate IS NULL OR s.expiryDate > :now)
+            ORDER BY s.id.userId""")
+    List<Long> findFollowerIds(@Param("questionId") Long questionId, @Param("afterUserId") Long afterUserId,
+                               @Param("now") LocalDateTime now, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM QuestionSubscription s WHERE s.expiryDate < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,15 @@
+package es.upm.miw.foro.persistence.repository;
+
+import es.upm.miw.foro.persistence.model.QuestionSubscriptionId;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+public interface QuestionSubscriptionUpsertRepository {
+
+    /**
+     * Follows the pairs until {@code expiryDate}, or for good when it is null. Pairs already followed are only
+     * extended: a later expiry date, or none, replaces theirs.
+     */
+    int insertMissing(Collection<QuestionSubscriptionId> ids, LocalDateTime expiryDate);
+}
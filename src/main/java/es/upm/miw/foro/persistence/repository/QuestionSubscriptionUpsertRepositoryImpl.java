@@ -0,0 +1,75 @@
+package es.upm.miw.foro.persistence.repository;
+
+import es.upm.miw.foro.persistence.model.QuestionSubscription;
+import es.upm.miw.foro.persistence.model.QuestionSubscriptionId;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NativeQuery;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Follows questions in bulk. On PostgreSQL it is a single {@code INSERT ... ON CONFLICT DO UPDATE} over the
+ * pairs, extending those already followed and skipping those whose question was deleted meanwhile. Other databases
+ * check and persist the pairs one by one.
+ */
+public class QuestionSubscriptionUpsertRepositoryImpl implements QuestionSubscriptionUpsertRepository {
+
+    private static final String INSERT_MISSING = """
+            INSERT INTO question_subscriptions (question_id, user_id, creation_date, expiry_date)
+            SELECT s.question_id, s.user_id, now(), CAST(:expiryDate AS timestamp)
+            FROM unnest(CAST(:questionIds AS bigint[]), CAST(:userIds AS bigint[])) AS s(question_id, user_id)
+            WHERE EXISTS (SELECT 1 FROM questions q WHERE q.id = s.question_id)
+            ON CONFLICT (question_id, user_id) DO UPDATE SET expiry_date = EXCLUDED.expiry_date
+            WHERE question_subscriptions.expiry_date IS NOT NULL
+              AND (EXCLUDED.expiry_date IS NULL OR EXCLUDED.expiry_date > question_subscriptions.expiry_date)""";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Boolean postgreSql;
+
+    @Override
+    public int insertMissing(Collection<QuestionSubscriptionId> ids, LocalDateTime expiryDate) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        if (!isPostgreSql()) {
+            return persist(ids, expiryDate);
+        }
+        NativeQuery<?> query = entityManager.createNativeQuery(INSERT_MISSING).unwrap(NativeQuery.class);
+        return query
+                .setParameter("questionIds", ids.stream().map(QuestionSubscriptionId::getQuestionId).toArray(Long[]::new))
+                .setParameter("userIds", ids.stream().map(QuestionSubscriptionId::getUserId).toArray(Long[]::new))
+                .setParameter("expiryDate", expiryDate, LocalDateTime.class)
+                .executeUpdate();
+    }
+
+    private int persist(Collection<QuestionSubscriptionId> ids, LocalDateTime expiryDate) {
+        int changed = 0;
+        for (QuestionSubscriptionId id : ids) {
+            QuestionSubscription subscription = entityManager.find(QuestionSubscription.class, id);
+            if (subscription == null) {
+                entityManager.persist(new QuestionSubscription(id, LocalDateTime.now(), expiryDate));
+                changed++;
+            } else if (subscription.getExpiryDate() != null
+                    && (expiryDate == null || expiryDate.isAfter(subscription.getExpiryDate()))) {
+                subscription.setExpiryDate(expiryDate);
+                changed++;
+            }
+        }
+        entityManager.flush();
+        return changed;
+    }
+
+    private boolean isPostgreSql() {
+        if (postgreSql == null) {
+            postgreSql = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+        }
+        return postgreSql;
+    }
+}
@@ -0,0 +1,18 @@
+package es.upm.miw.foro.persistence.repository;
+
+import es.upm.miw.foro.persistence.model.Question;
+import es.upm.miw.foro.persistence.repository.projection.QuestionSummary;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface QuestionSummaryRepository {
+
+    Page<QuestionSummary> findSummaries(Specification<Question> spec, Pageable pageable);
+
+    Window<QuestionSummary> scrollSummaries(Specification<Question> spec, Sort sort, KeysetScrollPosition position,
+                                            int limit);
+}
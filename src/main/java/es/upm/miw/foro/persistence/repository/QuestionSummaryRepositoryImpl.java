@@ -0,0 +1,115 @@
+package es.upm.miw.foro.persistence.repository;
+
+import es.upm.miw.foro.persistence.model.Answer;
+import es.upm.miw.foro.persistence.model.Question;
+import es.upm.miw.foro.persistence.model.User;
+import es.upm.miw.foro.persistence.repository.projection.QuestionSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.domain.*;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * List view of questions selected column by column: the author's user name comes from a join and the answer
+ * count from a correlated subquery, so no answer or tag collection is ever initialised for a page.
+ */
+public class QuestionSummaryRepositoryImpl implements QuestionSummaryRepository {
+
+    // No views: the view counter is flushed every few seconds, so a cursor on it would skip or repeat rows.
+    // Ordering by views stays on the offset listing.
+    private static final Map<String, Function<QuestionSummary, Object>> KEYS = Map.of(
+            "id", QuestionSummary::id,
+            "title", QuestionSummary::title,
+            "creationDate", QuestionSummary::creationDate);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<QuestionSummary> findSummaries(Specification<Question> spec, Pageable pageable) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<QuestionSummary> query = criteriaBuilder.createQuery(QuestionSummary.class);
+        Root<Question> root = selectSummary(query, criteriaBuilder);
+        applySpecification(spec, root, query, criteriaBuilder);
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, criteriaBuilder));
+        }
+
+        TypedQuery<QuestionSummary> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<QuestionSummary> content = typedQuery.getResultList();
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(spec));
+    }
+
+    @Override
+    public Window<QuestionSummary> scrollSummaries(Specification<Question> spec, Sort sort,
+                                                   KeysetScrollPosition position, int limit) {
+        KeysetPredicates.checkSort(sort, KEYS);
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<QuestionSummary> query = criteriaBuilder.createQuery(QuestionSummary.class);
+        Root<Question> root = selectSummary(query, criteriaBuilder);
+        Predicate filter = spec != null ? spec.toPredicate(root, query, criteriaBuilder) : null;
+        Predicate seek = position.isInitial() ? null : KeysetPredicates.seek(sort, position, root, criteriaBuilder);
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter != null) {
+            predicates.add(filter);
+        }
+        if (seek != null) {
+            predicates.add(seek);
+        }
+        query.where(predicates.toArray(Predicate[]::new));
+        query.orderBy(QueryUtils.toOrders(sort, root, criteriaBuilder));
+
+        List<QuestionSummary> rows = entityManager.createQuery(query).setMaxResults(limit + 1).getResultList();
+        boolean hasNext = rows.size() > limit;
+        List<QuestionSummary> content = hasNext ? rows.subList(0, limit) : rows;
+        return Window.from(content, index -> KeysetPredicates.positionOf(sort, content.get(index), KEYS), hasNext);
+    }
+
+    private Root<Question> selectSummary(CriteriaQuery<QuestionSummary> query, CriteriaBuilder criteriaBuilder) {
+        Root<Question> root = query.from(Question.class);
+        Join<Question, User> author = root.join("author", JoinType.LEFT);
+
+        Subquery<Long> answerCount = query.subquery(Long.class);
+        Root<Answer> answer = answerCount.from(Answer.class);
+        answerCount.select(criteriaBuilder.count(answer)).where(criteriaBuilder.equal(answer.get("question"), root));
+
+        query.select(criteriaBuilder.construct(QuestionSummary.class,
+                root.get("id"), root.get("title"), author.get("userName"), root.get("creationDate"),
+                root.get("views"), root.get("uniqueViews"), answerCount));
+        return root;
+    }
+
+    private long count(Specification<Question> spec) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<Question> root = query.from(Question.class);
+        applySpecification(spec, root, query, criteriaBuilder);
+        query.select(query.isDistinct() ? criteriaBuilder.countDistinct(root) : criteriaBuilder.count(root));
+        query.distinct(false);
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static void applySpecification(Specification<Question> spec, Root<Question> root,
+                                           CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) {
+        if (spec == null) {
+            return;
+        }
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+}
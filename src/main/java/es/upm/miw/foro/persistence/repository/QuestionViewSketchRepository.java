@@ -0,0 +1,20 @@
+package es.upm.miw.foro.persistence.repository;
+
+import es.upm.miw.foro.persistence.model.QuestionViewSketch;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface QuestionViewSketchRepository extends JpaRepository<QuestionViewSketch, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM QuestionViewSketch s WHERE s.questionId IN :questionIds")
+    List<QuestionViewSketch> findAllForUpdateByQuestionIdIn(@Param("questionIds") Collection<Long> questionIds);
+}
@@ -0,0 +1,11 @@
+package es.upm.miw.foro.persistence.repository;
+
+import es.upm.miw.foro.persistence.model.Tag;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface TagUpsertRepository {
+
+    List<Tag> insertMissing(Collection<String> names);
+}
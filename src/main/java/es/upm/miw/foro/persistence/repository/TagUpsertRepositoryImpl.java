@@ -0,0 +1,65 @@
+package es.upm.miw.foro.persistence.repository;
+
+import es.upm.miw.foro.persistence.model.Tag;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Creates the tags that do not exist yet. On PostgreSQL it is a single {@code INSERT ... ON CONFLICT DO NOTHING
+ * RETURNING}, so a name inserted concurrently by another transaction is skipped instead of failing on the unique
+ * constraint; only the rows actually inserted are returned. Other databases persist the tags one by one.
+ */
+public class TagUpsertRepositoryImpl implements TagUpsertRepository {
+
+    private static final String INSERT_MISSING = """
+            INSERT INTO tags (id, name)
+            SELECT nextval('tag_seq'), name FROM unnest(CAST(:names AS text[])) AS name
+            ON CONFLICT (name) DO NOTHING
+            RETURNING id, name""";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Boolean postgreSql;
+
+    @Override
+    public List<Tag> insertMissing(Collection<String> names) {
+        if (names.isEmpty()) {
+            return List.of();
+        }
+        if (!isPostgreSql()) {
+            return persist(names);
+        }
+        List<Object[]> rows = entityManager.createNativeQuery(INSERT_MISSING, Object[].class)
+                .setParameter("names", names.toArray(String[]::new))
+                .getResultList();
+        return rows.stream()
+                .map(row -> new Tag(((Number) row[0]).longValue(), (String) row[1], new ArrayList<>()))
+                .toList();
+    }
+
+    private List<Tag> persist(Collection<String> names) {
+        List<Tag> tags = names.stream().map(name -> {
+            Tag tag = new Tag();
+            tag.setName(name);
+            entityManager.persist(tag);
+            return tag;
+        }).toList();
+        entityManager.flush();
+        return tags;
+    }
+
+    private boolean isPostgreSql() {
+        if (postgreSql == null) {
+            postgreSql = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+        }
+        return postgreSql;
+    }
+}
@@ -0,0 +1,10 @@
+package es.upm.miw.foro.persistence.repository.projection;
+
+import es.upm.miw.foro.persistence.model.NotificationType;
+
+import java.time.LocalDateTime;
+
+public record NotificationSummary(Long id, Long userId, Long questionId, Long answerId, NotificationType type,
+                                  boolean read, int eventCount, LocalDateTime creationDate,
+                                  LocalDateTime writtenDate) {
+}
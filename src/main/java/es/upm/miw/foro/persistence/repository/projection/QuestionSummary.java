@@ -0,0 +1,7 @@
+package es.upm.miw.foro.persistence.repository.projection;
+
+import java.time.LocalDateTime;
+
+public record QuestionSummary(Long id, String title, String authorUserName, LocalDateTime creationDate,
+                              Integer views, Long uniqueViews, Long answerCount) {
+}
@@ -0,0 +1,8 @@
+package es.upm.miw.foro.persistence.repository.projection;
+
+public interface QuestionTagName {
+
+    Long getQuestionId();
+
+    String getName();
+}
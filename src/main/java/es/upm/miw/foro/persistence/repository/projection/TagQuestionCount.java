@@ -0,0 +1,4 @@
+package es.upm.miw.foro.persistence.repository.projection;
+
+public record TagQuestionCount(Long id, String name, Long questionCount) {
+}
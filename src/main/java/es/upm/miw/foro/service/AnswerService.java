@@ -1,6 +1,8 @@
 package es.upm.miw.foro.service;
 
 import es.upm.miw.foro.api.dto.AnswerDto;
+import es.upm.miw.foro.api.dto.CursorPageDto;
+import es.upm.miw.foro.service.scroll.ScrollRequest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -19,6 +21,9 @@ public interface AnswerService {
 
     Page<AnswerDto> getMyAnswers(String email, String question, String content, LocalDateTime creationDate, Pageable pageable);
 
+    CursorPageDto<AnswerDto> scrollMyAnswers(String email, String question, String content, LocalDateTime creationDate,
+                                             ScrollRequest scrollRequest);
+
     void deleteAnswer(Long id);
 
     boolean isAnswerAuthor(Long answerId, String username);
@@ -8,7 +8,7 @@ public interface JwtService {
 
     String extractToken(String authHeader);
 
-    String createToken(Long id, String firstName, String lastName, String email, String role);
+    String createToken(Long id, String firstName, String lastName, String userName, String email, String role);
 
     Optional<DecodedJWT> verify(String token);
 
@@ -1,22 +1,42 @@
 package es.upm.miw.foro.service;
 
+import es.upm.miw.foro.api.dto.CursorPageDto;
 import es.upm.miw.foro.api.dto.NotificationDto;
 import es.upm.miw.foro.persistence.model.Answer;
 import es.upm.miw.foro.persistence.model.Notification;
 import es.upm.miw.foro.persistence.model.Question;
 import es.upm.miw.foro.persistence.model.User;
+import es.upm.miw.foro.service.scroll.ScrollRequest;
+import reactor.core.publisher.Flux;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface NotificationService {
 
+    /**
+     * Notifies the question author and every follower of the thread except the one who answered, who starts
+     * following it.
+     */
     void notifyNewAnswer(User user, Question question, Answer answer);
 
     void sendNotification(Notification notification);
 
-    void markAsRead(Long notificationId);
+    int markAsRead(Long userId, Collection<Long> notificationIds);
 
-    List<NotificationDto> getUserNotifications(Long userId);
+    int markAllAsRead(Long userId);
+
+    long getUnreadCount(Long userId);
+
+    List<NotificationDto> getUserNotifications(Long userId, int limit);
+
+    CursorPageDto<NotificationDto> scrollUserNotifications(Long userId, boolean unreadOnly, ScrollRequest scrollRequest);
+
+    /**
+     * The user's notifications as they are delivered, after the ones written since the {@code lastEventId} cursor,
+     * if given.
+     */
+    Flux<NotificationDto> streamNotifications(Long userId, String lastEventId);
 
     void deleteByAnswerId(Long answerId);
 }
@@ -1,7 +1,9 @@
 package es.upm.miw.foro.service;
 
+import es.upm.miw.foro.api.dto.CursorPageDto;
 import es.upm.miw.foro.api.dto.QuestionDto;
 import es.upm.miw.foro.persistence.model.Tag;
+import es.upm.miw.foro.service.scroll.ScrollRequest;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -17,6 +19,8 @@ public interface QuestionService {
 
     Page<QuestionDto> getQuestions(String title, Boolean unanswered, String tag, Pageable pageable);
 
+    CursorPageDto<QuestionDto> scrollQuestions(String title, Boolean unanswered, String tag, ScrollRequest scrollRequest);
+
     Page<QuestionDto> searchQuestions(String query, Pageable pageable);
 
     QuestionDto updateQuestion(Long id, QuestionDto questionDto);
@@ -27,6 +31,9 @@ public interface QuestionService {
 
     Page<QuestionDto> getMyQuestions(String email, String title, LocalDateTime fromDate, Pageable pageable);
 
+    CursorPageDto<QuestionDto> scrollMyQuestions(String email, String title, LocalDateTime fromDate,
+                                                 ScrollRequest scrollRequest);
+
     void registerView(Long questionId, HttpServletRequest request);
 
     Set<Tag> processTags(Set<String> tagNames);
@@ -1,7 +1,9 @@
 package es.upm.miw.foro.service;
 
+import es.upm.miw.foro.api.dto.CursorPageDto;
 import es.upm.miw.foro.api.dto.UserDto;
 import es.upm.miw.foro.persistence.model.User;
+import es.upm.miw.foro.service.scroll.ScrollRequest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -17,6 +19,8 @@ public interface UserService {
 
     Page<UserDto> getAllUsers(String firstName, String lastName, String email, Pageable pageable);
 
+    CursorPageDto<UserDto> scrollAllUsers(String firstName, String lastName, String email, ScrollRequest scrollRequest);
+
     UserDto updateUser(Long id, UserDto userDto);
 
     void deleteUser(Long id);
@@ -24,4 +28,6 @@ public interface UserService {
     boolean verifyPassword(Long userId, String currentPassword);
 
     User getAuthenticatedUser();
+
+    Long getAuthenticatedUserId();
 }
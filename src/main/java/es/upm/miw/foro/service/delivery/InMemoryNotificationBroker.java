@@ -0,0 +1,44 @@
+package es.upm.miw.foro.service.delivery;
+
+import es.upm.miw.foro.api.dto.NotificationDto;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Routes within the JVM. A single node is the default deployment; tests {@link #join} more nodes to exercise
+ * cross-node routing without a database. Each node only receives the users subscribed on it.
+ */
+@Component
+@ConditionalOnProperty(name = "miw.notifications.broker", havingValue = "memory", matchIfMissing = true)
+public class InMemoryNotificationBroker implements NotificationBroker {
+
+    private final List<LocalNotificationSessions> nodes = new CopyOnWriteArrayList<>();
+
+    public InMemoryNotificationBroker(LocalNotificationSessions localNotificationSessions) {
+        nodes.add(localNotificationSessions);
+    }
+
+    public void join(LocalNotificationSessions node) {
+        nodes.add(node);
+    }
+
+    @Override
+    public void send(Map<Long, List<NotificationDto>> notificationsByUser) throws InterruptedException {
+        for (LocalNotificationSessions node : nodes) {
+            Map<Long, List<NotificationDto>> routed = new LinkedHashMap<>();
+            notificationsByUser.forEach((userId, notifications) -> {
+                if (node.isConnected(userId)) {
+                    routed.put(userId, notifications);
+                }
+            });
+            if (!routed.isEmpty()) {
+                node.deliver(routed);
+            }
+        }
+    }
+}
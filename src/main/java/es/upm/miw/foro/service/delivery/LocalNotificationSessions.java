@@ -0,0 +1,209 @@
+package es.upm.miw.foro.service.delivery;
+
+import es.upm.miw.foro.api.dto.NotificationDto;
+import es.upm.miw.foro.service.principal.WebSocketPrincipal;
+import es.upm.miw.foro.util.ApiPath;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+import reactor.core.publisher.Flux;
+
+import java.security.Principal;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Notification subscriptions held by this node's authenticated websocket sessions and {@link NotificationStreams},
+ * and the local end of every delivery: each user subscribed here gets one frame per batch on their user
+ * destination, pushed on a virtual thread, at most {@code maxDeliveries} at a time, and the batch on their open
+ * streams. Users without a session on this node are skipped.
+ * {@link RouteListener}s learn when a user's first subscription opens here and when their last one closes.
+ */
+@Slf4j
+@Component
+public class LocalNotificationSessions {
+
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000;
+    private static final String STREAM = "stream/";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final NotificationStreams notificationStreams;
+    private final AtomicLong streamIds = new AtomicLong();
+    private final Map<Long, Set<String>> subscriptionsByUser = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Long>> usersBySession = new ConcurrentHashMap<>();
+    private final List<RouteListener> routeListeners = new CopyOnWriteArrayList<>();
+    private final Semaphore deliveries;
+    private final ExecutorService deliveryExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter delivered;
+    private final Counter deliveryFailures;
+
+    public LocalNotificationSessions(SimpMessagingTemplate messagingTemplate, NotificationStreams notificationStreams,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${miw.notifications.max-deliveries:256}") int maxDeliveries) {
+        this.messagingTemplate = messagingTemplate;
+        this.notificationStreams = notificationStreams;
+        this.deliveries = new Semaphore(maxDeliveries);
+        this.delivered = deliveryCounter(meterRegistry, "sent");
+        this.deliveryFailures = deliveryCounter(meterRegistry, "failed");
+        Gauge.builder("miw.notifications.deliveries.active", deliveries,
+                        semaphore -> maxDeliveries - semaphore.availablePermits())
+                .description("Websocket pushes in progress").register(meterRegistry);
+        Gauge.builder("miw.notifications.sessions.users", subscriptionsByUser, Map::size)
+                .description("Users subscribed to their notifications on this node").register(meterRegistry);
+    }
+
+    public void addRouteListener(RouteListener routeListener) {
+        routeListeners.add(routeListener);
+    }
+
+    public boolean isConnected(Long userId) {
+        return subscriptionsByUser.containsKey(userId);
+    }
+
+    public Set<Long> connectedUsers() {
+        return Set.copyOf(subscriptionsByUser.keySet());
+    }
+
+    @EventListener
+    public void subscribed(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Long userId = userOf(accessor.getDestination(), event.getUser());
+        if (userId == null || accessor.getSessionId() == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+        usersBySession.computeIfAbsent(accessor.getSessionId(), id -> new ConcurrentHashMap<>())
+                .put(accessor.getSubscriptionId(), userId);
+        add(userId, accessor.getSessionId() + "/" + accessor.getSubscriptionId());
+    }
+
+    /**
+     * Opens a server-sent event stream for the user on this node, starting with the {@code missed} notifications.
+     */
+    public Flux<NotificationDto> stream(Long userId, Flux<NotificationDto> missed) {
+        String key = STREAM + streamIds.incrementAndGet();
+        add(userId, key);
+        return notificationStreams.open(userId, missed).doFinally(signal -> remove(userId, key));
+    }
+
+    @EventListener
+    public void unsubscribed(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Map<String, Long> subscriptions = usersBySession.get(accessor.getSessionId());
+        if (subscriptions == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+        Long userId = subscriptions.remove(accessor.getSubscriptionId());
+        if (userId != null) {
+            remove(userId, accessor.getSessionId() + "/" + accessor.getSubscriptionId());
+        }
+    }
+
+    @EventListener
+    public void disconnected(SessionDisconnectEvent event) {
+        Map<String, Long> subscriptions = usersBySession.remove(event.getSessionId());
+        if (subscriptions != null) {
+            subscriptions.forEach((subscriptionId, userId) -> remove(userId, event.getSessionId() + "/" + subscriptionId));
+        }
+    }
+
+    /**
+     * Pushes each user's notifications as a single frame, if the user is subscribed on this node.
+     */
+    public void deliver(Map<Long, List<NotificationDto>> notificationsByUser) throws InterruptedException {
+        for (Map.Entry<Long, List<NotificationDto>> entry : notificationsByUser.entrySet()) {
+            Set<String> subscriptions = subscriptionsByUser.get(entry.getKey());
+            if (subscriptions == null) {
+                continue;
+            }
+            notificationStreams.emit(entry.getKey(), entry.getValue());
+            if (subscriptions.stream().anyMatch(key -> !key.startsWith(STREAM))) {
+                deliver(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        deliveryExecutor.shutdown();
+        if (!deliveryExecutor.awaitTermination(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+            deliveryExecutor.shutdownNow();
+        }
+    }
+
+    private void deliver(Long userId, List<NotificationDto> notifications) throws InterruptedException {
+        deliveries.acquire();
+        try {
+            deliveryExecutor.execute(() -> {
+                try {
+                    messagingTemplate.convertAndSendToUser(String.valueOf(userId), ApiPath.QUEUE_NOTIFICATIONS,
+                            notifications);
+                    delivered.increment();
+                } catch (RuntimeException exception) {
+                    deliveryFailures.increment();
+                    log.warn("Error pushing {} notifications to user {}", notifications.size(), userId, exception);
+                } finally {
+                    deliveries.release();
+                }
+            });
+        } catch (RejectedExecutionException exception) {
+            deliveries.release();
+            deliveryFailures.increment();
+        }
+    }
+
+    private void add(Long userId, String key) {
+        AtomicBoolean first = new AtomicBoolean();
+        subscriptionsByUser.compute(userId, (id, keys) -> {
+            Set<String> subscriptions = keys != null ? keys : ConcurrentHashMap.newKeySet();
+            first.set(keys == null);
+            subscriptions.add(key);
+            return subscriptions;
+        });
+        if (first.get()) {
+            routeListeners.forEach(listener -> listener.connected(userId));
+        }
+    }
+
+    private void remove(Long userId, String key) {
+        AtomicBoolean last = new AtomicBoolean();
+        subscriptionsByUser.computeIfPresent(userId, (id, subscriptions) -> {
+            subscriptions.remove(key);
+            last.set(subscriptions.isEmpty());
+            return subscriptions.isEmpty() ? null : subscriptions;
+        });
+        if (last.get()) {
+            routeListeners.forEach(listener -> listener.disconnected(userId));
+        }
+    }
+
+    private static Long userOf(String destination, Principal user) {
+        if (ApiPath.USER_QUEUE_NOTIFICATIONS.equals(destination) && user instanceof WebSocketPrincipal principal) {
+            return principal.id();
+        }
+        return null;
+    }
+
+    private static Counter deliveryCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("miw.notifications.delivery").tag("result", result)
+                .description("Websocket frames of new notifications").register(meterRegistry);
+    }
+
+    public interface RouteListener {
+
+        void connected(Long userId);
+
+        void disconnected(Long userId);
+    }
+}
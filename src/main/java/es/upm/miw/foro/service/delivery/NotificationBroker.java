@@ -0,0 +1,15 @@
+package es.upm.miw.foro.service.delivery;
+
+import es.upm.miw.foro.api.dto.NotificationDto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cross-node delivery of new notifications. Each batch is routed only to the nodes holding websocket sessions of
+ * its users, which push them through their {@link LocalNotificationSessions}.
+ */
+public interface NotificationBroker {
+
+    void send(Map<Long, List<NotificationDto>> notificationsByUser) throws InterruptedException;
+}
@@ -0,0 +1,97 @@
+package es.upm.miw.foro.service.delivery;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import es.upm.miw.foro.api.dto.NotificationDto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes batches of notifications as JSON objects keyed by user id, split so no frame exceeds
+ * {@code maxBytes}: PostgreSQL rejects NOTIFY payloads of 8000 bytes or more.
+ */
+public class NotificationFrames {
+
+    private static final TypeReference<LinkedHashMap<Long, List<NotificationDto>>> FRAME = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper;
+    private final int maxBytes;
+
+    public NotificationFrames(ObjectMapper objectMapper, int maxBytes) {
+        this.objectMapper = objectMapper;
+        this.maxBytes = maxBytes;
+    }
+
+    public List<String> encode(Map<Long, List<NotificationDto>> notificationsByUser) {
+        List<String> frames = new ArrayList<>();
+        StringBuilder frame = new StringBuilder();
+        int frameBytes = 0;
+        for (Map.Entry<Long, List<NotificationDto>> entry : notificationsByUser.entrySet()) {
+            boolean userInFrame = false;
+            for (String member : members(entry.getKey(), entry.getValue())) {
+                int memberBytes = member.getBytes(StandardCharsets.UTF_8).length;
+                if (frameBytes > 0 && (userInFrame || frameBytes + memberBytes + 2 > maxBytes)) {
+                    frames.add(frame.append('}').toString());
+                    frame.setLength(0);
+                    frameBytes = 0;
+                }
+                frame.append(frameBytes == 0 ? '{' : ',').append(member);
+                frameBytes += memberBytes + 1;
+                userInFrame = true;
+            }
+        }
+        if (frameBytes > 0) {
+            frames.add(frame.append('}').toString());
+        }
+        return frames;
+    }
+
+    public Map<Long, List<NotificationDto>> decode(String frame) {
+        try {
+            return objectMapper.readValue(frame, FRAME);
+        } catch (JsonProcessingException exception) {
+            throw new IllegalArgumentException("Malformed notification frame", exception);
+        }
+    }
+
+    /**
+     * A user's notifications as {@code "id":[...]} members, as few as fit in a frame each. Every member of a user
+     * goes to its own frame: a JSON object keeps only the last of repeated keys.
+     */
+    private List<String> members(Long userId, List<NotificationDto> notifications) {
+        String key = "\"" + userId + "\":[";
+        List<String> members = new ArrayList<>();
+        StringBuilder member = new StringBuilder(key);
+        int memberBytes = key.length() + 1;
+        for (NotificationDto notification : notifications) {
+            String element = element(notification);
+            int elementBytes = element.getBytes(StandardCharsets.UTF_8).length;
+            boolean empty = member.length() == key.length();
+            if (!empty && memberBytes + elementBytes + 1 + 2 > maxBytes) {
+                members.add(member.append(']').toString());
+                member.setLength(0);
+                member.append(key);
+                memberBytes = key.length() + 1;
+                empty = true;
+            }
+            member.append(empty ? "" : ",").append(element);
+            memberBytes += elementBytes + (empty ? 0 : 1);
+        }
+        members.add(member.append(']').toString());
+        return members;
+    }
+
+    private String element(NotificationDto notification) {
+        try {
+            return objectMapper.writeValueAsString(notification);
+        } catch (JsonProcessingException exception) {
+            throw new IllegalArgumentException("Notification cannot be encoded", exception);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package es.upm.miw.foro.service.delivery;
+
+import es.upm.miw.foro.api.dto.NotificationDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-sent event streams open on this node. Every stream is a unicast sink holding at most {@code bufferSize}
+ * notifications, so emitting never blocks a delivery and an idle stream holds no thread. A stream that falls a
+ * whole buffer behind is completed; the client reconnects with its {@code Last-Event-ID} and catches up from the
+ * notifications table.
+ */
+@Component
+public class NotificationStreams {
+
+    private final Map<Long, Set<Sinks.Many<NotificationDto>>> sinksByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger open = new AtomicInteger();
+    private final int bufferSize;
+    private final Counter overflowed;
+
+    public NotificationStreams(MeterRegistry meterRegistry,
+                               @Value("${miw.notifications.stream-buffer:256}") int bufferSize) {
+        this.bufferSize = bufferSize;
+        this.overflowed = Counter.builder("miw.notifications.streams.overflow")
+                .description("Notification streams completed because the client fell behind").register(meterRegistry);
+        Gauge.builder("miw.notifications.streams", open, AtomicInteger::get)
+                .description("Server-sent event streams open on this node").register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream that first emits the {@code missed} notifications and then the ones delivered from now on.
+     * The stream receives deliveries from this call, not from its subscription, so nothing written while
+     * {@code missed} is read is lost; a notification in both is emitted once. Only the replayed notifications
+     * written within {@link StreamCursor#RESUME_SLACK} of the opening can also be delivered, so only their ids are
+     * kept to drop the second copy.
+     */
+    public Flux<NotificationDto> open(Long userId, Flux<NotificationDto> missed) {
+        Sinks.Many<NotificationDto> sink = Sinks.many().unicast()
+                .onBackpressureBuffer(Queues.<NotificationDto>get(bufferSize).get());
+        sinksByUser.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(sink);
+        open.incrementAndGet();
+        LocalDateTime deliverableSince = LocalDateTime.now().minus(StreamCursor.RESUME_SLACK);
+        Set<Long> replayed = ConcurrentHashMap.newKeySet();
+        Flux<NotificationDto> replay = missed.doOnNext(notification -> {
+            if (notification.getWrittenDate() == null || notification.getWrittenDate().isAfter(deliverableSince)) {
+                replayed.add(notification.getId());
+            }
+        });
+        return Flux.concat(replay, sink.asFlux().filter(notification -> !replayed.remove(notification.getId())))
+                .doFinally(signal -> close(userId, sink));
+    }
+
+    public void emit(Long userId, List<NotificationDto> notifications) {
+        Set<Sinks.Many<NotificationDto>> sinks = sinksByUser.get(userId);
+        if (sinks == null) {
+            return;
+        }
+        for (Sinks.Many<NotificationDto> sink : sinks) {
+            for (NotificationDto notification : notifications) {
+                if (!emit(sink, notification)) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Completes every stream before the web server waits for its open requests to finish.
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void closeAll() {
+        sinksByUser.values().forEach(sinks -> sinks.forEach(Sinks.Many::tryEmitComplete));
+    }
+
+    private boolean emit(Sinks.Many<NotificationDto> sink, NotificationDto notification) {
+        Sinks.EmitResult result = sink.tryEmitNext(notification);
+        while (result == Sinks.EmitResult.FAIL_NON_SERIALIZED) {
+            Thread.onSpinWait();
+            result = sink.tryEmitNext(notification);
+        }
+        // A full buffer is reported as no subscriber until the stream is subscribed
+        if (result == Sinks.EmitResult.FAIL_OVERFLOW || result == Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER) {
+            overflowed.increment();
+            while (sink.tryEmitComplete() == Sinks.EmitResult.FAIL_NON_SERIALIZED) {
+                Thread.onSpinWait();
+            }
+        }
+        return result.isSuccess();
+    }
+
+    private void close(Long userId, Sinks.Many<NotificationDto> sink) {
+        sinksByUser.computeIfPresent(userId, (id, sinks) -> {
+            if (sinks.remove(sink)) {
+                open.decrementAndGet();
+            }
+            return sinks.isEmpty() ? null : sinks;
+        });
+    }
+}
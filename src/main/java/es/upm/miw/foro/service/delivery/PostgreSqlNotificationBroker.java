@@ -0,0 +1,240 @@
+package es.upm.miw.foro.service.delivery;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import es.upm.miw.foro.api.dto.NotificationDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cross-node delivery over PostgreSQL LISTEN/NOTIFY, with no external broker. Every node listens on its own
+ * channel and advertises the users subscribed on it in the unlogged {@code notification_routes} table, refreshed
+ * by a heartbeat so the routes of a crashed node expire. A batch is delivered locally to the users subscribed
+ * here and sent to every other node holding one of its users as a few NOTIFY frames, carrying only that node's
+ * users.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "miw.notifications.broker", havingValue = "postgresql")
+public class PostgreSqlNotificationBroker implements NotificationBroker, LocalNotificationSessions.RouteListener {
+
+    private static final int MAX_FRAME_BYTES = 7900;
+    private static final int POLL_TIMEOUT_MILLIS = 500;
+    private static final long RECONNECT_DELAY_MILLIS = 2000;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000;
+    private static final String CHANNEL_PREFIX = "miw_notifications_";
+    private static final String UPSERT_ROUTES = """
+            INSERT INTO notification_routes (user_id, node_id, heartbeat)
+            SELECT user_id, ?, now() FROM unnest(CAST(? AS bigint[])) AS user_id
+            ON CONFLICT (user_id, node_id) DO UPDATE SET heartbeat = EXCLUDED.heartbeat""";
+    private static final String DELETE_ROUTES = "DELETE FROM notification_routes WHERE node_id = ? AND user_id = ANY(?)";
+    private static final String DELETE_NODE_ROUTES = "DELETE FROM notification_routes WHERE node_id = ?";
+    private static final String EXPIRE_ROUTES =
+            "DELETE FROM notification_routes WHERE heartbeat < now() - ? * INTERVAL '1 second'";
+    private static final String FIND_ROUTES = """
+            SELECT user_id, node_id FROM notification_routes
+            WHERE user_id = ANY(?) AND node_id <> ? AND heartbeat >= now() - ? * INTERVAL '1 second'""";
+
+    private final LocalNotificationSessions localNotificationSessions;
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final NotificationFrames notificationFrames;
+    private final String nodeId;
+    private final long routeTtlSeconds;
+    private final Set<Long> connected = ConcurrentHashMap.newKeySet();
+    private final Set<Long> disconnected = ConcurrentHashMap.newKeySet();
+    private final Counter framesSent;
+    private final Counter framesReceived;
+    private volatile boolean running;
+    private Thread listener;
+
+    public PostgreSqlNotificationBroker(LocalNotificationSessions localNotificationSessions, DataSource dataSource,
+                                        DataSourceProperties dataSourceProperties, ObjectMapper objectMapper,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${miw.notifications.node-id:}") String nodeId,
+                                        @Value("${miw.notifications.route-ttl:PT2M}") Duration routeTtl) {
+        this.localNotificationSessions = localNotificationSessions;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.dataSourceProperties = dataSourceProperties;
+        this.notificationFrames = new NotificationFrames(objectMapper, MAX_FRAME_BYTES);
+        this.nodeId = nodeId.isBlank() ? UUID.randomUUID().toString().replace("-", "")
+                : nodeId.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9_]", "_");
+        this.routeTtlSeconds = routeTtl.toSeconds();
+        this.framesSent = frameCounter(meterRegistry, "sent");
+        this.framesReceived = frameCounter(meterRegistry, "received");
+        localNotificationSessions.addRouteListener(this);
+    }
+
+    @Override
+    public void connected(Long userId) {
+        disconnected.remove(userId);
+        connected.add(userId);
+    }
+
+    @Override
+    public void disconnected(Long userId) {
+        connected.remove(userId);
+        disconnected.add(userId);
+    }
+
+    @Override
+    public void send(Map<Long, List<NotificationDto>> notificationsByUser) throws InterruptedException {
+        localNotificationSessions.deliver(notificationsByUser);
+        Map<String, Map<Long, List<NotificationDto>>> byNode = new HashMap<>();
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(FIND_ROUTES);
+                statement.setArray(1, connection.createArrayOf("bigint", notificationsByUser.keySet().toArray()));
+                statement.setString(2, nodeId);
+                statement.setLong(3, routeTtlSeconds);
+                return statement;
+            }, (ResultSet row) -> {
+                Long userId = row.getLong("user_id");
+                byNode.computeIfAbsent(row.getString("node_id"), node -> new LinkedHashMap<>())
+                        .put(userId, notificationsByUser.get(userId));
+            });
+            byNode.forEach((node, notifications) -> notificationFrames.encode(notifications).forEach(frame -> {
+                jdbcTemplate.query("SELECT pg_notify(?, ?)", (ResultSet row) -> {
+                }, CHANNEL_PREFIX + node, frame);
+                framesSent.increment();
+            }));
+        } catch (DataAccessException exception) {
+            log.warn("Error routing notifications to other nodes: {}", exception.getMessage());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        listener = Thread.ofVirtual().name("notification-listener").start(this::listen);
+        log.info("Listening for notifications of other nodes on channel {}", CHANNEL_PREFIX + nodeId);
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        running = false;
+        if (listener != null) {
+            listener.join(SHUTDOWN_TIMEOUT_MILLIS);
+            listener.interrupt();
+        }
+        try {
+            jdbcTemplate.update(DELETE_NODE_ROUTES, nodeId);
+        } catch (DataAccessException exception) {
+            log.warn("Error removing the notification routes of node {}: {}", nodeId, exception.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${miw.notifications.routes-flush-interval:PT1S}")
+    public void flushRoutes() {
+        List<Long> added = drain(connected);
+        List<Long> removed = drain(disconnected);
+        try {
+            updateRoutes(UPSERT_ROUTES, added);
+            updateRoutes(DELETE_ROUTES, removed);
+        } catch (DataAccessException exception) {
+            log.warn("Error updating the notification routes, they will be retried: {}", exception.getMessage());
+            added.stream().filter(localNotificationSessions::isConnected).forEach(connected::add);
+            removed.stream().filter(userId -> !localNotificationSessions.isConnected(userId)).forEach(disconnected::add);
+        }
+    }
+
+    /**
+     * Refreshes the routes of every user subscribed here and drops those of nodes that stopped refreshing theirs.
+     */
+    @Scheduled(fixedDelayString = "${miw.notifications.route-heartbeat:PT30S}")
+    public void heartbeat() {
+        try {
+            updateRoutes(UPSERT_ROUTES, new ArrayList<>(localNotificationSessions.connectedUsers()));
+            jdbcTemplate.update(EXPIRE_ROUTES, routeTtlSeconds);
+        } catch (DataAccessException exception) {
+            log.warn("Error refreshing the notification routes: {}", exception.getMessage());
+        }
+    }
+
+    private void updateRoutes(String sql, List<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setString(1, nodeId);
+            statement.setArray(2, connection.createArrayOf("bigint", userIds.toArray()));
+            return statement;
+        });
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL_PREFIX + nodeId);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications != null) {
+                        receive(notifications);
+                    }
+                }
+            } catch (SQLException exception) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Notification listener lost its connection, reconnecting: {}", exception.getMessage());
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void receive(PGNotification[] notifications) throws InterruptedException {
+        for (PGNotification notification : notifications) {
+            framesReceived.increment();
+            try {
+                localNotificationSessions.deliver(notificationFrames.decode(notification.getParameter()));
+            } catch (IllegalArgumentException exception) {
+                log.warn("Discarding a notification frame from channel {}", notification.getName(), exception);
+            }
+        }
+    }
+
+    private static List<Long> drain(Set<Long> userIds) {
+        List<Long> drained = new ArrayList<>(userIds);
+        drained.forEach(userIds::remove);
+        return drained;
+    }
+
+    private static Counter frameCounter(MeterRegistry meterRegistry, String direction) {
+        return Counter.builder("miw.notifications.broker.frames").tag("direction", direction)
+                .description("NOTIFY frames exchanged with other nodes").register(meterRegistry);
+    }
+}
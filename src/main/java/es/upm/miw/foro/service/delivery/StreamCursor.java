@@ -0,0 +1,46 @@
+package es.upm.miw.foro.service.delivery;
+
+import es.upm.miw.foro.api.dto.NotificationDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Position of a server-sent event stream, sent as the event id: the write date and id of the last notification.
+ * Notification ids come from pooled blocks per node, so they do not follow commit order. Write dates do, give or
+ * take the length of a write transaction and the clock skew between nodes, so a resumed stream replays from
+ * {@link #RESUME_SLACK} before the cursor and the client may see a notification twice, never miss one.
+ */
+public record StreamCursor(LocalDateTime writtenDate, Long id) {
+
+    public static final Duration RESUME_SLACK = Duration.ofMinutes(1);
+
+    private static final char SEPARATOR = '_';
+
+    public static StreamCursor of(NotificationDto notification) {
+        return new StreamCursor(notification.getWrittenDate(), notification.getId());
+    }
+
+    public static StreamCursor parse(String value) {
+        int separator = value.lastIndexOf(SEPARATOR);
+        if (separator < 0) {
+            throw new IllegalArgumentException("Invalid stream cursor: " + value);
+        }
+        try {
+            return new StreamCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.valueOf(value.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException exception) {
+            throw new IllegalArgumentException("Invalid stream cursor: " + value, exception);
+        }
+    }
+
+    public LocalDateTime replayFrom() {
+        return writtenDate.minus(RESUME_SLACK);
+    }
+
+    @Override
+    public String toString() {
+        return writtenDate.toString() + SEPARATOR + id;
+    }
+}
@@ -0,0 +1,146 @@
+package es.upm.miw.foro.service.delivery;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The websocket sessions open on this node. Every session is wrapped before the STOMP handler buffers its
+ * outbound frames, so the registry sees how long each write to the client takes. Spring closes a session whose
+ * buffer overflows or whose send outlives the time limit, but only when another frame arrives for it; the
+ * periodic sweep also evicts sessions stuck in a single write, which would otherwise keep their buffer forever.
+ */
+@Slf4j
+@Component
+public class WebSocketSessionRegistry implements WebSocketHandlerDecoratorFactory {
+
+    private final Map<String, TrackedSession> sessions = new ConcurrentHashMap<>();
+    private final long sendTimeLimitNanos;
+    private final Timer sends;
+    private final Counter stalled;
+    private final Counter overflowed;
+
+    public WebSocketSessionRegistry(MeterRegistry meterRegistry,
+                                    @Value("${miw.websocket.send-time-limit:PT10S}") Duration sendTimeLimit) {
+        this.sendTimeLimitNanos = sendTimeLimit.toNanos();
+        this.sends = Timer.builder("miw.websocket.send")
+                .description("Writing a frame to a websocket client").register(meterRegistry);
+        this.stalled = evictionCounter(meterRegistry, "stalled");
+        this.overflowed = evictionCounter(meterRegistry, "overflow");
+        Gauge.builder("miw.websocket.sessions", sessions, Map::size)
+                .description("Websocket sessions open on this node").register(meterRegistry);
+    }
+
+    public int connectedCount() {
+        return sessions.size();
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                TrackedSession tracked = new TrackedSession(session);
+                sessions.put(session.getId(), tracked);
+                super.afterConnectionEstablished(tracked);
+            }
+
+            @Override
+            public void handleMessage(WebSocketSession session, WebSocketMessage<?> message) throws Exception {
+                super.handleMessage(tracked(session), message);
+            }
+
+            @Override
+            public void handleTransportError(WebSocketSession session, Throwable exception) throws Exception {
+                super.handleTransportError(tracked(session), exception);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                TrackedSession tracked = sessions.remove(session.getId());
+                if (tracked != null && !tracked.evicted && CloseStatus.SESSION_NOT_RELIABLE.equals(closeStatus)) {
+                    overflowed.increment();
+                }
+                super.afterConnectionClosed(tracked != null ? tracked : session, closeStatus);
+            }
+        };
+    }
+
+    /**
+     * Closes the sessions whose current write has lasted longer than the send time limit.
+     */
+    @Scheduled(fixedDelayString = "${miw.websocket.slow-consumer-sweep:PT5S}")
+    public void evictSlowConsumers() {
+        long now = System.nanoTime();
+        for (TrackedSession session : sessions.values()) {
+            long started = session.sendStarted;
+            if (started != 0 && now - started > sendTimeLimitNanos && !session.evicted) {
+                session.evicted = true;
+                stalled.increment();
+                log.warn("Evicting websocket session {}, stalled in a send for {} ms", session.getId(),
+                        Duration.ofNanos(now - started).toMillis());
+                Thread.ofVirtual().name("websocket-evict-" + session.getId()).start(session::closeNotReliable);
+            }
+        }
+    }
+
+    private WebSocketSession tracked(WebSocketSession session) {
+        TrackedSession tracked = sessions.get(session.getId());
+        return tracked != null ? tracked : session;
+    }
+
+    private static Counter evictionCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("miw.websocket.evictions").tag("reason", reason)
+                .description("Websocket sessions closed for not keeping up with their frames")
+                .register(meterRegistry);
+    }
+
+    private final class TrackedSession extends WebSocketSessionDecorator {
+
+        private volatile long sendStarted;
+        private volatile boolean evicted;
+
+        private TrackedSession(WebSocketSession session) {
+            super(session);
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) throws IOException {
+            long started = System.nanoTime();
+            sendStarted = started;
+            try {
+                super.sendMessage(message);
+            } finally {
+                sendStarted = 0;
+                sends.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        private void closeNotReliable() {
+            try {
+                close(CloseStatus.SESSION_NOT_RELIABLE);
+            } catch (IOException | RuntimeException exception) {
+                log.debug("Error closing websocket session {}: {}", getId(), exception.getMessage());
+            }
+        }
+    }
+}
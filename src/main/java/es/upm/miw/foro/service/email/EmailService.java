@@ -3,26 +3,36 @@ package es.upm.miw.foro.service.email;
 import es.upm.miw.foro.exception.ServiceException;
 import jakarta.mail.internet.MimeMessage;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
+/**
+ * Sends from the mail executor and waits for the result: the SMTP transport is synchronized, so the caller, which
+ * may be a virtual thread, only parks instead of pinning its carrier for the whole exchange.
+ */
 @Service
 @Slf4j
 public class EmailService {
 
     private final PasswordResetEmailTemplate passwordResetEmailTemplate;
     private final JavaMailSender mailSender;
+    private final Executor mailExecutor;
     private final String fromEmail;
     private final String appName;
 
     public EmailService(PasswordResetEmailTemplate passwordResetEmailTemplate, JavaMailSender mailSender,
+                        @Qualifier("mailExecutor") Executor mailExecutor,
                         @Value("${spring.mail.username}") String fromEmail,
                         @Value("${app.name}") String appName) {
         this.passwordResetEmailTemplate = passwordResetEmailTemplate;
         this.mailSender = mailSender;
+        this.mailExecutor = mailExecutor;
         this.fromEmail = fromEmail;
         this.appName = appName;
     }
@@ -39,7 +49,7 @@ public class EmailService {
             String htmlContent = passwordResetEmailTemplate.buildResetEmailHtml(resetLink);
             helper.setText(htmlContent, true);
 
-            mailSender.send(message);
+            CompletableFuture.runAsync(() -> mailSender.send(message), mailExecutor).join();
             log.info("Password reset email sent to {}", toEmail);
 
         } catch (Exception e) {
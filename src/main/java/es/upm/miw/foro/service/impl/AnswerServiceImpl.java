@@ -2,6 +2,7 @@ package es.upm.miw.foro.service.impl;
 
 import es.upm.miw.foro.api.converter.AnswerMapper;
 import es.upm.miw.foro.api.dto.AnswerDto;
+import es.upm.miw.foro.api.dto.CursorPageDto;
 import es.upm.miw.foro.exception.RepositoryException;
 import es.upm.miw.foro.exception.ServiceException;
 import es.upm.miw.foro.persistence.model.Answer;
@@ -14,6 +15,8 @@ import es.upm.miw.foro.persistence.repository.specification.AnswerSpecification;
 import es.upm.miw.foro.service.AnswerService;
 import es.upm.miw.foro.service.NotificationService;
 import es.upm.miw.foro.service.UserService;
+import es.upm.miw.foro.service.scroll.ScrollRequest;
+import es.upm.miw.foro.service.search.QuestionSearchEngine;
 import es.upm.miw.foro.util.MessageUtil;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validator;
@@ -21,6 +24,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -35,22 +39,28 @@ import java.util.stream.Collectors;
 @Slf4j
 public class AnswerServiceImpl implements AnswerService {
 
+    private static final Set<String> SCROLL_SORT = Set.of("id", "creationDate");
+
     private final AnswerRepository answerRepository;
     private final QuestionRepository questionRepository;
     private final UserService userService;
     private final NotificationService notificationService;
+    private final QuestionSearchEngine questionSearchEngine;
     private final Validator validator;
 
     public AnswerServiceImpl(AnswerRepository answerRepository, QuestionRepository questionRepository,
-                             UserService userService, NotificationService notificationService, Validator validator) {
+                             UserService userService, NotificationService notificationService,
+                             QuestionSearchEngine questionSearchEngine, Validator validator) {
         this.answerRepository = answerRepository;
         this.questionRepository = questionRepository;
         this.userService = userService;
         this.notificationService = notificationService;
+        this.questionSearchEngine = questionSearchEngine;
         this.validator = validator;
     }
 
     @Override
+    @Transactional
     public AnswerDto createAnswer(Long questionId, AnswerDto answerDto) {
         try {
             validateAnswerDto(answerDto);
@@ -62,11 +72,10 @@ public class AnswerServiceImpl implements AnswerService {
 
             Answer answer = AnswerMapper.toEntity(answerDto, question, author);
             Answer savedAnswer = answerRepository.save(answer);
+            questionSearchEngine.questionChanged(questionId);
 
-            if (!question.getAuthor().getId().equals(author.getId())) {
-                log.info("Sending notification...");
-                notificationService.notifyNewAnswer(question.getAuthor(), question, savedAnswer);
-            }
+            log.info("Sending notification...");
+            notificationService.notifyNewAnswer(question.getAuthor(), question, savedAnswer);
 
             return AnswerMapper.toAnswerDto(savedAnswer);
         } catch (DataAccessException exception) {
@@ -124,6 +133,7 @@ public class AnswerServiceImpl implements AnswerService {
             }
             existingAnswer.setContent(answerDto.getContent());
             Answer updatedAnswer = answerRepository.save(existingAnswer);
+            questionSearchEngine.questionChanged(existingAnswer.getQuestion().getId());
             Answer reloadedAnswer = answerRepository.findByIdWithAuthor(updatedAnswer.getId())
                             .orElseThrow(() -> new ServiceException("Updated answer not found"));
             return AnswerMapper.toAnswerDto(reloadedAnswer);
@@ -150,6 +160,24 @@ public class AnswerServiceImpl implements AnswerService {
         }
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<AnswerDto> scrollMyAnswers(String email, String question, String content,
+                                                    LocalDateTime creationDate, ScrollRequest scrollRequest) {
+        try {
+            Specification<Answer> spec = AnswerSpecification.buildAnswerSpecification(email, question, content, creationDate);
+            Window<Answer> window = answerRepository.findBy(spec, query -> query
+                    .sortBy(scrollRequest.sort(SCROLL_SORT))
+                    .limit(scrollRequest.size())
+                    .scroll(scrollRequest.position()));
+            return scrollRequest.toCursorPage(window, AnswerMapper::toAnswerDto, () -> answerRepository.count(spec));
+        } catch (ServiceException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ServiceException("Error retrieving user answers with filters", e);
+        }
+    }
+
     @Override
     @Transactional
     public void deleteAnswer(Long id) {
@@ -165,6 +193,7 @@ public class AnswerServiceImpl implements AnswerService {
 
             notificationService.deleteByAnswerId(answer.getId());
             answerRepository.delete(answer);
+            questionSearchEngine.questionChanged(answer.getQuestion().getId());
         } catch (DataAccessException exception) {
             throw new RepositoryException("Error while deleting answer", exception);
         } catch (ServiceException e) {
@@ -4,8 +4,12 @@ import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTDecodeException;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import com.auth0.jwt.interfaces.JWTVerifier;
 import es.upm.miw.foro.exception.ServiceException;
+import es.upm.miw.foro.persistence.model.Role;
 import es.upm.miw.foro.service.JwtService;
+import es.upm.miw.foro.service.principal.UserPrincipal;
+import es.upm.miw.foro.service.principal.VerifiedTokenCache;
 import es.upm.miw.foro.util.MessageUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,23 +23,34 @@ import java.util.Optional;
 @Service
 public class JwtServiceImpl implements JwtService {
 
-    private final String secret;
     private final String issuer;
     private final int expire;
+    private final Algorithm algorithm;
+    private final JWTVerifier verifier;
+    private final JWTVerifier passwordResetVerifier;
+    private final VerifiedTokenCache verifiedTokenCache;
 
     @Autowired
     public JwtServiceImpl(@Value("${miw.jwt.secret}") String secret, @Value("${miw.jwt.issuer}") String issuer,
-                          @Value("${miw.jwt.expire}") int expire) {
-        this.secret = secret;
+                          @Value("${miw.jwt.expire}") int expire, VerifiedTokenCache verifiedTokenCache) {
         this.issuer = issuer;
         this.expire = expire;
+        this.algorithm = Algorithm.HMAC256(secret);
+        this.verifier = JWT.require(algorithm).withIssuer(issuer).build();
+        this.passwordResetVerifier = JWT.require(algorithm)
+                .withIssuer(issuer)
+                .withClaim(MessageUtil.PASSWORD_RESET_CLAIM, true)
+                .build();
+        this.verifiedTokenCache = verifiedTokenCache;
     }
 
     @Override
     public String extractToken(String authHeader) {
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
-            if (token.split("\\.").length == 3) {
+            int firstDot = token.indexOf('.');
+            int secondDot = firstDot < 0 ? -1 : token.indexOf('.', firstDot + 1);
+            if (secondDot > 0 && token.indexOf('.', secondDot + 1) < 0) {
                 return token;
             }
         }
@@ -43,7 +58,7 @@ public class JwtServiceImpl implements JwtService {
     }
 
     @Override
-    public String createToken(Long id, String firstName, String lastName, String email, String role) {
+    public String createToken(Long id, String firstName, String lastName, String userName, String email, String role) {
         return JWT.create()
                 .withIssuer(this.issuer)
                 .withIssuedAt(new Date())
@@ -52,17 +67,20 @@ public class JwtServiceImpl implements JwtService {
                 .withClaim("id", id.toString())
                 .withClaim(MessageUtil.FIRSTNAME_CLAIM, firstName)
                 .withClaim(MessageUtil.LASTNAME_CLAIM, lastName)
+                .withClaim(MessageUtil.USERNAME_CLAIM, userName)
                 .withClaim(MessageUtil.EMAIL_CLAIM, email)
                 .withClaim(MessageUtil.ROLE_CLAIM, role)
-                .sign(Algorithm.HMAC256(this.secret));
+                .sign(this.algorithm);
     }
 
     @Override
     public Optional<DecodedJWT> verify(String token) {
+        return verifiedTokenCache.verify(token, this::verifySignature);
+    }
+
+    private Optional<DecodedJWT> verifySignature(String token) {
         try {
-            return Optional.of(JWT.require(Algorithm.HMAC256(this.secret))
-                    .withIssuer(this.issuer).build()
-                    .verify(token));
+            return Optional.of(this.verifier.verify(token));
         } catch (Exception exception) {
             return Optional.empty();
         }
@@ -77,19 +95,13 @@ public class JwtServiceImpl implements JwtService {
                 .withIssuedAt(new Date())
                 .withNotBefore(new Date())
                 .withExpiresAt(new Date(System.currentTimeMillis() + 3600 * 1000L))
-                .sign(Algorithm.HMAC256(this.secret));
+                .sign(this.algorithm);
     }
 
     @Override
     public String validatePasswordResetToken(String token) {
         try {
-            DecodedJWT jwt = JWT.require(Algorithm.HMAC256(this.secret))
-                    .withIssuer(this.issuer)
-                    .withClaim(MessageUtil.PASSWORD_RESET_CLAIM, true)
-                    .build()
-                    .verify(token);
-
-            return jwt.getSubject();
+            return this.passwordResetVerifier.verify(token).getSubject();
         } catch (Exception e) {
             log.error("Invalid password reset token: {}", e.getMessage());
             throw new ServiceException("Invalid or expired password reset token");
@@ -109,8 +121,24 @@ public class JwtServiceImpl implements JwtService {
                 .orElseThrow(() -> new JWTDecodeException("Invalid token"));
     }
 
+    public Optional<UserPrincipal> principal(DecodedJWT jwt) {
+        String id = jwt.getClaim("id").asString();
+        String email = jwt.getClaim(MessageUtil.EMAIL_CLAIM).asString();
+        String userName = jwt.getClaim(MessageUtil.USERNAME_CLAIM).asString();
+        String role = jwt.getClaim(MessageUtil.ROLE_CLAIM).asString();
+        if (id == null || email == null || userName == null || role == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new UserPrincipal(Long.valueOf(id), email, userName,
+                    jwt.getClaim(MessageUtil.FIRSTNAME_CLAIM).asString(),
+                    jwt.getClaim(MessageUtil.LASTNAME_CLAIM).asString(), Role.valueOf(role)));
+        } catch (IllegalArgumentException exception) {
+            return Optional.empty();
+        }
+    }
+
     public String role(String token) {
-        log.info("Token to decode: {}", token);
         if (token == null || token.split("\\.").length != 3) {
             log.error("Invalid token format");
             throw new JWTDecodeException("Invalid token format");
@@ -118,7 +146,6 @@ public class JwtServiceImpl implements JwtService {
         try {
             DecodedJWT decodedJWT = JWT.decode(token);
             String role = decodedJWT.getClaim("role").asString();
-            log.info("Extracted role from token: {}", role);
             return role;
         } catch (JWTDecodeException e) {
             log.error("Failed to decode token: {}", e.getMessage());
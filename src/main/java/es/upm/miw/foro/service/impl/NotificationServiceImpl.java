@@ -1,51 +1,71 @@
 package es.upm.miw.foro.service.impl;
 
 import es.upm.miw.foro.api.converter.NotificationMapper;
+import es.upm.miw.foro.api.dto.CursorPageDto;
 import es.upm.miw.foro.api.dto.NotificationDto;
 import es.upm.miw.foro.exception.RepositoryException;
 import es.upm.miw.foro.exception.ServiceException;
 import es.upm.miw.foro.persistence.model.*;
 import es.upm.miw.foro.persistence.repository.NotificationRepository;
+import es.upm.miw.foro.persistence.repository.projection.NotificationSummary;
 import es.upm.miw.foro.service.NotificationService;
-import es.upm.miw.foro.util.ApiPath;
+import es.upm.miw.foro.service.delivery.LocalNotificationSessions;
+import es.upm.miw.foro.service.delivery.StreamCursor;
+import es.upm.miw.foro.service.notification.NotificationPipeline;
+import es.upm.miw.foro.service.notification.QuestionFollowers;
+import es.upm.miw.foro.service.notification.UnreadNotificationCounter;
+import es.upm.miw.foro.service.scroll.ScrollRequest;
 import lombok.extern.slf4j.Slf4j;
-import org.hibernate.Hibernate;
 import org.springframework.dao.DataAccessException;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @Slf4j
 public class NotificationServiceImpl implements NotificationService {
 
-    private final NotificationRepository notificationRepository;
-    private final SimpMessagingTemplate messagingTemplate;
+    private static final String CREATION_DATE = "creationDate";
+    private static final String ID = "id";
+    private static final String WRITTEN_DATE = "writtenDate";
+    private static final Sort WRITE_ORDER = Sort.by(Sort.Direction.ASC, WRITTEN_DATE, ID);
+    private static final int STREAM_REPLAY_WINDOW = 100;
 
-    public NotificationServiceImpl(NotificationRepository notificationRepository, SimpMessagingTemplate messagingTemplate) {
+    private final NotificationRepository notificationRepository;
+    private final NotificationPipeline notificationPipeline;
+    private final QuestionFollowers questionFollowers;
+    private final UnreadNotificationCounter unreadNotificationCounter;
+    private final LocalNotificationSessions localNotificationSessions;
+
+    public NotificationServiceImpl(NotificationRepository notificationRepository,
+                                   NotificationPipeline notificationPipeline, QuestionFollowers questionFollowers,
+                                   UnreadNotificationCounter unreadNotificationCounter,
+                                   LocalNotificationSessions localNotificationSessions) {
         this.notificationRepository = notificationRepository;
-        this.messagingTemplate = messagingTemplate;
+        this.notificationPipeline = notificationPipeline;
+        this.questionFollowers = questionFollowers;
+        this.unreadNotificationCounter = unreadNotificationCounter;
+        this.localNotificationSessions = localNotificationSessions;
     }
 
     @Override
     @Transactional
     public void notifyNewAnswer(User user, Question question, Answer answer) {
-        Notification notification = new Notification();
-        notification.setUser(user);
-        notification.setQuestion(question);
-        notification.setAnswer(answer);
-        notification.setType(NotificationType.QUESTION_REPLIED);
-        notification.setCreationDate(LocalDateTime.now());
-        notification.setRead(false);
-
-        Notification savedNotification = notificationRepository.save(notification);
-
-        NotificationDto dto = NotificationMapper.toNotificationDto(savedNotification);
-
-        messagingTemplate.convertAndSend(ApiPath.TOPIC_NOTIFICATIONS + user.getId(), dto);
+        Long actorId = answer.getAuthor() != null ? answer.getAuthor().getId() : null;
+        questionFollowers.follow(question.getId(), actorId);
+        notificationPipeline.publishToFollowers(user.getId(), question.getId(), answer.getId(), actorId,
+                NotificationType.QUESTION_REPLIED);
     }
 
     @Override
@@ -54,34 +74,54 @@ public class NotificationServiceImpl implements NotificationService {
         notification.setCreationDate(LocalDateTime.now());
         notification.setRead(false);
         notificationRepository.save(notification);
+        unreadNotificationCounter.added(notification.getUser().getId());
     }
 
     @Override
     @Transactional
-    public void markAsRead(Long notificationId) {
-        notificationRepository.findById(notificationId)
-                .ifPresent(notif -> {
-                    notif.setRead(true);
-                    notificationRepository.save(notif);
-                });
+    public int markAsRead(Long userId, Collection<Long> notificationIds) {
+        if (notificationIds == null || notificationIds.isEmpty()) {
+            return 0;
+        }
+        int read = notificationRepository.markAsRead(userId, notificationIds);
+        unreadNotificationCounter.read(userId, read);
+        return read;
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public List<NotificationDto> getUserNotifications(Long userId) {
-        try {
-            log.info("Fetching notifications for user ID: {}", userId);
-
-            List<Notification> notifications = notificationRepository.findByUserIdOrderByCreationDateDesc(userId);
+    @Transactional
+    public int markAllAsRead(Long userId) {
+        int read = notificationRepository.markAllAsRead(userId);
+        unreadNotificationCounter.read(userId, read);
+        return read;
+    }
 
-            notifications.forEach(notification -> {
-                Hibernate.initialize(notification.getUser());
-                Hibernate.initialize(notification.getQuestion());
-                Hibernate.initialize(notification.getAnswer());
-            });
+    @Override
+    public long getUnreadCount(Long userId) {
+        return unreadNotificationCounter.unread(userId);
+    }
 
-            return NotificationMapper.toDtoList(notifications);
+    @Override
+    @Transactional(readOnly = true)
+    public List<NotificationDto> getUserNotifications(Long userId, int limit) {
+        ScrollRequest scrollRequest = ScrollRequest.of(null, limit, CREATION_DATE, "desc", false);
+        return scrollUserNotifications(userId, false, scrollRequest).getContent();
+    }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<NotificationDto> scrollUserNotifications(Long userId, boolean unreadOnly,
+                                                                  ScrollRequest scrollRequest) {
+        try {
+            Window<NotificationSummary> window = notificationRepository.scrollInbox(userId, unreadOnly,
+                    scrollRequest.sort(), scrollRequest.position(), scrollRequest.size());
+            return scrollRequest.toCursorPage(window, NotificationMapper::fromSummary, () -> unreadOnly
+                    ? notificationRepository.countByUserIdAndReadFalse(userId)
+                    : notificationRepository.countByUserId(userId));
+        } catch (IllegalArgumentException exception) {
+            throw new ServiceException(exception.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (ServiceException exception) {
+            throw exception;
         } catch (DataAccessException exception) {
             log.error("Error while getting notifications for user ID: {}", userId, exception);
             throw new RepositoryException("Error while getting notifications", exception);
@@ -91,9 +131,37 @@ public class NotificationServiceImpl implements NotificationService {
         }
     }
 
+    @Override
+    public Flux<NotificationDto> streamNotifications(Long userId, String lastEventId) {
+        if (lastEventId == null) {
+            return localNotificationSessions.stream(userId, Flux.empty());
+        }
+        StreamCursor cursor;
+        try {
+            cursor = StreamCursor.parse(lastEventId);
+        } catch (IllegalArgumentException exception) {
+            throw new ServiceException(exception.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+        Flux<NotificationDto> missed = missedAfter(userId, cursor.replayFrom(), Long.MIN_VALUE)
+                .expand(window -> window.hasNext() ? missedAfter(userId, window.getContent().getLast().writtenDate(),
+                        window.getContent().getLast().id()) : Mono.empty())
+                .flatMapIterable(Window::getContent)
+                .filter(summary -> !summary.id().equals(cursor.id()))
+                .map(NotificationMapper::fromSummary);
+        return localNotificationSessions.stream(userId, missed);
+    }
+
     @Override
     @Transactional
     public void deleteByAnswerId(Long answerId) {
+        unreadNotificationCounter.evict(notificationRepository.findUnreadUserIdsByAnswerIds(List.of(answerId)));
         notificationRepository.deleteByAnswerId(answerId);
     }
-}
\ No newline at end of file
+
+    private Mono<Window<NotificationSummary>> missedAfter(Long userId, LocalDateTime writtenDate, Long notificationId) {
+        return Mono.fromCallable(() -> notificationRepository.scrollInbox(userId, false, WRITE_ORDER,
+                        ScrollPosition.forward(Map.of(WRITTEN_DATE, writtenDate, ID, notificationId)),
+                        STREAM_REPLAY_WINDOW))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -1,33 +1,48 @@
 package es.upm.miw.foro.service.impl;
 
 import es.upm.miw.foro.api.converter.QuestionMapper;
+import es.upm.miw.foro.api.dto.CursorPageDto;
 import es.upm.miw.foro.api.dto.QuestionDto;
 import es.upm.miw.foro.exception.RepositoryException;
 import es.upm.miw.foro.exception.ServiceException;
 import es.upm.miw.foro.persistence.model.*;
 import es.upm.miw.foro.persistence.repository.NotificationRepository;
 import es.upm.miw.foro.persistence.repository.QuestionRepository;
-import es.upm.miw.foro.persistence.repository.TagRepository;
+import es.upm.miw.foro.persistence.repository.projection.QuestionSummary;
 import es.upm.miw.foro.persistence.repository.specification.QuestionSpecification;
 import es.upm.miw.foro.service.QuestionService;
 import es.upm.miw.foro.service.UserService;
+import es.upm.miw.foro.service.notification.AfterCommit;
+import es.upm.miw.foro.service.notification.QuestionFollowers;
+import es.upm.miw.foro.service.notification.UnreadNotificationCounter;
+import es.upm.miw.foro.service.principal.UserPrincipal;
+import es.upm.miw.foro.service.scroll.ScrollRequest;
+import es.upm.miw.foro.service.search.QuestionSearchEngine;
+import es.upm.miw.foro.service.tag.TagResolver;
+import es.upm.miw.foro.service.tag.TagStatistics;
+import es.upm.miw.foro.service.view.QuestionViewCounter;
 import es.upm.miw.foro.util.MessageUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validator;
 import lombok.extern.slf4j.Slf4j;
-import org.hibernate.Hibernate;
 import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -37,16 +52,30 @@ public class QuestionServiceImpl implements QuestionService {
 
     private final QuestionRepository questionRepository;
     private final UserService userService;
-    private final TagRepository tagRepository;
+    private final TagResolver tagResolver;
+    private final TagStatistics tagStatistics;
     private final NotificationRepository notificationRepository;
+    private final QuestionSearchEngine questionSearchEngine;
+    private final QuestionViewCounter questionViewCounter;
+    private final UnreadNotificationCounter unreadNotificationCounter;
+    private final QuestionFollowers questionFollowers;
     private final Validator validator;
 
-    public QuestionServiceImpl(QuestionRepository questionRepository, UserService userService, TagRepository tagRepository,
-                               NotificationRepository notificationRepository, Validator validator) {
+    public QuestionServiceImpl(QuestionRepository questionRepository, UserService userService, TagResolver tagResolver,
+                               TagStatistics tagStatistics,
+                               NotificationRepository notificationRepository, QuestionSearchEngine questionSearchEngine,
+                               QuestionViewCounter questionViewCounter,
+                               UnreadNotificationCounter unreadNotificationCounter,
+                               QuestionFollowers questionFollowers, Validator validator) {
         this.questionRepository = questionRepository;
         this.userService = userService;
-        this.tagRepository = tagRepository;
+        this.tagResolver = tagResolver;
+        this.tagStatistics = tagStatistics;
         this.notificationRepository = notificationRepository;
+        this.questionSearchEngine = questionSearchEngine;
+        this.questionViewCounter = questionViewCounter;
+        this.unreadNotificationCounter = unreadNotificationCounter;
+        this.questionFollowers = questionFollowers;
         this.validator = validator;
     }
 
@@ -63,6 +92,8 @@ public class QuestionServiceImpl implements QuestionService {
             question.setTags(tags);
 
             Question savedQuestion = questionRepository.save(question);
+            AfterCommit.run(() -> tagStatistics.membershipChanged(Set.of(), tags));
+            questionSearchEngine.questionChanged(savedQuestion.getId());
             return QuestionMapper.toQuestionDto(savedQuestion);
         } catch (DataAccessException exception) {
             throw new RepositoryException("Error while saving question", exception);
@@ -79,7 +110,9 @@ public class QuestionServiceImpl implements QuestionService {
         try {
             Question question = questionRepository.findById(id)
                     .orElseThrow(() -> new ServiceException("Question not found"));
-            return QuestionMapper.toQuestionDto(question);
+            QuestionDto questionDto = QuestionMapper.toQuestionDto(question);
+            questionDto.setViews(questionDto.getViews() + (int) questionViewCounter.pendingViews(id));
+            return questionDto;
         } catch (DataAccessException e) {
             throw new RepositoryException("Error while retrieving question", e);
         } catch (ServiceException e) {
@@ -94,15 +127,26 @@ public class QuestionServiceImpl implements QuestionService {
     public Page<QuestionDto> getQuestions(String title, Boolean unanswered, String tag, Pageable pageable) {
         try {
             Specification<Question> spec = QuestionSpecification.buildQuestionSpecification(null, title, null, unanswered, tag);
-            Page<Question> questionPage = questionRepository.findAll(spec, pageable);
-
-            return questionPage.map(QuestionMapper::toQuestionDto);
+            return findSummaries(spec, pageable);
         } catch (DataAccessException exception) {
             log.error("Error while getting filtered questions", exception);
             throw new RepositoryException("Error while getting questions", exception);
         }
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<QuestionDto> scrollQuestions(String title, Boolean unanswered, String tag,
+                                                      ScrollRequest scrollRequest) {
+        try {
+            Specification<Question> spec = QuestionSpecification.buildQuestionSpecification(null, title, null, unanswered, tag);
+            return scrollSummaries(spec, scrollRequest);
+        } catch (DataAccessException exception) {
+            log.error("Error while scrolling filtered questions", exception);
+            throw new RepositoryException("Error while getting questions", exception);
+        }
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<QuestionDto> searchQuestions(String query, Pageable pageable) {
@@ -111,8 +155,7 @@ public class QuestionServiceImpl implements QuestionService {
                 return Page.empty(pageable);
             }
 
-            Page<Question> questions = questionRepository
-                    .searchByTitleOrDescriptionOrAnswerContentContainingIgnoreCase(query.trim(), pageable);
+            Page<Question> questions = questionSearchEngine.search(query.trim(), pageable);
 
             return questions.map(QuestionMapper::toQuestionDto);
         } catch (DataAccessException e) {
@@ -138,10 +181,13 @@ public class QuestionServiceImpl implements QuestionService {
             existingQuestion.setTitle(questionDto.getTitle());
             existingQuestion.setDescription(questionDto.getDescription());
 
+            Set<Tag> previousTags = new HashSet<>(existingQuestion.getTags());
             Set<Tag> tags = processTags(questionDto.getTags());
             existingQuestion.setTags(tags);
 
             Question updatedQuestion = questionRepository.save(existingQuestion);
+            AfterCommit.run(() -> tagStatistics.membershipChanged(previousTags, tags));
+            questionSearchEngine.questionChanged(updatedQuestion.getId());
             return QuestionMapper.toQuestionDto(updatedQuestion);
         } catch (DataAccessException exception) {
             throw new RepositoryException("Error while updating question", exception);
@@ -167,9 +213,13 @@ public class QuestionServiceImpl implements QuestionService {
             List<Answer> answers = question.getAnswers();
             if (answers != null && !answers.isEmpty()) {
                 List<Long> answerIds = answers.stream().map(Answer::getId).toList();
+                unreadNotificationCounter.evict(notificationRepository.findUnreadUserIdsByAnswerIds(answerIds));
                 notificationRepository.deleteByAnswerIds(answerIds);
             }
+            Set<Tag> removedTags = new HashSet<>(question.getTags());
             questionRepository.delete(question);
+            AfterCommit.run(() -> tagStatistics.membershipChanged(removedTags, Set.of()));
+            questionSearchEngine.questionRemoved(id);
         } catch (DataAccessException exception) {
             throw new RepositoryException("Error while deleting question", exception);
         } catch (ServiceException e) {
@@ -192,14 +242,21 @@ public class QuestionServiceImpl implements QuestionService {
     public Page<QuestionDto> getMyQuestions(String email, String title, LocalDateTime fromDate, Pageable pageable) {
         try {
             Specification<Question> spec = QuestionSpecification.buildQuestionSpecification(email, title, fromDate, null, null);
-            Page<Question> page = questionRepository.findAll(spec, pageable);
-
-            page.getContent().forEach(question -> {
-                Hibernate.initialize(question.getAuthor());
-                Hibernate.initialize(question.getTags());
-            });
+            return findSummaries(spec, pageable);
+        } catch (ServiceException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ServiceException("Error retrieving user questions with filters", e);
+        }
+    }
 
-            return page.map(QuestionMapper::toQuestionDto);
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<QuestionDto> scrollMyQuestions(String email, String title, LocalDateTime fromDate,
+                                                        ScrollRequest scrollRequest) {
+        try {
+            Specification<Question> spec = QuestionSpecification.buildQuestionSpecification(email, title, fromDate, null, null);
+            return scrollSummaries(spec, scrollRequest);
         } catch (ServiceException e) {
             throw e;
         } catch (Exception e) {
@@ -207,43 +264,59 @@ public class QuestionServiceImpl implements QuestionService {
         }
     }
 
-    @Transactional
-    public void registerView(Long questionId, HttpServletRequest request) {
-        Question question = questionRepository.findById(questionId)
-                .orElseThrow(() -> new RepositoryException(MessageUtil.QUESTION_NOT_FOUND));
+    private Page<QuestionDto> findSummaries(Specification<Question> spec, Pageable pageable) {
+        Page<QuestionSummary> summaries = questionRepository.findSummaries(spec, pageable);
+        Map<Long, Set<String>> tagsByQuestion = tagNamesByQuestion(summaries.getContent());
+        return summaries.map(summary -> QuestionMapper.toQuestionDto(summary,
+                tagsByQuestion.getOrDefault(summary.id(), Set.of())));
+    }
 
-        String sessionId = request.getSession().getId();
-        User user;
+    private CursorPageDto<QuestionDto> scrollSummaries(Specification<Question> spec, ScrollRequest scrollRequest) {
+        Window<QuestionSummary> window;
         try {
-            user = userService.getAuthenticatedUser();
-        } catch (ServiceException ex) {
-            user = null;
+            window = questionRepository.scrollSummaries(spec, scrollRequest.sort(), scrollRequest.position(),
+                    scrollRequest.size());
+        } catch (IllegalArgumentException exception) {
+            throw new ServiceException(exception.getMessage(), HttpStatus.BAD_REQUEST);
         }
+        Map<Long, Set<String>> tagsByQuestion = tagNamesByQuestion(window.getContent());
+        return scrollRequest.toCursorPage(window,
+                summary -> QuestionMapper.toQuestionDto(summary, tagsByQuestion.getOrDefault(summary.id(), Set.of())),
+                () -> questionRepository.count(spec));
+    }
 
-        Long userId = user != null ? user.getId() : null;
-        question.incrementViewsIfNew(sessionId, userId);
+    private Map<Long, Set<String>> tagNamesByQuestion(List<QuestionSummary> summaries) {
+        Map<Long, Set<String>> tagsByQuestion = new HashMap<>();
+        if (!summaries.isEmpty()) {
+            questionRepository.findTagNamesByQuestionIdIn(summaries.stream().map(QuestionSummary::id).toList())
+                    .forEach(tag -> tagsByQuestion.computeIfAbsent(tag.getQuestionId(), id -> new HashSet<>())
+                            .add(tag.getName()));
+        }
+        return tagsByQuestion;
     }
 
     @Override
-    public Set<Tag> processTags(Set<String> tagNames) {
-        if (tagNames == null || tagNames.isEmpty()) {
-            return new HashSet<>();
+    public void registerView(Long questionId, HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String viewer;
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            viewer = "user:" + authentication.getName();
+        } else {
+            viewer = "session:" + request.getSession().getId();
         }
-
-        Set<Tag> tags = new HashSet<>();
-        for (String name : tagNames) {
-            String normalizedName = name.trim().toLowerCase();
-            Tag tag = tagRepository.findByName(normalizedName)
-                    .orElseGet(() -> createTag(normalizedName));
-            tags.add(tag);
+        if (questionViewCounter.registerView(questionId, viewer)
+                && authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            questionFollowers.followWhileViewing(questionId, principal.id());
         }
-        return tags;
     }
 
-    private Tag createTag(String name) {
-        Tag newTag = new Tag();
-        newTag.setName(name);
-        return tagRepository.save(newTag);
+    @Override
+    public Set<Tag> processTags(Set<String> tagNames) {
+        if (tagNames == null || tagNames.isEmpty()) {
+            return new HashSet<>();
+        }
+        return tagResolver.resolve(tagNames);
     }
 
     private void validateTags(Set<String> tags) {
@@ -1,6 +1,5 @@
 package es.upm.miw.foro.service.impl;
 
-import es.upm.miw.foro.api.converter.TagMapper;
 import es.upm.miw.foro.api.dto.TagDto;
 import es.upm.miw.foro.exception.RepositoryException;
 import es.upm.miw.foro.exception.ServiceException;
@@ -10,6 +9,10 @@ import es.upm.miw.foro.persistence.model.User;
 import es.upm.miw.foro.persistence.repository.TagRepository;
 import es.upm.miw.foro.service.TagService;
 import es.upm.miw.foro.service.UserService;
+import es.upm.miw.foro.service.notification.AfterCommit;
+import es.upm.miw.foro.service.tag.TagAutocomplete;
+import es.upm.miw.foro.service.tag.TagResolver;
+import es.upm.miw.foro.service.tag.TagStatistics;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
@@ -24,29 +27,31 @@ public class TagServiceImpl implements TagService {
 
     private final TagRepository tagRepository;
     private final UserService userService;
+    private final TagResolver tagResolver;
+    private final TagStatistics tagStatistics;
+    private final TagAutocomplete tagAutocomplete;
 
-    public TagServiceImpl(TagRepository tagRepository, UserService userService) {
+    public TagServiceImpl(TagRepository tagRepository, UserService userService, TagResolver tagResolver,
+                          TagStatistics tagStatistics, TagAutocomplete tagAutocomplete) {
         this.tagRepository = tagRepository;
         this.userService = userService;
+        this.tagResolver = tagResolver;
+        this.tagStatistics = tagStatistics;
+        this.tagAutocomplete = tagAutocomplete;
     }
 
-    @Transactional(readOnly = true)
     public List<TagDto> getAllTags() {
-        return tagRepository.findAll().stream()
-                .map(tag -> new TagDto(tag.getId(), tag.getName(), tag.getQuestions().size()))
-                .toList();
+        return tagStatistics.tagCounts();
     }
 
     @Override
-    @Transactional(readOnly = true)
     public List<TagDto> searchTags(String query) {
         try {
             if (query == null || query.trim().isEmpty()) {
                 return Collections.emptyList();
             }
 
-            List<Tag> tags = tagRepository.findByNameContainingIgnoreCase(query.trim());
-            return TagMapper.toDtoList(tags);
+            return tagAutocomplete.suggest(query);
         } catch (DataAccessException e) {
             throw new RepositoryException("Error searching tags", e);
         }
@@ -66,5 +71,10 @@ public class TagServiceImpl implements TagService {
 
         tag.getQuestions().forEach(q -> q.getTags().remove(tag));
         tagRepository.delete(tag);
+        AfterCommit.run(() -> {
+            tagResolver.evict(tag.getName());
+            tagStatistics.tagRemoved(tagId);
+            tagAutocomplete.tagRemoved(tagId);
+        });
     }
 }
@@ -1,6 +1,7 @@
 package es.upm.miw.foro.service.impl;
 
 import es.upm.miw.foro.api.converter.UserMapper;
+import es.upm.miw.foro.api.dto.CursorPageDto;
 import es.upm.miw.foro.api.dto.UserDto;
 import es.upm.miw.foro.api.dto.validation.UserValidation;
 import es.upm.miw.foro.exception.RepositoryException;
@@ -11,7 +12,13 @@ import es.upm.miw.foro.persistence.repository.AnswerRepository;
 import es.upm.miw.foro.persistence.repository.NotificationRepository;
 import es.upm.miw.foro.persistence.repository.QuestionRepository;
 import es.upm.miw.foro.persistence.repository.UserRepository;
+import es.upm.miw.foro.persistence.repository.specification.UserSpecification;
 import es.upm.miw.foro.service.UserService;
+import es.upm.miw.foro.service.notification.AfterCommit;
+import es.upm.miw.foro.service.notification.UnreadNotificationCounter;
+import es.upm.miw.foro.service.principal.PrincipalCache;
+import es.upm.miw.foro.service.principal.UserPrincipal;
+import es.upm.miw.foro.service.scroll.ScrollRequest;
 import es.upm.miw.foro.util.MessageUtil;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validator;
@@ -19,6 +26,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -26,12 +35,15 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Set;
 
 @Service
 @Slf4j
 public class UserServiceImpl implements UserService {
 
+    private static final Set<String> SCROLL_SORT = Set.of("id", "firstName", "lastName", "userName", "email");
+
     private final PasswordEncoder passwordEncoder;
     private final UserRepository userRepository;
     private final QuestionRepository questionRepository;
@@ -39,11 +51,14 @@ public class UserServiceImpl implements UserService {
     private final NotificationRepository notificationRepository;
     private final JwtServiceImpl jwtServiceImpl;
     private final Validator validator;
+    private final PrincipalCache principalCache;
+    private final UnreadNotificationCounter unreadNotificationCounter;
 
     public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder,
                            QuestionRepository questionRepository, AnswerRepository answerRepository,
                            NotificationRepository notificationRepository, JwtServiceImpl jwtServiceImpl,
-                           Validator validator) {
+                           Validator validator, PrincipalCache principalCache,
+                           UnreadNotificationCounter unreadNotificationCounter) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.questionRepository = questionRepository;
@@ -51,6 +66,8 @@ public class UserServiceImpl implements UserService {
         this.notificationRepository = notificationRepository;
         this.jwtServiceImpl = jwtServiceImpl;
         this.validator = validator;
+        this.principalCache = principalCache;
+        this.unreadNotificationCounter = unreadNotificationCounter;
     }
 
     @Override
@@ -116,7 +133,8 @@ public class UserServiceImpl implements UserService {
                 throw new ServiceException("Incorrect password", HttpStatus.UNAUTHORIZED);
             }
         }
-        return jwtServiceImpl.createToken(user.getId(), user.getFirstName(), user.getLastName(), user.getEmail(), user.getRole().name());
+        return jwtServiceImpl.createToken(user.getId(), user.getFirstName(), user.getLastName(), user.getUserName(),
+                user.getEmail(), user.getRole().name());
     }
 
     @Override
@@ -146,6 +164,25 @@ public class UserServiceImpl implements UserService {
         }
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<UserDto> scrollAllUsers(String firstName, String lastName, String email,
+                                                 ScrollRequest scrollRequest) {
+        try {
+            User currentUser = getAuthenticatedUserWithRole();
+            log.info("Authenticated user: {} with role: {}", currentUser.getFirstName(), currentUser.getRole());
+            UserDto filter = UserDto.builder().firstName(firstName).lastName(lastName).email(email).build();
+            Specification<User> spec = UserSpecification.buildUserSpecification(filter);
+            Window<User> window = userRepository.findBy(spec, query -> query
+                    .sortBy(scrollRequest.sort(SCROLL_SORT))
+                    .limit(scrollRequest.size())
+                    .scroll(scrollRequest.position()));
+            return scrollRequest.toCursorPage(window, UserMapper::toUserDto, () -> userRepository.count(spec));
+        } catch (DataAccessException exception) {
+            throw new RepositoryException("Error getting Users from repository", exception);
+        }
+    }
+
     @Override
     public UserDto updateUser(Long id, UserDto userDto) {
         try {
@@ -156,7 +193,8 @@ public class UserServiceImpl implements UserService {
             User existingUser = userRepository.findById(id)
                     .orElseThrow(() -> new ServiceException(MessageUtil.USER_ID + id + MessageUtil.NOT_FOUND, HttpStatus.NOT_FOUND));
 
-            if (!existingUser.getEmail().equals(userDto.getEmail())) {
+            String previousEmail = existingUser.getEmail();
+            if (!previousEmail.equals(userDto.getEmail())) {
                 validateEmail(userDto.getEmail());
             }
             if (!existingUser.getUserName().equals(userDto.getUserName())) {
@@ -175,6 +213,7 @@ public class UserServiceImpl implements UserService {
             }
 
             User updatedUser = this.userRepository.save(existingUser);
+            AfterCommit.run(() -> principalCache.invalidate(id));
             return UserMapper.toUserDto(updatedUser);
 
         } catch (ServiceException e) {
@@ -194,12 +233,8 @@ public class UserServiceImpl implements UserService {
             if (!currentUser.getId().equals(id) && !Role.ADMIN.equals(currentUser.getRole())) {
                 throw new ServiceException("Unauthorized: Only admins or the user themselves can delete this user", HttpStatus.UNAUTHORIZED);
             }
-            if (!userRepository.existsById(id)) {
-                throw new ServiceException(MessageUtil.USER_ID + id + MessageUtil.NOT_FOUND, HttpStatus.NOT_FOUND);
-            }
-
             User deletedUser = userRepository.findById(id)
-                    .orElseThrow(() -> new ServiceException(MessageUtil.USER_ID + id + MessageUtil.NOT_FOUND));
+                    .orElseThrow(() -> new ServiceException(MessageUtil.USER_ID + id + MessageUtil.NOT_FOUND, HttpStatus.NOT_FOUND));
 
             if ("unknown_user".equals(deletedUser.getUserName())) {
                 throw new ServiceException("Cannot delete the unknown_user_account", HttpStatus.BAD_REQUEST);
@@ -207,14 +242,12 @@ public class UserServiceImpl implements UserService {
 
             Long unknownUserId = 0L;
 
-            if (questionRepository.existsByAuthorId(id)) {
-                questionRepository.updateAuthorId(id, unknownUserId);
-            }
-            if (answerRepository.existsByAuthorId(id)) {
-                answerRepository.updateAuthorId(id, unknownUserId);
-            }
+            questionRepository.updateAuthorId(id, unknownUserId);
+            answerRepository.updateAuthorId(id, unknownUserId);
             notificationRepository.deleteByUserId(id);
-            userRepository.deleteById(id);
+            unreadNotificationCounter.evict(List.of(id));
+            userRepository.delete(deletedUser);
+            AfterCommit.run(() -> principalCache.invalidate(id));
             log.info(MessageUtil.USER_ID + id + " deleted successfully. Questions and answers reassigned to unknown_user.");
         } catch (DataAccessException exception) {
             throw new RepositoryException("Error deleting user with id " + id, exception);
@@ -235,11 +268,24 @@ public class UserServiceImpl implements UserService {
             log.warn("Authentication is null");
             throw new ServiceException("Unauthorized: No user is logged in");
         }
-        String currentUserEmail = authentication.getName();
-        return userRepository.findByEmail(currentUserEmail)
+        if (authentication.getPrincipal() instanceof UserPrincipal principal && principal.id() != null) {
+            return principal.toUser();
+        }
+        return principalCache.byEmail(authentication.getName())
+                .map(UserPrincipal::toUser)
                 .orElseThrow(() -> new ServiceException("Authenticated user not found", HttpStatus.NOT_FOUND));
     }
 
+    @Override
+    public Long getAuthenticatedUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal
+                && principal.id() != null) {
+            return principal.id();
+        }
+        return getAuthenticatedUser().getId();
+    }
+
     private User getAuthenticatedUserWithRole() {
         User currentUser = getAuthenticatedUser();
         if (!Role.ADMIN.equals(currentUser.getRole())) {
@@ -0,0 +1,30 @@
+package es.upm.miw.foro.service.notification;
+
+import lombok.Generated;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers in-memory effects of a write until its transaction commits, so a rollback leaves no trace of them.
+ * Outside a transaction the action runs immediately.
+ */
+public final class AfterCommit {
+
+    @Generated
+    private AfterCommit() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    public static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,182 @@
+package es.upm.miw.foro.service.notification;
+
+import es.upm.miw.foro.api.converter.NotificationMapper;
+import es.upm.miw.foro.api.dto.NotificationDto;
+import es.upm.miw.foro.persistence.model.Notification;
+import es.upm.miw.foro.persistence.model.NotificationOutbox;
+import es.upm.miw.foro.persistence.model.NotificationType;
+import es.upm.miw.foro.persistence.repository.AnswerRepository;
+import es.upm.miw.foro.persistence.repository.NotificationOutboxRepository;
+import es.upm.miw.foro.persistence.repository.NotificationRepository;
+import es.upm.miw.foro.persistence.repository.QuestionRepository;
+import es.upm.miw.foro.persistence.repository.QuestionSubscriptionRepository;
+import es.upm.miw.foro.persistence.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Turns outbox rows into notifications: one transaction locks the rows, inserts their notifications in a JDBC
+ * batch and deletes them, so each row is notified exactly once whatever crashes in between. Rows are expanded to
+ * their recipients, and the events of one recipient on the same question thread are coalesced into a single
+ * notification that counts them. Followers are read and written in chunks of {@code fan-out-chunk}, flushing and
+ * clearing the persistence context after each one, so a popular thread does not hold all its notifications in
+ * memory at once.
+ */
+@Component
+public class NotificationBatchWriter {
+
+    private final NotificationOutboxRepository notificationOutboxRepository;
+    private final NotificationRepository notificationRepository;
+    private final UserRepository userRepository;
+    private final QuestionRepository questionRepository;
+    private final AnswerRepository answerRepository;
+    private final QuestionSubscriptionRepository questionSubscriptionRepository;
+    private final UnreadNotificationCounter unreadNotificationCounter;
+    private final EntityManager entityManager;
+    private final int fanOutChunk;
+
+    public NotificationBatchWriter(NotificationOutboxRepository notificationOutboxRepository,
+                                   NotificationRepository notificationRepository, UserRepository userRepository,
+                                   QuestionRepository questionRepository, AnswerRepository answerRepository,
+                                   QuestionSubscriptionRepository questionSubscriptionRepository,
+                                   UnreadNotificationCounter unreadNotificationCounter, EntityManager entityManager,
+                                   @Value("${miw.notifications.fan-out-chunk:500}") int fanOutChunk) {
+        this.notificationOutboxRepository = notificationOutboxRepository;
+        this.notificationRepository = notificationRepository;
+        this.userRepository = userRepository;
+        this.questionRepository = questionRepository;
+        this.answerRepository = answerRepository;
+        this.questionSubscriptionRepository = questionSubscriptionRepository;
+        this.unreadNotificationCounter = unreadNotificationCounter;
+        this.entityManager = entityManager;
+        this.fanOutChunk = fanOutChunk;
+    }
+
+    @Transactional
+    public List<NotificationDto> write(Collection<Long> outboxIds) {
+        List<NotificationOutbox> rows = notificationOutboxRepository.findAllForUpdateByIdIn(outboxIds);
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        Map<Group, Notification> owners = new LinkedHashMap<>();
+        for (NotificationOutbox row : rows) {
+            if (!row.getUserId().equals(row.getActorId())) {
+                addTo(owners, row.getUserId(), row);
+            }
+        }
+        List<NotificationDto> notifications = new ArrayList<>();
+        List<Long> recipients = new ArrayList<>();
+        rows.stream()
+                .filter(row -> row.isFollowers() && row.getQuestionId() != null)
+                .collect(Collectors.groupingBy(NotificationOutbox::getQuestionId, LinkedHashMap::new,
+                        Collectors.toList()))
+                .forEach((questionId, questionRows) ->
+                        fanOut(questionId, questionRows, owners, notifications, recipients));
+        save(owners.values(), notifications, recipients);
+        notificationOutboxRepository.deleteAllByIdInBatch(rows.stream().map(NotificationOutbox::getId).toList());
+        unreadNotificationCounter.added(recipients);
+        return notifications;
+    }
+
+    @Transactional
+    public void discard(Long outboxId) {
+        notificationOutboxRepository.deleteAllByIdInBatch(List.of(outboxId));
+    }
+
+    /**
+     * Notifies the followers of a question, one chunk at a time. The owner of a row was already notified and its
+     * actor never is; followers who also own a row of the batch are coalesced into that notification.
+     */
+    private void fanOut(Long questionId, List<NotificationOutbox> rows, Map<Group, Notification> owners,
+                        List<NotificationDto> notifications, List<Long> recipients) {
+        LocalDateTime now = LocalDateTime.now();
+        Long afterUserId = 0L;
+        List<Long> followers;
+        do {
+            followers = questionSubscriptionRepository.findFollowerIds(questionId, afterUserId, now,
+                    Limit.of(fanOutChunk));
+            Map<Group, Notification> chunk = new LinkedHashMap<>();
+            for (Long userId : followers) {
+                for (NotificationOutbox row : rows) {
+                    if (userId.equals(row.getUserId()) || userId.equals(row.getActorId())) {
+                        continue;
+                    }
+                    Notification owned = owners.get(Group.of(userId, row));
+                    if (owned != null) {
+                        coalesce(owned, row);
+                    } else {
+                        addTo(chunk, userId, row);
+                    }
+                }
+            }
+            save(chunk.values(), notifications, recipients);
+            if (!followers.isEmpty()) {
+                afterUserId = followers.getLast();
+            }
+        } while (followers.size() == fanOutChunk);
+    }
+
+    private void save(Collection<Notification> chunk, List<NotificationDto> notifications, List<Long> recipients) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<Notification> saved = notificationRepository.saveAll(chunk);
+        entityManager.flush();
+        notifications.addAll(NotificationMapper.toDtoList(saved));
+        saved.forEach(notification -> recipients.add(notification.getUser().getId()));
+        entityManager.clear();
+    }
+
+    private void addTo(Map<Group, Notification> groups, Long userId, NotificationOutbox row) {
+        Group group = Group.of(userId, row);
+        Notification notification = groups.get(group);
+        if (notification == null) {
+            groups.put(group, toNotification(userId, row));
+        } else {
+            coalesce(notification, row);
+        }
+    }
+
+    private void coalesce(Notification notification, NotificationOutbox row) {
+        notification.setEventCount(notification.getEventCount() + 1);
+        if (row.getAnswerId() != null) {
+            notification.setAnswer(answerRepository.getReferenceById(row.getAnswerId()));
+        }
+        if (row.getCreationDate().isAfter(notification.getCreationDate())) {
+            notification.setCreationDate(row.getCreationDate());
+        }
+    }
+
+    private Notification toNotification(Long userId, NotificationOutbox row) {
+        Notification notification = new Notification();
+        notification.setUser(userRepository.getReferenceById(userId));
+        if (row.getQuestionId() != null) {
+            notification.setQuestion(questionRepository.getReferenceById(row.getQuestionId()));
+        }
+        if (row.getAnswerId() != null) {
+            notification.setAnswer(answerRepository.getReferenceById(row.getAnswerId()));
+        }
+        notification.setType(row.getType());
+        notification.setRead(false);
+        notification.setCreationDate(row.getCreationDate());
+        return notification;
+    }
+
+    /**
+     * Notifications of one user on one question and type are coalesced; rows without a question never are.
+     */
+    private record Group(Long userId, Long questionId, NotificationType type, Long outboxId) {
+
+        static Group of(Long userId, NotificationOutbox row) {
+            return new Group(userId, row.getQuestionId(), row.getType(),
+                    row.getQuestionId() == null ? row.getId() : null);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package es.upm.miw.foro.service.notification;
+
+import es.upm.miw.foro.api.dto.NotificationDto;
+import es.upm.miw.foro.persistence.model.NotificationOutbox;
+import es.upm.miw.foro.persistence.model.NotificationType;
+import es.upm.miw.foro.persistence.repository.NotificationOutboxRepository;
+import es.upm.miw.foro.service.delivery.NotificationBroker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+/**
+ * Notifications leave the request through a transactional outbox: the request only inserts an outbox row, which
+ * is queued once its transaction commits. A dispatcher drains the bounded queue in batches, holding each batch
+ * open for the coalescing window so a burst on one thread becomes a single notification, writes them with
+ * {@link NotificationBatchWriter} and hands them, grouped by user, to the {@link NotificationBroker} that routes
+ * them to the nodes holding their sessions. Rows that did not fit in the queue, failed, or were pending when the
+ * node stopped stay in the table and are relayed to the queue on a schedule.
+ */
+@Slf4j
+@Component
+public class NotificationPipeline {
+
+    private static final long POLL_TIMEOUT_MILLIS = 500;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000;
+
+    private final NotificationOutboxRepository notificationOutboxRepository;
+    private final NotificationBatchWriter notificationBatchWriter;
+    private final QuestionFollowers questionFollowers;
+    private final NotificationBroker notificationBroker;
+    private final int batchSize;
+    private final long coalesceWindowNanos;
+    private final BlockingQueue<Long> queue;
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+    private final Counter accepted;
+    private final Counter rejected;
+    private final Counter relayed;
+    private final Counter discarded;
+    private final Timer batches;
+    private volatile boolean running;
+    private Thread dispatcher;
+
+    public NotificationPipeline(NotificationOutboxRepository notificationOutboxRepository,
+                                NotificationBatchWriter notificationBatchWriter, QuestionFollowers questionFollowers,
+                                NotificationBroker notificationBroker, MeterRegistry meterRegistry,
+                                @Value("${miw.notifications.queue-capacity:10000}") int capacity,
+                                @Value("${miw.notifications.batch-size:100}") int batchSize,
+                                @Value("${miw.notifications.coalesce-window:PT5S}") Duration coalesceWindow) {
+        this.notificationOutboxRepository = notificationOutboxRepository;
+        this.notificationBatchWriter = notificationBatchWriter;
+        this.questionFollowers = questionFollowers;
+        this.notificationBroker = notificationBroker;
+        this.batchSize = batchSize;
+        this.coalesceWindowNanos = coalesceWindow.toNanos();
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.accepted = queueCounter(meterRegistry, "accepted");
+        this.rejected = queueCounter(meterRegistry, "rejected");
+        this.relayed = Counter.builder("miw.notifications.outbox.relayed")
+                .description("Outbox rows queued by the relay instead of their own commit").register(meterRegistry);
+        this.discarded = Counter.builder("miw.notifications.outbox.discarded")
+                .description("Outbox rows dropped because their question or answer no longer exists")
+                .register(meterRegistry);
+        this.batches = Timer.builder("miw.notifications.batch")
+                .description("Writing a batch of outbox rows as notifications").register(meterRegistry);
+        Gauge.builder("miw.notifications.queue.size", queue, BlockingQueue::size)
+                .description("Outbox rows waiting for the dispatcher").register(meterRegistry);
+        Gauge.builder("miw.notifications.queue.remaining", queue, BlockingQueue::remainingCapacity)
+                .description("Free slots in the dispatcher queue").register(meterRegistry);
+    }
+
+    /**
+     * Records a notification in the caller's transaction; it is queued for the dispatcher after the commit.
+     */
+    public void publish(Long userId, Long questionId, Long answerId, NotificationType type) {
+        save(new NotificationOutbox(null, userId, questionId, answerId, null, false, type, LocalDateTime.now()));
+    }
+
+    /**
+     * Like {@link #publish}, but the followers of the question are notified too; the actor never is.
+     */
+    public void publishToFollowers(Long userId, Long questionId, Long answerId, Long actorId, NotificationType type) {
+        save(new NotificationOutbox(null, userId, questionId, answerId, actorId, true, type, LocalDateTime.now()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        dispatcher = Thread.ofVirtual().name("notification-dispatcher").start(this::dispatch);
+        relayPending();
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        running = false;
+        if (dispatcher != null) {
+            dispatcher.join(SHUTDOWN_TIMEOUT_MILLIS);
+            dispatcher.interrupt();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${miw.notifications.outbox-relay-interval:PT10S}")
+    public void relayPending() {
+        int room = queue.remainingCapacity();
+        if (!running || room == 0) {
+            return;
+        }
+        List<Long> pending;
+        try {
+            pending = notificationOutboxRepository.findPendingIds(Limit.of(room));
+        } catch (DataAccessException exception) {
+            log.warn("Error reading the notification outbox, it will be relayed later: {}", exception.getMessage());
+            return;
+        }
+        for (Long id : pending) {
+            if (queued.contains(id)) {
+                continue;
+            }
+            if (!enqueue(id)) {
+                return;
+            }
+            relayed.increment();
+        }
+    }
+
+    private void save(NotificationOutbox outbox) {
+        NotificationOutbox row = notificationOutboxRepository.save(outbox);
+        AfterCommit.run(() -> enqueue(row.getId()));
+    }
+
+    private boolean enqueue(Long id) {
+        if (!queued.add(id)) {
+            return true;
+        }
+        if (queue.offer(id)) {
+            accepted.increment();
+            return true;
+        }
+        queued.remove(id);
+        rejected.increment();
+        return false;
+    }
+
+    private void dispatch() {
+        List<Long> batch = new ArrayList<>(batchSize);
+        long deadline = 0;
+        try {
+            while (running || !queue.isEmpty() || !batch.isEmpty()) {
+                long wait = batch.isEmpty() ? TimeUnit.MILLISECONDS.toNanos(POLL_TIMEOUT_MILLIS)
+                        : deadline - System.nanoTime();
+                Long next = wait > 0 ? queue.poll(wait, TimeUnit.NANOSECONDS) : queue.poll();
+                if (next != null) {
+                    if (batch.isEmpty()) {
+                        deadline = System.nanoTime() + coalesceWindowNanos;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+                if (!batch.isEmpty() && (batch.size() >= batchSize || !running || deadline - System.nanoTime() <= 0)) {
+                    try {
+                        write(batch);
+                    } finally {
+                        batch.forEach(queued::remove);
+                        batch.clear();
+                    }
+                }
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } finally {
+            batch.forEach(queued::remove);
+        }
+    }
+
+    private void write(List<Long> batch) throws InterruptedException {
+        questionFollowers.flush();
+        List<NotificationDto> notifications;
+        try {
+            notifications = batches.recordCallable(() -> notificationBatchWriter.write(batch));
+        } catch (InterruptedException exception) {
+            throw exception;
+        } catch (Exception exception) {
+            log.warn("Error writing a batch of {} notifications, writing them one by one", batch.size(), exception);
+            notifications = new ArrayList<>();
+            for (Long id : batch) {
+                notifications.addAll(writeOne(id));
+            }
+        }
+        if (notifications.isEmpty()) {
+            return;
+        }
+        Map<Long, List<NotificationDto>> byUser = notifications.stream()
+                .collect(Collectors.groupingBy(NotificationDto::getUserId, LinkedHashMap::new, Collectors.toList()));
+        try {
+            notificationBroker.send(byUser);
+        } catch (RuntimeException exception) {
+            log.warn("Error delivering {} notifications, they stay in the inbox", notifications.size(), exception);
+        }
+    }
+
+    private List<NotificationDto> writeOne(Long id) {
+        try {
+            return notificationBatchWriter.write(List.of(id));
+        } catch (DataIntegrityViolationException exception) {
+            log.warn("Discarding outbox row {}: {}", id, exception.getMostSpecificCause().getMessage());
+            notificationBatchWriter.discard(id);
+            discarded.increment();
+        } catch (RuntimeException exception) {
+            log.error("Error writing outbox row {}, it will be relayed again", id, exception);
+        }
+        return List.of();
+    }
+
+    private static Counter queueCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("miw.notifications.queue").tag("result", result)
+                .description("Outbox rows offered to the dispatcher queue").register(meterRegistry);
+    }
+}
@@ -0,0 +1,92 @@
+package es.upm.miw.foro.service.notification;
+
+import es.upm.miw.foro.persistence.model.QuestionSubscriptionId;
+import es.upm.miw.foro.persistence.repository.QuestionSubscriptionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind subscriptions to question threads. Following only records the pair in memory; pending pairs are
+ * inserted with one upsert on every flush, and the dispatcher flushes before resolving the followers of a batch
+ * so a reader never misses an event published after they started following. Answering follows a thread for good,
+ * viewing it only for {@code viewer-subscription-ttl}, so readers of a popular thread do not pile up as followers.
+ */
+@Slf4j
+@Component
+public class QuestionFollowers {
+
+    private final QuestionSubscriptionRepository questionSubscriptionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration viewerSubscriptionTtl;
+    private final Set<QuestionSubscriptionId> pending = ConcurrentHashMap.newKeySet();
+    private final Set<QuestionSubscriptionId> pendingViewers = ConcurrentHashMap.newKeySet();
+
+    public QuestionFollowers(QuestionSubscriptionRepository questionSubscriptionRepository,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${miw.notifications.viewer-subscription-ttl:P30D}") Duration viewerSubscriptionTtl) {
+        this.questionSubscriptionRepository = questionSubscriptionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.viewerSubscriptionTtl = viewerSubscriptionTtl;
+    }
+
+    public void follow(Long questionId, Long userId) {
+        if (questionId != null && userId != null) {
+            pending.add(new QuestionSubscriptionId(questionId, userId));
+        }
+    }
+
+    public void followWhileViewing(Long questionId, Long userId) {
+        if (questionId != null && userId != null) {
+            pendingViewers.add(new QuestionSubscriptionId(questionId, userId));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${miw.notifications.followers-flush-interval:PT5S}")
+    public void flush() {
+        flush(pending, null);
+        flush(pendingViewers, LocalDateTime.now().plus(viewerSubscriptionTtl));
+    }
+
+    @Scheduled(fixedDelayString = "${miw.notifications.subscription-purge-interval:PT1H}")
+    public void purgeExpired() {
+        try {
+            Integer deleted = transactionTemplate.execute(status ->
+                    questionSubscriptionRepository.deleteExpired(LocalDateTime.now()));
+            log.debug("Purged {} expired question subscriptions", deleted);
+        } catch (RuntimeException exception) {
+            log.error("Error purging expired question subscriptions", exception);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void flush(Set<QuestionSubscriptionId> subscriptions, LocalDateTime expiryDate) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        List<QuestionSubscriptionId> drained = new ArrayList<>(subscriptions);
+        subscriptions.removeAll(drained);
+        try {
+            Integer changed = transactionTemplate.execute(status ->
+                    questionSubscriptionRepository.insertMissing(drained, expiryDate));
+            log.debug("Flushed {} question subscriptions, {} new or extended", drained.size(), changed);
+        } catch (RuntimeException exception) {
+            log.error("Error flushing question subscriptions, they will be retried", exception);
+            subscriptions.addAll(drained);
+        }
+    }
+}
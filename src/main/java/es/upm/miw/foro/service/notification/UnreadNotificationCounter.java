@@ -0,0 +1,82 @@
+package es.upm.miw.foro.service.notification;
+
+import es.upm.miw.foro.persistence.repository.NotificationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unread notifications per user, counted once from the database and then kept up to date by the writes of this
+ * node. Changes are applied when the transaction making them commits; deletions evict the user's count instead.
+ * Counts are reloaded after {@code ttl}, which bounds the drift from writes on other nodes.
+ */
+@Component
+public class UnreadNotificationCounter {
+
+    private final NotificationRepository notificationRepository;
+    private final Duration ttl;
+    private final Map<Long, Entry> counts = new ConcurrentHashMap<>();
+
+    public UnreadNotificationCounter(NotificationRepository notificationRepository,
+                                     @Value("${miw.notifications.unread-count-ttl:PT5M}") Duration ttl) {
+        this.notificationRepository = notificationRepository;
+        this.ttl = ttl;
+    }
+
+    public long unread(Long userId) {
+        Instant now = Instant.now();
+        Entry entry = counts.get(userId);
+        if (entry == null || !entry.expiresAt.isAfter(now)) {
+            entry = new Entry(new AtomicLong(notificationRepository.countByUserIdAndReadFalse(userId)), now.plus(ttl));
+            counts.put(userId, entry);
+        }
+        return Math.max(entry.count.get(), 0);
+    }
+
+    public void added(Long userId) {
+        AfterCommit.run(() -> adjust(userId, 1));
+    }
+
+    /**
+     * Like {@link #added(Long)} for one notification per element, with a single callback for the whole list.
+     */
+    public void added(List<Long> userIds) {
+        if (!userIds.isEmpty()) {
+            AfterCommit.run(() -> userIds.forEach(userId -> adjust(userId, 1)));
+        }
+    }
+
+    public void read(Long userId, int notifications) {
+        if (notifications > 0) {
+            AfterCommit.run(() -> adjust(userId, -notifications));
+        }
+    }
+
+    public void evict(Collection<Long> userIds) {
+        AfterCommit.run(() -> userIds.forEach(counts::remove));
+    }
+
+    @Scheduled(fixedDelayString = "${miw.notifications.unread-count-ttl:PT5M}")
+    public void evictExpired() {
+        Instant now = Instant.now();
+        counts.values().removeIf(entry -> !entry.expiresAt.isAfter(now));
+    }
+
+    private void adjust(Long userId, long delta) {
+        Entry entry = counts.get(userId);
+        if (entry != null) {
+            entry.count.addAndGet(delta);
+        }
+    }
+
+    private record Entry(AtomicLong count, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,93 @@
+package es.upm.miw.foro.service.principal;
+
+import es.upm.miw.foro.persistence.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Current state of the authenticated users by id, loaded at most once per TTL and shared between requests. A
+ * request authenticates with the claims of its own token while they still describe the user; once the user is
+ * changed or deleted, on this node or on any other, the claims stop being trusted within one TTL. Tokens issued
+ * before ids were claimed are resolved by email once per request.
+ */
+@Component
+public class PrincipalCache {
+
+    private static final String REQUEST_ATTRIBUTE = PrincipalCache.class.getName();
+
+    private final UserRepository userRepository;
+    private final Duration ttl;
+    private final Map<Long, Entry> principals = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public PrincipalCache(UserRepository userRepository,
+                          @Value("${miw.principal.cache-ttl:PT30S}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.ttl = ttl;
+    }
+
+    /**
+     * The claimed principal while it matches the user, the user's current principal once the claims are outdated,
+     * and empty once the user is deleted.
+     */
+    public Optional<UserPrincipal> verify(UserPrincipal claimed) {
+        return current(claimed.id()).map(current -> current.equals(claimed) ? claimed : current);
+    }
+
+    public Optional<UserPrincipal> byEmail(String email) {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null && request.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST)
+                instanceof UserPrincipal principal && principal.email().equals(email)) {
+            return Optional.of(principal);
+        }
+        Optional<UserPrincipal> principal = userRepository.findByEmail(email).map(UserPrincipal::of);
+        if (request != null) {
+            principal.ifPresent(loaded ->
+                    request.setAttribute(REQUEST_ATTRIBUTE, loaded, RequestAttributes.SCOPE_REQUEST));
+        }
+        return principal;
+    }
+
+    public void invalidate(Long id) {
+        invalidations.incrementAndGet();
+        principals.remove(id);
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.removeAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${miw.principal.cache-ttl:PT30S}")
+    public void evictExpired() {
+        Instant now = Instant.now();
+        principals.values().removeIf(entry -> !entry.expiresAt.isAfter(now));
+    }
+
+    private Optional<UserPrincipal> current(Long id) {
+        Instant now = Instant.now();
+        Entry entry = principals.get(id);
+        if (entry != null && entry.expiresAt.isAfter(now)) {
+            return Optional.ofNullable(entry.principal);
+        }
+        long invalidationsBeforeLoad = invalidations.get();
+        Optional<UserPrincipal> loaded = userRepository.findById(id).map(UserPrincipal::of);
+        principals.put(id, new Entry(loaded.orElse(null), now.plus(ttl)));
+        if (invalidations.get() != invalidationsBeforeLoad) {
+            principals.remove(id);
+        }
+        return loaded;
+    }
+
+    private record Entry(UserPrincipal principal, Instant expiresAt) {
+    }
+}
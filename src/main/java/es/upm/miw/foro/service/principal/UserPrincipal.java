@@ -0,0 +1,39 @@
+package es.upm.miw.foro.service.principal;
+
+import es.upm.miw.foro.persistence.model.Role;
+import es.upm.miw.foro.persistence.model.User;
+
+import java.security.Principal;
+
+/**
+ * Authenticated user as claimed by a verified token. Its name is the email, which is what
+ * {@code authentication.name} resolves to in the security expressions.
+ */
+public record UserPrincipal(Long id, String email, String userName, String firstName, String lastName, Role role)
+        implements Principal {
+
+    public static UserPrincipal of(User user) {
+        return new UserPrincipal(user.getId(), user.getEmail(), user.getUserName(), user.getFirstName(),
+                user.getLastName(), user.getRole());
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    /**
+     * Detached user carrying only the principal's fields: enough for ownership checks and for referencing the
+     * user as an author, but never to be saved.
+     */
+    public User toUser() {
+        User user = new User();
+        user.setId(id);
+        user.setEmail(email);
+        user.setUserName(userName);
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        user.setRole(role);
+        return user;
+    }
+}
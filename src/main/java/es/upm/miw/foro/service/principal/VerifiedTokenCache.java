@@ -0,0 +1,102 @@
+package es.upm.miw.foro.service.principal;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Recently verified tokens keyed by their SHA-256, so a client repeating its token skips the HMAC check and the
+ * claim parsing until the token expires. Only successful verifications of tokens with an expiry are kept, and
+ * at most {@code maxSize} of them. Publishes the hit and miss counts and the latency of real verifications.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final int maxSize;
+    private final Map<ByteBuffer, Entry> tokens = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer verifications;
+
+    public VerifiedTokenCache(@Value("${miw.jwt.verified-cache-size:10000}") int maxSize, MeterRegistry meterRegistry) {
+        this.maxSize = maxSize;
+        this.hits = Counter.builder("miw.jwt.cache").tag("result", "hit")
+                .description("Tokens served from the verified token cache").register(meterRegistry);
+        this.misses = Counter.builder("miw.jwt.cache").tag("result", "miss")
+                .description("Tokens not found in the verified token cache").register(meterRegistry);
+        this.verifications = Timer.builder("miw.jwt.verification")
+                .description("Signature and claims verification of tokens missing from the cache")
+                .register(meterRegistry);
+        meterRegistry.gaugeMapSize("miw.jwt.cache.size", Tags.empty(), tokens);
+    }
+
+    public Optional<DecodedJWT> verify(String token, Function<String, Optional<DecodedJWT>> verifier) {
+        if (token == null) {
+            return verifier.apply(null);
+        }
+        ByteBuffer key = hash(token);
+        Instant now = Instant.now();
+        Entry entry = tokens.get(key);
+        if (entry != null && entry.expiresAt.isAfter(now)) {
+            hits.increment();
+            return Optional.of(entry.jwt);
+        }
+        misses.increment();
+        Optional<DecodedJWT> verified = verifications.record(() -> verifier.apply(token));
+        verified.filter(jwt -> jwt.getExpiresAtAsInstant() != null && jwt.getExpiresAtAsInstant().isAfter(now))
+                .ifPresent(jwt -> put(key, new Entry(jwt, jwt.getExpiresAtAsInstant())));
+        return verified;
+    }
+
+    public int size() {
+        return tokens.size();
+    }
+
+    @Scheduled(fixedDelayString = "${miw.jwt.verified-cache-eviction:PT1M}")
+    public void evictExpired() {
+        Instant now = Instant.now();
+        tokens.values().removeIf(entry -> !entry.expiresAt.isAfter(now));
+    }
+
+    private void put(ByteBuffer key, Entry entry) {
+        if (maxSize <= 0) {
+            return;
+        }
+        if (tokens.size() >= maxSize) {
+            evictExpired();
+            Iterator<ByteBuffer> keys = tokens.keySet().iterator();
+            while (tokens.size() >= maxSize && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        }
+        tokens.put(key, entry);
+    }
+
+    private static ByteBuffer hash(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    private record Entry(DecodedJWT jwt, Instant expiresAt) {
+    }
+}
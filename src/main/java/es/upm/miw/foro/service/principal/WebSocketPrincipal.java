@@ -0,0 +1,15 @@
+package es.upm.miw.foro.service.principal;
+
+import java.security.Principal;
+
+/**
+ * Principal of an authenticated websocket session. It is named by the user id, so user destinations resolve
+ * to the user's sessions with a single registry lookup and no email is needed to send to them.
+ */
+public record WebSocketPrincipal(Long id, String email) implements Principal {
+
+    @Override
+    public String getName() {
+        return String.valueOf(id);
+    }
+}
@@ -0,0 +1,104 @@
+package es.upm.miw.foro.service.scroll;
+
+import es.upm.miw.foro.exception.ServiceException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Opaque cursor handed to clients: the sort direction plus the ordered sort keys of the last row they received,
+ * base64url encoded. The keys are all that is needed to seek to the next window, so deep pages cost the same
+ * as the first one.
+ */
+public record ContinuationToken(Sort.Direction direction, Map<String, Object> keys) {
+
+    private static final String VERSION = "v1";
+    private static final String INVALID_TOKEN = "Invalid continuation token";
+
+    public ContinuationToken {
+        keys = Collections.unmodifiableMap(new LinkedHashMap<>(keys));
+    }
+
+    public static ContinuationToken of(Sort sort, KeysetScrollPosition position) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        Sort.Direction direction = Sort.Direction.ASC;
+        for (Sort.Order order : sort) {
+            Object value = position.getKeys().get(order.getProperty());
+            if (value == null) {
+                throw new ServiceException("Cannot scroll by " + order.getProperty() + ": it has no value in the last row",
+                        HttpStatus.BAD_REQUEST);
+            }
+            keys.put(order.getProperty(), value);
+            direction = order.getDirection();
+        }
+        return new ContinuationToken(direction, keys);
+    }
+
+    public static ContinuationToken decode(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] lines = decoded.split("\n");
+            if (lines.length < 3 || !VERSION.equals(lines[0])) {
+                throw new ServiceException(INVALID_TOKEN, HttpStatus.BAD_REQUEST);
+            }
+            Map<String, Object> keys = new LinkedHashMap<>();
+            for (int i = 2; i < lines.length; i++) {
+                int equals = lines[i].indexOf('=');
+                keys.put(lines[i].substring(0, equals), decodeValue(lines[i].substring(equals + 1)));
+            }
+            return new ContinuationToken(Sort.Direction.valueOf(lines[1]), keys);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException exception) {
+            throw new ServiceException(INVALID_TOKEN, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    public String encode() {
+        StringJoiner lines = new StringJoiner("\n");
+        lines.add(VERSION).add(direction.name());
+        keys.forEach((property, value) -> lines.add(property + "=" + encodeValue(value)));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(lines.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Sort sort() {
+        return Sort.by(direction, keys.keySet().toArray(String[]::new));
+    }
+
+    public KeysetScrollPosition position() {
+        return ScrollPosition.forward(keys);
+    }
+
+    private static String encodeValue(Object value) {
+        String type = switch (value) {
+            case Long ignored -> "L";
+            case Integer ignored -> "I";
+            case LocalDateTime ignored -> "T";
+            case String ignored -> "S";
+            case null -> throw new IllegalStateException("Null keyset values cannot be encoded");
+            default -> throw new IllegalStateException("Unsupported keyset value " + value.getClass());
+        };
+        return type + ":" + URLEncoder.encode(value.toString(), StandardCharsets.UTF_8);
+    }
+
+    private static Object decodeValue(String encoded) {
+        String value = URLDecoder.decode(encoded.substring(2), StandardCharsets.UTF_8);
+        return switch (encoded.substring(0, 2)) {
+            case "L:" -> Long.valueOf(value);
+            case "I:" -> Integer.valueOf(value);
+            case "T:" -> LocalDateTime.parse(value);
+            case "S:" -> value;
+            default -> throw new IllegalArgumentException("Unknown keyset value type");
+        };
+    }
+}
@@ -0,0 +1,81 @@
+package es.upm.miw.foro.service.scroll;
+
+import es.upm.miw.foro.api.dto.CursorPageDto;
+import es.upm.miw.foro.exception.ServiceException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpStatus;
+
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Keyset counterpart of {@code PageRequest}. Without a cursor the window starts at the beginning, sorted by
+ * {@code sortBy} with the id as tie-breaker; with a cursor, the sort stored in the token wins.
+ */
+public record ScrollRequest(String cursor, int size, String sortBy, Sort.Direction direction, boolean withCount) {
+
+    private static final String ID = "id";
+
+    public ScrollRequest {
+        if (size < 1) {
+            throw new ServiceException("Window size must be at least one", HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    public static ScrollRequest of(String cursor, int size, String sortBy, String sortDirection, boolean withCount) {
+        Sort.Direction direction = "desc".equalsIgnoreCase(sortDirection) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return new ScrollRequest(cursor, size, sortBy, direction, withCount);
+    }
+
+    public Sort sort() {
+        if (hasCursor()) {
+            return token().sort();
+        }
+        return ID.equals(sortBy) ? Sort.by(direction, ID) : Sort.by(direction, sortBy, ID);
+    }
+
+    /**
+     * The sort, rejected with a 400 when the request or the cursor names a property outside {@code sortable}.
+     * Only non-null properties belong there: a keyset cannot seek past a row with no value.
+     */
+    public Sort sort(Set<String> sortable) {
+        Sort sort = sort();
+        sort.forEach(order -> {
+            if (!sortable.contains(order.getProperty())) {
+                throw new ServiceException("Unsupported sort property for scrolling: " + order.getProperty(),
+                        HttpStatus.BAD_REQUEST);
+            }
+        });
+        return sort;
+    }
+
+    public KeysetScrollPosition position() {
+        return hasCursor() ? token().position() : ScrollPosition.keyset();
+    }
+
+    public <T, D> CursorPageDto<D> toCursorPage(Window<T> window, Function<T, D> mapper, LongSupplier counter) {
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            KeysetScrollPosition last = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+            nextCursor = ContinuationToken.of(sort(), last).encode();
+        }
+        return CursorPageDto.<D>builder()
+                .content(window.map(mapper).getContent())
+                .nextCursor(nextCursor)
+                .hasNext(nextCursor != null)
+                .totalElements(withCount ? counter.getAsLong() : null)
+                .build();
+    }
+
+    private boolean hasCursor() {
+        return cursor != null && !cursor.isBlank();
+    }
+
+    private ContinuationToken token() {
+        return ContinuationToken.decode(cursor);
+    }
+}
@@ -0,0 +1,56 @@
+package es.upm.miw.foro.service.search;
+
+import es.upm.miw.foro.persistence.model.Question;
+import es.upm.miw.foro.persistence.repository.QuestionRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.stream.Collectors;
+
+/**
+ * PostgreSQL full-text search. Every question keeps a weighted {@code search_vector} (title, description and
+ * the content of its answers) backed by a GIN index, see {@code db/postgresql/question-search.sql}.
+ */
+@Component
+@ConditionalOnProperty(name = "miw.search.engine", havingValue = "fulltext")
+public class FullTextQuestionSearchEngine implements QuestionSearchEngine {
+
+    private final QuestionRepository questionRepository;
+
+    public FullTextQuestionSearchEngine(QuestionRepository questionRepository) {
+        this.questionRepository = questionRepository;
+    }
+
+    @Override
+    public Page<Question> search(String query, Pageable pageable) {
+        String tsQuery = toPrefixTsQuery(query);
+        if (tsQuery.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        Page<Long> ids = questionRepository.searchIdsByFullText(tsQuery, pageable);
+        return RankedQuestionPages.load(questionRepository, ids);
+    }
+
+    @Override
+    public void questionChanged(Long questionId) {
+        questionRepository.refreshSearchVector(questionId);
+    }
+
+    @Override
+    public void questionRemoved(Long questionId) {
+        // The vector is a column of the deleted row
+    }
+
+    /**
+     * Turns free text into {@code term1:* & term2:*}. Only letters and digits survive, so the result is always
+     * a valid {@code to_tsquery} expression and partial words still match while the user is typing.
+     */
+    static String toPrefixTsQuery(String query) {
+        return SearchTokenizer.tokenize(query).stream()
+                .distinct()
+                .map(term -> term + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+}
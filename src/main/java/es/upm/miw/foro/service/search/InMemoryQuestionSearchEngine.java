@@ -0,0 +1,100 @@
+package es.upm.miw.foro.service.search;
+
+import es.upm.miw.foro.persistence.model.Answer;
+import es.upm.miw.foro.persistence.model.Question;
+import es.upm.miw.foro.persistence.repository.QuestionRepository;
+import es.upm.miw.foro.service.notification.AfterCommit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Ranks questions with an in-process {@link InvertedIndex} built at startup and kept current by the question and
+ * answer services once their transactions commit, so a rollback never reaches the index and the write lock is
+ * not taken while a transaction holds its rows. Only the page of ranked ids is read from the database. Until the
+ * initial load finishes, searches fall back to the LIKE query.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "miw.search.engine", havingValue = "memory")
+public class InMemoryQuestionSearchEngine implements QuestionSearchEngine {
+
+    private final QuestionRepository questionRepository;
+    private final InvertedIndex index = new InvertedIndex();
+    private final int batchSize;
+    private volatile boolean ready;
+
+    public InMemoryQuestionSearchEngine(QuestionRepository questionRepository,
+                                       @Value("${miw.search.memory.batch-size:500}") int batchSize) {
+        this.questionRepository = questionRepository;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        long start = System.currentTimeMillis();
+        Long lastId = 0L;
+        List<Long> ids = questionRepository.findIdsAfter(lastId, Limit.of(batchSize));
+        while (!ids.isEmpty()) {
+            questionRepository.findAllWithAnswersByIdIn(ids).forEach(this::indexQuestion);
+            lastId = ids.getLast();
+            ids = questionRepository.findIdsAfter(lastId, Limit.of(batchSize));
+        }
+        ready = true;
+        log.info("Question index loaded: {} questions, ~{} KB in {} ms", index.size(),
+                index.estimatedBytes() / 1024, System.currentTimeMillis() - start);
+    }
+
+    @Override
+    public Page<Question> search(String query, Pageable pageable) {
+        if (!ready) {
+            return questionRepository.searchByTitleOrDescriptionOrAnswerContentContainingIgnoreCase(query, pageable);
+        }
+        InvertedIndex.Hits hits = index.search(query, (int) pageable.getOffset() + pageable.getPageSize());
+        List<Long> pageIds = Arrays.stream(hits.documentIds())
+                .skip(pageable.getOffset())
+                .boxed()
+                .toList();
+        return RankedQuestionPages.load(questionRepository, new PageImpl<>(pageIds, pageable, hits.total()));
+    }
+
+    @Override
+    public void questionChanged(Long questionId) {
+        AfterCommit.run(() ->
+                questionRepository.findAllWithAnswersByIdIn(List.of(questionId)).forEach(this::indexQuestion));
+    }
+
+    @Override
+    public void questionRemoved(Long questionId) {
+        AfterCommit.run(() -> index.remove(questionId));
+    }
+
+    @Scheduled(fixedDelayString = "${miw.search.memory.merge-interval:PT10S}")
+    public void mergeIndex() {
+        index.merge();
+    }
+
+    private void indexQuestion(Question question) {
+        Stream<String> answers = question.getAnswers() != null
+                ? question.getAnswers().stream().map(Answer::getContent)
+                : Stream.empty();
+        String text = Stream.concat(Stream.of(question.getTitle(), question.getDescription()), answers)
+                .filter(Objects::nonNull)
+                .collect(Collectors.joining(" "));
+        index.put(question.getId(), text);
+    }
+}
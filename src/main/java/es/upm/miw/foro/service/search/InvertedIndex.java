@@ -0,0 +1,262 @@
+package es.upm.miw.foro.service.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Term to posting list index scored with Okapi BM25. Terms are interned to int ids and every document keeps
+ * its length and sorted (term id, frequency) pairs varint encoded, so an update only touches the posting lists
+ * of the terms that were added, removed or changed frequency. Those changes land in each list's delta and
+ * {@link #merge()} folds them in later. Readers share a read lock, so searches run concurrently between updates.
+ */
+public class InvertedIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MAX_DELTA = 4096;
+
+    public record Hits(long[] documentIds, int total) {
+    }
+
+    private interface TermConsumer {
+        void accept(int termId, int frequency);
+    }
+
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private PostingList[] postings = new PostingList[1024];
+    private final Map<Long, byte[]> documents = new HashMap<>();
+    private final Set<Integer> unmerged = new HashSet<>();
+    private long totalLength;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void put(long documentId, String text) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        SearchTokenizer.tokenize(text).forEach(term -> frequencies.merge(term, 1, Integer::sum));
+
+        lock.writeLock().lock();
+        try {
+            if (frequencies.isEmpty()) {
+                removeDocument(documentId);
+                return;
+            }
+            Map<Integer, Integer> previous = new HashMap<>();
+            byte[] encoded = documents.get(documentId);
+            int previousLength = encoded != null ? decodeDocument(encoded, previous::put) : 0;
+            int documentLength = 0;
+            int[] documentTerms = new int[frequencies.size()];
+            int[] termFrequencies = new int[frequencies.size()];
+            int index = 0;
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                int termId = termId(entry.getKey());
+                int frequency = entry.getValue();
+                Integer previousFrequency = previous.remove(termId);
+                if (previousFrequency == null) {
+                    postingList(termId).add(documentId, frequency);
+                    changed(termId);
+                } else if (previousFrequency != frequency) {
+                    postings[termId].update(documentId, frequency);
+                    changed(termId);
+                }
+                documentTerms[index] = termId;
+                termFrequencies[index++] = frequency;
+                documentLength += frequency;
+            }
+            previous.keySet().forEach(termId -> removePosting(termId, documentId));
+            documents.put(documentId, encodeDocument(documentLength, documentTerms, termFrequencies));
+            totalLength += documentLength - previousLength;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long documentId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(documentId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Folds the pending changes of every touched posting list into its encoded segment. Each list is merged
+     * under its own short write lock, so updates and searches interleave with a long merge.
+     */
+    public void merge() {
+        List<Integer> termsToMerge;
+        lock.writeLock().lock();
+        try {
+            termsToMerge = new ArrayList<>(unmerged);
+            unmerged.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        for (int termId : termsToMerge) {
+            lock.writeLock().lock();
+            try {
+                if (postings[termId] != null) {
+                    postings[termId].merge();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    public Hits search(String query, int limit) {
+        Collection<String> terms = SearchTokenizer.tokenize(query).stream().distinct().toList();
+        lock.readLock().lock();
+        try {
+            if (documents.isEmpty()) {
+                return new Hits(new long[0], 0);
+            }
+            double averageLength = (double) totalLength / documents.size();
+            Map<Long, Double> scores = new HashMap<>();
+            for (String term : terms) {
+                Integer termId = termIds.get(term);
+                PostingList postingList = termId != null ? postings[termId] : null;
+                if (postingList == null || postingList.isEmpty()) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documents.size() - postingList.size() + 0.5) / (postingList.size() + 0.5));
+                postingList.forEach((documentId, frequency) -> {
+                    double normalizedLength = documentLength(documentId) / averageLength;
+                    double score = idf * frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * normalizedLength));
+                    scores.merge(documentId, score, Double::sum);
+                });
+            }
+            return new Hits(topDocuments(scores, limit), scores.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = termIds.keySet().stream().mapToLong(term -> 64L + 2L * term.length()).sum();
+            bytes += Arrays.stream(postings).filter(list -> list != null).mapToLong(PostingList::estimatedBytes).sum();
+            bytes += documents.values().stream().mapToLong(encoded -> 72L + encoded.length).sum();
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeDocument(long documentId) {
+        byte[] encoded = documents.remove(documentId);
+        if (encoded == null) {
+            return;
+        }
+        totalLength -= decodeDocument(encoded, (termId, frequency) -> removePosting(termId, documentId));
+    }
+
+    private void removePosting(int termId, long documentId) {
+        PostingList postingList = postings[termId];
+        postingList.remove(documentId);
+        if (postingList.isEmpty()) {
+            postings[termId] = null;
+            unmerged.remove(termId);
+        } else {
+            changed(termId);
+        }
+    }
+
+    private void changed(int termId) {
+        if (postings[termId].deltaSize() > MAX_DELTA) {
+            postings[termId].merge();
+            unmerged.remove(termId);
+        } else if (postings[termId].hasDelta()) {
+            unmerged.add(termId);
+        }
+    }
+
+    private int documentLength(long documentId) {
+        byte[] encoded = documents.get(documentId);
+        return (int) new VarInts.Reader(encoded, encoded.length).next();
+    }
+
+    private int termId(String term) {
+        return termIds.computeIfAbsent(term, key -> termIds.size());
+    }
+
+    private PostingList postingList(int termId) {
+        if (termId >= postings.length) {
+            postings = Arrays.copyOf(postings, Math.max(termId + 1, postings.length * 2));
+        }
+        if (postings[termId] == null) {
+            postings[termId] = new PostingList();
+        }
+        return postings[termId];
+    }
+
+    private static byte[] encodeDocument(int documentLength, int[] documentTerms, int[] termFrequencies) {
+        long[] pairs = new long[documentTerms.length];
+        Arrays.setAll(pairs, i -> (long) documentTerms[i] << 32 | termFrequencies[i]);
+        Arrays.sort(pairs);
+        byte[] buffer = VarInts.write(new byte[pairs.length * 3 + 4], 0, documentLength);
+        int position = VarInts.size(documentLength);
+        int previous = 0;
+        for (long pair : pairs) {
+            int termId = (int) (pair >>> 32);
+            int frequency = (int) pair;
+            buffer = VarInts.write(buffer, position, (long) termId - previous);
+            position += VarInts.size((long) termId - previous);
+            buffer = VarInts.write(buffer, position, frequency);
+            position += VarInts.size(frequency);
+            previous = termId;
+        }
+        return Arrays.copyOf(buffer, position);
+    }
+
+    private static int decodeDocument(byte[] encoded, TermConsumer consumer) {
+        VarInts.Reader reader = new VarInts.Reader(encoded, encoded.length);
+        int documentLength = (int) reader.next();
+        int termId = 0;
+        while (reader.hasNext()) {
+            termId += (int) reader.next();
+            consumer.accept(termId, (int) reader.next());
+        }
+        return documentLength;
+    }
+
+    private static long[] topDocuments(Map<Long, Double> scores, int limit) {
+        if (limit <= 0) {
+            return new long[0];
+        }
+        PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(limit + 1, InvertedIndex::compareHits);
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            top.offer(entry);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+        long[] ranked = new long[top.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = top.poll().getKey();
+        }
+        return ranked;
+    }
+
+    private static int compareHits(Map.Entry<Long, Double> first, Map.Entry<Long, Double> second) {
+        int byScore = Double.compare(first.getValue(), second.getValue());
+        return byScore != 0 ? byScore : Long.compare(first.getKey(), second.getKey());
+    }
+}
@@ -0,0 +1,38 @@
+package es.upm.miw.foro.service.search;
+
+import es.upm.miw.foro.persistence.model.Question;
+import es.upm.miw.foro.persistence.repository.QuestionRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Substring search over titles, descriptions and answers. Works on any database, so it is the
+ * default engine and the one used by the H2 test context.
+ */
+@Component
+@ConditionalOnProperty(name = "miw.search.engine", havingValue = "like", matchIfMissing = true)
+public class LikeQuestionSearchEngine implements QuestionSearchEngine {
+
+    private final QuestionRepository questionRepository;
+
+    public LikeQuestionSearchEngine(QuestionRepository questionRepository) {
+        this.questionRepository = questionRepository;
+    }
+
+    @Override
+    public Page<Question> search(String query, Pageable pageable) {
+        return questionRepository.searchByTitleOrDescriptionOrAnswerContentContainingIgnoreCase(query, pageable);
+    }
+
+    @Override
+    public void questionChanged(Long questionId) {
+        // Nothing to maintain, the query reads the tables directly
+    }
+
+    @Override
+    public void questionRemoved(Long questionId) {
+        // Nothing to maintain, the query reads the tables directly
+    }
+}
@@ -0,0 +1,140 @@
+package es.upm.miw.foro.service.search;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Sorted (document id, term frequency) pairs stored as varint encoded document id gaps followed by the
+ * frequency. Appending a newer document is O(1); changes to older ones go to a small sorted delta that readers
+ * merge on the fly and {@link #merge()} folds into the encoded segment later, off the update path.
+ */
+class PostingList {
+
+    interface PostingConsumer {
+        void accept(long documentId, int frequency);
+    }
+
+    private static final int REMOVED = 0;
+
+    private byte[] data = new byte[8];
+    private int length;
+    private long lastDocumentId;
+    private final TreeMap<Long, Integer> delta = new TreeMap<>();
+    private int size;
+
+    /**
+     * Adds a document that is not in the list yet.
+     */
+    void add(long documentId, int frequency) {
+        if (documentId > lastDocumentId) {
+            append(documentId, frequency);
+        } else {
+            delta.put(documentId, frequency);
+        }
+        size++;
+    }
+
+    /**
+     * Changes the frequency of a document already in the list.
+     */
+    void update(long documentId, int frequency) {
+        delta.put(documentId, frequency);
+    }
+
+    /**
+     * Removes a document already in the list.
+     */
+    void remove(long documentId) {
+        delta.put(documentId, REMOVED);
+        size--;
+    }
+
+    boolean hasDelta() {
+        return !delta.isEmpty();
+    }
+
+    int deltaSize() {
+        return delta.size();
+    }
+
+    /**
+     * Rewrites the encoded segment with the delta applied.
+     */
+    void merge() {
+        if (delta.isEmpty()) {
+            return;
+        }
+        long[] documentIds = new long[size];
+        int[] frequencies = new int[size];
+        int[] count = new int[1];
+        forEach((documentId, frequency) -> {
+            documentIds[count[0]] = documentId;
+            frequencies[count[0]] = frequency;
+            count[0]++;
+        });
+        delta.clear();
+        data = new byte[Math.max(8, count[0] * 3)];
+        length = 0;
+        lastDocumentId = 0;
+        for (int i = 0; i < count[0]; i++) {
+            append(documentIds[i], frequencies[i]);
+        }
+        if (data.length > length + 16) {
+            data = Arrays.copyOf(data, length);
+        }
+    }
+
+    void forEach(PostingConsumer consumer) {
+        Iterator<Map.Entry<Long, Integer>> changes = delta.entrySet().iterator();
+        Map.Entry<Long, Integer> change = changes.hasNext() ? changes.next() : null;
+        VarInts.Reader reader = new VarInts.Reader(data, length);
+        long documentId = 0;
+        while (reader.hasNext()) {
+            documentId += reader.next();
+            int frequency = (int) reader.next();
+            while (change != null && change.getKey() < documentId) {
+                accept(consumer, change);
+                change = changes.hasNext() ? changes.next() : null;
+            }
+            if (change != null && change.getKey() == documentId) {
+                accept(consumer, change);
+                change = changes.hasNext() ? changes.next() : null;
+            } else {
+                consumer.accept(documentId, frequency);
+            }
+        }
+        while (change != null) {
+            accept(consumer, change);
+            change = changes.hasNext() ? changes.next() : null;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    long estimatedBytes() {
+        return 80L + data.length + 48L * delta.size();
+    }
+
+    private static void accept(PostingConsumer consumer, Map.Entry<Long, Integer> change) {
+        if (change.getValue() != REMOVED) {
+            consumer.accept(change.getKey(), change.getValue());
+        }
+    }
+
+    private void append(long documentId, int frequency) {
+        long gap = documentId - lastDocumentId;
+        data = VarInts.write(data, length, gap);
+        length += VarInts.size(gap);
+        data = VarInts.write(data, length, frequency);
+        length += VarInts.size(frequency);
+        lastDocumentId = documentId;
+    }
+}
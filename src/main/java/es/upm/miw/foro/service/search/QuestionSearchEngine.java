@@ -0,0 +1,14 @@
+package es.upm.miw.foro.service.search;
+
+import es.upm.miw.foro.persistence.model.Question;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface QuestionSearchEngine {
+
+    Page<Question> search(String query, Pageable pageable);
+
+    void questionChanged(Long questionId);
+
+    void questionRemoved(Long questionId);
+}
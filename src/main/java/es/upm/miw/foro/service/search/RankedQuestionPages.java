@@ -0,0 +1,34 @@
+package es.upm.miw.foro.service.search;
+
+import es.upm.miw.foro.persistence.model.Question;
+import es.upm.miw.foro.persistence.repository.QuestionRepository;
+import lombok.Generated;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public class RankedQuestionPages {
+
+    @Generated
+    private RankedQuestionPages() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    public static Page<Question> load(QuestionRepository questionRepository, Page<Long> rankedIds) {
+        if (rankedIds.isEmpty()) {
+            return new PageImpl<>(List.of(), rankedIds.getPageable(), rankedIds.getTotalElements());
+        }
+        Map<Long, Question> questions = questionRepository.findAllWithDetailsByIdIn(rankedIds.getContent()).stream()
+                .collect(Collectors.toMap(Question::getId, Function.identity()));
+        List<Question> ranked = rankedIds.getContent().stream()
+                .map(questions::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new PageImpl<>(ranked, rankedIds.getPageable(), rankedIds.getTotalElements());
+    }
+}
@@ -0,0 +1,73 @@
+package es.upm.miw.foro.service.search;
+
+import lombok.Generated;
+
+import java.util.Arrays;
+
+/**
+ * Unsigned LEB128 helpers: 7 bits per byte, high bit set while more bytes follow.
+ */
+class VarInts {
+
+    @Generated
+    private VarInts() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    static byte[] write(byte[] buffer, int position, long value) {
+        byte[] target = ensureCapacity(buffer, position + 10);
+        int index = position;
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            target[index++] = (byte) ((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        target[index] = (byte) remaining;
+        return target;
+    }
+
+    static int size(long value) {
+        int bytes = 1;
+        long remaining = value >>> 7;
+        while (remaining != 0) {
+            bytes++;
+            remaining >>>= 7;
+        }
+        return bytes;
+    }
+
+    static final class Reader {
+
+        private final byte[] buffer;
+        private final int limit;
+        private int position;
+
+        Reader(byte[] buffer, int limit) {
+            this.buffer = buffer;
+            this.limit = limit;
+        }
+
+        boolean hasNext() {
+            return position < limit;
+        }
+
+        long next() {
+            long value = 0;
+            int shift = 0;
+            byte current;
+            do {
+                current = buffer[position++];
+                value |= (long) (current & 0x7F) << shift;
+                shift += 7;
+            } while ((current & 0x80) != 0);
+            return value;
+        }
+    }
+
+    private static byte[] ensureCapacity(byte[] buffer, int required) {
+        if (buffer.length >= required) {
+            return buffer;
+        }
+        return Arrays.copyOf(buffer, Math.max(required, buffer.length + (buffer.length >> 1)));
+    }
+}
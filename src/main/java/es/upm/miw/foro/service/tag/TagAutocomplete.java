@@ -0,0 +1,166 @@
+package es.upm.miw.foro.service.tag;
+
+import es.upm.miw.foro.api.dto.TagDto;
+import es.upm.miw.foro.persistence.model.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Prefix suggestions over the normalised tag names. Names live in an immutable sorted array, so a prefix is a
+ * binary searched range that readers scan without locks; the range is ranked by the live question counts of
+ * {@link TagStatistics}. Creating or deleting a tag builds a new array and swaps it in (copy-on-write).
+ */
+@Component
+public class TagAutocomplete {
+
+    private static final Comparator<Suggestion> RANKING = Comparator.comparingInt(Suggestion::questionCount)
+            .thenComparing(Suggestion::key, Comparator.reverseOrder());
+
+    private final TagStatistics tagStatistics;
+    private final int limit;
+    private final ReentrantLock writing = new ReentrantLock();
+    private volatile Index index;
+
+    public TagAutocomplete(TagStatistics tagStatistics, @Value("${miw.tags.autocomplete-limit:10}") int limit) {
+        this.tagStatistics = tagStatistics;
+        this.limit = limit;
+    }
+
+    public List<TagDto> suggest(String prefix) {
+        String key = normalize(prefix);
+        Index current = index();
+        int from = current.lowerBound(key);
+        int to = current.lowerBound(key + Character.MAX_VALUE);
+
+        PriorityQueue<Suggestion> top = new PriorityQueue<>(limit + 1, RANKING);
+        for (int i = from; i < to; i++) {
+            top.offer(new Suggestion(current.keys[i], i, tagStatistics.questionCount(current.ids[i])));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+        TagDto[] suggestions = new TagDto[top.size()];
+        for (int i = suggestions.length - 1; i >= 0; i--) {
+            Suggestion suggestion = top.poll();
+            suggestions[i] = new TagDto(current.ids[suggestion.position], current.names[suggestion.position],
+                    suggestion.questionCount);
+        }
+        return Arrays.asList(suggestions);
+    }
+
+    public void tagsAdded(Collection<Tag> tags) {
+        Index current = index;
+        if (current == null || tags.stream().allMatch(tag -> current.contains(tag.getName()))) {
+            return;
+        }
+        writing.lock();
+        try {
+            TreeMap<String, Tag> entries = index.entries();
+            tags.forEach(tag -> entries.putIfAbsent(normalize(tag.getName()), tag));
+            index = Index.of(entries);
+        } finally {
+            writing.unlock();
+        }
+    }
+
+    public void tagRemoved(Long tagId) {
+        if (index == null) {
+            return;
+        }
+        writing.lock();
+        try {
+            TreeMap<String, Tag> entries = index.entries();
+            entries.values().removeIf(tag -> tag.getId().equals(tagId));
+            index = Index.of(entries);
+        } finally {
+            writing.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${miw.tags.statistics-refresh:PT10M}",
+            initialDelayString = "${miw.tags.statistics-refresh:PT10M}")
+    public void refresh() {
+        writing.lock();
+        try {
+            index = load();
+        } finally {
+            writing.unlock();
+        }
+    }
+
+    private Index index() {
+        Index current = index;
+        if (current == null) {
+            writing.lock();
+            try {
+                current = index;
+                if (current == null) {
+                    current = load();
+                    index = current;
+                }
+            } finally {
+                writing.unlock();
+            }
+        }
+        return current;
+    }
+
+    private Index load() {
+        TreeMap<String, Tag> entries = new TreeMap<>();
+        tagStatistics.tagCounts().forEach(tag ->
+                entries.put(normalize(tag.getName()), new Tag(tag.getId(), tag.getName(), new ArrayList<>())));
+        return Index.of(entries);
+    }
+
+    private static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Suggestion(String key, int position, int questionCount) {
+    }
+
+    private record Index(String[] keys, Long[] ids, String[] names) {
+
+        static Index of(TreeMap<String, Tag> entries) {
+            String[] keys = new String[entries.size()];
+            Long[] ids = new Long[entries.size()];
+            String[] names = new String[entries.size()];
+            int i = 0;
+            for (var entry : entries.entrySet()) {
+                keys[i] = entry.getKey();
+                ids[i] = entry.getValue().getId();
+                names[i] = entry.getValue().getName();
+                i++;
+            }
+            return new Index(keys, ids, names);
+        }
+
+        int lowerBound(String key) {
+            int position = Arrays.binarySearch(keys, key);
+            return position >= 0 ? position : -position - 1;
+        }
+
+        boolean contains(String name) {
+            return Arrays.binarySearch(keys, normalize(name)) >= 0;
+        }
+
+        TreeMap<String, Tag> entries() {
+            TreeMap<String, Tag> entries = new TreeMap<>();
+            for (int i = 0; i < keys.length; i++) {
+                entries.put(keys[i], new Tag(ids[i], names[i], new ArrayList<>()));
+            }
+            return entries;
+        }
+    }
+}
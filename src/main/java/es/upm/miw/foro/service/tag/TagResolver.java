@@ -0,0 +1,132 @@
+package es.upm.miw.foro.service.tag;
+
+import es.upm.miw.foro.persistence.model.Tag;
+import es.upm.miw.foro.persistence.repository.TagRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Turns tag names into tags with at most one {@code IN} lookup and one insert of the missing names. Resolved ids
+ * are kept in a least recently used name to id cache, so common tags never reach the database. Cache misses are
+ * loaded in their own transaction, so a cached id always belongs to a committed row even if the caller later
+ * rolls back.
+ */
+@Component
+public class TagResolver {
+
+    private final TagRepository tagRepository;
+    private final TagAutocomplete tagAutocomplete;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, Long> ids;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public TagResolver(TagRepository tagRepository, TagAutocomplete tagAutocomplete,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${miw.tags.cache-size:10000}") int cacheSize) {
+        this.tagRepository = tagRepository;
+        this.tagAutocomplete = tagAutocomplete;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ids = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    public Set<Tag> resolve(Collection<String> tagNames) {
+        Set<Tag> tags = new HashSet<>();
+        Set<String> missing = new HashSet<>();
+        lock.lock();
+        try {
+            for (String name : normalize(tagNames)) {
+                Long id = ids.get(name);
+                if (id != null) {
+                    tags.add(tag(id, name));
+                } else {
+                    missing.add(name);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (!missing.isEmpty()) {
+            List<Tag> loaded = transactionTemplate.execute(status -> load(missing));
+            cache(loaded);
+            tags.addAll(loaded);
+            tagAutocomplete.tagsAdded(loaded);
+        }
+        return tags;
+    }
+
+    public void evict(String name) {
+        lock.lock();
+        try {
+            ids.remove(name);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int cachedTags() {
+        lock.lock();
+        try {
+            return ids.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<Tag> load(Set<String> missing) {
+        List<Tag> found = new ArrayList<>(tagRepository.findByNameIn(missing));
+        Set<String> absent = namesNotIn(missing, found);
+        if (!absent.isEmpty()) {
+            List<Tag> inserted = tagRepository.insertMissing(absent);
+            found.addAll(inserted);
+            Set<String> insertedConcurrently = namesNotIn(absent, inserted);
+            if (!insertedConcurrently.isEmpty()) {
+                found.addAll(tagRepository.findByNameIn(insertedConcurrently));
+            }
+        }
+        return found;
+    }
+
+    private void cache(List<Tag> tags) {
+        lock.lock();
+        try {
+            tags.forEach(tag -> ids.put(tag.getName(), tag.getId()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static Set<String> normalize(Collection<String> tagNames) {
+        return tagNames.stream()
+                .map(name -> name.trim().toLowerCase())
+                .collect(Collectors.toSet());
+    }
+
+    private static Set<String> namesNotIn(Set<String> names, List<Tag> tags) {
+        Set<String> remaining = new HashSet<>(names);
+        tags.forEach(tag -> remaining.remove(tag.getName()));
+        return remaining;
+    }
+
+    private static Tag tag(Long id, String name) {
+        return new Tag(id, name, new ArrayList<>());
+    }
+}
@@ -0,0 +1,119 @@
+package es.upm.miw.foro.service.tag;
+
+import es.upm.miw.foro.api.dto.TagDto;
+import es.upm.miw.foro.persistence.model.Tag;
+import es.upm.miw.foro.persistence.repository.TagRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Question count of every tag, loaded with one grouped query and then adjusted in memory as questions gain or
+ * lose tags, so the tag list never touches the questions. A periodic reload corrects any drift, such as
+ * adjustments of transactions that later rolled back.
+ */
+@Slf4j
+@Component
+public class TagStatistics {
+
+    private final TagRepository tagRepository;
+    private final ReentrantLock loading = new ReentrantLock();
+    private volatile Map<Long, TagCount> counts;
+
+    public TagStatistics(TagRepository tagRepository) {
+        this.tagRepository = tagRepository;
+    }
+
+    public List<TagDto> tagCounts() {
+        return counts().entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(Comparator.naturalOrder()))
+                .map(entry -> new TagDto(entry.getKey(), entry.getValue().name, entry.getValue().questions.get()))
+                .toList();
+    }
+
+    public int questionCount(Long tagId) {
+        TagCount count = counts().get(tagId);
+        return count != null ? count.questions.get() : 0;
+    }
+
+    public void membershipChanged(Collection<Tag> previousTags, Collection<Tag> currentTags) {
+        Map<Long, TagCount> current = counts;
+        if (current == null) {
+            return;
+        }
+        Set<Long> previousIds = ids(previousTags);
+        Set<Long> currentIds = ids(currentTags);
+        currentTags.stream()
+                .filter(tag -> !previousIds.contains(tag.getId()))
+                .forEach(tag -> current.computeIfAbsent(tag.getId(), id -> new TagCount(tag.getName(), 0))
+                        .questions.incrementAndGet());
+        previousTags.stream()
+                .filter(tag -> !currentIds.contains(tag.getId()))
+                .map(tag -> current.get(tag.getId()))
+                .filter(count -> count != null)
+                .forEach(count -> count.questions.updateAndGet(questions -> Math.max(0, questions - 1)));
+    }
+
+    public void tagRemoved(Long tagId) {
+        Map<Long, TagCount> current = counts;
+        if (current != null) {
+            current.remove(tagId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${miw.tags.statistics-refresh:PT10M}",
+            initialDelayString = "${miw.tags.statistics-refresh:PT10M}")
+    public void refresh() {
+        counts = load();
+    }
+
+    private Map<Long, TagCount> counts() {
+        Map<Long, TagCount> current = counts;
+        if (current == null) {
+            loading.lock();
+            try {
+                current = counts;
+                if (current == null) {
+                    current = load();
+                    counts = current;
+                }
+            } finally {
+                loading.unlock();
+            }
+        }
+        return current;
+    }
+
+    private Map<Long, TagCount> load() {
+        Map<Long, TagCount> loaded = new ConcurrentHashMap<>();
+        tagRepository.countQuestionsByTag().forEach(row ->
+                loaded.put(row.id(), new TagCount(row.name(), row.questionCount().intValue())));
+        log.debug("Loaded question counts of {} tags", loaded.size());
+        return loaded;
+    }
+
+    private static Set<Long> ids(Collection<Tag> tags) {
+        return tags.stream().map(Tag::getId).collect(Collectors.toSet());
+    }
+
+    private static final class TagCount {
+
+        private final String name;
+        private final AtomicInteger questions;
+
+        TagCount(String name, int questions) {
+            this.name = name;
+            this.questions = new AtomicInteger(questions);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package es.upm.miw.foro.service.view;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free Bloom filter over strings. {@link #add(String)} reports whether the key was definitely new, which is
+ * what view de-duplication needs: a false positive only means one view is not counted.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final int bitCount;
+    private final int hashCount;
+
+    public BloomFilter(int expectedInsertions, double falsePositiveRate) {
+        int n = Math.max(1, expectedInsertions);
+        long optimalBits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitCount = (int) Math.max(64, Math.min(optimalBits, Integer.MAX_VALUE - 63L));
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+        this.bits = new AtomicLongArray((bitCount + 63) / 64);
+    }
+
+    public boolean add(String key) {
+        return add(Hashes.hash64(key));
+    }
+
+    public boolean add(long hash1) {
+        long hash2 = secondHash(hash1);
+        boolean changed = false;
+        for (int i = 0; i < hashCount; i++) {
+            changed |= setBit(bit(hash1, hash2, i));
+        }
+        return changed;
+    }
+
+    public boolean contains(long hash1) {
+        long hash2 = secondHash(hash1);
+        for (int i = 0; i < hashCount; i++) {
+            int bit = bit(hash1, hash2, i);
+            if ((bits.get(bit >>> 6) & (1L << (bit & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long sizeInBytes() {
+        return bits.length() * 8L;
+    }
+
+    private int bit(long hash1, long hash2, int i) {
+        return (int) Math.floorMod(hash1 + i * hash2, (long) bitCount);
+    }
+
+    private static long secondHash(long hash1) {
+        return Hashes.mix(hash1 ^ 0x9e3779b97f4a7c15L) | 1;
+    }
+
+    private boolean setBit(int bit) {
+        int index = bit >>> 6;
+        long mask = 1L << (bit & 63);
+        long current = bits.get(index);
+        while ((current & mask) == 0) {
+            if (bits.compareAndSet(index, current, current | mask)) {
+                return true;
+            }
+            current = bits.get(index);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,35 @@
+package es.upm.miw.foro.service.view;
+
+import lombok.Generated;
+
+import java.nio.charset.StandardCharsets;
+
+class Hashes {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    @Generated
+    private Hashes() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    static long hash64(String key) {
+        long hash = FNV_OFFSET;
+        for (byte value : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= value;
+            hash *= FNV_PRIME;
+        }
+        return mix(hash);
+    }
+
+    static long mix(long value) {
+        long hash = value;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,81 @@
+package es.upm.miw.foro.service.view;
+
+import java.util.Arrays;
+
+/**
+ * HyperLogLog cardinality sketch with 2^12 one-byte registers: 4 KB per question whatever the number of viewers,
+ * about 1.6% standard error, and two sketches merge by taking the register-wise maximum.
+ */
+public class HyperLogLog {
+
+    private static final byte VERSION = 1;
+    private static final int PRECISION = 12;
+    private static final int REGISTERS = 1 << PRECISION;
+    private static final int HEADER = 2;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this.registers = new byte[REGISTERS];
+    }
+
+    private HyperLogLog(byte[] registers) {
+        this.registers = registers;
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return new HyperLogLog();
+        }
+        if (bytes.length != HEADER + REGISTERS || bytes[0] != VERSION || bytes[1] != PRECISION) {
+            throw new IllegalArgumentException("Unsupported HyperLogLog sketch format");
+        }
+        return new HyperLogLog(Arrays.copyOfRange(bytes, HEADER, bytes.length));
+    }
+
+    public void add(String key) {
+        addHash(Hashes.hash64(key));
+    }
+
+    public void addHash(long hash) {
+        int index = (int) (hash >>> (Long.SIZE - PRECISION));
+        long remaining = hash << PRECISION;
+        int rank = Math.min(Long.numberOfLeadingZeros(remaining) + 1, Long.SIZE - PRECISION + 1);
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    public void merge(HyperLogLog other) {
+        for (int i = 0; i < REGISTERS; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public byte[] toBytes() {
+        byte[] bytes = new byte[HEADER + REGISTERS];
+        bytes[0] = VERSION;
+        bytes[1] = PRECISION;
+        System.arraycopy(registers, 0, bytes, HEADER, REGISTERS);
+        return bytes;
+    }
+}
@@ -0,0 +1,123 @@
+package es.upm.miw.foro.service.view;
+
+import es.upm.miw.foro.persistence.model.QuestionViewSketch;
+import es.upm.miw.foro.persistence.repository.QuestionRepository;
+import es.upm.miw.foro.persistence.repository.QuestionViewSketchRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * Folds the per-viewer rows of the old {@code question_viewed_by} and {@code question_viewed_by_users}
+ * collections into the HyperLogLog sketches and drops them. Runs once: later starts find no legacy tables.
+ */
+@Slf4j
+@Component
+@Order
+public class LegacyViewersMigration implements ApplicationRunner {
+
+    private static final String SESSION_VIEWERS = "question_viewed_by";
+    private static final String USER_VIEWERS = "question_viewed_by_users";
+    private static final int FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final QuestionRepository questionRepository;
+    private final QuestionViewSketchRepository questionViewSketchRepository;
+
+    public LegacyViewersMigration(DataSource dataSource, TransactionTemplate transactionTemplate,
+                                  QuestionRepository questionRepository,
+                                  QuestionViewSketchRepository questionViewSketchRepository) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.transactionTemplate = transactionTemplate;
+        this.questionRepository = questionRepository;
+        this.questionViewSketchRepository = questionViewSketchRepository;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        boolean sessions = tableExists(SESSION_VIEWERS);
+        boolean users = tableExists(USER_VIEWERS);
+        if (!sessions && !users) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            int questions = migrate(viewersQuery(sessions, users));
+            if (sessions) {
+                jdbcTemplate.execute("DROP TABLE " + SESSION_VIEWERS);
+            }
+            if (users) {
+                jdbcTemplate.execute("DROP TABLE " + USER_VIEWERS);
+            }
+            log.info("Migrated legacy viewers of {} questions to HyperLogLog sketches", questions);
+        });
+    }
+
+    private int migrate(String query) {
+        SketchFolder folder = new SketchFolder();
+        RowCallbackHandler handler = resultSet -> folder.add(resultSet.getLong(1), resultSet.getString(2));
+        jdbcTemplate.query(query, handler);
+        folder.save();
+        return folder.questions;
+    }
+
+    private static String viewersQuery(boolean sessions, boolean users) {
+        String sessionViewers = "SELECT question_id, 'session:' || session_id AS viewer FROM " + SESSION_VIEWERS;
+        String userViewers = "SELECT v.question_id, 'user:' || u.email AS viewer FROM " + USER_VIEWERS
+                + " v JOIN users u ON u.id = v.user_id";
+        String viewers;
+        if (sessions && users) {
+            viewers = sessionViewers + " UNION ALL " + userViewers;
+        } else {
+            viewers = sessions ? sessionViewers : userViewers;
+        }
+        return "SELECT question_id, viewer FROM (" + viewers + ") legacy ORDER BY question_id";
+    }
+
+    private boolean tableExists(String table) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.tables WHERE LOWER(table_name) = ?", Integer.class, table);
+        return count != null && count > 0;
+    }
+
+    private final class SketchFolder {
+
+        private Long questionId;
+        private HyperLogLog sketch;
+        private int questions;
+
+        void add(long rowQuestionId, String viewer) {
+            if (questionId == null || questionId != rowQuestionId) {
+                save();
+                questionId = rowQuestionId;
+                sketch = new HyperLogLog();
+            }
+            sketch.add(viewer);
+        }
+
+        void save() {
+            if (questionId == null) {
+                return;
+            }
+            QuestionViewSketch viewSketch = questionViewSketchRepository.findById(questionId).orElseGet(() -> {
+                QuestionViewSketch created = new QuestionViewSketch();
+                created.setQuestion(questionRepository.getReferenceById(questionId));
+                return created;
+            });
+            HyperLogLog merged = HyperLogLog.fromBytes(viewSketch.getSketch());
+            merged.merge(sketch);
+            viewSketch.setSketch(merged.toBytes());
+            questionViewSketchRepository.save(viewSketch);
+            questionRepository.updateUniqueViews(questionId, merged.estimate());
+            questions++;
+        }
+    }
+}
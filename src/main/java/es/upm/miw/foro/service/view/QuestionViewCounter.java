@@ -0,0 +1,255 @@
+package es.upm.miw.foro.service.view;
+
+import es.upm.miw.foro.exception.RepositoryException;
+import es.upm.miw.foro.persistence.model.QuestionViewSketch;
+import es.upm.miw.foro.persistence.repository.QuestionRepository;
+import es.upm.miw.foro.persistence.repository.QuestionViewSketchRepository;
+import es.upm.miw.foro.util.MessageUtil;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind view counting. A view only touches an in-memory {@link LongAdder} and the question's
+ * {@link ScalableBloomFilter} of viewers, which grows past the expected viewers; the accumulated deltas are written
+ * with one bulk UPDATE per distinct delta on every flush, so popular questions never serialise requests on their row
+ * lock. Every viewer, not only those the filter reports as new, is also folded into the question's persisted
+ * {@link HyperLogLog} sketch, which backs the unique views count, so the count does not inherit the filter's false
+ * positives.
+ */
+@Slf4j
+@Component
+public class QuestionViewCounter {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final QuestionRepository questionRepository;
+    private final QuestionViewSketchRepository questionViewSketchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int expectedViewers;
+    private final Duration dedupWindow;
+    private final Map<Long, QuestionViews> views = new ConcurrentHashMap<>();
+
+    public QuestionViewCounter(QuestionRepository questionRepository,
+                               QuestionViewSketchRepository questionViewSketchRepository,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${miw.views.expected-viewers-per-question:1000}") int expectedViewers,
+                               @Value("${miw.views.dedup-window:PT24H}") Duration dedupWindow) {
+        this.questionRepository = questionRepository;
+        this.questionViewSketchRepository = questionViewSketchRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.expectedViewers = expectedViewers;
+        this.dedupWindow = dedupWindow;
+    }
+
+    public boolean registerView(Long questionId, String viewer) {
+        QuestionViews questionViews;
+        do {
+            questionViews = views.get(questionId);
+            if (questionViews == null) {
+                if (!questionRepository.existsById(questionId)) {
+                    throw new RepositoryException(MessageUtil.QUESTION_NOT_FOUND);
+                }
+                questionViews = questionViews(questionId);
+            }
+        } while (!questionViews.enter());
+        try {
+            return questionViews.register(viewer);
+        } finally {
+            questionViews.exit();
+        }
+    }
+
+    public long pendingViews(Long questionId) {
+        QuestionViews questionViews = views.get(questionId);
+        return questionViews != null ? questionViews.pending() : 0;
+    }
+
+    @Scheduled(fixedDelayString = "${miw.views.flush-interval:PT5S}")
+    public void flush() {
+        Map<Long, List<Long>> idsByDelta = new HashMap<>();
+        Map<Long, List<Long>> viewerHashes = new HashMap<>();
+        Instant now = Instant.now();
+        views.forEach((questionId, questionViews) -> {
+            long delta = questionViews.takePending();
+            if (delta > 0) {
+                idsByDelta.computeIfAbsent(delta, key -> new ArrayList<>()).add(questionId);
+            }
+            List<Long> hashes = questionViews.drainViewerHashes();
+            if (!hashes.isEmpty()) {
+                viewerHashes.put(questionId, hashes);
+            }
+            if (delta == 0 && hashes.isEmpty()) {
+                views.computeIfPresent(questionId, (id, current) -> current.retire(now) ? null : current);
+            }
+        });
+        if (idsByDelta.isEmpty() && viewerHashes.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                idsByDelta.forEach((delta, questionIds) -> questionRepository.incrementViews(questionIds, delta.intValue()));
+                mergeViewerSketches(viewerHashes);
+            });
+            log.debug("Flushed views of {} questions in {} updates",
+                    idsByDelta.values().stream().mapToInt(List::size).sum(), idsByDelta.size());
+        } catch (RuntimeException exception) {
+            log.error("Error flushing question views, they will be retried", exception);
+            idsByDelta.forEach((delta, questionIds) -> questionIds.forEach(
+                    questionId -> questionViews(questionId).restorePending(delta)));
+            viewerHashes.forEach((questionId, hashes) -> questionViews(questionId).viewerHashes.addAll(hashes));
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void mergeViewerSketches(Map<Long, List<Long>> viewerHashes) {
+        if (viewerHashes.isEmpty()) {
+            return;
+        }
+        Map<Long, QuestionViewSketch> sketches = questionViewSketchRepository
+                .findAllForUpdateByQuestionIdIn(viewerHashes.keySet()).stream()
+                .collect(Collectors.toMap(QuestionViewSketch::getQuestionId, Function.identity()));
+        viewerHashes.forEach((questionId, hashes) -> {
+            QuestionViewSketch viewSketch = sketches.get(questionId);
+            if (viewSketch == null) {
+                if (!questionRepository.existsById(questionId)) {
+                    return;
+                }
+                viewSketch = new QuestionViewSketch();
+                viewSketch.setQuestion(questionRepository.getReferenceById(questionId));
+            }
+            HyperLogLog sketch = HyperLogLog.fromBytes(viewSketch.getSketch());
+            hashes.forEach(sketch::addHash);
+            viewSketch.setSketch(sketch.toBytes());
+            questionViewSketchRepository.save(viewSketch);
+            questionRepository.updateUniqueViews(questionId, sketch.estimate());
+        });
+    }
+
+    private QuestionViews questionViews(Long questionId) {
+        return views.computeIfAbsent(questionId, id -> new QuestionViews());
+    }
+
+    /**
+     * Views of one question in the current de-duplication window. Registrations {@link #enter} before touching it
+     * and flushes only {@link #retire} it while none is in flight and nothing is pending, so no view lands on an
+     * entry that was already dropped from the map.
+     */
+    private final class QuestionViews {
+
+        private final LongAdder counted = new LongAdder();
+        private final LongAdder inFlight = new LongAdder();
+        private final Set<Long> viewerHashes = ConcurrentHashMap.newKeySet();
+        private final AtomicReference<Window> window = new AtomicReference<>(new Window(Instant.now()));
+        private volatile long flushed;
+        private volatile boolean retired;
+
+        boolean enter() {
+            inFlight.increment();
+            if (retired) {
+                inFlight.decrement();
+                Thread.onSpinWait();
+                return false;
+            }
+            return true;
+        }
+
+        void exit() {
+            inFlight.decrement();
+        }
+
+        boolean register(String viewer) {
+            Window current = currentWindow(Instant.now());
+            if (viewer == null) {
+                return false;
+            }
+            long hash = Hashes.hash64(viewer);
+            viewerHashes.add(hash);
+            if (current.viewers.add(hash)) {
+                counted.increment();
+                return true;
+            }
+            return false;
+        }
+
+        long pending() {
+            return counted.sum() - flushed;
+        }
+
+        long takePending() {
+            long total = counted.sum();
+            long delta = total - flushed;
+            flushed = total;
+            return delta;
+        }
+
+        void restorePending(long delta) {
+            flushed -= delta;
+        }
+
+        List<Long> drainViewerHashes() {
+            List<Long> drained = new ArrayList<>();
+            for (Iterator<Long> hashes = viewerHashes.iterator(); hashes.hasNext(); ) {
+                drained.add(hashes.next());
+                hashes.remove();
+            }
+            return drained;
+        }
+
+        boolean retire(Instant now) {
+            if (!window.get().isExpired(now)) {
+                return false;
+            }
+            retired = true;
+            if (inFlight.sum() == 0 && pending() == 0 && viewerHashes.isEmpty()) {
+                return true;
+            }
+            retired = false;
+            return false;
+        }
+
+        private Window currentWindow(Instant now) {
+            Window current = window.get();
+            if (!current.isExpired(now)) {
+                return current;
+            }
+            Window renewed = new Window(now);
+            return window.compareAndSet(current, renewed) ? renewed : window.get();
+        }
+    }
+
+    private final class Window {
+
+        private final ScalableBloomFilter viewers = new ScalableBloomFilter(expectedViewers, FALSE_POSITIVE_RATE);
+        private final Instant start;
+
+        private Window(Instant start) {
+            this.start = start;
+        }
+
+        boolean isExpired(Instant now) {
+            return start.plus(dedupWindow).isBefore(now);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package es.upm.miw.foro.service.view;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link BloomFilter} that grows with its keys: once the newest slice holds the insertions it was sized for, a slice
+ * twice as large with half its false positive rate takes the next keys. The rates of the slices add up to at most
+ * the configured one, so a question with far more viewers than expected keeps counting new ones.
+ */
+public class ScalableBloomFilter {
+
+    private static final int GROWTH = 2;
+    private static final double TIGHTENING = 0.5;
+
+    private final ReentrantLock growing = new ReentrantLock();
+    private volatile List<Slice> slices;
+
+    public ScalableBloomFilter(int expectedInsertions, double falsePositiveRate) {
+        this.slices = List.of(new Slice(Math.max(1, expectedInsertions), falsePositiveRate * (1 - TIGHTENING)));
+    }
+
+    public boolean add(long hash) {
+        List<Slice> current = slices;
+        for (int i = 0; i < current.size() - 1; i++) {
+            if (current.get(i).filter.contains(hash)) {
+                return false;
+            }
+        }
+        Slice newest = current.getLast();
+        if (!newest.filter.add(hash)) {
+            return false;
+        }
+        if (newest.insertions.incrementAndGet() >= newest.capacity) {
+            grow(current);
+        }
+        return true;
+    }
+
+    private void grow(List<Slice> full) {
+        growing.lock();
+        try {
+            if (slices != full) {
+                return;
+            }
+            Slice newest = full.getLast();
+            List<Slice> grown = new ArrayList<>(full);
+            grown.add(new Slice((int) Math.min((long) newest.capacity * GROWTH, Integer.MAX_VALUE),
+                    newest.falsePositiveRate * TIGHTENING));
+            slices = List.copyOf(grown);
+        } finally {
+            growing.unlock();
+        }
+    }
+
+    private static final class Slice {
+
+        private final BloomFilter filter;
+        private final int capacity;
+        private final double falsePositiveRate;
+        private final AtomicInteger insertions = new AtomicInteger();
+
+        private Slice(int capacity, double falsePositiveRate) {
+            this.filter = new BloomFilter(capacity, falsePositiveRate);
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+        }
+    }
+}
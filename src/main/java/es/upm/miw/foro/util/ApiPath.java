@@ -16,6 +16,7 @@ public class ApiPath {
     public static final String QUESTIONS = "/questions";
     public static final String QUESTION_ID = QUESTIONS + "/{id}";
     public static final String QUESTION_SEARCH = QUESTIONS + "/search";
+    public static final String QUESTION_SCROLL = QUESTIONS + "/scroll";
     public static final String QUESTION_MY = QUESTIONS + "/my";
     public static final String QUESTION_VIEWS = QUESTION_ID + "/views";
 
@@ -27,6 +28,8 @@ public class ApiPath {
 
     public static final String NOTIFICATIONS = "/notifications";
     public static final String TOPIC_NOTIFICATIONS = "/topic/notifications/";
+    public static final String QUEUE_NOTIFICATIONS = "/queue/notifications";
+    public static final String USER_QUEUE_NOTIFICATIONS = "/user" + QUEUE_NOTIFICATIONS;
 
     public static final String ACTUATOR = "/actuator/**";
 
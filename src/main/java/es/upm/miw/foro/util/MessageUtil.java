@@ -17,6 +17,7 @@ public class MessageUtil {
 
     public static final String FIRSTNAME_CLAIM = "firstName";
     public static final String LASTNAME_CLAIM = "lastName";
+    public static final String USERNAME_CLAIM = "userName";
     public static final String EMAIL_CLAIM = "email";
     public static final String ROLE_CLAIM = "role";
     public static final String PASSWORD_RESET_CLAIM = "pwd_reset";
@@ -0,0 +1,9 @@
+CREATE SEQUENCE IF NOT EXISTS tag_seq INCREMENT BY 50;
+
+ALTER SEQUENCE IF EXISTS user_seq INCREMENT BY 50;
+
+ALTER SEQUENCE IF EXISTS question_seq INCREMENT BY 50;
+
+ALTER SEQUENCE IF EXISTS answer_seq INCREMENT BY 50;
+
+ALTER SEQUENCE IF EXISTS notification_seq INCREMENT BY 50;
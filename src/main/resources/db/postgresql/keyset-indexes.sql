@@ -0,0 +1,5 @@
+CREATE INDEX IF NOT EXISTS idx_questions_creation_date_id ON questions (creation_date, id);
+
+CREATE INDEX IF NOT EXISTS idx_questions_author_creation_date_id ON questions (author_id, creation_date, id);
+
+CREATE INDEX IF NOT EXISTS idx_answers_author_creation_date_id ON answers (author_id, creation_date, id);
@@ -0,0 +1,16 @@
+CREATE TABLE IF NOT EXISTS question_subscriptions (
+    question_id BIGINT NOT NULL REFERENCES questions (id) ON DELETE CASCADE,
+    user_id BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    creation_date TIMESTAMP NOT NULL,
+    expiry_date TIMESTAMP,
+    PRIMARY KEY (question_id, user_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_question_subscriptions_user ON question_subscriptions (user_id);
+CREATE INDEX IF NOT EXISTS idx_question_subscriptions_expiry ON question_subscriptions (expiry_date)
+    WHERE expiry_date IS NOT NULL;
+
+ALTER TABLE notification_outbox ADD COLUMN IF NOT EXISTS actor_id BIGINT;
+ALTER TABLE notification_outbox ADD COLUMN IF NOT EXISTS followers BOOLEAN NOT NULL DEFAULT FALSE;
+
+ALTER TABLE notifications ADD COLUMN IF NOT EXISTS event_count INTEGER NOT NULL DEFAULT 1;
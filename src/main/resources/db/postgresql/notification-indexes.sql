@@ -0,0 +1,7 @@
+CREATE INDEX IF NOT EXISTS idx_notifications_user_read_creation_date_id
+    ON notifications (user_id, is_read, creation_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_notifications_user_creation_date_id
+    ON notifications (user_id, creation_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_notifications_answer ON notifications (answer_id);
@@ -0,0 +1,10 @@
+CREATE SEQUENCE IF NOT EXISTS notification_outbox_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS notification_outbox (
+    id BIGINT PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    question_id BIGINT REFERENCES questions (id) ON DELETE CASCADE,
+    answer_id BIGINT REFERENCES answers (id) ON DELETE CASCADE,
+    type VARCHAR(255) NOT NULL,
+    creation_date TIMESTAMP NOT NULL
+);
@@ -0,0 +1,8 @@
+CREATE UNLOGGED TABLE IF NOT EXISTS notification_routes (
+    user_id BIGINT NOT NULL,
+    node_id VARCHAR(64) NOT NULL,
+    heartbeat TIMESTAMP NOT NULL,
+    PRIMARY KEY (user_id, node_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_notification_routes_heartbeat ON notification_routes (heartbeat);
@@ -0,0 +1,10 @@
+ALTER TABLE questions ADD COLUMN IF NOT EXISTS search_vector tsvector;
+
+CREATE INDEX IF NOT EXISTS idx_questions_search_vector ON questions USING GIN (search_vector);
+
+UPDATE questions q SET search_vector =
+    setweight(to_tsvector('simple', coalesce(q.title, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce(q.description, '')), 'B') ||
+    setweight(to_tsvector('simple', coalesce(
+        (SELECT string_agg(a.content, ' ') FROM answers a WHERE a.question_id = q.id), '')), 'C')
+WHERE q.search_vector IS NULL;
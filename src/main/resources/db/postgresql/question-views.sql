@@ -0,0 +1,6 @@
+ALTER TABLE questions ADD COLUMN IF NOT EXISTS unique_views BIGINT NOT NULL DEFAULT 0;
+
+CREATE TABLE IF NOT EXISTS question_view_sketches (
+    question_id BIGINT PRIMARY KEY REFERENCES questions (id) ON DELETE CASCADE,
+    sketch BYTEA NOT NULL
+);
@@ -0,0 +1,3 @@
+ALTER TABLE tags ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+SELECT setval('tag_seq', GREATEST((SELECT last_value FROM tag_seq), (SELECT COALESCE(MAX(id), 1) FROM tags)));
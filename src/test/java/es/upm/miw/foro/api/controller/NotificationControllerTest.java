@@ -1,23 +1,32 @@
 package es.upm.miw.foro.api.controller;
 
 import es.upm.miw.foro.TestConfig;
+import es.upm.miw.foro.api.dto.CursorPageDto;
 import es.upm.miw.foro.api.dto.NotificationDto;
+import es.upm.miw.foro.api.dto.UnreadCountDto;
+import es.upm.miw.foro.exception.ServiceException;
 import es.upm.miw.foro.persistence.model.NotificationType;
 import es.upm.miw.foro.persistence.model.User;
 import es.upm.miw.foro.service.NotificationService;
 import es.upm.miw.foro.service.UserService;
+import es.upm.miw.foro.service.scroll.ScrollRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.core.Authentication;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @TestConfig
@@ -51,36 +60,38 @@ class NotificationControllerTest {
                 .type(NotificationType.QUESTION_REPLIED)
                 .read(false)
                 .creationDate(LocalDateTime.now())
+                .writtenDate(LocalDateTime.of(2025, 1, 1, 10, 0, 3))
                 .build();
 
         Authentication authentication = mock(Authentication.class);
         when(authentication.getName()).thenReturn(USER_EMAIL);
         when(userService.getAuthenticatedUser()).thenReturn(testUser);
+        when(userService.getAuthenticatedUserId()).thenReturn(ID);
     }
 
     @Test
     void testGetNotifications() {
         // Arrange
         List<NotificationDto> notifications = List.of(notificationDto);
-        when(notificationService.getUserNotifications(anyLong())).thenReturn(notifications);
+        when(notificationService.getUserNotifications(anyLong(), anyInt())).thenReturn(notifications);
 
         // Act
-        List<NotificationDto> result = notificationController.getNotifications();
+        List<NotificationDto> result = notificationController.getNotifications(50);
 
         // Assert
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(notificationDto, result.getFirst());
-        verify(notificationService, times(1)).getUserNotifications(testUser.getId());
+        verify(notificationService, times(1)).getUserNotifications(testUser.getId(), 50);
     }
 
     @Test
     void testGetNotificationsEmptyList() {
         // Arrange
-        when(notificationService.getUserNotifications(anyLong())).thenReturn(Collections.emptyList());
+        when(notificationService.getUserNotifications(anyLong(), anyInt())).thenReturn(Collections.emptyList());
 
         // Act
-        List<NotificationDto> result = notificationController.getNotifications();
+        List<NotificationDto> result = notificationController.getNotifications(50);
 
         // Assert
         assertNotNull(result);
@@ -89,13 +100,100 @@ class NotificationControllerTest {
 
     @Test
     void testMarkAsRead() {
+        // Act
+        notificationController.markAsRead(1L);
+
+        // Assert
+        verify(notificationService, times(1)).markAsRead(ID, List.of(1L));
+    }
+
+    @Test
+    void testMarkManyAsRead() {
         // Arrange
-        doNothing().when(notificationService).markAsRead(anyLong());
+        List<Long> ids = List.of(1L, 2L);
+        when(notificationService.markAsRead(ID, ids)).thenReturn(2);
+        when(notificationService.getUnreadCount(ID)).thenReturn(1L);
 
         // Act
-        notificationController.markAsRead(1L);
+        UnreadCountDto result = notificationController.markAsRead(ids);
+
+        // Assert
+        assertEquals(1L, result.getCount());
+        verify(notificationService, times(1)).markAsRead(ID, ids);
+    }
+
+    @Test
+    void testMarkAllAsRead() {
+        // Arrange
+        when(notificationService.markAllAsRead(ID)).thenReturn(3);
+
+        // Act
+        UnreadCountDto result = notificationController.markAllAsRead();
+
+        // Assert
+        assertEquals(0L, result.getCount());
+        verify(notificationService, times(1)).markAllAsRead(ID);
+    }
+
+    @Test
+    void testGetUnreadCount() {
+        // Arrange
+        when(notificationService.getUnreadCount(ID)).thenReturn(5L);
+
+        // Act
+        UnreadCountDto result = notificationController.getUnreadCount();
+
+        // Assert
+        assertEquals(5L, result.getCount());
+    }
+
+    @Test
+    void testScrollNotifications() {
+        // Arrange
+        CursorPageDto<NotificationDto> page = CursorPageDto.<NotificationDto>builder()
+                .content(List.of(notificationDto))
+                .hasNext(false)
+                .build();
+        when(notificationService.scrollUserNotifications(eq(ID), eq(true), any(ScrollRequest.class))).thenReturn(page);
+
+        // Act
+        ResponseEntity<CursorPageDto<NotificationDto>> response =
+                notificationController.scrollNotifications(null, 20, true, false);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(page, response.getBody());
+    }
+
+    @Test
+    void testScrollNotificationsInvalidCursor() {
+        // Arrange
+        when(notificationService.scrollUserNotifications(eq(ID), eq(false), any(ScrollRequest.class)))
+                .thenThrow(new ServiceException("Invalid continuation token", HttpStatus.BAD_REQUEST));
+
+        // Act
+        ResponseEntity<CursorPageDto<NotificationDto>> response =
+                notificationController.scrollNotifications("not-a-cursor", 20, false, false);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void testStreamNotifications() {
+        // Arrange
+        when(notificationService.streamNotifications(ID, "2025-01-01T10:00_5")).thenReturn(Flux.just(notificationDto));
+
+        // Act
+        Flux<ServerSentEvent<NotificationDto>> stream = notificationController.streamNotifications("2025-01-01T10:00_5");
 
         // Assert
-        verify(notificationService, times(1)).markAsRead(1L);
+        StepVerifier.create(stream)
+                .assertNext(event -> {
+                    assertEquals("2025-01-01T10:00:03_" + ID, event.id());
+                    assertEquals("notification", event.event());
+                    assertEquals(notificationDto, event.data());
+                })
+                .verifyComplete();
     }
 }
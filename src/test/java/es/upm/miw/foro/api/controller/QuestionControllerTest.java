@@ -1,9 +1,11 @@
 package es.upm.miw.foro.api.controller;
 
 import es.upm.miw.foro.TestConfig;
+import es.upm.miw.foro.api.dto.CursorPageDto;
 import es.upm.miw.foro.api.dto.QuestionDto;
 import es.upm.miw.foro.exception.ServiceException;
 import es.upm.miw.foro.service.QuestionService;
+import es.upm.miw.foro.service.scroll.ScrollRequest;
 import es.upm.miw.foro.util.MessageUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.BeforeEach;
@@ -240,6 +242,39 @@ class QuestionControllerTest {
         verify(questionService, times(1)).getQuestions(null, false, null, pageable);
     }
 
+    @Test
+    void testScrollQuestions() {
+        // Arrange
+        CursorPageDto<QuestionDto> window = CursorPageDto.<QuestionDto>builder()
+                .content(List.of(new QuestionDto())).nextCursor("next").hasNext(true).build();
+        ScrollRequest scrollRequest = ScrollRequest.of(null, 10, "creationDate", "desc", false);
+        when(questionService.scrollQuestions(null, false, null, scrollRequest)).thenReturn(window);
+
+        // Act
+        ResponseEntity<CursorPageDto<QuestionDto>> response = questionController.scrollQuestions(null, false, null,
+                null, 10, "creationDate", "desc", false);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("next", Objects.requireNonNull(response.getBody()).getNextCursor());
+        assertNull(response.getBody().getTotalElements());
+        verify(questionService, times(1)).scrollQuestions(null, false, null, scrollRequest);
+    }
+
+    @Test
+    void testScrollQuestions_invalidCursor() {
+        // Arrange
+        when(questionService.scrollQuestions(any(), any(), any(), any()))
+                .thenThrow(new ServiceException("Invalid continuation token", HttpStatus.BAD_REQUEST));
+
+        // Act
+        ResponseEntity<CursorPageDto<QuestionDto>> response = questionController.scrollQuestions(null, false, null,
+                "broken", 10, "creationDate", "desc", false);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
     @Test
     void testGetQuestionsWithDescending() {
         // Arrange
@@ -3,6 +3,7 @@ package es.upm.miw.foro.api.converter;
 import es.upm.miw.foro.TestConfig;
 import es.upm.miw.foro.api.dto.NotificationDto;
 import es.upm.miw.foro.persistence.model.*;
+import es.upm.miw.foro.persistence.repository.projection.NotificationSummary;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDateTime;
@@ -38,6 +39,7 @@ class NotificationMapperTest {
         assertEquals(NotificationType.QUESTION_REPLIED, dto.getType());
         assertFalse(dto.isRead());
         assertEquals(CREATION_DATE, dto.getCreationDate());
+        assertEquals(CREATION_DATE.plusSeconds(3), dto.getWrittenDate());
     }
 
     @Test
@@ -49,6 +51,26 @@ class NotificationMapperTest {
         assertNull(dto);
     }
 
+    @Test
+    void fromSummary_thenMapsDto() {
+        // Arrange
+        NotificationSummary summary = new NotificationSummary(NOTIFICATION_ID, USER_ID, null, null,
+                NotificationType.ANSWER_RATED, true, 1, CREATION_DATE, CREATION_DATE.plusSeconds(3));
+
+        // Act
+        NotificationDto dto = NotificationMapper.fromSummary(summary);
+
+        // Assert
+        assertEquals(NOTIFICATION_ID, dto.getId());
+        assertEquals(USER_ID, dto.getUserId());
+        assertEquals("Answer rated", dto.getMessage());
+        assertNull(dto.getQuestionId());
+        assertNull(dto.getAnswerId());
+        assertTrue(dto.isRead());
+        assertEquals(CREATION_DATE, dto.getCreationDate());
+        assertEquals(CREATION_DATE.plusSeconds(3), dto.getWrittenDate());
+    }
+
     @Test
     void toNotificationDtoWithDifferentNotificationTypes_ShouldGenerateCorrectMessages() {
         // Arrange
@@ -64,6 +86,20 @@ class NotificationMapperTest {
         assertEquals("Answer rated", dto2.getMessage());
     }
 
+    @Test
+    void toNotificationDtoWithCoalescedEvents_thenCountsThem() {
+        // Arrange
+        Notification notification = createNotification(NotificationType.QUESTION_REPLIED);
+        notification.setEventCount(5);
+
+        // Act
+        NotificationDto dto = NotificationMapper.toNotificationDto(notification);
+
+        // Assert
+        assertEquals(5, dto.getEventCount());
+        assertEquals("5 new answers", dto.getMessage());
+    }
+
     @Test
     void toEntity_thenMapsToEntity() {
         // Arrange
@@ -165,6 +201,7 @@ class NotificationMapperTest {
         notification.setAnswer(answer);
         notification.setRead(false);
         notification.setCreationDate(CREATION_DATE);
+        notification.setWrittenDate(CREATION_DATE.plusSeconds(3));
 
         return notification;
     }
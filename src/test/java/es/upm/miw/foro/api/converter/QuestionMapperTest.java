@@ -5,11 +5,13 @@ import es.upm.miw.foro.api.dto.QuestionDto;
 import es.upm.miw.foro.persistence.model.Answer;
 import es.upm.miw.foro.persistence.model.Question;
 import es.upm.miw.foro.persistence.model.User;
+import es.upm.miw.foro.persistence.repository.projection.QuestionSummary;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
@@ -41,9 +43,30 @@ class QuestionMapperTest {
         assertEquals(question.getDescription(), questionDto.getDescription());
         assertEquals(question.getCreationDate(), questionDto.getCreationDate());
         assertEquals(1, questionDto.getAnswers().size());
+        assertEquals(1, questionDto.getAnswerCount());
         assertEquals(question.getViews(), questionDto.getViews());
     }
 
+    @Test
+    void toQuestionDto_shouldMapSummaryWithoutAnswers() {
+        // Arrange
+        QuestionSummary summary = new QuestionSummary(ID, TITLE, AUTHOR, DATE, VIEWS, 1L, 4L);
+
+        // Act
+        QuestionDto questionDto = QuestionMapper.toQuestionDto(summary, Set.of("java"));
+
+        // Assert
+        assertEquals(ID, questionDto.getId());
+        assertEquals(AUTHOR, questionDto.getAuthor());
+        assertEquals(TITLE, questionDto.getTitle());
+        assertNull(questionDto.getDescription());
+        assertEquals(DATE, questionDto.getCreationDate());
+        assertEquals(VIEWS, questionDto.getViews());
+        assertEquals(4, questionDto.getAnswerCount());
+        assertNull(questionDto.getAnswers());
+        assertEquals(Set.of("java"), questionDto.getTags());
+    }
+
     @Test
     void toQuestionDto_withValidEntity_returnsPopulatedDto() {
         // Arrange
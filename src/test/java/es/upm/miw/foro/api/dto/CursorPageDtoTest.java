@@ -0,0 +1,22 @@
+package es.upm.miw.foro.api.dto;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CursorPageDtoTest {
+
+    @Test
+    void testNoArgsConstructor() {
+        CursorPageDto<String> cursorPageDto = new CursorPageDto<>();
+        assertThat(cursorPageDto.getContent()).isEmpty();
+        assertThat(cursorPageDto.getNextCursor()).isNull();
+    }
+
+    @Test
+    void testBuilderWithoutContent() {
+        CursorPageDto<String> cursorPageDto = CursorPageDto.<String>builder().hasNext(false).build();
+        assertThat(cursorPageDto.getContent()).isEmpty();
+        assertThat(cursorPageDto.isHasNext()).isFalse();
+    }
+}
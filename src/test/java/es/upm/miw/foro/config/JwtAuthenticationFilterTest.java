@@ -1,10 +1,14 @@
 package es.upm.miw.foro.config;
 
 import com.auth0.jwt.exceptions.JWTDecodeException;
+import com.auth0.jwt.interfaces.Claim;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import es.upm.miw.foro.TestConfig;
 import es.upm.miw.foro.persistence.model.Role;
 import es.upm.miw.foro.service.impl.JwtServiceImpl;
+import es.upm.miw.foro.service.principal.PrincipalCache;
+import es.upm.miw.foro.service.principal.UserPrincipal;
+import es.upm.miw.foro.util.MessageUtil;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import org.junit.jupiter.api.BeforeEach;
@@ -32,8 +36,7 @@ class JwtAuthenticationFilterTest {
     private static final String AUTHORIZATION = "Authorization";
     private static final String TOKEN = "mockedToken";
     private static final String BEARER_TOKEN = "Bearer " + TOKEN;
-    private static final String ROLE = "GUEST";
-    private static final String USERNAME = "mockUser";
+    private static final String EMAIL = "mock@user.com";
     private static final String PASSWORD = "mockPassword";
 
     @Mock
@@ -42,6 +45,9 @@ class JwtAuthenticationFilterTest {
     @Mock
     private FilterChain filterChain;
 
+    @Mock
+    private PrincipalCache principalCache;
+
     @InjectMocks
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
@@ -54,7 +60,7 @@ class JwtAuthenticationFilterTest {
         request = new MockHttpServletRequest();
         response = new MockHttpServletResponse();
         SecurityContextHolder.setContext(new SecurityContextImpl());
-        jwtAuthenticationFilter = new JwtAuthenticationFilter(jwtServiceImpl);
+        jwtAuthenticationFilter = new JwtAuthenticationFilter(jwtServiceImpl, principalCache);
     }
 
     @Test
@@ -103,11 +109,12 @@ class JwtAuthenticationFilterTest {
     @Test
     void testDoFilterInternal_WithValidTokenAndNoExistingAuth() throws ServletException, IOException {
         // Arrange
+        DecodedJWT decodedJWT = mock(DecodedJWT.class);
         request.addHeader(AUTHORIZATION, BEARER_TOKEN);
         when(jwtServiceImpl.extractToken(BEARER_TOKEN)).thenReturn(TOKEN);
-        when(jwtServiceImpl.verify(TOKEN)).thenReturn(Optional.of(mock(DecodedJWT.class)));
-        when(jwtServiceImpl.user(TOKEN)).thenReturn(USERNAME);
-        when(jwtServiceImpl.role(TOKEN)).thenReturn(ROLE);
+        when(jwtServiceImpl.verify(TOKEN)).thenReturn(Optional.of(decodedJWT));
+        when(jwtServiceImpl.principal(decodedJWT)).thenReturn(Optional.of(principal()));
+        when(principalCache.verify(principal())).thenReturn(Optional.of(principal()));
 
         // Act
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
@@ -115,30 +122,48 @@ class JwtAuthenticationFilterTest {
         // Assert
         var authentication = SecurityContextHolder.getContext().getAuthentication();
         assertThat(authentication).isInstanceOf(UsernamePasswordAuthenticationToken.class);
-        assertThat(authentication.getPrincipal()).isInstanceOf(UserDetails.class);
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        assertThat(userDetails.getUsername()).isEqualTo(USERNAME);
+        assertThat(authentication.getPrincipal()).isEqualTo(principal());
+        assertThat(authentication.getName()).isEqualTo(EMAIL);
         assertThat(authentication.getCredentials()).isNull();
         assertThat(authentication.getAuthorities()).extracting("authority")
-                .containsExactly("ROLE_" + ROLE);
-        assertThat(authentication.getDetails()).isNotNull();
+                .containsExactly("ROLE_" + Role.MEMBER);
 
         verify(filterChain, times(1)).doFilter(request, response);
         verify(jwtServiceImpl, times(1)).extractToken(BEARER_TOKEN);
         verify(jwtServiceImpl, times(1)).verify(TOKEN);
-        verify(jwtServiceImpl, times(1)).user(TOKEN);
-        verify(jwtServiceImpl, times(1)).role(TOKEN);
+        verify(jwtServiceImpl, times(1)).principal(decodedJWT);
+        verifyNoMoreInteractions(jwtServiceImpl);
+    }
+
+    @Test
+    void testDoFilterInternal_WithTokenOfDeletedUser() throws ServletException, IOException {
+        // Arrange
+        DecodedJWT decodedJWT = mock(DecodedJWT.class);
+        request.addHeader(AUTHORIZATION, BEARER_TOKEN);
+        when(jwtServiceImpl.extractToken(BEARER_TOKEN)).thenReturn(TOKEN);
+        when(jwtServiceImpl.verify(TOKEN)).thenReturn(Optional.of(decodedJWT));
+        when(jwtServiceImpl.principal(decodedJWT)).thenReturn(Optional.of(principal()));
+        when(principalCache.verify(principal())).thenReturn(Optional.empty());
+
+        // Act
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        // Assert
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verify(filterChain, times(1)).doFilter(request, response);
     }
 
     @Test
     void testDoFilterInternal_WithValidTokenAndExistingAuth() throws ServletException, IOException {
         // Arrange
+        DecodedJWT decodedJWT = mock(DecodedJWT.class);
         request.addHeader(AUTHORIZATION, BEARER_TOKEN);
         when(jwtServiceImpl.extractToken(BEARER_TOKEN)).thenReturn(TOKEN);
-        when(jwtServiceImpl.verify(TOKEN)).thenReturn(Optional.of(mock(com.auth0.jwt.interfaces.DecodedJWT.class)));
-        when(jwtServiceImpl.user(TOKEN)).thenReturn(USERNAME);
+        when(jwtServiceImpl.verify(TOKEN)).thenReturn(Optional.of(decodedJWT));
+        when(jwtServiceImpl.principal(decodedJWT)).thenReturn(Optional.of(principal()));
+        when(principalCache.verify(principal())).thenReturn(Optional.of(principal()));
 
-        UserDetails existingUser = User.withUsername(USERNAME).password(PASSWORD).roles(String.valueOf(Role.MEMBER)).build();
+        UserDetails existingUser = User.withUsername(EMAIL).password(PASSWORD).roles(String.valueOf(Role.MEMBER)).build();
         UsernamePasswordAuthenticationToken existingAuth = new UsernamePasswordAuthenticationToken(
                 existingUser, null, existingUser.getAuthorities());
         SecurityContextHolder.getContext().setAuthentication(existingAuth);
@@ -150,19 +175,39 @@ class JwtAuthenticationFilterTest {
         var authentication = SecurityContextHolder.getContext().getAuthentication();
         assertThat(authentication).isSameAs(existingAuth);
         verify(filterChain, times(1)).doFilter(request, response);
-        verify(jwtServiceImpl, times(1)).extractToken(BEARER_TOKEN);
         verify(jwtServiceImpl, times(1)).verify(TOKEN);
-        verify(jwtServiceImpl, times(1)).user(TOKEN);
-        verify(jwtServiceImpl, never()).role(anyString());
+    }
+
+    @Test
+    void testDoFilterInternal_WithTokenWithoutUserNameClaim() throws ServletException, IOException {
+        // Arrange
+        DecodedJWT decodedJWT = legacyToken(EMAIL);
+        request.addHeader(AUTHORIZATION, BEARER_TOKEN);
+        when(jwtServiceImpl.extractToken(BEARER_TOKEN)).thenReturn(TOKEN);
+        when(jwtServiceImpl.verify(TOKEN)).thenReturn(Optional.of(decodedJWT));
+        when(jwtServiceImpl.principal(decodedJWT)).thenReturn(Optional.empty());
+
+        // Act
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        // Assert
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication.getName()).isEqualTo(EMAIL);
+        assertThat(((UserPrincipal) authentication.getPrincipal()).id()).isNull();
+        assertThat(authentication.getAuthorities()).extracting("authority")
+                .containsExactly("ROLE_" + Role.MEMBER);
+        verifyNoInteractions(principalCache);
+        verify(filterChain, times(1)).doFilter(request, response);
     }
 
     @Test
     void testDoFilterInternal_WithValidTokenButEmptyUserEmail() throws ServletException, IOException {
         // Arrange
+        DecodedJWT decodedJWT = legacyToken("");
         request.addHeader(AUTHORIZATION, BEARER_TOKEN);
         when(jwtServiceImpl.extractToken(BEARER_TOKEN)).thenReturn(TOKEN);
-        when(jwtServiceImpl.verify(TOKEN)).thenReturn(Optional.of(mock(DecodedJWT.class)));
-        when(jwtServiceImpl.user(TOKEN)).thenReturn("");
+        when(jwtServiceImpl.verify(TOKEN)).thenReturn(Optional.of(decodedJWT));
+        when(jwtServiceImpl.principal(decodedJWT)).thenReturn(Optional.empty());
 
         // Act
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
@@ -170,19 +215,16 @@ class JwtAuthenticationFilterTest {
         // Assert
         assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
         verify(filterChain, times(1)).doFilter(request, response);
-        verify(jwtServiceImpl, times(1)).extractToken(BEARER_TOKEN);
-        verify(jwtServiceImpl, times(1)).verify(TOKEN);
-        verify(jwtServiceImpl, times(1)).user(TOKEN);
-        verify(jwtServiceImpl, never()).role(anyString());
     }
 
     @Test
     void testDoFilterInternal_WithValidTokenButNullUserEmail() throws ServletException, IOException {
         // Arrange
+        DecodedJWT decodedJWT = legacyToken(null);
         request.addHeader(AUTHORIZATION, BEARER_TOKEN);
         when(jwtServiceImpl.extractToken(BEARER_TOKEN)).thenReturn(TOKEN);
-        when(jwtServiceImpl.verify(TOKEN)).thenReturn(Optional.of(mock(DecodedJWT.class)));
-        when(jwtServiceImpl.user(TOKEN)).thenReturn(null);
+        when(jwtServiceImpl.verify(TOKEN)).thenReturn(Optional.of(decodedJWT));
+        when(jwtServiceImpl.principal(decodedJWT)).thenReturn(Optional.empty());
 
         // Act
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
@@ -190,10 +232,6 @@ class JwtAuthenticationFilterTest {
         // Assert
         assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
         verify(filterChain, times(1)).doFilter(request, response);
-        verify(jwtServiceImpl, times(1)).extractToken(BEARER_TOKEN);
-        verify(jwtServiceImpl, times(1)).verify(TOKEN);
-        verify(jwtServiceImpl, times(1)).user(TOKEN);
-        verify(jwtServiceImpl, never()).role(anyString());
     }
 
     @Test
@@ -211,7 +249,21 @@ class JwtAuthenticationFilterTest {
         verify(filterChain, times(1)).doFilter(request, response);
         verify(jwtServiceImpl, times(1)).extractToken(BEARER_TOKEN);
         verify(jwtServiceImpl, times(1)).verify(TOKEN);
-        verify(jwtServiceImpl, never()).user(anyString());
-        verify(jwtServiceImpl, never()).role(anyString());
+        verifyNoMoreInteractions(jwtServiceImpl);
+    }
+
+    private static UserPrincipal principal() {
+        return new UserPrincipal(1L, EMAIL, "mock", "Mock", "User", Role.MEMBER);
+    }
+
+    private static DecodedJWT legacyToken(String email) {
+        DecodedJWT decodedJWT = mock(DecodedJWT.class);
+        Claim emailClaim = mock(Claim.class);
+        Claim roleClaim = mock(Claim.class);
+        when(emailClaim.asString()).thenReturn(email);
+        when(roleClaim.asString()).thenReturn(Role.MEMBER.name());
+        when(decodedJWT.getClaim(MessageUtil.EMAIL_CLAIM)).thenReturn(emailClaim);
+        when(decodedJWT.getClaim(MessageUtil.ROLE_CLAIM)).thenReturn(roleClaim);
+        return decodedJWT;
     }
 }
\ No newline at end of file
@@ -0,0 +1,144 @@
+package es.upm.miw.foro.config;
+
+import com.auth0.jwt.interfaces.Claim;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import es.upm.miw.foro.persistence.model.Role;
+import es.upm.miw.foro.service.impl.JwtServiceImpl;
+import es.upm.miw.foro.service.principal.PrincipalCache;
+import es.upm.miw.foro.service.principal.UserPrincipal;
+import es.upm.miw.foro.service.principal.WebSocketPrincipal;
+import es.upm.miw.foro.util.ApiPath;
+import es.upm.miw.foro.util.MessageUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.security.Principal;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class StompAuthenticationInterceptorTest {
+
+    private static final String TOKEN = "mockedToken";
+    private static final String BEARER_TOKEN = "Bearer " + TOKEN;
+    private static final String EMAIL = "mock@user.com";
+    private static final UserPrincipal PRINCIPAL = new UserPrincipal(7L, EMAIL, "mock", "Mock", "User", Role.MEMBER);
+
+    private JwtServiceImpl jwtServiceImpl;
+    private PrincipalCache principalCache;
+    private DecodedJWT decodedJWT;
+    private StompAuthenticationInterceptor interceptor;
+    private final MessageChannel channel = mock(MessageChannel.class);
+
+    @BeforeEach
+    void setUp() {
+        jwtServiceImpl = mock(JwtServiceImpl.class);
+        principalCache = mock(PrincipalCache.class);
+        decodedJWT = mock(DecodedJWT.class);
+        interceptor = new StompAuthenticationInterceptor(jwtServiceImpl, principalCache);
+        when(jwtServiceImpl.extractToken(BEARER_TOKEN)).thenReturn(TOKEN);
+    }
+
+    @Test
+    void connect_shouldAuthenticateTheSessionByUserId() {
+        // Arrange
+        when(jwtServiceImpl.verify(TOKEN)).thenReturn(Optional.of(decodedJWT));
+        when(jwtServiceImpl.principal(decodedJWT)).thenReturn(Optional.of(PRINCIPAL));
+        when(principalCache.verify(PRINCIPAL)).thenReturn(Optional.of(PRINCIPAL));
+
+        // Act
+        Message<?> message = interceptor.preSend(connect(BEARER_TOKEN), channel);
+
+        // Assert
+        Principal user = userOf(message);
+        assertEquals(new WebSocketPrincipal(7L, EMAIL), user);
+        assertEquals("7", user.getName());
+    }
+
+    @Test
+    void connect_shouldLoadTheUserOfLegacyTokens() {
+        // Arrange
+        Claim emailClaim = mock(Claim.class);
+        when(emailClaim.asString()).thenReturn(EMAIL);
+        when(decodedJWT.getClaim(MessageUtil.EMAIL_CLAIM)).thenReturn(emailClaim);
+        when(jwtServiceImpl.verify(TOKEN)).thenReturn(Optional.of(decodedJWT));
+        when(jwtServiceImpl.principal(decodedJWT)).thenReturn(Optional.empty());
+        when(principalCache.byEmail(EMAIL)).thenReturn(Optional.of(PRINCIPAL));
+
+        // Act
+        Message<?> message = interceptor.preSend(connect(BEARER_TOKEN), channel);
+
+        // Assert
+        assertEquals(new WebSocketPrincipal(7L, EMAIL), userOf(message));
+    }
+
+    @Test
+    void connect_shouldRejectMissingOrInvalidTokens() {
+        // Arrange
+        when(jwtServiceImpl.verify(TOKEN)).thenReturn(Optional.empty());
+        Message<byte[]> anonymous = connect(null);
+        Message<byte[]> invalid = connect(BEARER_TOKEN);
+
+        // Act & Assert
+        assertThrows(BadCredentialsException.class, () -> interceptor.preSend(anonymous, channel));
+        assertThrows(BadCredentialsException.class, () -> interceptor.preSend(invalid, channel));
+    }
+
+    @Test
+    void subscribe_shouldRejectBroadcastTopicsAndAnonymousUserDestinations() {
+        // Arrange
+        Message<byte[]> topic = subscribe(ApiPath.TOPIC_NOTIFICATIONS + 7, new WebSocketPrincipal(7L, EMAIL));
+        Message<byte[]> anonymous = subscribe(ApiPath.USER_QUEUE_NOTIFICATIONS, null);
+        Message<byte[]> authenticated = subscribe(ApiPath.USER_QUEUE_NOTIFICATIONS, new WebSocketPrincipal(7L, EMAIL));
+
+        // Act & Assert
+        assertThrows(AccessDeniedException.class, () -> interceptor.preSend(topic, channel));
+        assertThrows(AccessDeniedException.class, () -> interceptor.preSend(anonymous, channel));
+        assertSame(authenticated, interceptor.preSend(authenticated, channel));
+    }
+
+    @Test
+    void subscribe_shouldRejectDirectNotificationQueues() {
+        // Arrange
+        WebSocketPrincipal user = new WebSocketPrincipal(7L, EMAIL);
+        Message<byte[]> queue = subscribe(ApiPath.QUEUE_NOTIFICATIONS, user);
+        Message<byte[]> otherSession = subscribe(ApiPath.QUEUE_NOTIFICATIONS + "-userabc123", user);
+
+        // Act & Assert
+        assertThrows(AccessDeniedException.class, () -> interceptor.preSend(queue, channel));
+        assertThrows(AccessDeniedException.class, () -> interceptor.preSend(otherSession, channel));
+    }
+
+    private static Principal userOf(Message<?> message) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        assertNotNull(accessor);
+        return accessor.getUser();
+    }
+
+    private static Message<byte[]> connect(String authorization) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        if (authorization != null) {
+            accessor.setNativeHeader(MessageUtil.AUTHORIZATION, authorization);
+        }
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static Message<byte[]> subscribe(String destination, Principal user) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setDestination(destination);
+        accessor.setSubscriptionId("sub-1");
+        accessor.setUser(user);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,24 @@
+package es.upm.miw.foro.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ThreadingConfigurationTest {
+
+    @Test
+    void applicationTaskExecutor_shouldRunStreamedResponsesOnVirtualThreads() throws Exception {
+        // Arrange
+        ThreadingConfiguration threadingConfiguration = new ThreadingConfiguration(2);
+
+        // Act
+        CompletableFuture<Boolean> virtual = threadingConfiguration.applicationTaskExecutor()
+                .submitCompletable(() -> Thread.currentThread().isVirtual());
+
+        // Assert
+        assertTrue(virtual.get(10, TimeUnit.SECONDS));
+    }
+}
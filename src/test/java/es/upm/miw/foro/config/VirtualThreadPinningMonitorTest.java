@@ -0,0 +1,78 @@
+package es.upm.miw.foro.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VirtualThreadPinningMonitorTest {
+
+    private static final long TIMEOUT_MILLIS = 10000;
+
+    private final Object monitor = new Object();
+    private SimpleMeterRegistry meterRegistry;
+    private VirtualThreadPinningMonitor virtualThreadPinningMonitor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        virtualThreadPinningMonitor = new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        virtualThreadPinningMonitor.stop();
+    }
+
+    @Test
+    void pinned_shouldTimeBlockingInsideAMonitor_byApplicationFrame() throws InterruptedException {
+        // Act
+        Thread.ofVirtual().start(this::sleepInsideMonitor).join();
+
+        // Assert
+        assertTrue(awaitPinned(), "No pinned virtual thread was reported");
+    }
+
+    @Test
+    void pinned_shouldIgnoreBlockingOutsideMonitors() throws InterruptedException {
+        // Act
+        Thread.ofVirtual().start(VirtualThreadPinningMonitorTest::sleep).join();
+        Thread.sleep(2000);
+
+        // Assert
+        assertTrue(meterRegistry.find("miw.threads.pinned").timers().isEmpty());
+    }
+
+    private boolean awaitPinned() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            Collection<Timer> timers = meterRegistry.find("miw.threads.pinned").timers();
+            if (timers.stream().anyMatch(timer -> timer.getId().getTag("frame")
+                    .startsWith(VirtualThreadPinningMonitorTest.class.getName()) && timer.count() > 0)) {
+                return true;
+            }
+            Thread.sleep(100);
+        }
+        return false;
+    }
+
+    private void sleepInsideMonitor() {
+        synchronized (monitor) {
+            sleep();
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -38,7 +38,7 @@ class NotificationTest {
 
         // Act
         Notification notification = new Notification(
-                1L, user, question, answer, type, isRead, creationDate
+                1L, user, question, answer, type, isRead, 3, creationDate, creationDate.plusSeconds(3)
         );
 
         // Assert
@@ -48,7 +48,9 @@ class NotificationTest {
         assertEquals(answer, notification.getAnswer());
         assertEquals(type, notification.getType());
         assertFalse(notification.isRead());
+        assertEquals(3, notification.getEventCount());
         assertEquals(creationDate, notification.getCreationDate());
+        assertEquals(creationDate.plusSeconds(3), notification.getWrittenDate());
     }
 
     @Test
@@ -95,6 +97,21 @@ class NotificationTest {
         assertTrue(notification.getCreationDate().isAfter(LocalDateTime.now().minusSeconds(1)));
     }
 
+    @Test
+    void testOnCreate_keepsCreationDate() {
+        // Arrange
+        LocalDateTime creationDate = LocalDateTime.of(2024, 1, 1, 10, 0);
+        Notification notification = new Notification();
+        notification.setCreationDate(creationDate);
+
+        // Act
+        notification.onCreate();
+
+        // Assert
+        assertEquals(creationDate, notification.getCreationDate());
+        assertTrue(notification.getWrittenDate().isAfter(creationDate));
+    }
+
     @Test
     void testMarkAsRead_setsIsReadToTrue() {
         // Arrange
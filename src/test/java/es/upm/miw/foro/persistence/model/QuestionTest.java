@@ -37,8 +37,7 @@ class QuestionTest {
     private static final Long ID = 1L;
 
     private final Integer views = 0;
-    Set<String> viewedBySessions = new HashSet<>();
-    Set<Long> viewedByUsers = new HashSet<>();
+    private final Long uniqueViews = 0L;
 
     private final Set<Tag> tags = new HashSet<>();
 
@@ -77,8 +76,7 @@ class QuestionTest {
         assertNotNull(question.getTags());
         assertTrue(question.getTags().isEmpty());
         assertNotNull(question.getViews());
-        assertEquals(0, question.getViewedBySessions().size());
-        assertEquals(0, question.getViewedByUsers().size());
+        assertEquals(0L, question.getUniqueViews());
     }
 
     @Test
@@ -90,7 +88,7 @@ class QuestionTest {
 
         question = new Question(
                 ID, mockUser, "How to implement JPA?", "I need help with JPA in Spring Boot.",
-                creationDate, answers, tags, views, viewedBySessions, viewedByUsers);
+                creationDate, answers, tags, views, uniqueViews);
 
         // Assert
         assertEquals(ID, question.getId());
@@ -184,41 +182,6 @@ class QuestionTest {
         assertTrue(question.getTags().contains(mockTag2));
     }
 
-    @Test
-    void testIncrementViewsIfNew_withSessionId() {
-        // Act
-        boolean result = question.incrementViewsIfNew("session-123", null);
-
-        // Assert
-        assertTrue(result);
-        assertEquals(1, question.getViews());
-        assertTrue(question.getViewedBySessions().contains("session-123"));
-    }
-
-    @Test
-    void testIncrementViewsIfNew_withUserId() {
-        // Act
-        boolean result = question.incrementViewsIfNew(null, 5L);
-
-        // Assert
-        assertTrue(result);
-        assertEquals(1, question.getViews());
-        assertTrue(question.getViewedByUsers().contains(5L));
-    }
-
-    @Test
-    void testIncrementViewsIfAlreadyViewed() {
-        // Arrange
-        question.incrementViewsIfNew("session-123", null);
-
-        // Act
-        boolean result = question.incrementViewsIfNew("session-123", null);
-
-        // Assert
-        assertFalse(result);
-        assertEquals(1, question.getViews());
-    }
-
     @Test
     void testOnCreate_setsCreationDate() {
         // Arrange
@@ -243,7 +206,7 @@ class QuestionTest {
 
         question = new Question(
                 ID, mockUser, "How to implement...", "I need help with...",
-                creationDate, answers, tags, views, viewedBySessions, viewedByUsers);
+                creationDate, answers, tags, views, uniqueViews);
 
         when(mockUser.toString()).thenReturn("User(id=1, firstName=Alex, lastName=Ye)");
         when(mockAnswer1.toString()).thenReturn("Answer(id=1, content=Use @Entity)");
@@ -262,7 +225,6 @@ class QuestionTest {
         assertTrue(toStringResult.contains("Tag(id=1, name=java)"));
         assertTrue(toStringResult.contains("Tag(id=2, name=bug)"));
         assertTrue(toStringResult.contains("views=0"));
-        assertTrue(toStringResult.contains("viewedBySessions=[]"));
-        assertTrue(toStringResult.contains("viewedByUsers=[]"));
+        assertTrue(toStringResult.contains("uniqueViews=0"));
     }
 }
@@ -0,0 +1,73 @@
+package es.upm.miw.foro.persistence.repository;
+
+import es.upm.miw.foro.persistence.model.*;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+@DataJpaTest
+@TestPropertySource(locations = "classpath:test.properties", properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class IdAllocationStatementsTest {
+
+    private static final int ANSWERS = 200;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Question question;
+    private User author;
+
+    @BeforeEach
+    void setUp() {
+        author = new User();
+        author.setFirstName("Alex");
+        author.setLastName("Ye");
+        author.setUserName("alex");
+        author.setEmail("alex@test.com");
+        author.setPassword("password");
+        author.setRole(Role.MEMBER);
+        entityManager.persist(author);
+
+        question = new Question();
+        question.setAuthor(author);
+        question.setTitle("How to batch inserts?");
+        entityManager.persist(question);
+        entityManager.flush();
+    }
+
+    @Test
+    void createAnswers_shouldNotFetchAnIdPerAnswer() {
+        // Arrange
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        for (int i = 0; i < ANSWERS; i++) {
+            Answer answer = new Answer();
+            answer.setQuestion(question);
+            answer.setAuthor(author);
+            answer.setContent("Answer " + i);
+            entityManager.persist(answer);
+        }
+        entityManager.flush();
+
+        // Assert
+        double statementsPerAnswer = (double) statistics.getPrepareStatementCount() / ANSWERS;
+        log.info("Created {} answers with {} statements ({} per answer)",
+                ANSWERS, statistics.getPrepareStatementCount(), statementsPerAnswer);
+        assertTrue(statementsPerAnswer < 1.05, "Statements per answer: " + statementsPerAnswer);
+    }
+}
@@ -0,0 +1,109 @@
+package es.upm.miw.foro.persistence.repository;
+
+import es.upm.miw.foro.persistence.model.*;
+import es.upm.miw.foro.service.tag.TagAutocomplete;
+import es.upm.miw.foro.service.tag.TagResolver;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+@Slf4j
+@DataJpaTest
+@ActiveProfiles("tuned")
+@TestPropertySource(locations = "classpath:test.properties", properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class JdbcBatchingStatementsTest {
+
+    private static final int TAGS = 100;
+    private static final int QUESTIONS = 20;
+    private static final int ANSWERS_PER_QUESTION = 5;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+    private User author;
+
+    @BeforeEach
+    void setUp() {
+        author = new User();
+        author.setFirstName("Alex");
+        author.setLastName("Ye");
+        author.setUserName("alex");
+        author.setEmail("alex@test.com");
+        author.setPassword("password");
+        author.setRole(Role.MEMBER);
+        entityManager.persist(author);
+        entityManager.flush();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void resolveTags_shouldBatchNewTags() {
+        // Arrange
+        TagResolver tagResolver = new TagResolver(tagRepository, mock(TagAutocomplete.class), transactionManager, TAGS);
+        Set<String> tagNames = IntStream.range(0, TAGS).mapToObj(i -> "Tag" + i).collect(Collectors.toSet());
+
+        // Act
+        Set<Tag> tags = tagResolver.resolve(tagNames);
+        entityManager.flush();
+
+        // Assert
+        log.info("Resolved {} new tags with {} statements", TAGS, statistics.getPrepareStatementCount());
+        assertEquals(TAGS, tags.size());
+        assertTrue(statistics.getPrepareStatementCount() < 10,
+                "Statements: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void persistQuestionsWithAnswers_shouldOrderInsertsIntoBatches() {
+        // Act
+        for (int i = 0; i < QUESTIONS; i++) {
+            Question question = new Question();
+            question.setAuthor(author);
+            question.setTitle("Question " + i);
+            entityManager.persist(question);
+            for (int j = 0; j < ANSWERS_PER_QUESTION; j++) {
+                Answer answer = new Answer();
+                answer.setQuestion(question);
+                answer.setAuthor(author);
+                answer.setContent("Answer " + j);
+                entityManager.persist(answer);
+            }
+        }
+        entityManager.flush();
+
+        // Assert
+        int rows = QUESTIONS * (1 + ANSWERS_PER_QUESTION);
+        log.info("Inserted {} rows with {} statements", rows, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getPrepareStatementCount() < 10,
+                "Statements: " + statistics.getPrepareStatementCount());
+    }
+}
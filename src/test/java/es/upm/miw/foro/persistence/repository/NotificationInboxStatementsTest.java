@@ -0,0 +1,148 @@
+package es.upm.miw.foro.persistence.repository;
+
+import es.upm.miw.foro.persistence.model.*;
+import es.upm.miw.foro.persistence.repository.projection.NotificationSummary;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Slf4j
+@DataJpaTest
+@ActiveProfiles("tuned")
+@TestPropertySource(locations = "classpath:test.properties", properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class NotificationInboxStatementsTest {
+
+    private static final int NOTIFICATIONS = 25;
+    private static final int WINDOW = 10;
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "creationDate", "id");
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    private Statistics statistics;
+    private User user;
+    private List<Notification> notifications;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setFirstName("Alex");
+        user.setLastName("Ye");
+        user.setUserName("alex");
+        user.setEmail("alex@test.com");
+        user.setPassword("password");
+        user.setRole(Role.MEMBER);
+        entityManager.persist(user);
+
+        Question question = new Question();
+        question.setAuthor(user);
+        question.setTitle("Question");
+        entityManager.persist(question);
+        Answer answer = new Answer();
+        answer.setQuestion(question);
+        answer.setAuthor(user);
+        answer.setContent("Answer");
+        entityManager.persist(answer);
+
+        notifications = new ArrayList<>();
+        for (int i = 0; i < NOTIFICATIONS; i++) {
+            Notification notification = new Notification();
+            notification.setUser(user);
+            notification.setType(i % 2 == 0 ? NotificationType.QUESTION_REPLIED : NotificationType.ANSWER_RATED);
+            if (i % 5 == 0) {
+                notification.setQuestion(question);
+                notification.setAnswer(answer);
+            }
+            notification.setRead(i % 3 == 0);
+            entityManager.persist(notification);
+            notifications.add(notification);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void scrollInbox_shouldReadEachWindowWithOneStatement() {
+        // Arrange
+        List<Long> expected = notifications.stream()
+                .sorted(Comparator.comparing(Notification::getCreationDate).thenComparing(Notification::getId)
+                        .reversed())
+                .map(Notification::getId)
+                .toList();
+
+        // Act
+        List<Long> ids = scrollAll(false);
+
+        // Assert
+        log.info("Scrolled {} notifications with {} statements", ids.size(), statistics.getPrepareStatementCount());
+        assertEquals(expected, ids);
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void scrollInbox_shouldKeepOnlyUnread() {
+        // Arrange
+        long unread = notifications.stream().filter(notification -> !notification.isRead()).count();
+
+        // Act
+        List<Long> ids = scrollAll(true);
+
+        // Assert
+        assertEquals(unread, ids.size());
+        assertEquals(unread, notificationRepository.countByUserIdAndReadFalse(user.getId()));
+    }
+
+    @Test
+    void scrollInbox_shouldSelectForeignKeys() {
+        // Act
+        Window<NotificationSummary> window = notificationRepository.scrollInbox(user.getId(), false, NEWEST_FIRST,
+                ScrollPosition.keyset(), NOTIFICATIONS);
+
+        // Assert
+        assertEquals(NOTIFICATIONS, window.size());
+        assertEquals(NOTIFICATIONS / 5, window.stream().filter(summary -> summary.questionId() != null).count());
+        assertTrue(window.stream().allMatch(summary -> user.getId().equals(summary.userId())));
+    }
+
+    private List<Long> scrollAll(boolean unreadOnly) {
+        List<Long> ids = new ArrayList<>();
+        KeysetScrollPosition position = ScrollPosition.keyset();
+        Window<NotificationSummary> window;
+        do {
+            window = notificationRepository.scrollInbox(user.getId(), unreadOnly, NEWEST_FIRST, position, WINDOW);
+            window.forEach(summary -> ids.add(summary.id()));
+            if (!window.isEmpty()) {
+                position = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+            }
+        } while (window.hasNext());
+        return ids;
+    }
+}
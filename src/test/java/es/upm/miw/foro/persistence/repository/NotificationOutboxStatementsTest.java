@@ -0,0 +1,246 @@
+package es.upm.miw.foro.persistence.repository;
+
+import es.upm.miw.foro.api.dto.NotificationDto;
+import es.upm.miw.foro.persistence.model.*;
+import es.upm.miw.foro.service.notification.NotificationBatchWriter;
+import es.upm.miw.foro.service.notification.UnreadNotificationCounter;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@Slf4j
+@DataJpaTest
+@ActiveProfiles("tuned")
+@TestPropertySource(locations = "classpath:test.properties", properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class NotificationOutboxStatementsTest {
+
+    private static final int ROWS = 40;
+    private static final int FOLLOWERS = 30;
+    private static final int FAN_OUT_CHUNK = 500;
+    private static final LocalDateTime CREATION_DATE = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private NotificationOutboxRepository notificationOutboxRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private AnswerRepository answerRepository;
+
+    @Autowired
+    private QuestionSubscriptionRepository questionSubscriptionRepository;
+
+    private final UnreadNotificationCounter unreadNotificationCounter = mock(UnreadNotificationCounter.class);
+    private NotificationBatchWriter notificationBatchWriter;
+    private Statistics statistics;
+    private User user;
+    private Question question;
+    private Answer answer;
+
+    @BeforeEach
+    void setUp() {
+        notificationBatchWriter = writer(FAN_OUT_CHUNK);
+
+        user = user("alex");
+        question = new Question();
+        question.setAuthor(user);
+        question.setTitle("Question");
+        entityManager.persist(question);
+        answer = new Answer();
+        answer.setQuestion(question);
+        answer.setAuthor(user);
+        answer.setContent("Answer");
+        entityManager.persist(answer);
+        entityManager.flush();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void write_shouldCoalesceTheEventsOfAThread() {
+        // Arrange
+        List<Long> outboxIds = outbox(ROWS, null, false);
+
+        // Act
+        List<NotificationDto> notifications = notificationBatchWriter.write(outboxIds);
+        entityManager.flush();
+
+        // Assert
+        assertEquals(1, notifications.size());
+        assertEquals(ROWS, notifications.getFirst().getEventCount());
+        assertEquals(CREATION_DATE.plusSeconds(ROWS - 1), notifications.getFirst().getCreationDate());
+        assertEquals(0, notificationOutboxRepository.count());
+        assertEquals(1, notificationRepository.countByUserIdAndReadFalse(user.getId()));
+        verify(unreadNotificationCounter, times(1)).added(List.of(user.getId()));
+    }
+
+    @Test
+    void write_shouldFanOutToFollowersInBatches_exceptTheActor() {
+        // Arrange
+        List<User> followers = new ArrayList<>();
+        for (int i = 0; i < FOLLOWERS; i++) {
+            followers.add(user("follower" + i));
+        }
+        User actor = followers.getFirst();
+        questionSubscriptionRepository.insertMissing(followers.stream()
+                .map(follower -> new QuestionSubscriptionId(question.getId(), follower.getId()))
+                .toList(), null);
+        List<Long> outboxIds = outbox(2, actor.getId(), true);
+
+        // Act
+        List<NotificationDto> notifications = notificationBatchWriter.write(outboxIds);
+        entityManager.flush();
+
+        // Assert
+        log.info("Wrote {} notifications with {} statements", notifications.size(),
+                statistics.getPrepareStatementCount());
+        Set<Long> recipients = notifications.stream().map(NotificationDto::getUserId).collect(Collectors.toSet());
+        assertEquals(FOLLOWERS, recipients.size());
+        assertTrue(recipients.contains(user.getId()));
+        assertFalse(recipients.contains(actor.getId()));
+        assertTrue(notifications.stream().allMatch(notification -> notification.getEventCount() == 2));
+        assertTrue(statistics.getPrepareStatementCount() < 10, "Statements: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void write_shouldFanOutInChunks_andCoalesceFollowersWhoOwnARow() {
+        // Arrange
+        notificationBatchWriter = writer(7);
+        List<User> followers = new ArrayList<>();
+        for (int i = 0; i < FOLLOWERS; i++) {
+            followers.add(user("follower" + i));
+        }
+        followers.add(user);
+        questionSubscriptionRepository.insertMissing(followers.stream()
+                .map(follower -> new QuestionSubscriptionId(question.getId(), follower.getId()))
+                .toList(), null);
+        List<Long> outboxIds = outbox(2, null, true);
+
+        // Act
+        List<NotificationDto> notifications = notificationBatchWriter.write(outboxIds);
+        entityManager.flush();
+
+        // Assert
+        assertEquals(FOLLOWERS + 1, notifications.size());
+        assertEquals(FOLLOWERS + 1, notifications.stream().map(NotificationDto::getUserId).distinct().count());
+        assertTrue(notifications.stream().allMatch(notification -> notification.getEventCount() == 2));
+        assertEquals(1, notificationRepository.countByUserId(user.getId()));
+        verify(unreadNotificationCounter).added(argThat((List<Long> userIds) -> userIds.size() == FOLLOWERS + 1));
+    }
+
+    @Test
+    void write_shouldIgnoreRowsAlreadyWritten() {
+        // Arrange
+        List<Long> outboxIds = outbox(ROWS, null, false);
+        notificationBatchWriter.write(outboxIds.subList(0, 10));
+        entityManager.flush();
+
+        // Act
+        List<NotificationDto> notifications = notificationBatchWriter.write(outboxIds);
+        entityManager.flush();
+
+        // Assert
+        assertEquals(1, notifications.size());
+        assertEquals(ROWS - 10, notifications.getFirst().getEventCount());
+        assertEquals(2, notificationRepository.countByUserId(user.getId()));
+    }
+
+    @Test
+    void insertMissing_shouldSkipQuestionsAlreadyFollowed() {
+        // Arrange
+        QuestionSubscriptionId subscription = new QuestionSubscriptionId(question.getId(), user.getId());
+        questionSubscriptionRepository.insertMissing(List.of(subscription), null);
+
+        // Act
+        int inserted = questionSubscriptionRepository.insertMissing(List.of(subscription), null);
+
+        // Assert
+        assertEquals(0, inserted);
+        assertEquals(List.of(user.getId()),
+                questionSubscriptionRepository.findFollowerIds(question.getId(), 0L, LocalDateTime.now(), Limit.of(10)));
+    }
+
+    @Test
+    void findFollowerIds_shouldSkipExpiredViewers_untilTheyAnswer() {
+        // Arrange
+        User viewer = user("viewer");
+        User answerer = user("answerer");
+        LocalDateTime now = LocalDateTime.now();
+        questionSubscriptionRepository.insertMissing(List.of(
+                new QuestionSubscriptionId(question.getId(), viewer.getId()),
+                new QuestionSubscriptionId(question.getId(), answerer.getId())), now.minusMinutes(1));
+
+        // Act
+        questionSubscriptionRepository.insertMissing(
+                List.of(new QuestionSubscriptionId(question.getId(), answerer.getId())), null);
+        List<Long> followers = questionSubscriptionRepository.findFollowerIds(question.getId(), 0L, now, Limit.of(10));
+        int purged = questionSubscriptionRepository.deleteExpired(now);
+
+        // Assert
+        assertEquals(List.of(answerer.getId()), followers);
+        assertEquals(1, purged);
+    }
+
+    private NotificationBatchWriter writer(int fanOutChunk) {
+        return new NotificationBatchWriter(notificationOutboxRepository, notificationRepository, userRepository,
+                questionRepository, answerRepository, questionSubscriptionRepository, unreadNotificationCounter,
+                entityManager, fanOutChunk);
+    }
+
+    private List<Long> outbox(int rows, Long actorId, boolean followers) {
+        List<Long> outboxIds = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            NotificationOutbox row = new NotificationOutbox(null, user.getId(), question.getId(), answer.getId(),
+                    actorId, followers, NotificationType.QUESTION_REPLIED, CREATION_DATE.plusSeconds(i));
+            entityManager.persist(row);
+            outboxIds.add(row.getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        return outboxIds;
+    }
+
+    private User user(String userName) {
+        User newUser = new User();
+        newUser.setFirstName("Alex");
+        newUser.setLastName("Ye");
+        newUser.setUserName(userName);
+        newUser.setEmail(userName + "@test.com");
+        newUser.setPassword("password");
+        newUser.setRole(Role.MEMBER);
+        entityManager.persist(newUser);
+        return newUser;
+    }
+}
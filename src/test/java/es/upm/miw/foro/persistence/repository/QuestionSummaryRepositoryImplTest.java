@@ -0,0 +1,21 @@
+package es.upm.miw.foro.persistence.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class QuestionSummaryRepositoryImplTest {
+
+    @Test
+    void scrollSummaries_shouldRejectSortByViews() {
+        // Arrange
+        QuestionSummaryRepositoryImpl repository = new QuestionSummaryRepositoryImpl();
+        Sort sort = Sort.by(Sort.Direction.DESC, "views", "id");
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> repository.scrollSummaries(null, sort, ScrollPosition.keyset(), 10));
+    }
+}
@@ -11,6 +11,7 @@ import es.upm.miw.foro.persistence.model.User;
 import es.upm.miw.foro.persistence.repository.AnswerRepository;
 import es.upm.miw.foro.persistence.repository.QuestionRepository;
 import es.upm.miw.foro.service.impl.AnswerServiceImpl;
+import es.upm.miw.foro.service.search.QuestionSearchEngine;
 import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -45,6 +46,9 @@ class AnswerServiceTest {
     @Mock
     private NotificationService notificationService;
 
+    @Mock
+    private QuestionSearchEngine questionSearchEngine;
+
     @Mock
     private Validator validator;
 
@@ -119,6 +123,7 @@ class AnswerServiceTest {
         verify(validator).validate(answerDto);
         verify(questionRepository).findById(QUESTION_ID);
         verify(answerRepository).save(any(Answer.class));
+        verify(questionSearchEngine).questionChanged(QUESTION_ID);
     }
 
     @Test
@@ -135,7 +140,7 @@ class AnswerServiceTest {
     }
 
     @Test
-    void testCreateAnswerNotifyNewAnswerSameAuthor() {
+    void testCreateAnswerNotifyNewAnswerSameAuthor_stillNotifiesFollowers() {
         // Arrange
         question.setAuthor(author);
         when(questionRepository.findById(QUESTION_ID)).thenReturn(Optional.of(question));
@@ -145,7 +150,7 @@ class AnswerServiceTest {
         answerService.createAnswer(QUESTION_ID, answerDto);
 
         // Assert
-        verify(notificationService, never()).notifyNewAnswer(any(), any(), any());
+        verify(notificationService).notifyNewAnswer(author, question, answer);
     }
 
     @Test
@@ -0,0 +1,100 @@
+package es.upm.miw.foro.service;
+
+import es.upm.miw.foro.exception.ServiceException;
+import es.upm.miw.foro.service.scroll.ContinuationToken;
+import es.upm.miw.foro.service.scroll.ScrollRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContinuationTokenTest {
+
+    private static final LocalDateTime CREATION_DATE = LocalDateTime.of(2025, 3, 1, 10, 30, 15, 123456000);
+
+    @Test
+    void decode_shouldRestoreEncodedToken() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("title", "Spring & JPA\nin depth");
+        keys.put("creationDate", CREATION_DATE);
+        keys.put("views", 3);
+        keys.put("id", 42L);
+        ContinuationToken token = new ContinuationToken(Sort.Direction.DESC, keys);
+
+        ContinuationToken decoded = ContinuationToken.decode(token.encode());
+
+        assertEquals(token, decoded);
+        assertEquals(Sort.by(Sort.Direction.DESC, "title", "creationDate", "views", "id"), decoded.sort());
+        assertEquals(ScrollPosition.forward(keys), decoded.position());
+    }
+
+    @Test
+    void decode_shouldRejectMalformedTokens() {
+        ServiceException exception = assertThrows(ServiceException.class, () -> ContinuationToken.decode("not-a-token"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+    }
+
+    @Test
+    void scrollRequest_shouldAppendIdAsTieBreaker() {
+        ScrollRequest scrollRequest = ScrollRequest.of(null, 10, "creationDate", "desc", false);
+
+        assertEquals(Sort.by(Sort.Direction.DESC, "creationDate", "id"), scrollRequest.sort());
+        assertTrue(scrollRequest.position().isInitial());
+    }
+
+    @Test
+    void scrollRequest_shouldUseSortStoredInCursor() {
+        String cursor = new ContinuationToken(Sort.Direction.ASC, Map.of("id", 7L)).encode();
+
+        ScrollRequest scrollRequest = ScrollRequest.of(cursor, 10, "creationDate", "desc", false);
+
+        assertEquals(Sort.by(Sort.Direction.ASC, "id"), scrollRequest.sort());
+        assertEquals(7L, scrollRequest.position().getKeys().get("id"));
+    }
+
+    @Test
+    void of_shouldRejectNullSortKeys() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("creationDate", null);
+        keys.put("id", 7L);
+
+        ServiceException exception = assertThrows(ServiceException.class, () -> ContinuationToken.of(
+                Sort.by(Sort.Direction.DESC, "creationDate", "id"), ScrollPosition.forward(keys)));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+    }
+
+    @Test
+    void scrollRequest_shouldRejectSortPropertiesOutsideTheAllowedOnes() {
+        ScrollRequest scrollRequest = ScrollRequest.of(null, 10, "password", "asc", false);
+
+        ServiceException exception = assertThrows(ServiceException.class,
+                () -> scrollRequest.sort(Set.of("id", "email")));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+    }
+
+    @Test
+    void scrollRequest_shouldRejectForgedCursorSort() {
+        String cursor = new ContinuationToken(Sort.Direction.ASC, Map.of("password", "a")).encode();
+        ScrollRequest scrollRequest = ScrollRequest.of(cursor, 10, "id", "asc", false);
+
+        ServiceException exception = assertThrows(ServiceException.class,
+                () -> scrollRequest.sort(Set.of("id", "email")));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+    }
+
+    @Test
+    void scrollRequest_shouldRejectEmptyWindows() {
+        assertThrows(ServiceException.class, () -> ScrollRequest.of(null, 0, "id", "asc", false));
+    }
+}
@@ -40,7 +40,7 @@ class EmailServiceTest {
         String fromEmail = "noreply@test.com";
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
         when(emailTemplate.buildResetEmailHtml(anyString())).thenReturn("<html><body>Mocked HTML</body></html>");
-        emailService = new EmailService(emailTemplate, mailSender, fromEmail, appName);
+        emailService = new EmailService(emailTemplate, mailSender, Runnable::run, fromEmail, appName);
     }
 
     @Test
@@ -0,0 +1,87 @@
+package es.upm.miw.foro.service;
+
+import es.upm.miw.foro.TestConfig;
+import es.upm.miw.foro.persistence.model.Question;
+import es.upm.miw.foro.persistence.repository.QuestionRepository;
+import es.upm.miw.foro.service.search.FullTextQuestionSearchEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@TestConfig
+class FullTextQuestionSearchEngineTest {
+
+    @Mock
+    private QuestionRepository questionRepository;
+
+    private FullTextQuestionSearchEngine searchEngine;
+
+    private final Pageable pageable = PageRequest.of(0, 10);
+
+    @BeforeEach
+    void setUp() {
+        searchEngine = new FullTextQuestionSearchEngine(questionRepository);
+    }
+
+    @Test
+    void search_shouldBuildPrefixQueryFromFreeText() {
+        // Arrange
+        when(questionRepository.searchIdsByFullText(anyString(), any(Pageable.class))).thenReturn(Page.empty(pageable));
+
+        // Act
+        searchEngine.search("Spring  Boot's JPA spring", pageable);
+
+        // Assert
+        verify(questionRepository).searchIdsByFullText("spring:* & boot:* & s:* & jpa:*", pageable);
+        verify(questionRepository, never()).findAllWithDetailsByIdIn(any());
+    }
+
+    @Test
+    void search_shouldReturnEmptyPage_whenQueryHasNoTerms() {
+        // Act
+        Page<Question> result = searchEngine.search("!!! ---", pageable);
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(questionRepository);
+    }
+
+    @Test
+    void search_shouldKeepRankingOrderOfIds() {
+        // Arrange
+        Question first = new Question();
+        first.setId(7L);
+        Question second = new Question();
+        second.setId(3L);
+        when(questionRepository.searchIdsByFullText("java:*", pageable))
+                .thenReturn(new PageImpl<>(List.of(7L, 3L), pageable, 12));
+        when(questionRepository.findAllWithDetailsByIdIn(List.of(7L, 3L))).thenReturn(List.of(second, first));
+
+        // Act
+        Page<Question> result = searchEngine.search("java", pageable);
+
+        // Assert
+        assertEquals(List.of(first, second), result.getContent());
+        assertEquals(12, result.getTotalElements());
+    }
+
+    @Test
+    void questionChanged_shouldRefreshSearchVector() {
+        // Act
+        searchEngine.questionChanged(5L);
+
+        // Assert
+        verify(questionRepository).refreshSearchVector(5L);
+    }
+}
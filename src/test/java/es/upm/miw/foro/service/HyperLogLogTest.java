@@ -0,0 +1,62 @@
+package es.upm.miw.foro.service;
+
+import es.upm.miw.foro.service.view.HyperLogLog;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HyperLogLogTest {
+
+    @Test
+    void estimate_shouldBeZero_whenEmpty() {
+        assertEquals(0, new HyperLogLog().estimate());
+    }
+
+    @Test
+    void estimate_shouldIgnoreRepeatedKeys() {
+        HyperLogLog sketch = new HyperLogLog();
+        IntStream.range(0, 1000).forEach(i -> sketch.add("session:" + (i % 10)));
+
+        assertEquals(10, sketch.estimate());
+    }
+
+    @Test
+    void estimate_shouldStayWithinFivePercent_forLargeCardinalities() {
+        HyperLogLog sketch = new HyperLogLog();
+        IntStream.range(0, 100_000).forEach(i -> sketch.add("user:" + i + "@test.com"));
+
+        assertEquals(100_000, sketch.estimate(), 5_000);
+    }
+
+    @Test
+    void merge_shouldEstimateUnion() {
+        HyperLogLog first = new HyperLogLog();
+        HyperLogLog second = new HyperLogLog();
+        IntStream.range(0, 3000).forEach(i -> first.add("session:" + i));
+        IntStream.range(2000, 5000).forEach(i -> second.add("session:" + i));
+
+        first.merge(second);
+
+        assertEquals(5000, first.estimate(), 250);
+    }
+
+    @Test
+    void fromBytes_shouldRestoreSerializedSketch() {
+        HyperLogLog sketch = new HyperLogLog();
+        IntStream.range(0, 500).forEach(i -> sketch.add("session:" + i));
+
+        byte[] bytes = sketch.toBytes();
+
+        assertEquals(4098, bytes.length);
+        assertEquals(sketch.estimate(), HyperLogLog.fromBytes(bytes).estimate());
+    }
+
+    @Test
+    void fromBytes_shouldRejectUnknownFormat() {
+        byte[] bytes = new byte[10];
+
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(bytes));
+    }
+}
@@ -0,0 +1,161 @@
+package es.upm.miw.foro.service;
+
+import es.upm.miw.foro.TestConfig;
+import es.upm.miw.foro.persistence.model.Answer;
+import es.upm.miw.foro.persistence.model.Question;
+import es.upm.miw.foro.persistence.repository.QuestionRepository;
+import es.upm.miw.foro.service.search.InMemoryQuestionSearchEngine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@TestConfig
+class InMemoryQuestionSearchEngineTest {
+
+    @Mock
+    private QuestionRepository questionRepository;
+
+    private InMemoryQuestionSearchEngine searchEngine;
+
+    private final Pageable pageable = PageRequest.of(0, 10);
+    private Question springQuestion;
+    private Question dockerQuestion;
+
+    @BeforeEach
+    void setUp() {
+        searchEngine = new InMemoryQuestionSearchEngine(questionRepository, 1);
+        springQuestion = question(1L, "Spring Security", "JWT filter");
+        dockerQuestion = question(2L, "Docker", "Compose file");
+        Answer answer = new Answer();
+        answer.setContent("Use a PostgreSQL container");
+        dockerQuestion.addAnswer(answer);
+
+        when(questionRepository.findIdsAfter(0L, Limit.of(1))).thenReturn(List.of(1L));
+        when(questionRepository.findIdsAfter(1L, Limit.of(1))).thenReturn(List.of(2L));
+        when(questionRepository.findIdsAfter(2L, Limit.of(1))).thenReturn(List.of());
+        when(questionRepository.findAllWithAnswersByIdIn(List.of(1L))).thenReturn(List.of(springQuestion));
+        when(questionRepository.findAllWithAnswersByIdIn(List.of(2L))).thenReturn(List.of(dockerQuestion));
+        when(questionRepository.findAllWithDetailsByIdIn(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            return List.of(springQuestion, dockerQuestion).stream().filter(q -> ids.contains(q.getId())).toList();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void search_shouldUseLikeQueryUntilIndexIsLoaded() {
+        // Arrange
+        Page<Question> likePage = new PageImpl<>(List.of(springQuestion));
+        when(questionRepository.searchByTitleOrDescriptionOrAnswerContentContainingIgnoreCase("spring", pageable))
+                .thenReturn(likePage);
+
+        // Act
+        Page<Question> result = searchEngine.search("spring", pageable);
+
+        // Assert
+        assertSame(likePage, result);
+    }
+
+    @Test
+    void search_shouldAnswerFromIndexIncludingAnswerContent() {
+        // Arrange
+        searchEngine.loadIndex();
+
+        // Act
+        Page<Question> result = searchEngine.search("postgresql", pageable);
+
+        // Assert
+        assertEquals(List.of(dockerQuestion), result.getContent());
+        assertEquals(1, result.getTotalElements());
+        verify(questionRepository, never())
+                .searchByTitleOrDescriptionOrAnswerContentContainingIgnoreCase(any(), eq(pageable));
+    }
+
+    @Test
+    void questionChanged_shouldReindexQuestion() {
+        // Arrange
+        searchEngine.loadIndex();
+        springQuestion.setTitle("Kotlin coroutines");
+
+        // Act
+        searchEngine.questionChanged(1L);
+
+        // Assert
+        assertTrue(searchEngine.search("security", pageable).isEmpty());
+        assertEquals(List.of(springQuestion), searchEngine.search("kotlin", pageable).getContent());
+    }
+
+    @Test
+    void questionChanged_shouldWaitForCommit_whenTransactionIsActive() {
+        // Arrange
+        searchEngine.loadIndex();
+        springQuestion.setTitle("Kotlin coroutines");
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        searchEngine.questionChanged(1L);
+        boolean foundBeforeCommit = !searchEngine.search("kotlin", pageable).isEmpty();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        // Assert
+        assertFalse(foundBeforeCommit);
+        assertEquals(List.of(springQuestion), searchEngine.search("kotlin", pageable).getContent());
+    }
+
+    @Test
+    void questionRemoved_shouldDropQuestionFromIndex() {
+        // Arrange
+        searchEngine.loadIndex();
+
+        // Act
+        searchEngine.questionRemoved(2L);
+
+        // Assert
+        assertTrue(searchEngine.search("docker", pageable).isEmpty());
+    }
+
+    @Test
+    void mergeIndex_shouldKeepSearchResults() {
+        // Arrange
+        searchEngine.loadIndex();
+        springQuestion.setTitle("Spring Boot");
+        searchEngine.questionChanged(1L);
+
+        // Act
+        searchEngine.mergeIndex();
+
+        // Assert
+        assertEquals(List.of(springQuestion), searchEngine.search("boot", pageable).getContent());
+        assertEquals(List.of(dockerQuestion), searchEngine.search("docker", pageable).getContent());
+    }
+
+    private static Question question(Long id, String title, String description) {
+        Question question = new Question();
+        question.setId(id);
+        question.setTitle(title);
+        question.setDescription(description);
+        return question;
+    }
+}
@@ -0,0 +1,109 @@
+package es.upm.miw.foro.service;
+
+import es.upm.miw.foro.service.search.InvertedIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvertedIndexTest {
+
+    private InvertedIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new InvertedIndex();
+        index.put(1L, "How to configure Spring Security with JWT");
+        index.put(2L, "Spring Data JPA pagination");
+        index.put(3L, "Docker compose for PostgreSQL");
+    }
+
+    @Test
+    void search_shouldReturnOnlyMatchingDocuments() {
+        InvertedIndex.Hits hits = index.search("postgresql", 10);
+
+        assertEquals(1, hits.total());
+        assertArrayEquals(new long[]{3L}, hits.documentIds());
+    }
+
+    @Test
+    void search_shouldRankDocumentsMatchingMoreTermsFirst() {
+        InvertedIndex.Hits hits = index.search("spring jwt", 10);
+
+        assertEquals(2, hits.total());
+        assertArrayEquals(new long[]{1L, 2L}, hits.documentIds());
+    }
+
+    @Test
+    void search_shouldRankRareTermsAboveCommonOnes() {
+        index.put(4L, "spring spring spring");
+
+        InvertedIndex.Hits hits = index.search("spring pagination", 1);
+
+        assertEquals(3, hits.total());
+        assertArrayEquals(new long[]{2L}, hits.documentIds());
+    }
+
+    @Test
+    void put_shouldReplacePreviousVersionOfDocument() {
+        index.put(2L, "Hibernate batching");
+
+        assertEquals(0, index.search("pagination", 10).total());
+        assertArrayEquals(new long[]{2L}, index.search("batching", 10).documentIds());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void remove_shouldDropDocumentFromAllPostingLists() {
+        index.remove(1L);
+
+        assertArrayEquals(new long[]{2L}, index.search("spring security", 10).documentIds());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void put_shouldKeepPostingsSortedWhenOlderDocumentsChange() {
+        LongStream.rangeClosed(10, 200).forEach(id -> index.put(id, "common term " + id));
+        index.put(5L, "common");
+        index.remove(100L);
+
+        InvertedIndex.Hits hits = index.search("common", 500);
+
+        assertEquals(191, hits.total());
+        assertTrue(LongStream.of(hits.documentIds()).noneMatch(id -> id == 100L));
+        assertTrue(LongStream.of(hits.documentIds()).anyMatch(id -> id == 5L));
+    }
+
+    @Test
+    void merge_shouldFoldPendingChanges_withoutChangingResults() {
+        LongStream.rangeClosed(10, 200).forEach(id -> index.put(id, "common term " + id));
+        index.put(5L, "common common");
+        index.put(50L, "common rare");
+        index.remove(100L);
+        InvertedIndex.Hits before = index.search("common rare", 500);
+
+        index.merge();
+        InvertedIndex.Hits after = index.search("common rare", 500);
+
+        assertEquals(191, after.total());
+        assertArrayEquals(before.documentIds(), after.documentIds());
+        assertEquals(50L, after.documentIds()[0]);
+    }
+
+    @Test
+    void put_shouldKeepRankingWhenOnlyTermFrequenciesChange() {
+        index.put(2L, "Spring Data JPA pagination pagination pagination");
+        index.put(4L, "pagination with Spring Data");
+
+        assertArrayEquals(new long[]{2L, 4L}, index.search("pagination", 10).documentIds());
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void search_shouldReturnNothingForUnknownOrEmptyQueries() {
+        assertEquals(0, index.search("kubernetes", 10).total());
+        assertEquals(0, index.search("  ", 10).total());
+    }
+}
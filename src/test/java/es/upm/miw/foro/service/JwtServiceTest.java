@@ -5,7 +5,9 @@ import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTDecodeException;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import es.upm.miw.foro.TestConfig;
+import es.upm.miw.foro.persistence.model.Role;
 import es.upm.miw.foro.service.impl.JwtServiceImpl;
+import es.upm.miw.foro.service.principal.UserPrincipal;
 import es.upm.miw.foro.util.MessageUtil;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,6 +25,7 @@ class JwtServiceTest {
     private static final Long ID = 1L;
     private static final String FIRST_NAME = "UserName";
     private static final String LAST_NAME = "UserLastName";
+    private static final String USERNAME = "username";
     private static final String EMAIL = "email@email.com";
     private static final String ROLE = "GUEST";
 
@@ -33,7 +36,7 @@ class JwtServiceTest {
 
     @Test
     void testCreateTokenAndVerify() {
-        String token = jwtServiceImpl.createToken(ID, FIRST_NAME, LAST_NAME, EMAIL, ROLE);
+        String token = jwtServiceImpl.createToken(ID, FIRST_NAME, LAST_NAME, USERNAME, EMAIL, ROLE);
         assertEquals(3, token.split("\\.").length);
         assertTrue(token.length() > 30);
         assertEquals(EMAIL, jwtServiceImpl.user(token));
@@ -131,13 +134,31 @@ class JwtServiceTest {
 
     @Test
     void testVerifyWithValidToken() {
-        String token = jwtServiceImpl.createToken(ID, FIRST_NAME, LAST_NAME, EMAIL, ROLE);
+        String token = jwtServiceImpl.createToken(ID, FIRST_NAME, LAST_NAME, USERNAME, EMAIL, ROLE);
         Optional<DecodedJWT> decodedJWT = jwtServiceImpl.verify(token);
         assertTrue(decodedJWT.isPresent());
         assertEquals(EMAIL, decodedJWT.get().getClaim("email").asString());
         assertEquals(ROLE, decodedJWT.get().getClaim("role").asString());
     }
 
+    @Test
+    void testPrincipalFromVerifiedToken() {
+        String token = jwtServiceImpl.createToken(ID, FIRST_NAME, LAST_NAME, USERNAME, EMAIL, Role.MEMBER.name());
+        DecodedJWT decodedJWT = jwtServiceImpl.verify(token).orElseThrow();
+
+        UserPrincipal principal = jwtServiceImpl.principal(decodedJWT).orElseThrow();
+
+        assertEquals(new UserPrincipal(ID, EMAIL, USERNAME, FIRST_NAME, LAST_NAME, Role.MEMBER), principal);
+    }
+
+    @Test
+    void testPrincipalIsEmptyWithUnknownRole() {
+        String token = jwtServiceImpl.createToken(ID, FIRST_NAME, LAST_NAME, USERNAME, EMAIL, ROLE);
+        DecodedJWT decodedJWT = jwtServiceImpl.verify(token).orElseThrow();
+
+        assertTrue(jwtServiceImpl.principal(decodedJWT).isEmpty());
+    }
+
     @Test
     void testVerifyWithInvalidToken() {
         Optional<DecodedJWT> decodedJWT = jwtServiceImpl.verify("invalid.token.here");
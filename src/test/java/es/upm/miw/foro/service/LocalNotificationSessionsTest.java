@@ -0,0 +1,216 @@
+package es.upm.miw.foro.service;
+
+import es.upm.miw.foro.api.dto.NotificationDto;
+import es.upm.miw.foro.service.delivery.InMemoryNotificationBroker;
+import es.upm.miw.foro.service.delivery.LocalNotificationSessions;
+import es.upm.miw.foro.service.delivery.NotificationStreams;
+import es.upm.miw.foro.service.principal.WebSocketPrincipal;
+import es.upm.miw.foro.util.ApiPath;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class LocalNotificationSessionsTest {
+
+    private static final long TIMEOUT_MILLIS = 5000;
+    private static final Long USER_ID = 1L;
+    private static final Long OTHER_USER_ID = 2L;
+    private static final int STREAM_BUFFER = 8;
+
+    private SimpMessagingTemplate messagingTemplate;
+    private LocalNotificationSessions localNotificationSessions;
+    private LocalNotificationSessions.RouteListener routeListener;
+
+    @BeforeEach
+    void setUp() {
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        localNotificationSessions = sessions(messagingTemplate);
+        routeListener = mock(LocalNotificationSessions.RouteListener.class);
+        localNotificationSessions.addRouteListener(routeListener);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        localNotificationSessions.stop();
+    }
+
+    @Test
+    void subscribed_shouldRouteTheUserOnce() {
+        // Act
+        localNotificationSessions.subscribed(subscribe("session-1", "sub-1", USER_ID));
+        localNotificationSessions.subscribed(subscribe("session-2", "sub-1", USER_ID));
+        localNotificationSessions.subscribed(subscribe("session-2", "sub-2", null));
+
+        // Assert
+        assertEquals(Set.of(USER_ID), localNotificationSessions.connectedUsers());
+        verify(routeListener, times(1)).connected(USER_ID);
+    }
+
+    @Test
+    void disconnected_shouldUnrouteTheUser_whenTheLastSubscriptionCloses() {
+        // Arrange
+        localNotificationSessions.subscribed(subscribe("session-1", "sub-1", USER_ID));
+        localNotificationSessions.subscribed(subscribe("session-2", "sub-1", USER_ID));
+
+        // Act
+        localNotificationSessions.unsubscribed(new SessionUnsubscribeEvent(this,
+                message(StompCommand.UNSUBSCRIBE, "session-1", "sub-1", null)));
+        boolean connectedAfterUnsubscribe = localNotificationSessions.isConnected(USER_ID);
+        localNotificationSessions.disconnected(new SessionDisconnectEvent(this,
+                message(StompCommand.DISCONNECT, "session-2", null, null), "session-2", CloseStatus.NORMAL));
+
+        // Assert
+        assertTrue(connectedAfterUnsubscribe);
+        assertFalse(localNotificationSessions.isConnected(USER_ID));
+        verify(routeListener, times(1)).disconnected(USER_ID);
+    }
+
+    @Test
+    void deliver_shouldPushOneFramePerConnectedUser() throws InterruptedException {
+        // Arrange
+        localNotificationSessions.subscribed(subscribe("session-1", "sub-1", USER_ID));
+        List<NotificationDto> notifications = List.of(notification(USER_ID), notification(USER_ID));
+
+        // Act
+        localNotificationSessions.deliver(Map.of(USER_ID, notifications, OTHER_USER_ID,
+                List.of(notification(OTHER_USER_ID))));
+
+        // Assert
+        verify(messagingTemplate, timeout(TIMEOUT_MILLIS))
+                .convertAndSendToUser(USER_ID.toString(), ApiPath.QUEUE_NOTIFICATIONS, notifications);
+        verify(messagingTemplate, never())
+                .convertAndSendToUser(eq(OTHER_USER_ID.toString()), anyString(), any(Object.class));
+    }
+
+    @Test
+    void inMemoryBroker_shouldRouteEachUserToTheNodeHoldingTheSession() throws InterruptedException {
+        // Arrange
+        SimpMessagingTemplate otherTemplate = mock(SimpMessagingTemplate.class);
+        LocalNotificationSessions otherNode = sessions(otherTemplate);
+        InMemoryNotificationBroker broker = new InMemoryNotificationBroker(localNotificationSessions);
+        broker.join(otherNode);
+        localNotificationSessions.subscribed(subscribe("session-1", "sub-1", USER_ID));
+        otherNode.subscribed(subscribe("session-2", "sub-1", OTHER_USER_ID));
+        List<NotificationDto> forOther = List.of(notification(OTHER_USER_ID));
+
+        try {
+            // Act
+            broker.send(Map.of(OTHER_USER_ID, forOther));
+
+            // Assert
+            verify(otherTemplate, timeout(TIMEOUT_MILLIS))
+                    .convertAndSendToUser(OTHER_USER_ID.toString(), ApiPath.QUEUE_NOTIFICATIONS, forOther);
+            verify(messagingTemplate, never()).convertAndSendToUser(anyString(), anyString(), any(Object.class));
+        } finally {
+            otherNode.stop();
+        }
+    }
+
+    @Test
+    void stream_shouldReplayMissedNotificationsThenDeliverNewOnes() throws InterruptedException {
+        // Arrange
+        NotificationDto missed = notification(USER_ID, 5L);
+        NotificationDto delivered = notification(USER_ID, 6L);
+        Flux<NotificationDto> stream = localNotificationSessions.stream(USER_ID, Flux.just(missed));
+
+        // Act
+        localNotificationSessions.deliver(Map.of(USER_ID, List.of(missed, delivered)));
+
+        // Assert
+        StepVerifier.create(stream)
+                .expectNext(missed, delivered)
+                .thenCancel()
+                .verify(Duration.ofMillis(TIMEOUT_MILLIS));
+        assertFalse(localNotificationSessions.isConnected(USER_ID));
+        verify(routeListener).connected(USER_ID);
+        verify(routeListener).disconnected(USER_ID);
+        verifyNoInteractions(messagingTemplate);
+    }
+
+    @Test
+    void stream_shouldDeliverNotificationsWithLowerIds_thanTheReplayedOnes() throws InterruptedException {
+        // Arrange
+        NotificationDto missed = notification(USER_ID, 60L);
+        NotificationDto delivered = notification(USER_ID, 6L);
+        Flux<NotificationDto> stream = localNotificationSessions.stream(USER_ID, Flux.just(missed));
+
+        // Act
+        localNotificationSessions.deliver(Map.of(USER_ID, List.of(delivered)));
+
+        // Assert
+        StepVerifier.create(stream)
+                .expectNext(missed, delivered)
+                .thenCancel()
+                .verify(Duration.ofMillis(TIMEOUT_MILLIS));
+    }
+
+    @Test
+    void stream_shouldComplete_whenTheClientFallsBehind() throws InterruptedException {
+        // Arrange
+        Flux<NotificationDto> stream = localNotificationSessions.stream(USER_ID, Flux.empty());
+
+        // Act
+        localNotificationSessions.deliver(Map.of(USER_ID, LongStream.rangeClosed(1, STREAM_BUFFER + 1)
+                .mapToObj(id -> notification(USER_ID, id))
+                .toList()));
+
+        // Assert
+        StepVerifier.create(stream)
+                .expectNextCount(STREAM_BUFFER)
+                .expectComplete()
+                .verify(Duration.ofMillis(TIMEOUT_MILLIS));
+        assertFalse(localNotificationSessions.isConnected(USER_ID));
+    }
+
+    private static LocalNotificationSessions sessions(SimpMessagingTemplate template) {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        return new LocalNotificationSessions(template, new NotificationStreams(meterRegistry, STREAM_BUFFER),
+                meterRegistry, 4);
+    }
+
+    private SessionSubscribeEvent subscribe(String sessionId, String subscriptionId, Long userId) {
+        String destination = userId != null ? ApiPath.USER_QUEUE_NOTIFICATIONS : "/topic/questions";
+        return new SessionSubscribeEvent(this, message(StompCommand.SUBSCRIBE, sessionId, subscriptionId, destination),
+                new WebSocketPrincipal(userId != null ? userId : 99L, "user@test.com"));
+    }
+
+    private static Message<byte[]> message(StompCommand command, String sessionId, String subscriptionId,
+                                           String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static NotificationDto notification(Long userId) {
+        return notification(userId, null);
+    }
+
+    private static NotificationDto notification(Long userId, Long id) {
+        return NotificationDto.builder().id(id).userId(userId).eventCount(1).build();
+    }
+}
@@ -0,0 +1,99 @@
+package es.upm.miw.foro.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import es.upm.miw.foro.api.dto.NotificationDto;
+import es.upm.miw.foro.persistence.model.NotificationType;
+import es.upm.miw.foro.service.delivery.NotificationFrames;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationFramesTest {
+
+    private static final int MAX_BYTES = 600;
+
+    private final NotificationFrames notificationFrames =
+            new NotificationFrames(new ObjectMapper().registerModule(new JavaTimeModule()), MAX_BYTES);
+
+    @Test
+    void encode_shouldRoundTripInOneFrame_whenItFits() {
+        // Arrange
+        Map<Long, List<NotificationDto>> batch = Map.of(1L, List.of(notification(1L, 10L)));
+
+        // Act
+        List<String> frames = notificationFrames.encode(batch);
+
+        // Assert
+        assertEquals(1, frames.size());
+        assertEquals(batch, notificationFrames.decode(frames.getFirst()));
+    }
+
+    @Test
+    void encode_shouldSplitFramesUnderTheLimit_andKeepEveryNotification() {
+        // Arrange
+        Map<Long, List<NotificationDto>> batch = new LinkedHashMap<>();
+        LongStream.rangeClosed(1, 20).forEach(userId -> batch.put(userId,
+                List.of(notification(userId, userId * 10), notification(userId, userId * 10 + 1))));
+
+        // Act
+        List<String> frames = notificationFrames.encode(batch);
+
+        // Assert
+        assertTrue(frames.size() > 1);
+        assertTrue(frames.stream().allMatch(frame -> frame.getBytes(StandardCharsets.UTF_8).length <= MAX_BYTES));
+        assertEquals(batch, decodeAll(frames));
+    }
+
+    @Test
+    void encode_shouldKeepEveryNotification_whenOneUserDoesNotFitInAFrame() {
+        // Arrange
+        Map<Long, List<NotificationDto>> batch = new LinkedHashMap<>();
+        batch.put(4L, List.of(notification(4L, 40L)));
+        batch.put(5L, LongStream.rangeClosed(1, 12).mapToObj(id -> notification(5L, id)).toList());
+        batch.put(6L, List.of(notification(6L, 60L)));
+
+        // Act
+        List<String> frames = notificationFrames.encode(batch);
+
+        // Assert
+        assertTrue(frames.stream().allMatch(frame -> frame.getBytes(StandardCharsets.UTF_8).length <= MAX_BYTES));
+        assertTrue(frames.stream().allMatch(frame -> frame.indexOf("\"5\":") == frame.lastIndexOf("\"5\":")));
+        assertEquals(batch, decodeAll(frames));
+    }
+
+    @Test
+    void decode_shouldRejectMalformedFrames() {
+        assertThrows(IllegalArgumentException.class, () -> notificationFrames.decode("{\"1\":"));
+    }
+
+    private Map<Long, List<NotificationDto>> decodeAll(List<String> frames) {
+        Map<Long, List<NotificationDto>> decoded = new HashMap<>();
+        frames.forEach(frame -> notificationFrames.decode(frame).forEach((userId, notifications) ->
+                decoded.merge(userId, notifications,
+                        (first, second) -> Stream.concat(first.stream(), second.stream()).toList())));
+        return decoded;
+    }
+
+    private static NotificationDto notification(Long userId, Long id) {
+        return NotificationDto.builder()
+                .id(id)
+                .userId(userId)
+                .questionId(3L)
+                .answerId(4L)
+                .message("You have an answer")
+                .type(NotificationType.QUESTION_REPLIED)
+                .eventCount(1)
+                .creationDate(LocalDateTime.of(2025, 1, 1, 10, 0))
+                .build();
+    }
+}
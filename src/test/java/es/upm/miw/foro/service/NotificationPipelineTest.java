@@ -0,0 +1,167 @@
+package es.upm.miw.foro.service;
+
+import es.upm.miw.foro.api.dto.NotificationDto;
+import es.upm.miw.foro.persistence.model.NotificationOutbox;
+import es.upm.miw.foro.persistence.model.NotificationType;
+import es.upm.miw.foro.persistence.repository.NotificationOutboxRepository;
+import es.upm.miw.foro.service.delivery.NotificationBroker;
+import es.upm.miw.foro.service.notification.NotificationBatchWriter;
+import es.upm.miw.foro.service.notification.NotificationPipeline;
+import es.upm.miw.foro.service.notification.QuestionFollowers;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class NotificationPipelineTest {
+
+    private static final long TIMEOUT_MILLIS = 5000;
+    private static final Long USER_ID = 1L;
+
+    private final AtomicLong ids = new AtomicLong();
+    private NotificationOutboxRepository notificationOutboxRepository;
+    private NotificationBatchWriter notificationBatchWriter;
+    private QuestionFollowers questionFollowers;
+    private NotificationBroker notificationBroker;
+    private SimpleMeterRegistry meterRegistry;
+    private NotificationPipeline notificationPipeline;
+
+    @BeforeEach
+    void setUp() {
+        notificationOutboxRepository = mock(NotificationOutboxRepository.class);
+        notificationBatchWriter = mock(NotificationBatchWriter.class);
+        questionFollowers = mock(QuestionFollowers.class);
+        notificationBroker = mock(NotificationBroker.class);
+        meterRegistry = new SimpleMeterRegistry();
+        notificationPipeline = pipeline(Duration.ZERO);
+        when(notificationOutboxRepository.save(any(NotificationOutbox.class))).thenAnswer(invocation -> {
+            NotificationOutbox row = invocation.getArgument(0);
+            row.setId(ids.incrementAndGet());
+            return row;
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        notificationPipeline.stop();
+    }
+
+    @Test
+    void publish_shouldWriteAndDeliverOutsideTheCaller() throws InterruptedException {
+        // Arrange
+        NotificationDto notification = notification();
+        when(notificationBatchWriter.write(anyCollection())).thenReturn(List.of(notification));
+        notificationPipeline.start();
+
+        // Act
+        notificationPipeline.publish(USER_ID, 2L, 3L, NotificationType.QUESTION_REPLIED);
+
+        // Assert
+        verify(notificationBroker, timeout(TIMEOUT_MILLIS)).send(Map.of(USER_ID, List.of(notification)));
+        verify(questionFollowers).flush();
+        verify(notificationOutboxRepository).save(any(NotificationOutbox.class));
+        assertEquals(1, counter("miw.notifications.queue", "result", "accepted"));
+    }
+
+    @Test
+    void publishToFollowers_shouldWriteTheEventsOfTheWindowTogether() throws InterruptedException {
+        // Arrange
+        notificationPipeline = pipeline(Duration.ofMillis(300));
+        NotificationDto first = notification();
+        NotificationDto second = notification();
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        when(notificationBatchWriter.write(anyCollection())).thenAnswer(invocation -> {
+            batchSizes.add(invocation.<Collection<Long>>getArgument(0).size());
+            return List.of(first, second);
+        });
+        notificationPipeline.start();
+
+        // Act
+        notificationPipeline.publishToFollowers(USER_ID, 2L, 3L, 4L, NotificationType.QUESTION_REPLIED);
+        notificationPipeline.publishToFollowers(USER_ID, 2L, 5L, 6L, NotificationType.QUESTION_REPLIED);
+
+        // Assert
+        verify(notificationBroker, timeout(TIMEOUT_MILLIS)).send(Map.of(USER_ID, List.of(first, second)));
+        assertEquals(List.of(2), batchSizes);
+        verify(notificationOutboxRepository, times(2))
+                .save(argThat(row -> row.isFollowers() && row.getActorId() != null));
+    }
+
+    @Test
+    void publish_shouldLeaveRowsInTheOutbox_whenQueueIsFull() {
+        // Act
+        notificationPipeline.publish(USER_ID, 2L, 3L, NotificationType.QUESTION_REPLIED);
+        notificationPipeline.publish(USER_ID, 2L, 4L, NotificationType.QUESTION_REPLIED);
+        notificationPipeline.publish(USER_ID, 2L, 5L, NotificationType.QUESTION_REPLIED);
+
+        // Assert
+        assertEquals(2, counter("miw.notifications.queue", "result", "accepted"));
+        assertEquals(1, counter("miw.notifications.queue", "result", "rejected"));
+        assertEquals(0, meterRegistry.get("miw.notifications.queue.remaining").gauge().value());
+        verify(notificationOutboxRepository, times(3)).save(any(NotificationOutbox.class));
+    }
+
+    @Test
+    void start_shouldRelayRowsPendingFromAPreviousRun() throws InterruptedException {
+        // Arrange
+        when(notificationOutboxRepository.findPendingIds(any(Limit.class))).thenReturn(List.of(7L, 8L));
+        when(notificationBatchWriter.write(anyCollection())).thenReturn(List.of(notification()));
+
+        // Act
+        notificationPipeline.start();
+
+        // Assert
+        verify(notificationBatchWriter, timeout(TIMEOUT_MILLIS).atLeastOnce()).write(anyCollection());
+        verify(notificationBroker, timeout(TIMEOUT_MILLIS).atLeastOnce()).send(anyMap());
+        assertEquals(2, counter("miw.notifications.outbox.relayed"));
+    }
+
+    @Test
+    void dispatch_shouldDiscardRows_whenTheirAnswerNoLongerExists() {
+        // Arrange
+        when(notificationBatchWriter.write(anyCollection()))
+                .thenThrow(new IllegalStateException("Batch failed"))
+                .thenThrow(new DataIntegrityViolationException("Missing answer"));
+        notificationPipeline.start();
+
+        // Act
+        notificationPipeline.publish(USER_ID, 2L, 3L, NotificationType.QUESTION_REPLIED);
+
+        // Assert
+        verify(notificationBatchWriter, timeout(TIMEOUT_MILLIS)).discard(1L);
+        verifyNoInteractions(notificationBroker);
+    }
+
+    private NotificationPipeline pipeline(Duration coalesceWindow) {
+        return new NotificationPipeline(notificationOutboxRepository, notificationBatchWriter, questionFollowers,
+                notificationBroker, meterRegistry, 2, 10, coalesceWindow);
+    }
+
+    private double counter(String name, String... tags) {
+        return meterRegistry.get(name).tags(tags).counter().count();
+    }
+
+    private NotificationDto notification() {
+        return NotificationDto.builder()
+                .id(10L)
+                .userId(USER_ID)
+                .type(NotificationType.QUESTION_REPLIED)
+                .build();
+    }
+}
@@ -1,28 +1,40 @@
 package es.upm.miw.foro.service;
 
 import es.upm.miw.foro.TestConfig;
-import es.upm.miw.foro.api.converter.NotificationMapper;
+import es.upm.miw.foro.api.dto.CursorPageDto;
 import es.upm.miw.foro.api.dto.NotificationDto;
 import es.upm.miw.foro.exception.RepositoryException;
 import es.upm.miw.foro.exception.ServiceException;
 import es.upm.miw.foro.persistence.model.*;
 import es.upm.miw.foro.persistence.repository.NotificationRepository;
+import es.upm.miw.foro.persistence.repository.projection.NotificationSummary;
+import es.upm.miw.foro.service.delivery.LocalNotificationSessions;
+import es.upm.miw.foro.service.delivery.StreamCursor;
 import es.upm.miw.foro.service.impl.NotificationServiceImpl;
-import es.upm.miw.foro.util.ApiPath;
+import es.upm.miw.foro.service.notification.NotificationPipeline;
+import es.upm.miw.foro.service.notification.QuestionFollowers;
+import es.upm.miw.foro.service.notification.UnreadNotificationCounter;
+import es.upm.miw.foro.service.scroll.ScrollRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpStatus;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @TestConfig
@@ -34,6 +46,18 @@ class NotificationServiceTest {
     @Mock
     private SimpMessagingTemplate messagingTemplate;
 
+    @Mock
+    private NotificationPipeline notificationPipeline;
+
+    @Mock
+    private QuestionFollowers questionFollowers;
+
+    @Mock
+    private UnreadNotificationCounter unreadNotificationCounter;
+
+    @Mock
+    private LocalNotificationSessions localNotificationSessions;
+
     @InjectMocks
     private NotificationServiceImpl notificationService;
 
@@ -73,49 +97,19 @@ class NotificationServiceTest {
     @Test
     void testNotifyNewAnswer() {
         // Arrange
-        NotificationDto expectedDto = NotificationMapper.toNotificationDto(testNotification);
-        when(notificationRepository.save(any(Notification.class))).thenReturn(testNotification);
+        User answerer = new User();
+        answerer.setId(2L);
+        testAnswer.setAuthor(answerer);
 
         // Act
         notificationService.notifyNewAnswer(testUser, testQuestion, testAnswer);
 
         // Assert
-        verify(notificationRepository, times(1)).save(any(Notification.class));
-        verify(messagingTemplate, times(1))
-                .convertAndSend(ApiPath.TOPIC_NOTIFICATIONS + USER_ID, expectedDto);
-    }
-
-    @Test
-    void testNotifyNewAnswerSetNotificationType() {
-        // Arrange
-        when(notificationRepository.save(any(Notification.class))).thenAnswer(invocation -> {
-            Notification n = invocation.getArgument(0);
-            assertEquals(NotificationType.QUESTION_REPLIED, n.getType());
-            return testNotification;
-        });
-
-        // Act
-        notificationService.notifyNewAnswer(testUser, testQuestion, testAnswer);
-
-        // Verify
-        verify(notificationRepository).save(any(Notification.class));
-    }
-
-    @Test
-    void testNotifyNewAnswerSetUnreadAndCurrentDate() {
-        // Arrange
-        when(notificationRepository.save(any(Notification.class))).thenAnswer(invocation -> {
-            Notification n = invocation.getArgument(0);
-            assertFalse(n.isRead());
-            assertNotNull(n.getCreationDate());
-            return testNotification;
-        });
-
-        // Act
-        notificationService.notifyNewAnswer(testUser, testQuestion, testAnswer);
-
-        // Verify
-        verify(notificationRepository).save(any(Notification.class));
+        verify(questionFollowers, times(1)).follow(QUESTION_ID, 2L);
+        verify(notificationPipeline, times(1))
+                .publishToFollowers(USER_ID, QUESTION_ID, ANSWER_ID, 2L, NotificationType.QUESTION_REPLIED);
+        verify(notificationRepository, never()).save(any(Notification.class));
+        verifyNoInteractions(messagingTemplate);
     }
 
     @Test
@@ -137,6 +131,7 @@ class NotificationServiceTest {
 
         // Assert
         verify(notificationRepository, times(1)).save(notification);
+        verify(unreadNotificationCounter, times(1)).added(USER_ID);
     }
 
     @Test
@@ -154,99 +149,224 @@ class NotificationServiceTest {
     @Test
     void testMarkAsRead() {
         // Arrange
-        Notification unreadNotification = new Notification();
-        unreadNotification.setRead(false);
+        List<Long> ids = List.of(NOTIFICATION_ID, 2L);
+        when(notificationRepository.markAsRead(USER_ID, ids)).thenReturn(2);
 
-        when(notificationRepository.findById(NOTIFICATION_ID)).thenReturn(Optional.of(unreadNotification));
-        when(notificationRepository.save(any(Notification.class))).thenAnswer(invocation -> {
-            Notification n = invocation.getArgument(0);
-            assertTrue(n.isRead());
-            return n;
-        });
+        // Act
+        int read = notificationService.markAsRead(USER_ID, ids);
+
+        // Assert
+        assertEquals(2, read);
+        verify(notificationRepository, times(1)).markAsRead(USER_ID, ids);
+        verify(unreadNotificationCounter, times(1)).read(USER_ID, 2);
+    }
 
+    @Test
+    void testMarkAsReadWithoutIds_DoNothing() {
         // Act
-        notificationService.markAsRead(NOTIFICATION_ID);
+        int read = notificationService.markAsRead(USER_ID, Collections.emptyList());
 
         // Assert
-        verify(notificationRepository, times(1)).findById(NOTIFICATION_ID);
-        verify(notificationRepository, times(1)).save(unreadNotification);
+        assertEquals(0, read);
+        verify(notificationRepository, never()).markAsRead(any(), any());
+        verify(unreadNotificationCounter, never()).read(any(), anyInt());
     }
 
     @Test
-    void testMarkAsReadWithNonExistingNotification_DoNothing() {
+    void testMarkAllAsRead() {
         // Arrange
-        when(notificationRepository.findById(NOTIFICATION_ID)).thenReturn(Optional.empty());
+        when(notificationRepository.markAllAsRead(USER_ID)).thenReturn(3);
 
         // Act
-        notificationService.markAsRead(NOTIFICATION_ID);
+        int read = notificationService.markAllAsRead(USER_ID);
 
         // Assert
-        verify(notificationRepository, times(1)).findById(NOTIFICATION_ID);
-        verify(notificationRepository, never()).save(any());
+        assertEquals(3, read);
+        verify(unreadNotificationCounter, times(1)).read(USER_ID, 3);
+    }
+
+    @Test
+    void testGetUnreadCount() {
+        // Arrange
+        when(unreadNotificationCounter.unread(USER_ID)).thenReturn(4L);
+
+        // Act
+        long unread = notificationService.getUnreadCount(USER_ID);
+
+        // Assert
+        assertEquals(4L, unread);
+        verifyNoInteractions(notificationRepository);
     }
 
     @Test
     void testGetUserNotifications() {
         // Arrange
-        List<Notification> notifications = List.of(testNotification);
-        when(notificationRepository.findByUserIdOrderByCreationDateDesc(USER_ID)).thenReturn(notifications);
+        when(notificationRepository.scrollInbox(eq(USER_ID), eq(false), any(Sort.class),
+                any(KeysetScrollPosition.class), eq(50))).thenReturn(window(List.of(summary()), false));
 
         // Act
-        List<NotificationDto> result = notificationService.getUserNotifications(USER_ID);
+        List<NotificationDto> result = notificationService.getUserNotifications(USER_ID, 50);
 
         // Assert
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(NOTIFICATION_ID, result.getFirst().getId());
-        verify(notificationRepository, times(1)).findByUserIdOrderByCreationDateDesc(USER_ID);
+        assertEquals(QUESTION_ID, result.getFirst().getQuestionId());
+        assertEquals("You have an answer", result.getFirst().getMessage());
+        verify(notificationRepository, times(1)).scrollInbox(USER_ID, false,
+                Sort.by(Sort.Direction.DESC, "creationDate", "id"), ScrollPosition.keyset(), 50);
     }
 
     @Test
     void testGetUserNotificationsRepositoryException() {
         // Arrange
-        when(notificationRepository.findByUserIdOrderByCreationDateDesc(USER_ID))
+        when(notificationRepository.scrollInbox(any(), anyBoolean(), any(), any(), anyInt()))
                 .thenThrow(new DataAccessException("Database error") {});
 
         // Act & Assert
         assertThrows(RepositoryException.class, () -> {
-            notificationService.getUserNotifications(USER_ID);
+            notificationService.getUserNotifications(USER_ID, 50);
         });
     }
 
     @Test
     void testGetUserNotificationsServiceException() {
         // Arrange
-        when(notificationRepository.findByUserIdOrderByCreationDateDesc(USER_ID))
+        when(notificationRepository.scrollInbox(any(), anyBoolean(), any(), any(), anyInt()))
                 .thenThrow(new RuntimeException("Unexpected error"));
 
         // Act & Assert
         assertThrows(ServiceException.class, () -> {
-            notificationService.getUserNotifications(USER_ID);
+            notificationService.getUserNotifications(USER_ID, 50);
         });
     }
 
     @Test
     void testGetUserNotificationsEmptyList() {
         // Arrange
-        when(notificationRepository.findByUserIdOrderByCreationDateDesc(USER_ID)).thenReturn(Collections.emptyList());
+        when(notificationRepository.scrollInbox(any(), anyBoolean(), any(), any(), anyInt()))
+                .thenReturn(window(List.of(), false));
 
         // Act
-        List<NotificationDto> result = notificationService.getUserNotifications(USER_ID);
+        List<NotificationDto> result = notificationService.getUserNotifications(USER_ID, 50);
 
         // Assert
         assertNotNull(result);
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    void testScrollUnreadNotifications() {
+        // Arrange
+        ScrollRequest scrollRequest = ScrollRequest.of(null, 1, "creationDate", "desc", true);
+        when(notificationRepository.scrollInbox(eq(USER_ID), eq(true), any(Sort.class),
+                any(KeysetScrollPosition.class), eq(1))).thenReturn(window(List.of(summary()), true));
+        when(notificationRepository.countByUserIdAndReadFalse(USER_ID)).thenReturn(2L);
+
+        // Act
+        CursorPageDto<NotificationDto> result = notificationService.scrollUserNotifications(USER_ID, true,
+                scrollRequest);
+
+        // Assert
+        assertEquals(1, result.getContent().size());
+        assertTrue(result.isHasNext());
+        assertNotNull(result.getNextCursor());
+        assertEquals(2L, result.getTotalElements());
+        verify(notificationRepository, never()).countByUserId(any());
+    }
+
+    @Test
+    void testScrollNotificationsWithUnsupportedSort() {
+        // Arrange
+        ScrollRequest scrollRequest = ScrollRequest.of(null, 10, "type", "desc", false);
+        when(notificationRepository.scrollInbox(any(), anyBoolean(), any(), any(), anyInt()))
+                .thenThrow(new IllegalArgumentException("Unsupported sort property for scrolling: type"));
+
+        // Act
+        ServiceException exception = assertThrows(ServiceException.class,
+                () -> notificationService.scrollUserNotifications(USER_ID, false, scrollRequest));
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+    }
+
+    @Test
+    void streamNotifications_shouldReplayEveryWindowWrittenSinceTheCursorLessTheSlack() {
+        // Arrange
+        LocalDateTime cursorDate = LocalDateTime.of(2024, 1, 1, 10, 0, 30);
+        when(notificationRepository.scrollInbox(eq(USER_ID), eq(false), any(Sort.class),
+                any(KeysetScrollPosition.class), anyInt()))
+                .thenReturn(window(List.of(summary(60L, cursorDate.minusSeconds(5)), summary(5L, cursorDate)), true))
+                .thenReturn(window(List.of(summary(8L, cursorDate.plusSeconds(1))), false));
+        when(localNotificationSessions.stream(eq(USER_ID), any())).thenAnswer(invocation -> invocation.getArgument(1));
+
+        // Act
+        List<Long> ids = notificationService.streamNotifications(USER_ID, new StreamCursor(cursorDate, 5L).toString())
+                .map(NotificationDto::getId)
+                .collectList()
+                .block();
+
+        // Assert
+        assertEquals(List.of(60L, 8L), ids);
+        verify(notificationRepository).scrollInbox(eq(USER_ID), eq(false), any(Sort.class), eq(ScrollPosition.forward(
+                Map.of("writtenDate", cursorDate.minus(StreamCursor.RESUME_SLACK), "id", Long.MIN_VALUE))), anyInt());
+        verify(notificationRepository).scrollInbox(eq(USER_ID), eq(false), any(Sort.class),
+                eq(ScrollPosition.forward(Map.of("writtenDate", cursorDate, "id", 5L))), anyInt());
+    }
+
+    @Test
+    void streamNotifications_shouldThrowBadRequest_whenLastEventIdIsNotACursor() {
+        // Act
+        ServiceException exception = assertThrows(ServiceException.class,
+                () -> notificationService.streamNotifications(USER_ID, "5"));
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+        verifyNoInteractions(notificationRepository, localNotificationSessions);
+    }
+
+    @Test
+    void streamNotifications_shouldNotReadTheInbox_withoutLastEventId() {
+        // Arrange
+        when(localNotificationSessions.stream(eq(USER_ID), any())).thenAnswer(invocation -> invocation.getArgument(1));
+
+        // Act
+        Long count = notificationService.streamNotifications(USER_ID, null).count().block();
+
+        // Assert
+        assertEquals(0L, count);
+        verifyNoInteractions(notificationRepository);
+    }
+
     @Test
     void deleteByAnswerId_shouldCallRepositoryDeleteByAnswerId() {
         // Arrange
         Long answerId = ANSWER_ID;
+        when(notificationRepository.findUnreadUserIdsByAnswerIds(List.of(answerId))).thenReturn(List.of(USER_ID));
 
         // Act
         notificationService.deleteByAnswerId(answerId);
 
         // Assert
         verify(notificationRepository, times(1)).deleteByAnswerId(answerId);
+        verify(unreadNotificationCounter, times(1)).evict(List.of(USER_ID));
+    }
+
+    private NotificationSummary summary() {
+        return summary(NOTIFICATION_ID);
+    }
+
+    private NotificationSummary summary(Long id) {
+        return summary(id, LocalDateTime.of(2024, 1, 1, 10, 0));
+    }
+
+    private NotificationSummary summary(Long id, LocalDateTime writtenDate) {
+        return new NotificationSummary(id, USER_ID, QUESTION_ID, ANSWER_ID,
+                NotificationType.QUESTION_REPLIED, false, 1, LocalDateTime.of(2024, 1, 1, 10, 0), writtenDate);
+    }
+
+    private Window<NotificationSummary> window(List<NotificationSummary> content, boolean hasNext) {
+        return Window.from(content, index -> ScrollPosition.forward(Map.of(
+                "creationDate", content.get(index).creationDate(), "id", content.get(index).id())), hasNext);
     }
 }
@@ -0,0 +1,121 @@
+package es.upm.miw.foro.service;
+
+import es.upm.miw.foro.persistence.model.Role;
+import es.upm.miw.foro.persistence.model.User;
+import es.upm.miw.foro.persistence.repository.UserRepository;
+import es.upm.miw.foro.service.principal.PrincipalCache;
+import es.upm.miw.foro.service.principal.UserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PrincipalCacheTest {
+
+    private static final Long USER_ID = 1L;
+    private static final String EMAIL = "user@test.com";
+    private static final UserPrincipal PRINCIPAL = new UserPrincipal(USER_ID, EMAIL, "user", "First", "Last",
+            Role.MEMBER);
+
+    private UserRepository userRepository;
+    private PrincipalCache principalCache;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(PRINCIPAL.toUser()));
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(PRINCIPAL.toUser()));
+        principalCache = new PrincipalCache(userRepository, Duration.ofSeconds(30));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void verify_shouldLoadUserOnceWithinTtl() {
+        assertEquals(Optional.of(PRINCIPAL), principalCache.verify(PRINCIPAL));
+        assertEquals(Optional.of(PRINCIPAL), principalCache.verify(PRINCIPAL));
+
+        verify(userRepository, times(1)).findById(USER_ID);
+    }
+
+    @Test
+    void verify_shouldReload_whenTtlExpired() {
+        PrincipalCache expiring = new PrincipalCache(userRepository, Duration.ZERO);
+
+        expiring.verify(PRINCIPAL);
+        expiring.verify(PRINCIPAL);
+
+        verify(userRepository, times(2)).findById(USER_ID);
+    }
+
+    @Test
+    void verify_shouldKeepTheClaimsOfEachToken() {
+        UserPrincipal renamed = new UserPrincipal(USER_ID, EMAIL, "user", "Renamed", "Last", Role.MEMBER);
+        User current = renamed.toUser();
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(current));
+
+        Optional<UserPrincipal> fresh = principalCache.verify(renamed);
+        Optional<UserPrincipal> outdated = principalCache.verify(PRINCIPAL);
+
+        assertSame(renamed, fresh.orElseThrow());
+        assertEquals(Optional.of(renamed), outdated);
+    }
+
+    @Test
+    void verify_shouldRejectTokensOfDeletedUsers() {
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.empty());
+
+        assertTrue(principalCache.verify(PRINCIPAL).isEmpty());
+        assertTrue(principalCache.verify(PRINCIPAL).isEmpty());
+
+        verify(userRepository, times(1)).findById(USER_ID);
+    }
+
+    @Test
+    void invalidate_shouldForceReload() {
+        principalCache.verify(PRINCIPAL);
+
+        principalCache.invalidate(USER_ID);
+        principalCache.verify(PRINCIPAL);
+
+        verify(userRepository, times(2)).findById(USER_ID);
+    }
+
+    @Test
+    void invalidate_shouldApplyOutdatedClaimsNoMore() {
+        principalCache.verify(PRINCIPAL);
+        User promoted = PRINCIPAL.toUser();
+        promoted.setRole(Role.ADMIN);
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(promoted));
+
+        principalCache.invalidate(USER_ID);
+
+        assertEquals(Role.ADMIN, principalCache.verify(PRINCIPAL).orElseThrow().role());
+    }
+
+    @Test
+    void byEmail_shouldLoadOncePerRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        assertEquals(Optional.of(PRINCIPAL), principalCache.byEmail(EMAIL));
+        assertEquals(Optional.of(PRINCIPAL), principalCache.byEmail(EMAIL));
+
+        verify(userRepository, times(1)).findByEmail(EMAIL);
+    }
+
+    @Test
+    void byEmail_shouldReturnEmpty_whenUserDoesNotExist() {
+        assertTrue(principalCache.byEmail("missing@test.com").isEmpty());
+    }
+}
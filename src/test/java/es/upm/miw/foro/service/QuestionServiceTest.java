@@ -1,6 +1,7 @@
 package es.upm.miw.foro.service;
 
 import es.upm.miw.foro.TestConfig;
+import es.upm.miw.foro.api.dto.CursorPageDto;
 import es.upm.miw.foro.api.dto.QuestionDto;
 import es.upm.miw.foro.exception.RepositoryException;
 import es.upm.miw.foro.exception.ServiceException;
@@ -9,13 +10,24 @@ import es.upm.miw.foro.persistence.model.Role;
 import es.upm.miw.foro.persistence.model.Tag;
 import es.upm.miw.foro.persistence.model.User;
 import es.upm.miw.foro.persistence.repository.QuestionRepository;
-import es.upm.miw.foro.persistence.repository.TagRepository;
+import es.upm.miw.foro.persistence.repository.projection.QuestionSummary;
+import es.upm.miw.foro.persistence.repository.projection.QuestionTagName;
 import es.upm.miw.foro.service.impl.QuestionServiceImpl;
+import es.upm.miw.foro.service.notification.QuestionFollowers;
+import es.upm.miw.foro.service.notification.UnreadNotificationCounter;
+import es.upm.miw.foro.service.principal.UserPrincipal;
+import es.upm.miw.foro.service.scroll.ContinuationToken;
+import es.upm.miw.foro.service.scroll.ScrollRequest;
+import es.upm.miw.foro.service.search.QuestionSearchEngine;
+import es.upm.miw.foro.service.tag.TagResolver;
+import es.upm.miw.foro.service.tag.TagStatistics;
+import es.upm.miw.foro.service.view.QuestionViewCounter;
 import es.upm.miw.foro.util.MessageUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
@@ -26,12 +38,22 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -46,11 +68,26 @@ class QuestionServiceTest {
     private QuestionRepository questionRepository;
 
     @Mock
-    private TagRepository tagRepository;
+    private TagResolver tagResolver;
+
+    @Mock
+    private TagStatistics tagStatistics;
 
     @Mock
     private UserService userService;
 
+    @Mock
+    private QuestionSearchEngine questionSearchEngine;
+
+    @Mock
+    private QuestionViewCounter questionViewCounter;
+
+    @Mock
+    private UnreadNotificationCounter unreadNotificationCounter;
+
+    @Mock
+    private QuestionFollowers questionFollowers;
+
     @Mock
     private Validator validator;
 
@@ -93,6 +130,13 @@ class QuestionServiceTest {
         questionDto.setViews(VIEWS);
     }
 
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
     @Test
     void testCreateQuestion() {
         // Arrange
@@ -117,6 +161,8 @@ class QuestionServiceTest {
         verify(validator, times(1)).validate(any(QuestionDto.class));
         verify(userService, times(1)).getAuthenticatedUser();
         verify(questionRepository, times(1)).save(any(Question.class));
+        verify(tagStatistics, times(1)).membershipChanged(eq(Set.of()), any());
+        verify(questionSearchEngine, times(1)).questionChanged(QUESTION_ID);
     }
 
     @Test
@@ -234,8 +280,8 @@ class QuestionServiceTest {
     void testGetQuestions_withTitle() {
         // Arrange
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Question> questionPage = new PageImpl<>(Collections.singletonList(question));
-        when(questionRepository.findAll(ArgumentMatchers.<Specification<Question>>any(), eq(pageable))).thenReturn(questionPage);
+        Page<QuestionSummary> summaryPage = new PageImpl<>(Collections.singletonList(questionSummary()));
+        when(questionRepository.findSummaries(ArgumentMatchers.<Specification<Question>>any(), eq(pageable))).thenReturn(summaryPage);
 
         // Act
         Page<QuestionDto> result = questionService.getQuestions(TITLE, false, null, pageable);
@@ -247,16 +293,79 @@ class QuestionServiceTest {
         assertEquals(TITLE, result.getContent().getFirst().getTitle());
 
         // Verify
-        verify(questionRepository, times(1)).findAll(ArgumentMatchers.<Specification<Question>>any(), eq(pageable));
+        verify(questionRepository, times(1)).findSummaries(ArgumentMatchers.<Specification<Question>>any(), eq(pageable));
         verify(questionRepository, never()).findAll(any(Pageable.class));
     }
 
+    @Test
+    void testGetQuestions_mapsSummariesWithTagNames() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 10);
+        QuestionSummary summary = new QuestionSummary(QUESTION_ID, TITLE, USERNAME, CREATION_DATE, 7, 5L, 3L);
+        when(questionRepository.findSummaries(ArgumentMatchers.<Specification<Question>>any(), eq(pageable)))
+                .thenReturn(new PageImpl<>(Collections.singletonList(summary)));
+        when(questionRepository.findTagNamesByQuestionIdIn(Collections.singletonList(QUESTION_ID)))
+                .thenReturn(List.of(tagName(QUESTION_ID, "java"), tagName(QUESTION_ID, "spring")));
+
+        // Act
+        Page<QuestionDto> result = questionService.getQuestions(null, false, null, pageable);
+
+        // Assert
+        QuestionDto questionDto = result.getContent().getFirst();
+        assertEquals(USERNAME, questionDto.getAuthor());
+        assertEquals(7, questionDto.getViews());
+        assertEquals(5L, questionDto.getUniqueViews());
+        assertEquals(3, questionDto.getAnswerCount());
+        assertNull(questionDto.getAnswers());
+        assertEquals(Set.of("java", "spring"), questionDto.getTags());
+
+        // Verify
+        verify(questionRepository, never()).findAll(ArgumentMatchers.<Specification<Question>>any(), eq(pageable));
+    }
+
+    @Test
+    void testScrollQuestions_returnsNextCursor() {
+        // Arrange
+        ScrollRequest scrollRequest = ScrollRequest.of(null, 1, "creationDate", "desc", true);
+        QuestionSummary summary = questionSummary();
+        Window<QuestionSummary> window = Window.from(List.of(summary),
+                index -> ScrollPosition.forward(Map.of("creationDate", CREATION_DATE, "id", QUESTION_ID)), true);
+        when(questionRepository.scrollSummaries(ArgumentMatchers.<Specification<Question>>any(),
+                eq(scrollRequest.sort()), eq(ScrollPosition.keyset()), eq(1))).thenReturn(window);
+        when(questionRepository.count(ArgumentMatchers.<Specification<Question>>any())).thenReturn(5L);
+
+        // Act
+        CursorPageDto<QuestionDto> result = questionService.scrollQuestions(null, false, null, scrollRequest);
+
+        // Assert
+        assertEquals(1, result.getContent().size());
+        assertTrue(result.isHasNext());
+        assertEquals(5L, result.getTotalElements());
+        ContinuationToken next = ContinuationToken.decode(result.getNextCursor());
+        assertEquals(Sort.Direction.DESC, next.direction());
+        assertEquals(CREATION_DATE, next.keys().get("creationDate"));
+        assertEquals(QUESTION_ID, next.keys().get("id"));
+    }
+
+    @Test
+    void testScrollQuestions_unsupportedSort() {
+        // Arrange
+        ScrollRequest scrollRequest = ScrollRequest.of(null, 10, "description", "asc", false);
+        when(questionRepository.scrollSummaries(ArgumentMatchers.<Specification<Question>>any(), any(), any(), anyInt()))
+                .thenThrow(new IllegalArgumentException("Unsupported sort property for scrolling: description"));
+
+        // Act & Assert
+        ServiceException exception = assertThrows(ServiceException.class,
+                () -> questionService.scrollQuestions(null, false, null, scrollRequest));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+    }
+
     @Test
     void testGetQuestions_withoutTitle() {
         // Arrange
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Question> questionPage = new PageImpl<>(Collections.singletonList(question));
-        when(questionRepository.findAll(ArgumentMatchers.<Specification<Question>>any(), eq(pageable))).thenReturn(questionPage);
+        Page<QuestionSummary> summaryPage = new PageImpl<>(Collections.singletonList(questionSummary()));
+        when(questionRepository.findSummaries(ArgumentMatchers.<Specification<Question>>any(), eq(pageable))).thenReturn(summaryPage);
 
         // Act
         Page<QuestionDto> result = questionService.getQuestions(null, false, null, pageable);
@@ -267,37 +376,37 @@ class QuestionServiceTest {
         assertEquals(QUESTION_ID, result.getContent().getFirst().getId());
 
         // Verify
-        verify(questionRepository, times(1)).findAll(ArgumentMatchers.<Specification<Question>>any(), eq(pageable));
+        verify(questionRepository, times(1)).findSummaries(ArgumentMatchers.<Specification<Question>>any(), eq(pageable));
     }
 
     @Test
     void testGetQuestions_withTitleAndUnanswered() {
         // Arrange
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Question> questionPage = new PageImpl<>(Collections.singletonList(question));
-        when(questionRepository.findAll(ArgumentMatchers.<Specification<Question>>any(), eq(pageable))).thenReturn(questionPage);
+        Page<QuestionSummary> summaryPage = new PageImpl<>(Collections.singletonList(questionSummary()));
+        when(questionRepository.findSummaries(ArgumentMatchers.<Specification<Question>>any(), eq(pageable))).thenReturn(summaryPage);
 
         // Act
         Page<QuestionDto> result = questionService.getQuestions(TITLE, true, null, pageable);
 
         // Assert
         assertEquals(1, result.getContent().size());
-        verify(questionRepository, times(1)).findAll(ArgumentMatchers.<Specification<Question>>any(), eq(pageable));
+        verify(questionRepository, times(1)).findSummaries(ArgumentMatchers.<Specification<Question>>any(), eq(pageable));
     }
 
     @Test
     void testGetQuestions_unansweredWithoutTitle() {
         // Arrange
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Question> questionPage = new PageImpl<>(Collections.singletonList(question));
-        when(questionRepository.findAll(ArgumentMatchers.<Specification<Question>>any(), eq(pageable))).thenReturn(questionPage);
+        Page<QuestionSummary> summaryPage = new PageImpl<>(Collections.singletonList(questionSummary()));
+        when(questionRepository.findSummaries(ArgumentMatchers.<Specification<Question>>any(), eq(pageable))).thenReturn(summaryPage);
 
         // Act
         Page<QuestionDto> result = questionService.getQuestions(null, true, null, pageable);
 
         // Assert
         assertEquals(1, result.getContent().size());
-        verify(questionRepository, times(1)).findAll(ArgumentMatchers.<Specification<Question>>any(), eq(pageable));
+        verify(questionRepository, times(1)).findSummaries(ArgumentMatchers.<Specification<Question>>any(), eq(pageable));
     }
 
 
@@ -305,14 +414,14 @@ class QuestionServiceTest {
     void testGetQuestions_dataAccessException() {
         // Arrange
         Pageable pageable = PageRequest.of(0, 10);
-        when(questionRepository.findAll(ArgumentMatchers.<Specification<Question>>any(), eq(pageable))).thenThrow(new DataAccessException("DB error") {});
+        when(questionRepository.findSummaries(ArgumentMatchers.<Specification<Question>>any(), eq(pageable))).thenThrow(new DataAccessException("DB error") {});
 
         // Act & Assert
         RepositoryException exception = assertThrows(RepositoryException.class, () -> questionService.getQuestions(null, false, null, pageable));
         assertEquals("Error while getting questions", exception.getMessage());
 
         // Verify
-        verify(questionRepository, times(1)).findAll(ArgumentMatchers.<Specification<Question>>any(), eq(pageable));
+        verify(questionRepository, times(1)).findSummaries(ArgumentMatchers.<Specification<Question>>any(), eq(pageable));
     }
 
     @Test
@@ -320,7 +429,7 @@ class QuestionServiceTest {
         // Arrange
         Pageable pageable = PageRequest.of(0, 10);
         Page<Question> questionPage = new PageImpl<>(Collections.singletonList(question));
-        when(questionRepository.searchByTitleOrDescriptionOrAnswerContentContainingIgnoreCase(TITLE, pageable)).thenReturn(questionPage);
+        when(questionSearchEngine.search(TITLE, pageable)).thenReturn(questionPage);
 
         // Act
         Page<QuestionDto> result = questionService.searchQuestions(TITLE, pageable);
@@ -331,7 +440,7 @@ class QuestionServiceTest {
         assertEquals(QUESTION_ID, result.getContent().getFirst().getId());
 
         // Verify
-        verify(questionRepository, times(1)).searchByTitleOrDescriptionOrAnswerContentContainingIgnoreCase(TITLE, pageable);
+        verify(questionSearchEngine, times(1)).search(TITLE, pageable);
     }
 
     @Test
@@ -351,7 +460,7 @@ class QuestionServiceTest {
     void testSearchQuestions_dataAccessException() {
         // Arrange
         Pageable pageable = PageRequest.of(0, 10);
-        when(questionRepository.searchByTitleOrDescriptionOrAnswerContentContainingIgnoreCase(TITLE, pageable))
+        when(questionSearchEngine.search(TITLE, pageable))
                 .thenThrow(new DataAccessException("DB error") {});
 
         // Act & Assert
@@ -359,7 +468,7 @@ class QuestionServiceTest {
         assertEquals("Error searching questions", exception.getMessage());
 
         // Verify
-        verify(questionRepository, times(1)).searchByTitleOrDescriptionOrAnswerContentContainingIgnoreCase(TITLE, pageable);
+        verify(questionSearchEngine, times(1)).search(TITLE, pageable);
     }
 
     @Test
@@ -384,6 +493,7 @@ class QuestionServiceTest {
         verify(userService, times(1)).getAuthenticatedUser();
         verify(questionRepository, times(1)).findByIdWithDetails(QUESTION_ID);
         verify(questionRepository, times(1)).save(any(Question.class));
+        verify(tagStatistics, times(1)).membershipChanged(any(), any());
     }
 
     @Test
@@ -477,6 +587,23 @@ class QuestionServiceTest {
         verify(userService, times(1)).getAuthenticatedUser();
         verify(questionRepository, times(1)).findByIdWithDetails(QUESTION_ID);
         verify(questionRepository, times(1)).delete(question);
+        verify(tagStatistics, times(1)).membershipChanged(question.getTags(), Set.of());
+    }
+
+    @Test
+    void testDeleteQuestion_shouldUpdateTagStatisticsAfterCommit() {
+        // Arrange
+        when(userService.getAuthenticatedUser()).thenReturn(authenticatedUser);
+        when(questionRepository.findByIdWithDetails(QUESTION_ID)).thenReturn(Optional.of(question));
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        questionService.deleteQuestion(QUESTION_ID);
+        verifyNoInteractions(tagStatistics);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        // Assert
+        verify(tagStatistics, times(1)).membershipChanged(question.getTags(), Set.of());
     }
 
     @Test
@@ -616,8 +743,8 @@ class QuestionServiceTest {
         // Arrange
         Pageable pageable = PageRequest.of(0, 10);
         LocalDateTime fromDate = LocalDateTime.now().minusDays(10);
-        Page<Question> questionPage = new PageImpl<>(Collections.singletonList(question));
-        when(questionRepository.findAll(ArgumentMatchers.<Specification<Question>>any(), eq(pageable))).thenReturn(questionPage);
+        Page<QuestionSummary> summaryPage = new PageImpl<>(Collections.singletonList(questionSummary()));
+        when(questionRepository.findSummaries(ArgumentMatchers.<Specification<Question>>any(), eq(pageable))).thenReturn(summaryPage);
 
         // Act
         Page<QuestionDto> result = questionService.getMyQuestions(EMAIL, TITLE, fromDate, pageable);
@@ -628,7 +755,7 @@ class QuestionServiceTest {
         assertEquals(QUESTION_ID, result.getContent().getFirst().getId());
 
         // Verify
-        verify(questionRepository, times(1)).findAll(ArgumentMatchers.<Specification<Question>>any(), eq(pageable));
+        verify(questionRepository, times(1)).findSummaries(ArgumentMatchers.<Specification<Question>>any(), eq(pageable));
     }
 
     @Test
@@ -636,7 +763,7 @@ class QuestionServiceTest {
         // Arrange
         Pageable pageable = PageRequest.of(0, 10);
         LocalDateTime fromDate = LocalDateTime.now().minusDays(10);
-        when(questionRepository.findAll(ArgumentMatchers.<Specification<Question>>any(), eq(pageable)))
+        when(questionRepository.findSummaries(ArgumentMatchers.<Specification<Question>>any(), eq(pageable)))
                 .thenThrow(new RuntimeException("Unexpected error"));
 
         // Act & Assert
@@ -644,14 +771,13 @@ class QuestionServiceTest {
         assertEquals("Error retrieving user questions with filters", exception.getMessage());
 
         // Verify
-        verify(questionRepository, times(1)).findAll(ArgumentMatchers.<Specification<Question>>any(), eq(pageable));
+        verify(questionRepository, times(1)).findSummaries(ArgumentMatchers.<Specification<Question>>any(), eq(pageable));
     }
 
     @Test
-    void testRegisterView_incrementsViewForNewSession() {
+    void testRegisterView_countsAnonymousViewBySession() {
         // Arrange
-        when(questionRepository.findById(QUESTION_ID)).thenReturn(Optional.of(question));
-
+        SecurityContextHolder.clearContext();
         HttpServletRequest mockRequest = mock(HttpServletRequest.class);
         HttpSession mockSession = mock(HttpSession.class);
         when(mockRequest.getSession()).thenReturn(mockSession);
@@ -661,99 +787,107 @@ class QuestionServiceTest {
         questionService.registerView(QUESTION_ID, mockRequest);
 
         // Assert
-        assertEquals(1, question.getViews());
-        assertTrue(question.getViewedBySessions().contains("session-abc"));
+        verify(questionViewCounter, times(1)).registerView(QUESTION_ID, "session:session-abc");
+        verifyNoInteractions(questionRepository, userService);
     }
 
     @Test
-    void processTags_shouldReturnEmptySet_whenInputIsNull() {
-        Set<Tag> result = questionService.processTags(null);
-        assertNotNull(result);
-        assertTrue(result.isEmpty());
-    }
+    void testRegisterView_countsAuthenticatedViewByUser() {
+        // Arrange
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(EMAIL, null, Collections.emptyList()));
+        HttpServletRequest mockRequest = mock(HttpServletRequest.class);
 
-    @Test
-    void processTags_shouldReturnEmptySet_whenInputIsEmpty() {
-        Set<Tag> result = questionService.processTags(Collections.emptySet());
-        assertNotNull(result);
-        assertTrue(result.isEmpty());
+        try {
+            // Act
+            questionService.registerView(QUESTION_ID, mockRequest);
+
+            // Assert
+            verify(questionViewCounter, times(1)).registerView(QUESTION_ID, "user:" + EMAIL);
+            verify(mockRequest, never()).getSession();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
     }
 
     @Test
-    void processTags_shouldReturnExistingTags_whenTagsExist() {
+    void testRegisterView_followsQuestion_whenUserViewsItForTheFirstTime() {
         // Arrange
-        String tagName = "java";
-        Tag existingTag = new Tag();
-        existingTag.setName(tagName);
-
-        when(tagRepository.findByName(tagName)).thenReturn(Optional.of(existingTag));
-
-        Set<String> inputTags = Set.of("Java"); // mixed case and trimmed test
+        UserPrincipal principal = new UserPrincipal(2L, EMAIL, USERNAME, "First", "Last", Role.MEMBER);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, Collections.emptyList()));
+        when(questionViewCounter.registerView(QUESTION_ID, "user:" + EMAIL)).thenReturn(true, false);
 
-        // Act
-        Set<Tag> result = questionService.processTags(inputTags);
+        try {
+            // Act
+            questionService.registerView(QUESTION_ID, mock(HttpServletRequest.class));
+            questionService.registerView(QUESTION_ID, mock(HttpServletRequest.class));
 
-        // Assert
-        assertEquals(1, result.size());
-        assertTrue(result.contains(existingTag));
-        verify(tagRepository, times(1)).findByName(tagName);
-        verify(tagRepository, never()).save(any());
+            // Assert
+            verify(questionFollowers, times(1)).followWhileViewing(QUESTION_ID, 2L);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
     }
 
     @Test
-    void processTags_shouldCreateAndReturnTags_whenTagsDoNotExist() {
+    void testGetQuestionById_addsPendingViews() {
         // Arrange
-        String tagName = "spring";
-        Tag newTag = new Tag();
-        newTag.setName(tagName);
-
-        when(tagRepository.findByName(tagName)).thenReturn(Optional.empty());
-        when(tagRepository.save(any(Tag.class))).thenAnswer(invocation -> {
-            Tag t = invocation.getArgument(0);
-            t.setId(1L); // simulate DB generated ID
-            return t;
-        });
-
-        Set<String> inputTags = Set.of(" Spring ");
+        question.setViews(3);
+        when(questionRepository.findById(QUESTION_ID)).thenReturn(Optional.of(question));
+        when(questionViewCounter.pendingViews(QUESTION_ID)).thenReturn(2L);
 
         // Act
-        Set<Tag> result = questionService.processTags(inputTags);
+        QuestionDto result = questionService.getQuestionById(QUESTION_ID);
 
         // Assert
-        assertEquals(1, result.size());
-        Tag tag = result.iterator().next();
-        assertEquals(tagName, tag.getName());
-        verify(tagRepository, times(1)).findByName(tagName);
-        verify(tagRepository, times(1)).save(any(Tag.class));
+        assertEquals(5, result.getViews());
     }
 
     @Test
-    void processTags_shouldHandleMixedExistingAndNewTags() {
-        // Arrange
-        Tag existingTag = new Tag();
-        existingTag.setName("java");
-
-        Tag newTag = new Tag();
-        newTag.setName("spring");
+    void processTags_shouldReturnEmptySet_whenInputIsNull() {
+        Set<Tag> result = questionService.processTags(null);
+        assertNotNull(result);
+        assertTrue(result.isEmpty());
+    }
 
-        when(tagRepository.findByName("java")).thenReturn(Optional.of(existingTag));
-        when(tagRepository.findByName("spring")).thenReturn(Optional.empty());
-        when(tagRepository.save(any(Tag.class))).thenAnswer(invocation -> {
-            Tag t = invocation.getArgument(0);
-            t.setId(2L);
-            return t;
-        });
+    @Test
+    void processTags_shouldReturnEmptySet_whenInputIsEmpty() {
+        Set<Tag> result = questionService.processTags(Collections.emptySet());
+        assertNotNull(result);
+        assertTrue(result.isEmpty());
+    }
 
-        Set<String> inputTags = Set.of("Java", " Spring ");
+    @Test
+    void processTags_shouldDelegateToTagResolver() {
+        // Arrange
+        Tag tag = new Tag(1L, "java", new ArrayList<>());
+        Set<String> inputTags = Set.of("Java");
+        when(tagResolver.resolve(inputTags)).thenReturn(Set.of(tag));
 
         // Act
         Set<Tag> result = questionService.processTags(inputTags);
 
         // Assert
-        assertEquals(2, result.size());
-        assertTrue(result.contains(existingTag));
-        assertTrue(result.stream().anyMatch(tag -> tag.getName().equals("spring")));
-        verify(tagRepository, times(1)).save(any(Tag.class));
+        assertEquals(Set.of(tag), result);
+        verify(tagResolver, times(1)).resolve(inputTags);
+    }
+
+    private static QuestionSummary questionSummary() {
+        return new QuestionSummary(QUESTION_ID, TITLE, USERNAME, CREATION_DATE, VIEWS, 0L, 0L);
     }
 
+    private static QuestionTagName tagName(Long questionId, String name) {
+        return new QuestionTagName() {
+            @Override
+            public Long getQuestionId() {
+                return questionId;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
 }
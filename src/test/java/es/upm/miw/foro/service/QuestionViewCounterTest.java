@@ -0,0 +1,213 @@
+package es.upm.miw.foro.service;
+
+import es.upm.miw.foro.TestConfig;
+import es.upm.miw.foro.exception.RepositoryException;
+import es.upm.miw.foro.persistence.model.Question;
+import es.upm.miw.foro.persistence.model.QuestionViewSketch;
+import es.upm.miw.foro.persistence.repository.QuestionRepository;
+import es.upm.miw.foro.persistence.repository.QuestionViewSketchRepository;
+import es.upm.miw.foro.service.view.HyperLogLog;
+import es.upm.miw.foro.service.view.QuestionViewCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@TestConfig
+class QuestionViewCounterTest {
+
+    @Mock
+    private QuestionRepository questionRepository;
+
+    @Mock
+    private QuestionViewSketchRepository questionViewSketchRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private QuestionViewCounter viewCounter;
+
+    @BeforeEach
+    void setUp() {
+        viewCounter = new QuestionViewCounter(questionRepository, questionViewSketchRepository, transactionTemplate, 1000, Duration.ofHours(24));
+        when(questionRepository.existsById(anyLong())).thenReturn(true);
+        doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    void registerView_shouldCountEachViewerOnce() {
+        assertTrue(viewCounter.registerView(1L, "user:a@test.com"));
+        assertFalse(viewCounter.registerView(1L, "user:a@test.com"));
+        assertTrue(viewCounter.registerView(1L, "session:xyz"));
+
+        assertEquals(2, viewCounter.pendingViews(1L));
+    }
+
+    @Test
+    void registerView_shouldCheckQuestionExistsOnlyOnce() {
+        IntStream.range(0, 50).forEach(i -> viewCounter.registerView(1L, "session:" + i));
+
+        verify(questionRepository, times(1)).existsById(1L);
+        assertEquals(50, viewCounter.pendingViews(1L));
+    }
+
+    @Test
+    void registerView_shouldKeepCountingNewViewers_beyondTheExpectedViewers() {
+        IntStream.range(0, 10_000).forEach(i -> viewCounter.registerView(1L, "session:" + i));
+
+        assertEquals(10_000, viewCounter.pendingViews(1L), 100);
+    }
+
+    @Test
+    void registerView_shouldThrow_whenQuestionDoesNotExist() {
+        when(questionRepository.existsById(9L)).thenReturn(false);
+
+        assertThrows(RepositoryException.class, () -> viewCounter.registerView(9L, "session:xyz"));
+    }
+
+    @Test
+    void flush_shouldGroupQuestionsByDeltaInBulkUpdates() {
+        viewCounter.registerView(1L, "session:a");
+        viewCounter.registerView(2L, "session:a");
+        viewCounter.registerView(3L, "session:a");
+        viewCounter.registerView(3L, "session:b");
+
+        viewCounter.flush();
+
+        verify(questionRepository).incrementViews(argThat(ids -> ids.containsAll(List.of(1L, 2L)) && ids.size() == 2), eq(1));
+        verify(questionRepository).incrementViews(List.of(3L), 2);
+        assertEquals(0, viewCounter.pendingViews(3L));
+    }
+
+    @Test
+    void flush_shouldKeepViews_whenUpdateFails() {
+        viewCounter.registerView(1L, "session:a");
+        when(questionRepository.incrementViews(anyCollection(), anyInt())).thenThrow(new RuntimeException("DB down"));
+
+        viewCounter.flush();
+
+        assertEquals(1, viewCounter.pendingViews(1L));
+    }
+
+    @Test
+    void flush_shouldCreateSketchAndUniqueViews_forNewViewers() {
+        Question question = new Question();
+        question.setId(1L);
+        when(questionRepository.getReferenceById(1L)).thenReturn(question);
+        viewCounter.registerView(1L, "session:a");
+        viewCounter.registerView(1L, "user:a@test.com");
+
+        viewCounter.flush();
+
+        verify(questionViewSketchRepository).save(argThat(sketch -> sketch.getQuestion() == question
+                && HyperLogLog.fromBytes(sketch.getSketch()).estimate() == 2));
+        verify(questionRepository).updateUniqueViews(1L, 2L);
+    }
+
+    @Test
+    void flush_shouldMergeNewViewersIntoExistingSketch() {
+        HyperLogLog existing = new HyperLogLog();
+        IntStream.range(0, 10).forEach(i -> existing.add("session:old-" + i));
+        QuestionViewSketch viewSketch = new QuestionViewSketch(1L, new Question(), existing.toBytes());
+        when(questionViewSketchRepository.findAllForUpdateByQuestionIdIn(anyCollection())).thenReturn(List.of(viewSketch));
+        viewCounter.registerView(1L, "session:new");
+
+        viewCounter.flush();
+
+        verify(questionRepository).updateUniqueViews(1L, 11L);
+        verify(questionRepository, never()).getReferenceById(anyLong());
+    }
+
+    @Test
+    void flush_shouldFoldEveryViewerIntoSketch_evenWhenNotCountedAsNewView() {
+        QuestionViewSketch viewSketch = new QuestionViewSketch(1L, new Question(), null);
+        when(questionViewSketchRepository.findAllForUpdateByQuestionIdIn(anyCollection())).thenReturn(List.of(viewSketch));
+        viewCounter.registerView(1L, "session:a");
+        viewCounter.flush();
+
+        boolean counted = viewCounter.registerView(1L, "session:a");
+        viewCounter.flush();
+
+        assertFalse(counted);
+        verify(questionViewSketchRepository, times(2)).save(viewSketch);
+        verify(questionRepository, times(2)).updateUniqueViews(1L, 1L);
+    }
+
+    @Test
+    void flush_shouldEstimateUniqueViews_beyondTheExpectedViewers() {
+        when(questionViewSketchRepository.findAllForUpdateByQuestionIdIn(anyCollection()))
+                .thenReturn(List.of(new QuestionViewSketch(1L, new Question(), null)));
+        IntStream.range(0, 10_000).forEach(i -> viewCounter.registerView(1L, "session:" + i));
+
+        viewCounter.flush();
+
+        verify(questionRepository).updateUniqueViews(eq(1L), longThat(estimate -> Math.abs(estimate - 10_000) < 500));
+    }
+
+    @Test
+    void flush_shouldSkipSketch_whenQuestionWasDeleted() {
+        viewCounter.registerView(1L, "session:a");
+        when(questionRepository.existsById(1L)).thenReturn(false);
+
+        viewCounter.flush();
+
+        verify(questionViewSketchRepository, never()).save(any());
+        verify(questionRepository, never()).updateUniqueViews(anyLong(), anyLong());
+    }
+
+    @Test
+    void flush_shouldNotLoseViews_registeredWhileEntriesAreRetired() throws InterruptedException {
+        viewCounter = new QuestionViewCounter(questionRepository, questionViewSketchRepository, transactionTemplate, 1000, Duration.ZERO);
+        AtomicLong flushed = new AtomicLong();
+        when(questionRepository.incrementViews(anyCollection(), anyInt())).thenAnswer(invocation -> {
+            flushed.addAndGet((long) invocation.<Collection<Long>>getArgument(0).size() * invocation.<Integer>getArgument(1));
+            return 1;
+        });
+        AtomicLong counted = new AtomicLong();
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread flusher = Thread.ofPlatform().start(() -> {
+            while (running.get()) {
+                viewCounter.flush();
+            }
+        });
+        List<Thread> viewers = IntStream.range(0, 4).mapToObj(thread -> Thread.ofPlatform().start(() ->
+                IntStream.range(0, 5000).forEach(i -> {
+                    if (viewCounter.registerView(1L, "session:" + thread + "-" + i)) {
+                        counted.incrementAndGet();
+                    }
+                }))).toList();
+
+        for (Thread viewer : viewers) {
+            viewer.join();
+        }
+        running.set(false);
+        flusher.join();
+        viewCounter.flush();
+
+        assertEquals(counted.get(), flushed.get());
+    }
+
+    @Test
+    void flush_shouldDoNothing_whenThereAreNoViews() {
+        viewCounter.flush();
+
+        verifyNoInteractions(transactionTemplate);
+    }
+}
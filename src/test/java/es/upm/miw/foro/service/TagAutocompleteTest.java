@@ -0,0 +1,101 @@
+package es.upm.miw.foro.service;
+
+import es.upm.miw.foro.TestConfig;
+import es.upm.miw.foro.api.dto.TagDto;
+import es.upm.miw.foro.persistence.model.Tag;
+import es.upm.miw.foro.service.tag.TagAutocomplete;
+import es.upm.miw.foro.service.tag.TagStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@TestConfig
+class TagAutocompleteTest {
+
+    private static final Map<Long, Integer> QUESTION_COUNTS = Map.of(1L, 3, 2L, 8, 3L, 1, 4L, 5, 5L, 8);
+
+    @Mock
+    private TagStatistics tagStatistics;
+
+    private TagAutocomplete tagAutocomplete;
+
+    @BeforeEach
+    void setUp() {
+        tagAutocomplete = new TagAutocomplete(tagStatistics, 3);
+        when(tagStatistics.tagCounts()).thenReturn(List.of(
+                new TagDto(1L, "java", 3), new TagDto(2L, "javascript", 8), new TagDto(3L, "jpa", 1),
+                new TagDto(4L, "jakarta", 5), new TagDto(5L, "spring", 8)));
+        when(tagStatistics.questionCount(anyLong()))
+                .thenAnswer(invocation -> QUESTION_COUNTS.getOrDefault(invocation.<Long>getArgument(0), 0));
+    }
+
+    @Test
+    void suggest_shouldRankPrefixMatchesByQuestionCount() {
+        // Act
+        List<TagDto> result = tagAutocomplete.suggest("Ja");
+
+        // Assert
+        assertEquals(List.of("javascript", "jakarta", "java"), names(result));
+        assertEquals(8, result.getFirst().getQuestionCount());
+    }
+
+    @Test
+    void suggest_shouldKeepTopSuggestionsOnly() {
+        // Act
+        List<TagDto> result = tagAutocomplete.suggest("j");
+
+        // Assert
+        assertEquals(List.of("javascript", "jakarta", "java"), names(result));
+    }
+
+    @Test
+    void suggest_shouldReturnEmpty_whenNoTagMatches() {
+        assertTrue(tagAutocomplete.suggest("python").isEmpty());
+    }
+
+    @Test
+    void tagsAdded_shouldIndexNewTags() {
+        // Arrange
+        tagAutocomplete.suggest("j");
+
+        // Act
+        tagAutocomplete.tagsAdded(List.of(new Tag(6L, "junit", new ArrayList<>())));
+
+        // Assert
+        assertEquals(List.of("junit"), names(tagAutocomplete.suggest("ju")));
+        verify(tagStatistics, times(1)).tagCounts();
+    }
+
+    @Test
+    void tagRemoved_shouldDropTag() {
+        // Arrange
+        tagAutocomplete.suggest("j");
+
+        // Act
+        tagAutocomplete.tagRemoved(2L);
+
+        // Assert
+        assertEquals(List.of("jakarta", "java", "jpa"), names(tagAutocomplete.suggest("j")));
+    }
+
+    @Test
+    void tagsAdded_shouldNotLoad_whenIndexIsNotLoaded() {
+        // Act
+        tagAutocomplete.tagsAdded(List.of(new Tag(6L, "junit", new ArrayList<>())));
+
+        // Assert
+        verify(tagStatistics, never()).tagCounts();
+    }
+
+    private static List<String> names(List<TagDto> tags) {
+        return tags.stream().map(TagDto::getName).toList();
+    }
+}
@@ -0,0 +1,158 @@
+package es.upm.miw.foro.service;
+
+import es.upm.miw.foro.TestConfig;
+import es.upm.miw.foro.persistence.model.Tag;
+import es.upm.miw.foro.persistence.repository.TagRepository;
+import es.upm.miw.foro.service.tag.TagAutocomplete;
+import es.upm.miw.foro.service.tag.TagResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@TestConfig
+class TagResolverTest {
+
+    @Mock
+    private TagRepository tagRepository;
+
+    @Mock
+    private TagAutocomplete tagAutocomplete;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TagResolver tagResolver;
+
+    @BeforeEach
+    void setUp() {
+        tagResolver = new TagResolver(tagRepository, tagAutocomplete, transactionManager, 100);
+    }
+
+    @Test
+    void resolve_shouldNormalizeNamesAndReturnExistingTags() {
+        // Arrange
+        Tag java = tag(1L, "java");
+        when(tagRepository.findByNameIn(Set.of("java"))).thenReturn(List.of(java));
+
+        // Act
+        Set<Tag> result = tagResolver.resolve(Set.of(" Java "));
+
+        // Assert
+        assertEquals(Set.of(java), result);
+        verify(tagRepository, never()).insertMissing(any());
+    }
+
+    @Test
+    void resolve_shouldInsertOnlyMissingNames() {
+        // Arrange
+        when(tagRepository.findByNameIn(Set.of("java", "spring"))).thenReturn(List.of(tag(1L, "java")));
+        when(tagRepository.insertMissing(Set.of("spring"))).thenReturn(List.of(tag(2L, "spring")));
+
+        // Act
+        Set<Tag> result = tagResolver.resolve(Set.of("Java", "Spring"));
+
+        // Assert
+        assertEquals(Set.of(1L, 2L), ids(result));
+        verify(tagRepository, times(1)).insertMissing(Set.of("spring"));
+        verify(tagAutocomplete, times(1)).tagsAdded(anyList());
+    }
+
+    @Test
+    void resolve_shouldReadTagsInsertedConcurrently() {
+        // Arrange
+        when(tagRepository.findByNameIn(Set.of("spring")))
+                .thenReturn(List.of())
+                .thenReturn(List.of(tag(2L, "spring")));
+        when(tagRepository.insertMissing(Set.of("spring"))).thenReturn(List.of());
+
+        // Act
+        Set<Tag> result = tagResolver.resolve(Set.of("spring"));
+
+        // Assert
+        assertEquals(Set.of(2L), ids(result));
+        verify(tagRepository, times(2)).findByNameIn(Set.of("spring"));
+    }
+
+    @Test
+    void resolve_shouldServeCachedTagsWithoutDatabase() {
+        // Arrange
+        when(tagRepository.findByNameIn(Set.of("java"))).thenReturn(List.of(tag(1L, "java")));
+        tagResolver.resolve(Set.of("java"));
+
+        // Act
+        Set<Tag> result = tagResolver.resolve(Set.of("JAVA"));
+
+        // Assert
+        assertEquals(Set.of(1L), ids(result));
+        assertEquals("java", result.iterator().next().getName());
+        verify(tagRepository, times(1)).findByNameIn(any());
+    }
+
+    @Test
+    void evict_shouldForgetCachedTag() {
+        // Arrange
+        when(tagRepository.findByNameIn(Set.of("java"))).thenReturn(List.of(tag(1L, "java")));
+        tagResolver.resolve(Set.of("java"));
+
+        // Act
+        tagResolver.evict("java");
+
+        // Assert
+        assertEquals(0, tagResolver.cachedTags());
+    }
+
+    @Test
+    void resolve_shouldNotCacheBeyondLimit() {
+        // Arrange
+        TagResolver smallResolver = new TagResolver(tagRepository, tagAutocomplete, transactionManager, 1);
+        when(tagRepository.findByNameIn(any())).thenReturn(List.of(tag(1L, "java"), tag(2L, "spring")));
+
+        // Act
+        smallResolver.resolve(Set.of("java", "spring"));
+
+        // Assert
+        assertEquals(1, smallResolver.cachedTags());
+    }
+
+    @Test
+    void resolve_shouldKeepCachingNewTags_byEvictingTheLeastRecentlyUsed() {
+        // Arrange
+        TagResolver smallResolver = new TagResolver(tagRepository, tagAutocomplete, transactionManager, 2);
+        when(tagRepository.findByNameIn(Set.of("java"))).thenReturn(List.of(tag(1L, "java")));
+        when(tagRepository.findByNameIn(Set.of("spring"))).thenReturn(List.of(tag(2L, "spring")));
+        when(tagRepository.findByNameIn(Set.of("docker"))).thenReturn(List.of(tag(3L, "docker")));
+        smallResolver.resolve(Set.of("java"));
+        smallResolver.resolve(Set.of("spring"));
+        smallResolver.resolve(Set.of("java"));
+
+        // Act
+        smallResolver.resolve(Set.of("docker"));
+        smallResolver.resolve(Set.of("java", "docker"));
+        smallResolver.resolve(Set.of("spring"));
+
+        // Assert
+        verify(tagRepository, times(1)).findByNameIn(Set.of("java"));
+        verify(tagRepository, times(1)).findByNameIn(Set.of("docker"));
+        verify(tagRepository, times(2)).findByNameIn(Set.of("spring"));
+        assertEquals(2, smallResolver.cachedTags());
+    }
+
+    private static Tag tag(Long id, String name) {
+        return new Tag(id, name, new ArrayList<>());
+    }
+
+    private static Set<Long> ids(Set<Tag> tags) {
+        return tags.stream().map(Tag::getId).collect(Collectors.toSet());
+    }
+}
@@ -8,12 +8,18 @@ import es.upm.miw.foro.persistence.model.Role;
 import es.upm.miw.foro.persistence.model.Tag;
 import es.upm.miw.foro.persistence.model.User;
 import es.upm.miw.foro.persistence.repository.TagRepository;
+import es.upm.miw.foro.service.tag.TagAutocomplete;
+import es.upm.miw.foro.service.tag.TagResolver;
+import es.upm.miw.foro.service.tag.TagStatistics;
 import es.upm.miw.foro.service.impl.TagServiceImpl;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.springframework.dao.DataAccessException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -31,6 +37,15 @@ class TagServiceTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private TagResolver tagResolver;
+
+    @Mock
+    private TagStatistics tagStatistics;
+
+    @Mock
+    private TagAutocomplete tagAutocomplete;
+
     @InjectMocks
     private TagServiceImpl tagService;
 
@@ -59,10 +74,17 @@ class TagServiceTest {
         tag.setQuestions(new ArrayList<>());
     }
 
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
     @Test
     void testGetAllTags_success() {
         // Arrange
-        when(tagRepository.findAll()).thenReturn(List.of(tag));
+        when(tagStatistics.tagCounts()).thenReturn(List.of(new TagDto(1L, NAME, 3)));
 
         // Act
         List<TagDto> result = tagService.getAllTags();
@@ -71,14 +93,16 @@ class TagServiceTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(NAME, result.getFirst().getName());
+        assertEquals(3, result.getFirst().getQuestionCount());
 
-        verify(tagRepository, times(1)).findAll();
+        verify(tagStatistics, times(1)).tagCounts();
+        verify(tagRepository, never()).findAll();
     }
 
     @Test
     void testSearchTags_success() {
         // Arrange
-        when(tagRepository.findByNameContainingIgnoreCase(SEARCH_NAME)).thenReturn(List.of(tag));
+        when(tagAutocomplete.suggest(SEARCH_NAME)).thenReturn(List.of(new TagDto(1L, NAME, 3)));
 
         // Act
         List<TagDto> result = tagService.searchTags(SEARCH_NAME);
@@ -88,7 +112,7 @@ class TagServiceTest {
         assertEquals(1, result.size());
         assertEquals(NAME, result.getFirst().getName());
 
-        verify(tagRepository, times(1)).findByNameContainingIgnoreCase(SEARCH_NAME);
+        verify(tagAutocomplete, times(1)).suggest(SEARCH_NAME);
     }
 
     @Test
@@ -100,13 +124,13 @@ class TagServiceTest {
         assertNotNull(result);
         assertTrue(result.isEmpty());
 
-        verify(tagRepository, never()).findByNameContainingIgnoreCase(any());
+        verify(tagAutocomplete, never()).suggest(any());
     }
 
     @Test
     void testSearchTags_dataAccessException() {
         // Arrange
-        when(tagRepository.findByNameContainingIgnoreCase(SEARCH_NAME))
+        when(tagAutocomplete.suggest(SEARCH_NAME))
                 .thenThrow(new DataAccessException("DB error") {});
 
         // Act & Assert
@@ -115,7 +139,7 @@ class TagServiceTest {
 
         assertEquals("Error searching tags", exception.getMessage());
 
-        verify(tagRepository, times(1)).findByNameContainingIgnoreCase(SEARCH_NAME);
+        verify(tagAutocomplete, times(1)).suggest(SEARCH_NAME);
     }
 
     @Test
@@ -134,6 +158,28 @@ class TagServiceTest {
         verify(userService, times(1)).getAuthenticatedUser();
         verify(tagRepository, times(1)).findById(1L);
         verify(tagRepository, times(1)).delete(tag);
+        verify(tagResolver, times(1)).evict(tag.getName());
+        verify(tagStatistics, times(1)).tagRemoved(1L);
+        verify(tagAutocomplete, times(1)).tagRemoved(1L);
+    }
+
+    @Test
+    void testDeleteTag_shouldForgetTagAfterCommit() {
+        // Arrange
+        tag.setQuestions(new ArrayList<>());
+        when(userService.getAuthenticatedUser()).thenReturn(admin);
+        when(tagRepository.findById(1L)).thenReturn(Optional.of(tag));
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        tagService.deleteTag(1L);
+        verifyNoInteractions(tagResolver, tagStatistics, tagAutocomplete);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        // Assert
+        verify(tagResolver, times(1)).evict(tag.getName());
+        verify(tagStatistics, times(1)).tagRemoved(1L);
+        verify(tagAutocomplete, times(1)).tagRemoved(1L);
     }
 
     @Test
@@ -0,0 +1,112 @@
+package es.upm.miw.foro.service;
+
+import es.upm.miw.foro.TestConfig;
+import es.upm.miw.foro.api.dto.TagDto;
+import es.upm.miw.foro.persistence.model.Tag;
+import es.upm.miw.foro.persistence.repository.TagRepository;
+import es.upm.miw.foro.persistence.repository.projection.TagQuestionCount;
+import es.upm.miw.foro.service.tag.TagStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@TestConfig
+class TagStatisticsTest {
+
+    @Mock
+    private TagRepository tagRepository;
+
+    private TagStatistics tagStatistics;
+
+    @BeforeEach
+    void setUp() {
+        tagStatistics = new TagStatistics(tagRepository);
+        when(tagRepository.countQuestionsByTag()).thenReturn(List.of(
+                new TagQuestionCount(2L, "spring", 1L),
+                new TagQuestionCount(1L, "java", 3L)));
+    }
+
+    @Test
+    void tagCounts_shouldLoadOnceWithGroupedQuery() {
+        // Act
+        List<TagDto> first = tagStatistics.tagCounts();
+        List<TagDto> second = tagStatistics.tagCounts();
+
+        // Assert
+        assertEquals(List.of(new TagDto(1L, "java", 3), new TagDto(2L, "spring", 1)), first);
+        assertEquals(first, second);
+        verify(tagRepository, times(1)).countQuestionsByTag();
+    }
+
+    @Test
+    void membershipChanged_shouldAdjustCountsInMemory() {
+        // Arrange
+        tagStatistics.tagCounts();
+
+        // Act
+        tagStatistics.membershipChanged(Set.of(tag(1L, "java")), Set.of(tag(2L, "spring"), tag(3L, "jpa")));
+
+        // Assert
+        assertEquals(List.of(new TagDto(1L, "java", 2), new TagDto(2L, "spring", 2), new TagDto(3L, "jpa", 1)),
+                tagStatistics.tagCounts());
+        verify(tagRepository, times(1)).countQuestionsByTag();
+    }
+
+    @Test
+    void membershipChanged_shouldIgnoreUnchangedTags() {
+        // Arrange
+        tagStatistics.tagCounts();
+
+        // Act
+        tagStatistics.membershipChanged(Set.of(tag(1L, "java")), Set.of(tag(1L, "java")));
+
+        // Assert
+        assertEquals(3, tagStatistics.tagCounts().getFirst().getQuestionCount());
+    }
+
+    @Test
+    void membershipChanged_shouldNotLoad_whenCountsAreNotLoaded() {
+        // Act
+        tagStatistics.membershipChanged(Set.of(), Set.of(tag(1L, "java")));
+
+        // Assert
+        verify(tagRepository, never()).countQuestionsByTag();
+    }
+
+    @Test
+    void tagRemoved_shouldDropTag() {
+        // Arrange
+        tagStatistics.tagCounts();
+
+        // Act
+        tagStatistics.tagRemoved(1L);
+
+        // Assert
+        assertEquals(List.of(new TagDto(2L, "spring", 1)), tagStatistics.tagCounts());
+    }
+
+    @Test
+    void refresh_shouldReloadCounts() {
+        // Arrange
+        tagStatistics.tagCounts();
+        tagStatistics.membershipChanged(Set.of(), Set.of(tag(1L, "java")));
+
+        // Act
+        tagStatistics.refresh();
+
+        // Assert
+        assertEquals(3, tagStatistics.tagCounts().getFirst().getQuestionCount());
+        verify(tagRepository, times(2)).countQuestionsByTag();
+    }
+
+    private static Tag tag(Long id, String name) {
+        return new Tag(id, name, new ArrayList<>());
+    }
+}
@@ -0,0 +1,97 @@
+package es.upm.miw.foro.service;
+
+import es.upm.miw.foro.persistence.repository.NotificationRepository;
+import es.upm.miw.foro.service.notification.UnreadNotificationCounter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+class UnreadNotificationCounterTest {
+
+    private static final Long USER_ID = 1L;
+
+    private NotificationRepository notificationRepository;
+    private UnreadNotificationCounter unreadNotificationCounter;
+
+    @BeforeEach
+    void setUp() {
+        notificationRepository = mock(NotificationRepository.class);
+        unreadNotificationCounter = new UnreadNotificationCounter(notificationRepository, Duration.ofMinutes(5));
+        when(notificationRepository.countByUserIdAndReadFalse(USER_ID)).thenReturn(3L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void unread_shouldCountOnce_andApplyChanges() {
+        // Act
+        long initial = unreadNotificationCounter.unread(USER_ID);
+        unreadNotificationCounter.added(USER_ID);
+        unreadNotificationCounter.read(USER_ID, 2);
+        long updated = unreadNotificationCounter.unread(USER_ID);
+
+        // Assert
+        assertEquals(3L, initial);
+        assertEquals(2L, updated);
+        verify(notificationRepository, times(1)).countByUserIdAndReadFalse(USER_ID);
+    }
+
+    @Test
+    void added_shouldWaitForCommit_whenTransactionIsActive() {
+        // Arrange
+        unreadNotificationCounter.unread(USER_ID);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        unreadNotificationCounter.added(USER_ID);
+        long beforeCommit = unreadNotificationCounter.unread(USER_ID);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        long afterCommit = unreadNotificationCounter.unread(USER_ID);
+
+        // Assert
+        assertEquals(3L, beforeCommit);
+        assertEquals(4L, afterCommit);
+    }
+
+    @Test
+    void evict_shouldReloadCount() {
+        // Arrange
+        unreadNotificationCounter.unread(USER_ID);
+        when(notificationRepository.countByUserIdAndReadFalse(USER_ID)).thenReturn(0L);
+
+        // Act
+        unreadNotificationCounter.evict(List.of(USER_ID));
+        long unread = unreadNotificationCounter.unread(USER_ID);
+
+        // Assert
+        assertEquals(0L, unread);
+        verify(notificationRepository, times(2)).countByUserIdAndReadFalse(USER_ID);
+    }
+
+    @Test
+    void unread_shouldReload_whenTtlElapsed() {
+        // Arrange
+        UnreadNotificationCounter expiringCounter = new UnreadNotificationCounter(notificationRepository, Duration.ZERO);
+        expiringCounter.unread(USER_ID);
+
+        // Act
+        expiringCounter.evictExpired();
+        expiringCounter.unread(USER_ID);
+
+        // Assert
+        verify(notificationRepository, times(2)).countByUserIdAndReadFalse(USER_ID);
+    }
+}
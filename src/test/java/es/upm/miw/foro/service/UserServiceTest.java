@@ -13,6 +13,9 @@ import es.upm.miw.foro.persistence.repository.QuestionRepository;
 import es.upm.miw.foro.persistence.repository.UserRepository;
 import es.upm.miw.foro.service.impl.JwtServiceImpl;
 import es.upm.miw.foro.service.impl.UserServiceImpl;
+import es.upm.miw.foro.service.notification.UnreadNotificationCounter;
+import es.upm.miw.foro.service.principal.PrincipalCache;
+import es.upm.miw.foro.service.principal.UserPrincipal;
 import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -57,6 +60,12 @@ class UserServiceTest {
     @Mock
     private JwtServiceImpl jwtServiceImpl;
 
+    @Mock
+    private PrincipalCache principalCache;
+
+    @Mock
+    private UnreadNotificationCounter unreadNotificationCounter;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -78,6 +87,8 @@ class UserServiceTest {
 
     @BeforeEach
     void setUp() {
+        when(principalCache.byEmail(anyString())).thenAnswer(invocation ->
+                userRepository.findByEmail(invocation.getArgument(0)).map(UserPrincipal::of));
         UserDto userDto = new UserDto();
         userDto.setId(USER_ID);
         userDto.setFirstName(FIRST_NAME);
@@ -503,6 +514,7 @@ class UserServiceTest {
     void testLogin_success() {
         user = new User();
         user.setId(USER_ID);
+        user.setUserName(USERNAME);
         user.setEmail(EMAIL);
         user.setPassword(ENCODED_PASSWORD);
         user.setFirstName(FIRST_NAME);
@@ -515,6 +527,7 @@ class UserServiceTest {
                 USER_ID,
                 FIRST_NAME,
                 LAST_NAME,
+                USERNAME,
                 EMAIL,
                 Role.ADMIN.name()
         )).thenReturn("jwtToken");
@@ -530,6 +543,7 @@ class UserServiceTest {
                 USER_ID,
                 FIRST_NAME,
                 LAST_NAME,
+                USERNAME,
                 EMAIL,
                 Role.ADMIN.name()
         );
@@ -549,7 +563,7 @@ class UserServiceTest {
         when(passwordEncoder.matches(PASSWORD, PASSWORD)).thenReturn(false);
         when(passwordEncoder.encode(PASSWORD)).thenReturn(ENCODED_PASSWORD);
         when(userRepository.save(any(User.class))).thenReturn(user);
-        when(jwtServiceImpl.createToken(USER_ID, FIRST_NAME, LAST_NAME, EMAIL, Role.MEMBER.name())).thenReturn("jwtToken");
+        when(jwtServiceImpl.createToken(USER_ID, FIRST_NAME, LAST_NAME, USERNAME, EMAIL, Role.MEMBER.name())).thenReturn("jwtToken");
 
         // Act
         String token = userService.login(EMAIL, PASSWORD);
@@ -897,6 +911,7 @@ class UserServiceTest {
         verify(passwordEncoder, times(1)).encode("newPassword");
         verify(validator, times(1)).validate(any(UserDto.class), eq(UserValidation.class));
         verify(userRepository, times(1)).save(any(User.class));
+        verify(principalCache, times(1)).invalidate(USER_ID);
     }
 
     @Test
@@ -919,24 +934,21 @@ class UserServiceTest {
         SecurityContextHolder.setContext(securityContext);
 
         when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(authenticatedUser));
-        when(userRepository.existsById(USER_ID)).thenReturn(true);
         when(userRepository.findById(USER_ID)).thenReturn(Optional.of(userToDelete));
 
-        when(questionRepository.existsByAuthorId(USER_ID)).thenReturn(false);
-        when(answerRepository.existsByAuthorId(USER_ID)).thenReturn(false);
-
         doNothing().when(notificationRepository).deleteByUserId(USER_ID);
-        doNothing().when(userRepository).deleteById(USER_ID);
+        doNothing().when(userRepository).delete(userToDelete);
 
         assertDoesNotThrow(() -> userService.deleteUser(USER_ID));
 
         // Verify
-        verify(userRepository, times(1)).existsById(USER_ID);
         verify(userRepository, times(1)).findById(USER_ID);
-        verify(questionRepository, times(1)).existsByAuthorId(USER_ID);
-        verify(answerRepository, times(1)).existsByAuthorId(USER_ID);
+        verify(userRepository, never()).existsById(USER_ID);
+        verify(questionRepository, never()).existsByAuthorId(USER_ID);
+        verify(answerRepository, never()).existsByAuthorId(USER_ID);
         verify(notificationRepository, times(1)).deleteByUserId(USER_ID);
-        verify(userRepository, times(1)).deleteById(USER_ID);
+        verify(userRepository, times(1)).delete(userToDelete);
+        verify(principalCache, times(1)).invalidate(USER_ID);
     }
 
     @Test
@@ -960,16 +972,12 @@ class UserServiceTest {
         SecurityContextHolder.setContext(securityContext);
 
         when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(authenticatedUser));
-        when(userRepository.existsById(USER_ID)).thenReturn(true);
         when(userRepository.findById(USER_ID)).thenReturn(Optional.of(userToDelete));
 
-        when(questionRepository.existsByAuthorId(USER_ID)).thenReturn(true);
-        when(answerRepository.existsByAuthorId(USER_ID)).thenReturn(true);
-
         doNothing().when(questionRepository).updateAuthorId(USER_ID, 0L);
         doNothing().when(answerRepository).updateAuthorId(USER_ID, 0L);
         doNothing().when(notificationRepository).deleteByUserId(USER_ID);
-        doNothing().when(userRepository).deleteById(USER_ID);
+        doNothing().when(userRepository).delete(userToDelete);
 
         // Act & Assert
         assertDoesNotThrow(() -> userService.deleteUser(USER_ID));
@@ -977,14 +985,14 @@ class UserServiceTest {
         // Verify
         verify(questionRepository, times(1)).updateAuthorId(USER_ID, 0L);
         verify(answerRepository, times(1)).updateAuthorId(USER_ID, 0L);
-        verify(userRepository, times(1)).deleteById(USER_ID);
+        verify(userRepository, times(1)).delete(userToDelete);
     }
 
     @Test
     void testDeleteUser_notFound() {
         setupAuthentication();
 
-        when(userRepository.existsById(USER_ID)).thenReturn(false);
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.empty());
 
         ServiceException exception = assertThrows(ServiceException.class, () -> userService.deleteUser(USER_ID));
         assertEquals("User with id " + USER_ID + " not found", exception.getMessage());
@@ -1079,6 +1087,37 @@ class UserServiceTest {
         assertEquals("Authenticated user not found", exception.getMessage());
     }
 
+    @Test
+    void getAuthenticatedUserId_shouldReadTokenPrincipal_withoutLoadingUser() {
+        // Arrange
+        Authentication authentication = mock(Authentication.class);
+        SecurityContext securityContext = mock(SecurityContext.class);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.getPrincipal())
+                .thenReturn(new UserPrincipal(USER_ID, EMAIL, "user", "First", "Last", Role.MEMBER));
+        SecurityContextHolder.setContext(securityContext);
+
+        // Act
+        Long id = userService.getAuthenticatedUserId();
+
+        // Assert
+        assertEquals(USER_ID, id);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void getAuthenticatedUserId_shouldLoadUser_whenPrincipalHasNoId() {
+        // Arrange
+        setupAuthentication();
+
+        // Act
+        Long id = userService.getAuthenticatedUserId();
+
+        // Assert
+        assertEquals(USER_ID, id);
+        verify(userRepository).findByEmail(EMAIL);
+    }
+
     private void setupAuthentication() {
         User authenticatedUser = new User();
         authenticatedUser.setId(USER_ID);
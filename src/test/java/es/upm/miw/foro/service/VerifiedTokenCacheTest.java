@@ -0,0 +1,118 @@
+package es.upm.miw.foro.service;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import es.upm.miw.foro.service.principal.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class VerifiedTokenCacheTest {
+
+    private static final String TOKEN = "header.payload.signature";
+
+    private final AtomicInteger verifications = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        verifiedTokenCache = new VerifiedTokenCache(2, meterRegistry);
+    }
+
+    @Test
+    void verify_shouldSkipVerification_whenTokenWasVerified() {
+        // Arrange
+        DecodedJWT jwt = jwtExpiringAt(Instant.now().plusSeconds(60));
+        Function<String, Optional<DecodedJWT>> verifier = verifier(Optional.of(jwt));
+
+        // Act
+        Optional<DecodedJWT> first = verifiedTokenCache.verify(TOKEN, verifier);
+        Optional<DecodedJWT> second = verifiedTokenCache.verify(TOKEN, verifier);
+
+        // Assert
+        assertSame(jwt, first.orElseThrow());
+        assertSame(jwt, second.orElseThrow());
+        assertEquals(1, verifications.get());
+        assertEquals(1, meterRegistry.get("miw.jwt.cache").tag("result", "hit").counter().count());
+        assertEquals(1, meterRegistry.get("miw.jwt.cache").tag("result", "miss").counter().count());
+        assertEquals(1, meterRegistry.get("miw.jwt.verification").timer().count());
+    }
+
+    @Test
+    void verify_shouldNotCache_whenTokenIsInvalid() {
+        // Arrange
+        Function<String, Optional<DecodedJWT>> verifier = verifier(Optional.empty());
+
+        // Act
+        verifiedTokenCache.verify(TOKEN, verifier);
+        Optional<DecodedJWT> result = verifiedTokenCache.verify(TOKEN, verifier);
+
+        // Assert
+        assertTrue(result.isEmpty());
+        assertEquals(2, verifications.get());
+        assertEquals(0, verifiedTokenCache.size());
+    }
+
+    @Test
+    void verify_shouldVerifyAgain_whenCachedTokenExpired() throws InterruptedException {
+        // Arrange
+        Function<String, Optional<DecodedJWT>> verifier = verifier(Optional.of(jwtExpiringAt(Instant.now().plusMillis(20))));
+        verifiedTokenCache.verify(TOKEN, verifier);
+        Thread.sleep(50);
+
+        // Act
+        verifiedTokenCache.verify(TOKEN, verifier);
+
+        // Assert
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    void verify_shouldNotCache_whenTokenHasNoExpiry() {
+        // Arrange
+        Function<String, Optional<DecodedJWT>> verifier = verifier(Optional.of(jwtExpiringAt(null)));
+
+        // Act
+        verifiedTokenCache.verify(TOKEN, verifier);
+
+        // Assert
+        assertEquals(0, verifiedTokenCache.size());
+    }
+
+    @Test
+    void verify_shouldStayBounded() {
+        // Arrange
+        Function<String, Optional<DecodedJWT>> verifier = verifier(Optional.of(jwtExpiringAt(Instant.now().plusSeconds(60))));
+
+        // Act
+        verifiedTokenCache.verify("a.b.c", verifier);
+        verifiedTokenCache.verify("d.e.f", verifier);
+        verifiedTokenCache.verify("g.h.i", verifier);
+
+        // Assert
+        assertEquals(2, verifiedTokenCache.size());
+    }
+
+    private Function<String, Optional<DecodedJWT>> verifier(Optional<DecodedJWT> result) {
+        return token -> {
+            verifications.incrementAndGet();
+            return result;
+        };
+    }
+
+    private static DecodedJWT jwtExpiringAt(Instant expiresAt) {
+        DecodedJWT jwt = mock(DecodedJWT.class);
+        when(jwt.getExpiresAtAsInstant()).thenReturn(expiresAt);
+        return jwt;
+    }
+}
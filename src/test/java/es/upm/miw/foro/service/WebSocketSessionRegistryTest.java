@@ -0,0 +1,133 @@
+package es.upm.miw.foro.service;
+
+import es.upm.miw.foro.service.delivery.WebSocketSessionRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class WebSocketSessionRegistryTest {
+
+    private static final long TIMEOUT_MILLIS = 5000;
+    private static final String SESSION_ID = "session-1";
+
+    private SimpleMeterRegistry meterRegistry;
+    private WebSocketHandler stompHandler;
+    private WebSocketSession session;
+    private WebSocketHandler handler;
+    private WebSocketSessionRegistry webSocketSessionRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        stompHandler = mock(WebSocketHandler.class);
+        session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(SESSION_ID);
+        webSocketSessionRegistry = new WebSocketSessionRegistry(meterRegistry, Duration.ZERO);
+        handler = webSocketSessionRegistry.decorate(stompHandler);
+    }
+
+    @Test
+    void decorate_shouldCountOpenSessions() throws Exception {
+        // Act
+        handler.afterConnectionEstablished(session);
+        int connected = webSocketSessionRegistry.connectedCount();
+        handler.afterConnectionClosed(session, CloseStatus.NORMAL);
+
+        // Assert
+        assertEquals(1, connected);
+        assertEquals(0, webSocketSessionRegistry.connectedCount());
+        assertEquals(0, meterRegistry.get("miw.websocket.sessions").gauge().value());
+        verify(stompHandler).afterConnectionClosed(argThat(tracked -> SESSION_ID.equals(tracked.getId())),
+                eq(CloseStatus.NORMAL));
+    }
+
+    @Test
+    void evictSlowConsumers_shouldCloseSessionsStuckInASend() throws Exception {
+        // Arrange
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            sending.countDown();
+            release.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            return null;
+        }).when(session).sendMessage(any());
+        handler.afterConnectionEstablished(session);
+        WebSocketSession tracked = trackedSession();
+        Thread sender = Thread.ofVirtual().start(() -> send(tracked));
+        sending.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+
+        // Act
+        webSocketSessionRegistry.evictSlowConsumers();
+        webSocketSessionRegistry.evictSlowConsumers();
+
+        // Assert
+        verify(session, timeout(TIMEOUT_MILLIS)).close(CloseStatus.SESSION_NOT_RELIABLE);
+        assertEquals(1, evictions("stalled"));
+        release.countDown();
+        sender.join(TIMEOUT_MILLIS);
+        handler.afterConnectionClosed(session, CloseStatus.SESSION_NOT_RELIABLE);
+        assertEquals(0, evictions("overflow"));
+    }
+
+    @Test
+    void evictSlowConsumers_shouldIgnoreIdleSessions() throws Exception {
+        // Arrange
+        handler.afterConnectionEstablished(session);
+        send(trackedSession());
+
+        // Act
+        webSocketSessionRegistry.evictSlowConsumers();
+
+        // Assert
+        verify(session, never()).close(any());
+        assertEquals(1, meterRegistry.get("miw.websocket.send").timer().count());
+    }
+
+    @Test
+    void afterConnectionClosed_shouldCountBufferOverflows() throws Exception {
+        // Arrange
+        handler.afterConnectionEstablished(session);
+
+        // Act
+        handler.afterConnectionClosed(session, CloseStatus.SESSION_NOT_RELIABLE);
+
+        // Assert
+        assertEquals(1, evictions("overflow"));
+        assertEquals(0, evictions("stalled"));
+    }
+
+    private WebSocketSession trackedSession() throws Exception {
+        AtomicReference<WebSocketSession> tracked = new AtomicReference<>();
+        verify(stompHandler).afterConnectionEstablished(argThat(candidate -> {
+            tracked.set(candidate);
+            return true;
+        }));
+        return tracked.get();
+    }
+
+    private static void send(WebSocketSession tracked) {
+        try {
+            tracked.sendMessage(new TextMessage("MESSAGE"));
+        } catch (Exception exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    private double evictions(String reason) {
+        return meterRegistry.get("miw.websocket.evictions").tag("reason", reason).counter().count();
+    }
+}